@@ -0,0 +1,19 @@
+-- V4: Pooled id sequences for accounts and transactions
+--
+-- A BIGSERIAL id is only known once its row is inserted, so Hibernate
+-- (GenerationType.IDENTITY) has to run each INSERT on its own to read it
+-- back, and JDBC batching is silently off. These sequences step by 50, the
+-- entities' allocationSize: one nextval reserves 50 ids (pooled-lo, the
+-- value read is the first of them) and the INSERTs go out in batches.
+-- Plain SQL inserts (seed data, scripts) still get an id from the column
+-- default; each takes one nextval, which no other block can overlap.
+
+CREATE SEQUENCE accounts_seq INCREMENT BY 50 OWNED BY accounts.id;
+SELECT setval('accounts_seq', COALESCE(MAX(id), 0) + 1, false) FROM accounts;
+ALTER TABLE accounts ALTER COLUMN id SET DEFAULT nextval('accounts_seq');
+DROP SEQUENCE accounts_id_seq;
+
+CREATE SEQUENCE transactions_seq INCREMENT BY 50 OWNED BY transactions.id;
+SELECT setval('transactions_seq', COALESCE(MAX(id), 0) + 1, false) FROM transactions;
+ALTER TABLE transactions ALTER COLUMN id SET DEFAULT nextval('transactions_seq');
+DROP SEQUENCE transactions_id_seq;
@@ -0,0 +1,64 @@
+-- V5: Range-partition transactions by month
+--
+-- Each month's rows live in their own partition (transactions_pYYYYMM), so
+-- an insert only maintains the indexes of one small table and a month past
+-- retention leaves with DETACH/DROP PARTITION instead of a DELETE. The rows
+-- already there stay where they are, as transactions_legacy.
+--
+-- Every key on a partitioned table has to include the partition column, so
+-- the primary key becomes (id, timestamp) and the transaction_id key
+-- (transaction_id, timestamp). Ids come from transactions_seq and
+-- transaction IDs are unique by construction; PostgreSQL just no longer
+-- checks them across partitions.
+--
+-- Same layout as the application creates with transfer.partitioning.enabled,
+-- which then keeps the next months created.
+
+-- Indexes the partitioned table does without: the single-column ones are
+-- covered by the keys and the (upi, timestamp) indexes, and the "recent"
+-- one froze CURRENT_TIMESTAMP at creation and only grew since
+DROP INDEX idx_transactions_recent;
+DROP INDEX idx_transactions_txn_id;
+DROP INDEX idx_transactions_source_upi;
+DROP INDEX idx_transactions_dest_upi;
+DROP INDEX idx_transactions_status;
+DROP INDEX idx_transactions_timestamp;
+
+ALTER TABLE transactions RENAME TO transactions_legacy;
+
+CREATE TABLE transactions (
+    LIKE transactions_legacy INCLUDING DEFAULTS INCLUDING CONSTRAINTS,
+    
+    PRIMARY KEY (id, timestamp),
+    UNIQUE (transaction_id, timestamp),
+    CONSTRAINT fk_transactions_source_upi FOREIGN KEY (source_upi) REFERENCES accounts(upi_id),
+    CONSTRAINT fk_transactions_destination_upi FOREIGN KEY (destination_upi) REFERENCES accounts(upi_id)
+) PARTITION BY RANGE (timestamp);
+
+ALTER SEQUENCE transactions_seq OWNED BY transactions.id;
+
+-- Per-partition indexes; ATTACH reuses the legacy table's matching ones
+CREATE INDEX idx_transactions_p_source_timestamp ON transactions(source_upi, timestamp DESC);
+CREATE INDEX idx_transactions_p_dest_timestamp ON transactions(destination_upi, timestamp DESC);
+CREATE INDEX idx_transactions_p_failed ON transactions(status, timestamp) WHERE status = 'FAILED';
+CREATE INDEX idx_transactions_p_pending ON transactions(id) WHERE status = 'PENDING';
+
+-- Existing rows: everything before next month
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', CURRENT_DATE);
+BEGIN
+    EXECUTE format(
+        'ALTER TABLE transactions ATTACH PARTITION transactions_legacy FOR VALUES FROM (MINVALUE) TO (%L)',
+        month_start + INTERVAL '1 month');
+    
+    -- Next month plus two ahead
+    FOR i IN 1..3 LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+            'transactions_p' || to_char(month_start + i * INTERVAL '1 month', 'YYYYMM'),
+            month_start + i * INTERVAL '1 month',
+            month_start + (i + 1) * INTERVAL '1 month');
+    END LOOP;
+END $$;
+
+COMMENT ON TABLE transactions IS 'UPI money transfer transactions, partitioned by month';
@@ -0,0 +1,7 @@
+-- V6: Optimistic locking version for accounts
+--
+-- The application maps accounts.version as a JPA @Version. Hibernate
+-- increments it on every update and cannot start from NULL, so existing
+-- rows (including the V100 seed accounts) get 0 and new ones default to it.
+
+ALTER TABLE accounts ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,8 @@
+-- V7: Index PENDING transactions by age
+--
+-- Async workers claim PENDING rows ORDER BY "timestamp", id. Pooled ids
+-- (V4) are handed out in blocks per instance, so id order is not arrival
+-- order and V5's index on (id) no longer matches the claim query.
+
+DROP INDEX idx_transactions_p_pending;
+CREATE INDEX idx_transactions_p_pending ON transactions(timestamp, id) WHERE status = 'PENDING';
@@ -0,0 +1,115 @@
+package com.npci.transfer.repository;
+
+import com.npci.transfer.entity.Account;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Plain-JDBC Account Repository Implementation
+ * 
+ * Another AccountRepository implementation (Liskov Substitution in action):
+ * TransferService does not change, only the wiring does.
+ * 
+ * Compared to JpaAccountRepository there is no persistence context,
+ * no merge and no dirty checking - rows are mapped straight into Account
+ * objects and balance changes are written as guarded delta updates,
+ * batched until commit (see JdbcWriteBatch).
+ * 
+ * Enabled with: transfer.repository.type=jdbc
+ * 
+ * Note: for existing accounts save() writes the balance only,
+ * which is the only column the transfer flow changes.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "transfer.repository.type", havingValue = "jdbc")
+public class JdbcAccountRepository implements AccountRepository {
+    
+    private static final String SELECT_BY_UPI_SQL =
+        "SELECT id, upi_id, phone, balance, daily_limit, daily_used, monthly_limit, "
+            + "monthly_used, status FROM accounts WHERE upi_id = ?";
+    
+    private static final String INSERT_SQL =
+        "INSERT INTO accounts (upi_id, phone, balance, daily_limit, daily_used, "
+            + "monthly_limit, monthly_used, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String UPDATE_BALANCE_SQL =
+        "UPDATE accounts SET balance = ? WHERE id = ?";
+    
+    private static final String DELETE_SQL = "DELETE FROM accounts WHERE id = ?";
+    
+    private static final RowMapper<Account> ACCOUNT_ROW_MAPPER = (rs, rowNum) -> new Account(
+        rs.getLong("id"),
+        rs.getString("upi_id"),
+        rs.getString("phone"),
+        rs.getBigDecimal("balance"),
+        rs.getBigDecimal("daily_limit"),
+        rs.getBigDecimal("daily_used"),
+        rs.getBigDecimal("monthly_limit"),
+        rs.getBigDecimal("monthly_used"),
+        rs.getString("status"));
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public Optional<Account> findByUpiId(String upiId) {
+        List<Account> accounts = jdbcTemplate.query(SELECT_BY_UPI_SQL, ACCOUNT_ROW_MAPPER, upiId);
+        if (accounts.isEmpty()) {
+            return Optional.empty();
+        }
+        
+        Account account = accounts.get(0);
+        JdbcWriteBatch batch = JdbcWriteBatch.current(jdbcTemplate);
+        if (batch != null) {
+            batch.trackLoaded(account);
+        }
+        return Optional.of(account);
+    }
+    
+    @Override
+    public Account save(Account account) {
+        if (account.getId() == null) {
+            return insert(account);
+        }
+        
+        JdbcWriteBatch batch = JdbcWriteBatch.current(jdbcTemplate);
+        if (batch != null && batch.isTracked(account)) {
+            batch.queueBalanceUpdate(account);
+        } else {
+            jdbcTemplate.update(UPDATE_BALANCE_SQL, account.getBalance(), account.getId());
+        }
+        return account;
+    }
+    
+    @Override
+    public void delete(Account account) {
+        jdbcTemplate.update(DELETE_SQL, account.getId());
+    }
+    
+    private Account insert(Account account) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_SQL, new String[] {"id"});
+            ps.setString(1, account.getUpiId());
+            ps.setString(2, account.getPhone());
+            ps.setBigDecimal(3, account.getBalance());
+            ps.setBigDecimal(4, account.getDailyLimit());
+            ps.setBigDecimal(5, account.getDailyUsed());
+            ps.setBigDecimal(6, account.getMonthlyLimit());
+            ps.setBigDecimal(7, account.getMonthlyUsed());
+            ps.setString(8, account.getStatus());
+            return ps;
+        }, keyHolder);
+        account.setId(keyHolder.getKey().longValue());
+        return account;
+    }
+}
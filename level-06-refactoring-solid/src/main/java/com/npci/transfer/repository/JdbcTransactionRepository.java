@@ -0,0 +1,76 @@
+package com.npci.transfer.repository;
+
+import com.npci.transfer.entity.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Plain-JDBC Transaction Repository Implementation
+ * 
+ * Inserts are queued and sent in the same pre-commit flush as the
+ * balance updates of JdbcAccountRepository (see JdbcWriteBatch).
+ * 
+ * Enabled with: transfer.repository.type=jdbc
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "transfer.repository.type", havingValue = "jdbc")
+public class JdbcTransactionRepository implements TransactionRepository {
+    
+    private static final String SELECT_BY_TXN_ID_SQL =
+        "SELECT id, transaction_id, source_upi, destination_upi, amount, fee, total_debited, "
+            + "status, remarks, timestamp FROM transactions WHERE transaction_id = ?";
+    
+    private static final String INSERT_SQL =
+        "INSERT INTO transactions (transaction_id, source_upi, destination_upi, amount, "
+            + "fee, total_debited, status, remarks, timestamp) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final RowMapper<Transaction> TRANSACTION_ROW_MAPPER = (rs, rowNum) -> new Transaction(
+        rs.getLong("id"),
+        rs.getString("transaction_id"),
+        rs.getString("source_upi"),
+        rs.getString("destination_upi"),
+        rs.getBigDecimal("amount"),
+        rs.getBigDecimal("fee"),
+        rs.getBigDecimal("total_debited"),
+        rs.getString("status"),
+        rs.getString("remarks"),
+        rs.getObject("timestamp", LocalDateTime.class));
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public Optional<Transaction> findByTransactionId(String transactionId) {
+        List<Transaction> transactions =
+            jdbcTemplate.query(SELECT_BY_TXN_ID_SQL, TRANSACTION_ROW_MAPPER, transactionId);
+        return transactions.isEmpty() ? Optional.empty() : Optional.of(transactions.get(0));
+    }
+    
+    @Override
+    public Transaction save(Transaction transaction) {
+        JdbcWriteBatch batch = JdbcWriteBatch.current(jdbcTemplate);
+        if (batch != null) {
+            batch.queueInsert(transaction);
+        } else {
+            jdbcTemplate.update(INSERT_SQL,
+                transaction.getTransactionId(),
+                transaction.getSourceUPI(),
+                transaction.getDestinationUPI(),
+                transaction.getAmount(),
+                transaction.getFee(),
+                transaction.getTotalDebited(),
+                transaction.getStatus(),
+                transaction.getRemarks(),
+                transaction.getTimestamp());
+        }
+        return transaction;
+    }
+}
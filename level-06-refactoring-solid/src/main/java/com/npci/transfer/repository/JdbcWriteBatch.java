@@ -0,0 +1,157 @@
+package com.npci.transfer.repository;
+
+import com.npci.transfer.entity.Account;
+import com.npci.transfer.entity.Transaction;
+import com.npci.transfer.exception.AccountNotFoundException;
+import com.npci.transfer.exception.InsufficientBalanceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pending JDBC writes of the current Spring transaction
+ * 
+ * Shared by JdbcAccountRepository and JdbcTransactionRepository.
+ * save() calls are queued here and sent right before commit:
+ * - all balance updates as ONE prepared-statement batch
+ * - all transaction inserts as ONE prepared-statement batch
+ * 
+ * Balance updates are written as deltas with a guard
+ * (UPDATE ... SET balance = balance + ? WHERE id = ? AND balance >= ?),
+ * so a concurrent debit can never push a balance below zero.
+ */
+class JdbcWriteBatch implements TransactionSynchronization {
+    
+    private static final Object RESOURCE_KEY = JdbcWriteBatch.class;
+    
+    private static final String UPDATE_BALANCE_SQL =
+        "UPDATE accounts SET balance = balance + ? WHERE id = ? AND balance >= ?";
+    
+    private static final String INSERT_TRANSACTION_SQL =
+        "INSERT INTO transactions (transaction_id, source_upi, destination_upi, amount, "
+            + "fee, total_debited, status, remarks, timestamp) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, BigDecimal> loadedBalances = new HashMap<>();
+    private final Map<Long, Account> pendingAccounts = new LinkedHashMap<>();
+    private final List<Transaction> pendingTransactions = new ArrayList<>();
+    
+    private JdbcWriteBatch(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    /**
+     * Returns the batch bound to the current transaction, creating it on first use.
+     * 
+     * @return Current batch, or null when no transaction is active (write immediately)
+     */
+    static JdbcWriteBatch current(JdbcTemplate jdbcTemplate) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        JdbcWriteBatch batch = (JdbcWriteBatch) TransactionSynchronizationManager.getResource(RESOURCE_KEY);
+        if (batch == null) {
+            batch = new JdbcWriteBatch(jdbcTemplate);
+            TransactionSynchronizationManager.bindResource(RESOURCE_KEY, batch);
+            TransactionSynchronizationManager.registerSynchronization(batch);
+        }
+        return batch;
+    }
+    
+    /**
+     * Remembers the balance an account had when it was read, to compute the delta on flush.
+     */
+    void trackLoaded(Account account) {
+        loadedBalances.putIfAbsent(account.getId(), account.getBalance());
+    }
+    
+    boolean isTracked(Account account) {
+        return loadedBalances.containsKey(account.getId());
+    }
+    
+    void queueBalanceUpdate(Account account) {
+        pendingAccounts.put(account.getId(), account);
+    }
+    
+    void queueInsert(Transaction transaction) {
+        pendingTransactions.add(transaction);
+    }
+    
+    @Override
+    public void beforeCommit(boolean readOnly) {
+        flushBalanceUpdates();
+        flushInserts();
+    }
+    
+    @Override
+    public void afterCompletion(int status) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(RESOURCE_KEY);
+    }
+    
+    private void flushBalanceUpdates() {
+        List<Account> changed = new ArrayList<>(pendingAccounts.size());
+        List<Object[]> batchArgs = new ArrayList<>(pendingAccounts.size());
+        
+        for (Account account : pendingAccounts.values()) {
+            BigDecimal delta = account.getBalance().subtract(loadedBalances.get(account.getId()));
+            if (delta.signum() == 0) {
+                continue;
+            }
+            // Debits must find at least the debited amount; credits only need the row
+            BigDecimal required = delta.signum() < 0 ? delta.negate() : BigDecimal.ZERO;
+            changed.add(account);
+            batchArgs.add(new Object[] {delta, account.getId(), required});
+        }
+        
+        if (batchArgs.isEmpty()) {
+            return;
+        }
+        
+        int[] updateCounts = jdbcTemplate.batchUpdate(UPDATE_BALANCE_SQL, batchArgs);
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == 0) {
+                throw guardFailure(changed.get(i), (BigDecimal) batchArgs.get(i)[0]);
+            }
+        }
+    }
+    
+    private void flushInserts() {
+        if (pendingTransactions.isEmpty()) {
+            return;
+        }
+        
+        List<Object[]> batchArgs = new ArrayList<>(pendingTransactions.size());
+        for (Transaction transaction : pendingTransactions) {
+            batchArgs.add(new Object[] {
+                transaction.getTransactionId(),
+                transaction.getSourceUPI(),
+                transaction.getDestinationUPI(),
+                transaction.getAmount(),
+                transaction.getFee(),
+                transaction.getTotalDebited(),
+                transaction.getStatus(),
+                transaction.getRemarks(),
+                transaction.getTimestamp()
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, batchArgs);
+    }
+    
+    private RuntimeException guardFailure(Account account, BigDecimal delta) {
+        if (delta.signum() < 0) {
+            return new InsufficientBalanceException(String.format(
+                "Insufficient balance. Concurrent debit left less than ₹%s on %s",
+                delta.negate(), account.getUpiId()));
+        }
+        return new AccountNotFoundException(
+            String.format("Account no longer exists: %s", account.getUpiId()));
+    }
+}
@@ -3,6 +3,7 @@ package com.npci.transfer.repository;
 import com.npci.transfer.entity.Account;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -18,6 +19,7 @@ import java.util.Optional;
  * This is the low-level module that depends on the AccountRepository abstraction
  */
 @Repository
+@ConditionalOnProperty(name = "transfer.repository.type", havingValue = "jpa", matchIfMissing = true)
 public class JpaAccountRepository implements AccountRepository {
     
     @PersistenceContext
@@ -3,6 +3,7 @@ package com.npci.transfer.repository;
 import com.npci.transfer.entity.Transaction;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,6 +13,7 @@ import java.util.Optional;
  * JPA Transaction Repository Implementation
  */
 @Repository
+@ConditionalOnProperty(name = "transfer.repository.type", havingValue = "jpa", matchIfMissing = true)
 public class JpaTransactionRepository implements TransactionRepository {
     
     @PersistenceContext
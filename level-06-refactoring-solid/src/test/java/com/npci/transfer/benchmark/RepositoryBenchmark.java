@@ -0,0 +1,128 @@
+package com.npci.transfer.benchmark;
+
+import com.npci.transfer.entity.Account;
+import com.npci.transfer.entity.Transaction;
+import com.npci.transfer.repository.AccountRepository;
+import com.npci.transfer.repository.TransactionRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Repository Benchmark: JPA vs plain JDBC
+ * 
+ * Measures the transfer hot path as TransferService drives it -
+ * load two accounts, save both, insert one transaction, commit -
+ * once per repository implementation (transfer.repository.type).
+ * 
+ * Run with: mvn test-compile exec:exec -Pbenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+    
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+    
+    @Param({"jpa", "jdbc"})
+    private String repositoryType;
+    
+    private final AtomicLong sequence = new AtomicLong();
+    
+    private ConfigurableApplicationContext context;
+    private AccountRepository accountRepository;
+    private TransactionRepository transactionRepository;
+    private TransactionTemplate transactionTemplate;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SpringApplication.run(BenchmarkApplication.class,
+            "--transfer.repository.type=" + repositoryType,
+            "--spring.main.web-application-type=none",
+            "--spring.jpa.show-sql=false",
+            "--logging.level.root=WARN",
+            "--logging.level.com.npci.transfer=WARN",
+            "--logging.level.org.hibernate.SQL=WARN");
+        accountRepository = context.getBean(AccountRepository.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            accountRepository.save(account("alice@okaxis"));
+            accountRepository.save(account("bob@paytm"));
+        });
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public Transaction transfer() {
+        return transactionTemplate.execute(status -> {
+            Account source = accountRepository.findByUpiId("alice@okaxis").orElseThrow();
+            Account destination = accountRepository.findByUpiId("bob@paytm").orElseThrow();
+            source.setBalance(source.getBalance().subtract(AMOUNT));
+            destination.setBalance(destination.getBalance().add(AMOUNT));
+            accountRepository.save(source);
+            accountRepository.save(destination);
+            return transactionRepository.save(transaction());
+        });
+    }
+    
+    private Transaction transaction() {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId("TXN-BENCH-" + sequence.incrementAndGet());
+        transaction.setSourceUPI("alice@okaxis");
+        transaction.setDestinationUPI("bob@paytm");
+        transaction.setAmount(AMOUNT);
+        transaction.setFee(BigDecimal.ZERO);
+        transaction.setTotalDebited(AMOUNT);
+        transaction.setStatus("SUCCESS");
+        transaction.setTimestamp(LocalDateTime.now());
+        return transaction;
+    }
+    
+    private Account account(String upiId) {
+        Account account = new Account();
+        account.setUpiId(upiId);
+        account.setPhone("9876543210");
+        account.setBalance(new BigDecimal("1000000000.00"));
+        account.setDailyLimit(new BigDecimal("100000"));
+        account.setDailyUsed(BigDecimal.ZERO);
+        account.setMonthlyLimit(new BigDecimal("1000000"));
+        account.setMonthlyUsed(BigDecimal.ZERO);
+        account.setStatus("ACTIVE");
+        return account;
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(RepositoryBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+    
+    /**
+     * Boots the application beans for the benchmark
+     * (component scan over com.npci.transfer, H2 from application.yml).
+     */
+    @SpringBootApplication(scanBasePackages = "com.npci.transfer")
+    @EntityScan("com.npci.transfer.entity")
+    static class BenchmarkApplication {
+    }
+}
@@ -0,0 +1,163 @@
+package com.npci.transfer.repository;
+
+import com.npci.transfer.entity.Account;
+import com.npci.transfer.entity.Transaction;
+import com.npci.transfer.exception.InsufficientBalanceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * JDBC Repository Tests
+ * 
+ * Runs JdbcAccountRepository and JdbcTransactionRepository against an
+ * embedded H2 database, without Spring Boot or Hibernate.
+ */
+@DisplayName("JDBC Repository Tests")
+class JdbcRepositoryTest {
+    
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private JdbcAccountRepository accountRepository;
+    private JdbcTransactionRepository transactionRepository;
+    
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .addScript("db/jdbc-schema.sql")
+            .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(database));
+        accountRepository = new JdbcAccountRepository(jdbcTemplate);
+        transactionRepository = new JdbcTransactionRepository(jdbcTemplate);
+        
+        accountRepository.save(account("alice@okaxis", "10000.00"));
+        accountRepository.save(account("bob@paytm", "5000.00"));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+    
+    @Test
+    @DisplayName("Should insert new account and load it by UPI ID")
+    void testInsertAndFind() {
+        Account alice = accountRepository.findByUpiId("alice@okaxis").orElseThrow();
+        
+        assertThat(alice.getId()).isNotNull();
+        assertThat(alice.getBalance()).isEqualByComparingTo("10000.00");
+        assertThat(accountRepository.findByUpiId("nobody@okaxis")).isEmpty();
+    }
+    
+    @Test
+    @DisplayName("Should defer writes until commit and apply them as deltas")
+    void testTransferWritesOnCommit() {
+        String txnId = "TXN-" + UUID.randomUUID();
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            Account source = accountRepository.findByUpiId("alice@okaxis").orElseThrow();
+            Account destination = accountRepository.findByUpiId("bob@paytm").orElseThrow();
+            source.setBalance(source.getBalance().subtract(new BigDecimal("1000.00")));
+            destination.setBalance(destination.getBalance().add(new BigDecimal("1000.00")));
+            accountRepository.save(source);
+            accountRepository.save(destination);
+            transactionRepository.save(transaction(txnId));
+            
+            // Nothing is sent before commit
+            assertThat(jdbcTemplate.queryForObject(
+                "SELECT balance FROM accounts WHERE upi_id = 'alice@okaxis'", BigDecimal.class))
+                .isEqualByComparingTo("10000.00");
+            assertThat(transactionRepository.findByTransactionId(txnId)).isEmpty();
+        });
+        
+        assertThat(balanceOf("alice@okaxis")).isEqualByComparingTo("9000.00");
+        assertThat(balanceOf("bob@paytm")).isEqualByComparingTo("6000.00");
+        assertThat(transactionRepository.findByTransactionId(txnId))
+            .hasValueSatisfying(txn -> assertThat(txn.getAmount()).isEqualByComparingTo("1000.00"));
+    }
+    
+    @Test
+    @DisplayName("Should reject debit when a concurrent debit already spent the balance")
+    void testGuardedDebitRollsBack() {
+        String txnId = "TXN-" + UUID.randomUUID();
+        
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            Account source = accountRepository.findByUpiId("alice@okaxis").orElseThrow();
+            Account destination = accountRepository.findByUpiId("bob@paytm").orElseThrow();
+            
+            // Another transfer commits on its own connection after our read
+            commitOutsideTransaction("UPDATE accounts SET balance = 500.00 WHERE upi_id = 'alice@okaxis'");
+            
+            source.setBalance(source.getBalance().subtract(new BigDecimal("1000.00")));
+            destination.setBalance(destination.getBalance().add(new BigDecimal("1000.00")));
+            accountRepository.save(source);
+            accountRepository.save(destination);
+            transactionRepository.save(transaction(txnId));
+        }))
+            .isInstanceOf(InsufficientBalanceException.class)
+            .hasMessageContaining("alice@okaxis");
+        
+        assertThat(balanceOf("alice@okaxis")).isEqualByComparingTo("500.00");
+        assertThat(balanceOf("bob@paytm")).isEqualByComparingTo("5000.00");
+        assertThat(transactionRepository.findByTransactionId(txnId)).isEmpty();
+    }
+    
+    private void commitOutsideTransaction(String sql) {
+        try (Connection connection = database.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate(sql);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private BigDecimal balanceOf(String upiId) {
+        return accountRepository.findByUpiId(upiId).orElseThrow().getBalance();
+    }
+    
+    private Account account(String upiId, String balance) {
+        Account account = new Account();
+        account.setUpiId(upiId);
+        account.setPhone("9876543210");
+        account.setBalance(new BigDecimal(balance));
+        account.setDailyLimit(new BigDecimal("100000"));
+        account.setDailyUsed(BigDecimal.ZERO);
+        account.setMonthlyLimit(new BigDecimal("1000000"));
+        account.setMonthlyUsed(BigDecimal.ZERO);
+        account.setStatus("ACTIVE");
+        return account;
+    }
+    
+    private Transaction transaction(String transactionId) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(transactionId);
+        transaction.setSourceUPI("alice@okaxis");
+        transaction.setDestinationUPI("bob@paytm");
+        transaction.setAmount(new BigDecimal("1000.00"));
+        transaction.setFee(BigDecimal.ZERO);
+        transaction.setTotalDebited(new BigDecimal("1000.00"));
+        transaction.setStatus("SUCCESS");
+        transaction.setTimestamp(LocalDateTime.now());
+        return transaction;
+    }
+}
@@ -0,0 +1,24 @@
+CREATE TABLE accounts (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    upi_id VARCHAR(255) NOT NULL UNIQUE,
+    phone VARCHAR(255) NOT NULL,
+    balance DECIMAL(15,2) NOT NULL,
+    daily_limit DECIMAL(15,2),
+    daily_used DECIMAL(15,2),
+    monthly_limit DECIMAL(15,2),
+    monthly_used DECIMAL(15,2),
+    status VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE transactions (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    transaction_id VARCHAR(255) NOT NULL UNIQUE,
+    source_upi VARCHAR(255) NOT NULL,
+    destination_upi VARCHAR(255) NOT NULL,
+    amount DECIMAL(15,2) NOT NULL,
+    fee DECIMAL(15,2),
+    total_debited DECIMAL(15,2),
+    status VARCHAR(255) NOT NULL,
+    remarks VARCHAR(255),
+    timestamp TIMESTAMP NOT NULL
+);
@@ -0,0 +1,5 @@
+#!/bin/sh
+# Lets postgres-replica (docker compose --profile replica) stream from this server.
+# Runs once, when the data volume is initialized.
+set -e
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
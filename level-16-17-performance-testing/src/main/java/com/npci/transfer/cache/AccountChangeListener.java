@@ -0,0 +1,207 @@
+package com.npci.transfer.cache;
+
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.metrics.TransferMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Account Change Listener - keeps AccountMetadataCache coherent across instances
+ * 
+ * Triggers on accounts send NOTIFY account_changed with the UPI ID whenever a
+ * row is inserted or deleted or a cached column changes. PostgreSQL delivers
+ * it, once the change commits, to every instance that LISTENs (this one
+ * included), which then evicts that account and adds it to UpiIdFilter - no
+ * message broker needed. The payload also
+ * carries when the change was made, for transfer.metadata.invalidation.lag
+ * (database and instance clocks are assumed to agree).
+ * 
+ * Listens on a connection of its own, outside the pool: it is held for the
+ * application's lifetime and must be auto-commit for LISTEN to take effect.
+ * Changes made while it is down are never delivered, so the whole cache is
+ * dropped, and UpiIdFilter rebuilt, every time it is (re)opened.
+ * 
+ * Only started when transfer.metadata-cache.enabled=true.
+ */
+@Component
+@Slf4j
+public class AccountChangeListener implements SmartLifecycle {
+    
+    static final String CHANNEL = "account_changed";
+    
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+    
+    private static final String NOTIFY_FUNCTION_DDL = """
+        CREATE OR REPLACE FUNCTION notify_account_changed() RETURNS trigger AS $$
+        DECLARE
+            changed_at TEXT := (extract(epoch FROM clock_timestamp()) * 1000)::BIGINT::TEXT;
+        BEGIN
+            IF TG_OP <> 'INSERT' THEN
+                PERFORM pg_notify('account_changed', OLD.upi_id || '|' || changed_at);
+            END IF;
+            IF TG_OP = 'INSERT' OR (TG_OP = 'UPDATE' AND NEW.upi_id <> OLD.upi_id) THEN
+                PERFORM pg_notify('account_changed', NEW.upi_id || '|' || changed_at);
+            END IF;
+            RETURN NULL;
+        END;
+        $$ LANGUAGE plpgsql""";
+    
+    /**
+     * JPA writes every column on each balance update: only real changes notify.
+     */
+    private static final String UPDATE_TRIGGER_DDL = """
+        CREATE TRIGGER accounts_metadata_updated AFTER UPDATE ON accounts FOR EACH ROW
+        WHEN (OLD.upi_id IS DISTINCT FROM NEW.upi_id
+            OR OLD.status IS DISTINCT FROM NEW.status
+            OR OLD.daily_limit IS DISTINCT FROM NEW.daily_limit
+            OR OLD.monthly_limit IS DISTINCT FROM NEW.monthly_limit
+            OR OLD.balance_stripes IS DISTINCT FROM NEW.balance_stripes
+            OR OLD.tier IS DISTINCT FROM NEW.tier)
+        EXECUTE FUNCTION notify_account_changed()""";
+    
+    private static final String INSERT_DELETE_TRIGGER_DDL = """
+        CREATE TRIGGER accounts_inserted_deleted AFTER INSERT OR DELETE ON accounts FOR EACH ROW
+        EXECUTE FUNCTION notify_account_changed()""";
+    
+    private final AccountMetadataCache accountMetadataCache;
+    private final UpiIdFilter upiIdFilter;
+    private final DataSourceProperties dataSourceProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransferProperties transferProperties;
+    private final TransferMetrics transferMetrics;
+    private final TransactionTemplate transactionTemplate;
+    
+    private Thread listener;
+    private volatile boolean running;
+    
+    public AccountChangeListener(AccountMetadataCache accountMetadataCache, UpiIdFilter upiIdFilter,
+                                 DataSourceProperties dataSourceProperties, JdbcTemplate jdbcTemplate,
+                                 TransferProperties transferProperties, TransferMetrics transferMetrics,
+                                 PlatformTransactionManager transactionManager) {
+        this.accountMetadataCache = accountMetadataCache;
+        this.upiIdFilter = upiIdFilter;
+        this.dataSourceProperties = dataSourceProperties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transferProperties = transferProperties;
+        this.transferMetrics = transferMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // Whatever changed while nobody listened was never delivered
+                accountMetadataCache.invalidateAll();
+                upiIdFilter.rebuild();
+                
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            onNotification(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                upiIdFilter.suspend();
+                if (!running) {
+                    return;
+                }
+                transferMetrics.recordMetadataListenFailure();
+                log.warn("Listening for account changes failed, reconnecting in {}: {}",
+                    transferProperties.getMetadataCache().getReconnectDelay(), e.toString());
+                try {
+                    Thread.sleep(transferProperties.getMetadataCache().getReconnectDelay().toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+    
+    /**
+     * @param payload upi_id|epoch millis of the change, as sent by notify_account_changed()
+     */
+    void onNotification(String payload) {
+        int separator = payload.lastIndexOf('|');
+        String upiId = separator < 0 ? payload : payload.substring(0, separator);
+        accountMetadataCache.invalidate(upiId);
+        // Deleted or renamed-away UPI IDs are added too: harmless, they only cost a query
+        upiIdFilter.add(upiId);
+        if (separator < 0) {
+            return;
+        }
+        try {
+            long changedAt = Long.parseLong(payload.substring(separator + 1));
+            transferMetrics.recordMetadataInvalidation(System.currentTimeMillis() - changedAt);
+        } catch (NumberFormatException e) {
+            log.debug("Account change notification without a timestamp: {}", payload);
+        }
+    }
+    
+    // ========== Lifecycle ==========
+    
+    @Override
+    public void start() {
+        if (!transferProperties.getMetadataCache().isEnabled()) {
+            return;
+        }
+        
+        // Replaced as a whole, in one transaction, so a restart picks up a changed column list
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute(NOTIFY_FUNCTION_DDL);
+            jdbcTemplate.execute("DROP TRIGGER IF EXISTS accounts_metadata_updated ON accounts");
+            jdbcTemplate.execute("DROP TRIGGER IF EXISTS accounts_metadata_deleted ON accounts");
+            jdbcTemplate.execute("DROP TRIGGER IF EXISTS accounts_inserted_deleted ON accounts");
+            jdbcTemplate.execute(UPDATE_TRIGGER_DDL);
+            jdbcTemplate.execute(INSERT_DELETE_TRIGGER_DDL);
+        });
+        
+        running = true;
+        listener = new Thread(this::listen, "account-change-listener");
+        listener.setDaemon(true);
+        listener.start();
+        log.info("Account metadata cache started, listening on channel {}", CHANNEL);
+    }
+    
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        upiIdFilter.suspend();
+        try {
+            listener.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        listener = null;
+        log.info("Account metadata cache stopped listening");
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,28 @@
+package com.npci.transfer.cache;
+
+import com.npci.transfer.entity.Account;
+import jakarta.persistence.PostPersist;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener: adds an account created on this instance to UpiIdFilter
+ * right away, instead of once its INSERT notification comes back.
+ * 
+ * Created by Hibernate through Spring; the filter is optional so JPA slice
+ * tests (@DataJpaTest) work without it.
+ */
+@Component
+public class AccountCreatedListener {
+    
+    private final ObjectProvider<UpiIdFilter> upiIdFilter;
+    
+    public AccountCreatedListener(ObjectProvider<UpiIdFilter> upiIdFilter) {
+        this.upiIdFilter = upiIdFilter;
+    }
+    
+    @PostPersist
+    void onCreated(Account account) {
+        upiIdFilter.ifAvailable(filter -> filter.add(account.getUpiId()));
+    }
+}
@@ -0,0 +1,20 @@
+package com.npci.transfer.cache;
+
+import java.math.BigDecimal;
+
+/**
+ * The slow-changing columns of one accounts row - everything but the balance
+ * and the limit usage, which stay authoritative in the database.
+ */
+public record AccountMetadata(Long id, String upiId, String status,
+                              BigDecimal dailyLimit, BigDecimal monthlyLimit,
+                              Integer balanceStripes, String tier) {
+    
+    public boolean isStriped() {
+        return balanceStripes != null && balanceStripes > 0;
+    }
+    
+    public boolean isUnlimited() {
+        return dailyLimit == null && monthlyLimit == null;
+    }
+}
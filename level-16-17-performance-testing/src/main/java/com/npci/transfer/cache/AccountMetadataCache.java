@@ -0,0 +1,85 @@
+package com.npci.transfer.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.repository.AccountRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Account Metadata Cache - read-through cache of AccountMetadata by UPI ID
+ * 
+ * Transfers need an account's id, status, limits and stripe count far more
+ * often than these change, so they are kept in a Caffeine cache:
+ * - bounded: at most transfer.metadata-cache.maximum-size accounts, the least
+ *   recently used are evicted first
+ * - stampede-safe: concurrent misses on one UPI ID wait for a single query
+ * - coherent: AccountChangeListener evicts an account as soon as any instance
+ *   changes its row; ttl bounds the staleness should a notification be missed
+ * 
+ * Unknown UPI IDs are not cached, so an account created later is found at once;
+ * those UpiIdFilter has never seen are answered without a query.
+ * Balances and limit usage are never cached.
+ */
+@Component
+public class AccountMetadataCache {
+    
+    private final AccountRepository accountRepository;
+    private final UpiIdFilter upiIdFilter;
+    private final TransferProperties transferProperties;
+    private final TransferMetrics transferMetrics;
+    private final LoadingCache<String, AccountMetadata> cache;
+    
+    public AccountMetadataCache(AccountRepository accountRepository, UpiIdFilter upiIdFilter,
+                                TransferProperties transferProperties, TransferMetrics transferMetrics) {
+        this.accountRepository = accountRepository;
+        this.upiIdFilter = upiIdFilter;
+        this.transferProperties = transferProperties;
+        this.transferMetrics = transferMetrics;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(transferProperties.getMetadataCache().getMaximumSize())
+            .expireAfterWrite(transferProperties.getMetadataCache().getTtl())
+            .recordStats()
+            .build(this::load);
+        transferMetrics.registerMetadataCache(cache);
+    }
+    
+    /**
+     * @return The account's metadata, empty if there is no such account
+     */
+    public Optional<AccountMetadata> find(String upiId) {
+        if (upiIdFilter.isDefinitelyAbsent(upiId)) {
+            return Optional.empty();
+        }
+        if (!transferProperties.getMetadataCache().isEnabled()) {
+            return Optional.ofNullable(load(upiId));
+        }
+        return Optional.ofNullable(cache.get(upiId));
+    }
+    
+    /**
+     * Drops one account; a load of it still in progress is discarded too.
+     */
+    public void invalidate(String upiId) {
+        cache.invalidate(upiId);
+    }
+    
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+    
+    /**
+     * @return null if there is no such account (Caffeine then caches nothing)
+     */
+    private AccountMetadata load(String upiId) {
+        long start = System.nanoTime();
+        try {
+            return accountRepository.findMetadataByUpiId(upiId).orElse(null);
+        } finally {
+            transferMetrics.recordMetadataLoad(System.nanoTime() - start);
+        }
+    }
+}
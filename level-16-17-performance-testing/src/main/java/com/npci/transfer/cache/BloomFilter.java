@@ -0,0 +1,154 @@
+package com.npci.transfer.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of strings, sized for an expected count and false-positive rate
+ * 
+ * mightContain never answers false for a string that was put; it answers true
+ * for one that was not with about the configured probability (more once more
+ * strings than expected were put). Strings cannot be removed.
+ * 
+ * Bits live in an AtomicLongArray, so put and mightContain are safe from any
+ * number of threads without locking. Bit positions come from one 64-bit hash
+ * per string, split into two by double hashing (Kirsch-Mitzenmacher).
+ */
+public final class BloomFilter {
+    
+    /**
+     * An AtomicLongArray holds at most Integer.MAX_VALUE words.
+     */
+    static final long MAX_BITS = (long) Integer.MAX_VALUE * Long.SIZE;
+    
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashFunctions;
+    private final AtomicLong insertions = new AtomicLong();
+    
+    private BloomFilter(long bitSize, int hashFunctions) {
+        this.words = new AtomicLongArray(Math.toIntExact(bitSize / Long.SIZE));
+        this.bitSize = bitSize;
+        this.hashFunctions = hashFunctions;
+    }
+    
+    /**
+     * @param expectedInsertions Strings the filter is sized for
+     * @param falsePositiveRate Wanted probability of mightContain answering true for a string never put
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        long bits = optimalBitSize(expectedInsertions, falsePositiveRate);
+        return new BloomFilter(bits, optimalHashFunctions(expectedInsertions, bits));
+    }
+    
+    /**
+     * m = -n ln(p) / ln(2)^2, rounded up to whole 64-bit words.
+     */
+    static long optimalBitSize(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive: " + expectedInsertions);
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1: " + falsePositiveRate);
+        }
+        double bits = -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        long words = Math.max(1, (long) Math.ceil(bits / Long.SIZE));
+        if (words > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format(
+                "%d strings at a false-positive rate of %s need more than %d bits", expectedInsertions,
+                falsePositiveRate, MAX_BITS));
+        }
+        return words * Long.SIZE;
+    }
+    
+    /**
+     * k = m / n ln(2), at least one.
+     */
+    static int optimalHashFunctions(long expectedInsertions, long bitSize) {
+        return Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+    }
+    
+    public void put(String value) {
+        long hash = hash(value);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        boolean changed = false;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bitSize;
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word = words.get(index);
+            if ((word & mask) == 0) {
+                words.getAndUpdate(index, w -> w | mask);
+                changed = true;
+            }
+        }
+        if (changed) {
+            insertions.incrementAndGet();
+        }
+    }
+    
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bitSize;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Strings put that set at least one new bit - the distinct strings put,
+     * less the few that were already false positives.
+     */
+    public long insertions() {
+        return insertions.get();
+    }
+    
+    public long bitSize() {
+        return bitSize;
+    }
+    
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+    
+    public long sizeInBytes() {
+        return bitSize / Byte.SIZE;
+    }
+    
+    /**
+     * Expected false-positive rate at the current fill: (1 - e^(-kn/m))^k.
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashFunctions * insertions() / bitSize), hashFunctions);
+    }
+    
+    /**
+     * FNV-1a over the UTF-16 chars; mix() spreads it over all 64 bits.
+     */
+    private static long hash(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+    
+    /**
+     * MurmurHash3 fmix64 finalizer.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,123 @@
+package com.npci.transfer.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.dto.TransferResponse;
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.money.Money;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Transaction Status Cache - write-through cache of terminal transactions by ID
+ * 
+ * Clients poll GET /v1/transactions/{transactionId} right after every
+ * transfer. Transfers put their outcome here as they commit, so those polls
+ * are answered from memory and never wait for, or miss, the database row
+ * (in LEDGER mode it is only written later by the projector).
+ * 
+ * Only terminal states are cached: SUCCESS, FAILED and REVERSED never
+ * change, so no instance can serve a stale entry and nothing needs
+ * invalidating. PENDING transactions are always read from the database.
+ */
+@Component
+public class TransactionStatusCache {
+    
+    private static final Set<String> TERMINAL = Set.of("SUCCESS", "FAILED", "REVERSED");
+    
+    private final TransferProperties transferProperties;
+    private final TransferMetrics transferMetrics;
+    private final Cache<String, TransferResponse> cache;
+    
+    public TransactionStatusCache(TransferProperties transferProperties, TransferMetrics transferMetrics) {
+        this.transferProperties = transferProperties;
+        this.transferMetrics = transferMetrics;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(transferProperties.getStatusCache().getMaximumSize())
+            .expireAfterWrite(transferProperties.getStatusCache().getTtl())
+            .recordStats()
+            .build();
+        transferMetrics.registerStatusCache(cache);
+    }
+    
+    public static boolean isTerminal(String status) {
+        return status != null && TERMINAL.contains(status);
+    }
+    
+    /**
+     * @param load Reads the transaction from the database; called on a miss
+     */
+    public TransferResponse get(String transactionId, Supplier<TransferResponse> load) {
+        if (!transferProperties.getStatusCache().isEnabled()) {
+            transferMetrics.recordStatusDatabaseRead();
+            return load.get();
+        }
+        TransferResponse cached = cache.getIfPresent(transactionId);
+        if (cached != null) {
+            return cached;
+        }
+        transferMetrics.recordStatusDatabaseRead();
+        TransferResponse loaded = load.get();
+        put(loaded);
+        return loaded;
+    }
+    
+    /**
+     * Caches the transaction once the current database transaction commits
+     * (right away if there is none); nothing is cached on rollback.
+     */
+    public void putOnCommit(TransferResponse response) {
+        if (!isTerminal(response.getStatus()) || !transferProperties.getStatusCache().isEnabled()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(response);
+                }
+            });
+        } else {
+            put(response);
+        }
+    }
+    
+    /**
+     * Caches a committed transaction if its status is terminal, with its
+     * amounts as the database returns them (2 decimal places), so a cached
+     * answer looks exactly like one read from the row.
+     */
+    public void put(TransferResponse response) {
+        if (isTerminal(response.getStatus()) && transferProperties.getStatusCache().isEnabled()) {
+            cache.put(response.getTransactionId(), asStored(response));
+        }
+    }
+    
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+    
+    private static TransferResponse asStored(TransferResponse response) {
+        return TransferResponse.builder()
+            .transactionId(response.getTransactionId())
+            .status(response.getStatus())
+            .sourceUPI(response.getSourceUPI())
+            .destinationUPI(response.getDestinationUPI())
+            .amount(asStored(response.getAmount()))
+            .fee(asStored(response.getFee()))
+            .totalDebited(asStored(response.getTotalDebited()))
+            .timestamp(response.getTimestamp())
+            .remarks(response.getRemarks())
+            .errorCode(response.getErrorCode())
+            .build();
+    }
+    
+    private static Money asStored(Money amount) {
+        return amount == null ? null : Money.of(amount.toBigDecimal());
+    }
+}
@@ -0,0 +1,171 @@
+package com.npci.transfer.cache;
+
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.metrics.TransferMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UPI ID Filter - answers "no such account" for unknown UPI IDs without a query
+ * 
+ * A BloomFilter over every accounts.upi_id: a UPI ID it has never seen
+ * certainly has no account, so the transfer can be rejected at once; one it
+ * has seen (or a false positive, at about transfer.upi-id-filter.false-positive-rate)
+ * is looked up as before.
+ * 
+ * The filter is only trusted while it knows every account:
+ * - it is built by streaming the accounts table, on a thread of its own,
+ *   each time AccountChangeListener has (re)started listening, so no account
+ *   created meanwhile is missed
+ * - accounts created afterwards are added when their INSERT is notified (any
+ *   instance) and, on this instance, as soon as JPA inserts them
+ * - while the LISTEN connection is down, or a build runs, nothing is rejected
+ * 
+ * Deleted accounts stay in the filter until the next build (they just cost a query).
+ */
+@Component
+@Slf4j
+public class UpiIdFilter {
+    
+    private static final String SELECT_UPI_IDS = "SELECT upi_id FROM accounts";
+    private static final int FETCH_SIZE = 10_000;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransferProperties transferProperties;
+    private final TransferMetrics transferMetrics;
+    private final TransactionTemplate transactionTemplate;
+    
+    /**
+     * Bumped by every build and suspend; a build publishes its filter only if still current.
+     */
+    private final AtomicLong generation = new AtomicLong();
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+    
+    public UpiIdFilter(JdbcTemplate jdbcTemplate, TransferProperties transferProperties,
+                       TransferMetrics transferMetrics, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transferProperties = transferProperties;
+        this.transferMetrics = transferMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        transferMetrics.registerUpiIdFilter(
+            () -> filter != null ? filter.insertions() : 0,
+            () -> filter != null ? filter.sizeInBytes() : 0,
+            () -> filter != null ? filter.expectedFalsePositiveRate() : 0);
+    }
+    
+    /**
+     * @return true only if the UPI ID certainly has no account
+     */
+    public boolean isDefinitelyAbsent(String upiId) {
+        BloomFilter current = filter;
+        if (current == null || !transferProperties.getUpiIdFilter().isEnabled() || current.mightContain(upiId)) {
+            return false;
+        }
+        transferMetrics.recordUpiIdFilterRejection();
+        return true;
+    }
+    
+    /**
+     * Counts a UPI ID the filter let through that turned out to have no account.
+     */
+    public void recordFalsePositive() {
+        if (filter != null) {
+            transferMetrics.recordUpiIdFilterFalsePositive();
+        }
+    }
+    
+    /**
+     * Adds a new account's UPI ID, to the filter in use and to one being built.
+     * Under the monitor: a build publishing between reading the two fields
+     * would otherwise leave the UPI ID out of both.
+     */
+    public synchronized void add(String upiId) {
+        if (filter != null) {
+            filter.put(upiId);
+        }
+        if (building != null) {
+            building.put(upiId);
+        }
+    }
+    
+    /**
+     * Stops rejecting until the next build: accounts created from now on might be missed.
+     */
+    public synchronized void suspend() {
+        generation.incrementAndGet();
+        filter = null;
+        building = null;
+    }
+    
+    /**
+     * Stops rejecting and builds a new filter in the background. The caller
+     * must already receive account change notifications, so that accounts
+     * created during the scan are added too.
+     */
+    public void rebuild() {
+        if (!transferProperties.getUpiIdFilter().isEnabled()) {
+            return;
+        }
+        long buildGeneration;
+        synchronized (this) {
+            buildGeneration = generation.incrementAndGet();
+            filter = null;
+            building = null;
+        }
+        // Allocated once the previous filter is unreachable: both may not fit in the heap
+        TransferProperties.UpiIdFilter config = transferProperties.getUpiIdFilter();
+        BloomFilter next = BloomFilter.create(config.getExpectedAccounts(), config.getFalsePositiveRate());
+        synchronized (this) {
+            if (generation.get() != buildGeneration) {
+                return;
+            }
+            building = next;
+        }
+        
+        Thread builder = new Thread(() -> build(buildGeneration, next), "upi-id-filter-builder");
+        builder.setDaemon(true);
+        builder.start();
+    }
+    
+    private void build(long buildGeneration, BloomFilter next) {
+        long start = System.nanoTime();
+        try {
+            // Read-only transaction: PostgreSQL only streams with a fetch size outside auto-commit
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT_UPI_IDS);
+                statement.setFetchSize(FETCH_SIZE);
+                return statement;
+            }, rs -> {
+                next.put(rs.getString(1));
+            }));
+        } catch (RuntimeException e) {
+            log.warn("Building the UPI ID filter failed, unknown UPI IDs are looked up until the next build: {}",
+                e.toString());
+            return;
+        }
+        
+        synchronized (this) {
+            if (generation.get() != buildGeneration) {
+                return;
+            }
+            filter = next;
+            building = null;
+        }
+        transferMetrics.recordUpiIdFilterBuild(System.nanoTime() - start);
+        log.info("UPI ID filter built: {} accounts, {} MiB, {} hash functions, expected false-positive rate {}",
+            next.insertions(), next.sizeInBytes() >> 20, next.hashFunctions(),
+            String.format("%.4f", next.expectedFalsePositiveRate()));
+        if (next.insertions() > transferProperties.getUpiIdFilter().getExpectedAccounts()) {
+            log.warn("UPI ID filter holds more accounts than transfer.upi-id-filter.expected-accounts ({}), "
+                + "raise it to keep the false-positive rate", transferProperties.getUpiIdFilter().getExpectedAccounts());
+        }
+    }
+}
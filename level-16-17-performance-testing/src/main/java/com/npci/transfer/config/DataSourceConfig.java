@@ -0,0 +1,29 @@
+package com.npci.transfer.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JDBC DataSource, declared explicitly
+ * 
+ * Spring Boot's DataSource auto-configuration backs off as soon as an R2DBC
+ * ConnectionFactory exists, and the reactive variant needs both: JPA (schema,
+ * the other execution modes) next to R2DBC. Built the same way as Boot's own
+ * Hikari configuration, from spring.datasource.* and spring.datasource.hikari.*.
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class DataSourceConfig {
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.npci.transfer.config;
+
+/**
+ * Where the debit / credit / insert of a transfer is executed.
+ *
+ * - JPA: entities loaded and saved through Spring Data (5+ statements)
+ * - STORED_FUNCTION: one call to the transfer_funds() PostgreSQL function,
+ *   which locks, debits, credits and inserts on the server side
+ * - LEDGER: balances held in memory by single-writer partitions
+ *   (journal + snapshots on disk), PostgreSQL updated asynchronously
+ * - GROUP_COMMIT: JPA, but concurrent transfers are applied together in
+ *   one database transaction with a single commit
+ * - ASYNC: the request only stores a PENDING transaction and is answered
+ *   with 202; workers claim PENDING rows and execute them in batches
+ */
+public enum ExecutionMode {
+    JPA,
+    STORED_FUNCTION,
+    LEDGER,
+    GROUP_COMMIT,
+    ASYNC
+}
@@ -0,0 +1,13 @@
+package com.npci.transfer.config;
+
+/**
+ * What happens to a transactions partition older than the retention.
+ * 
+ * - DETACH: it becomes a standalone table of the same name, out of every
+ *   query on transactions, to be archived and dropped by hand
+ * - DROP: it is dropped, rows and all
+ */
+public enum ExpiredPartitionAction {
+    DETACH,
+    DROP
+}
@@ -0,0 +1,16 @@
+package com.npci.transfer.config;
+
+/**
+ * How daily / monthly limits are counted (see TransferLimitService).
+ * 
+ * - LOCAL: this instance counts all usage in memory and writes it back;
+ *   exact only while a single instance serves an account
+ * - LEASE: instances lease slices of an account's remaining allowance from
+ *   its accounts row and spend them locally; unused slices are given back
+ *   when they expire or on shutdown, so the total across instances stays
+ *   within the limit
+ */
+public enum LimitMode {
+    LOCAL,
+    LEASE
+}
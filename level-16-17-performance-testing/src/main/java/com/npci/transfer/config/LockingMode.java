@@ -0,0 +1,15 @@
+package com.npci.transfer.config;
+
+/**
+ * How TransferService protects the two account rows it updates.
+ *
+ * - OPTIMISTIC: plain reads, @Version check on commit, conflicting
+ *   transfers are retried with jittered backoff (best for distinct accounts)
+ * - PESSIMISTIC: both rows locked with one SELECT ... FOR UPDATE,
+ *   always in UPI ID order so opposite-direction transfers cannot deadlock
+ *   (best for hot account pairs)
+ */
+public enum LockingMode {
+    OPTIMISTIC,
+    PESSIMISTIC
+}
@@ -0,0 +1,107 @@
+package com.npci.transfer.config;
+
+import com.npci.transfer.metrics.TransferMetrics;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.retry.interceptor.RetryInterceptorBuilder;
+import org.springframework.retry.interceptor.RetryOperationsInterceptor;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Retry configuration for optimistic locking conflicts
+ * 
+ * The interceptor runs outside the @Transactional boundary (EnableRetry
+ * orders itself before the transaction advisor), so every attempt gets a
+ * fresh transaction and re-reads the current account versions.
+ * 
+ * In PESSIMISTIC mode the budget is a single attempt - rows are locked,
+ * so a version conflict there is a real error, not contention.
+ * 
+ * A call that joins a caller's transaction is not retried on its own: the
+ * conflict dooms the whole transaction, so the caller (IdempotencyService)
+ * retries it instead.
+ */
+@Configuration
+@EnableRetry
+public class OptimisticRetryConfig {
+    
+    @Bean
+    public MethodInterceptor optimisticRetryInterceptor(TransferProperties transferProperties,
+                                                        TransferMetrics transferMetrics) {
+        TransferProperties.Locking locking = transferProperties.getLocking();
+        TransferProperties.Optimistic optimistic = locking.getOptimistic();
+        int maxAttempts = locking.getMode() == LockingMode.OPTIMISTIC
+            ? optimistic.getMaxAttempts()
+            : 1;
+        
+        RetryTemplate retryTemplate = RetryTemplate.builder()
+            .maxAttempts(maxAttempts)
+            .retryOn(OptimisticLockingFailureException.class)
+            .traversingCauses()
+            .exponentialBackoff(optimistic.getInitialBackoff(), 2.0, optimistic.getMaxBackoff(), true)
+            .withListener(new ConflictCountingListener(transferMetrics))
+            .build();
+        
+        RetryOperationsInterceptor retry = RetryInterceptorBuilder.stateless()
+            .retryOperations(retryTemplate)
+            .build();
+        return invocation -> TransactionSynchronizationManager.isActualTransactionActive()
+            ? invocation.proceed()
+            : retry.invoke(invocation);
+    }
+    
+    /**
+     * Feeds conflict / retry / exhausted counters. Only optimistic locking
+     * conflicts count as such; any other error just ends the retries.
+     */
+    static class ConflictCountingListener implements RetryListener {
+        
+        private final TransferMetrics transferMetrics;
+        
+        ConflictCountingListener(TransferMetrics transferMetrics) {
+            this.transferMetrics = transferMetrics;
+        }
+        
+        @Override
+        public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback,
+                                                     Throwable throwable) {
+            if (isConflict(throwable)) {
+                transferMetrics.recordOptimisticConflict();
+            }
+        }
+        
+        @Override
+        public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback,
+                                                   Throwable throwable) {
+            int failedAttempts = context.getRetryCount();
+            if (throwable == null) {
+                transferMetrics.recordOptimisticRetries(failedAttempts);
+                return;
+            }
+            // The last attempt failed too: every attempt but the first was a retry
+            transferMetrics.recordOptimisticRetries(failedAttempts - 1);
+            if (isConflict(throwable)) {
+                transferMetrics.recordOptimisticExhausted();
+            }
+        }
+        
+        /**
+         * Same test as the retry policy (retryOn ... traversingCauses).
+         */
+        private static boolean isConflict(Throwable throwable) {
+            for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+                if (cause instanceof OptimisticLockingFailureException) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
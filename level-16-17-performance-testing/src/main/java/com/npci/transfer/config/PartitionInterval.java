@@ -0,0 +1,40 @@
+package com.npci.transfer.config;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Range of one transactions partition (see TransactionPartitionManager).
+ * 
+ * - MONTHLY: one partition per calendar month, e.g. transactions_p202610
+ * - DAILY: one partition per day, e.g. transactions_p20261017; for volumes
+ *   where a month of rows is too much for one table
+ */
+public enum PartitionInterval {
+    MONTHLY(DateTimeFormatter.ofPattern("yyyyMM")),
+    DAILY(DateTimeFormatter.ofPattern("yyyyMMdd"));
+    
+    private final DateTimeFormatter suffix;
+    
+    PartitionInterval(DateTimeFormatter suffix) {
+        this.suffix = suffix;
+    }
+    
+    /**
+     * First day of the partition holding the day.
+     */
+    public LocalDate start(LocalDate day) {
+        return this == MONTHLY ? day.withDayOfMonth(1) : day;
+    }
+    
+    /**
+     * First day of the partition after the one starting on start.
+     */
+    public LocalDate next(LocalDate start) {
+        return this == MONTHLY ? start.plusMonths(1) : start.plusDays(1);
+    }
+    
+    public String partitionName(LocalDate start) {
+        return "transactions_p" + suffix.format(start);
+    }
+}
@@ -0,0 +1,58 @@
+package com.npci.transfer.config;
+
+import com.npci.transfer.metrics.TransferMetrics;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read/Write Routing DataSource - primary or replica, per transaction
+ * 
+ * A read-only transaction under a staleness budget (ReplicaRouting) gets a
+ * connection from a replica within that budget, or from the primary - and
+ * a fallback is counted - when none is. Everything else gets the primary.
+ * 
+ * Must sit behind a LazyConnectionDataSourceProxy: the transaction manager
+ * asks for its connection before the read-only flag is exposed, the proxy
+ * only fetches the real one at the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final TransferMetrics transferMetrics;
+    
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaLagMonitor replicaLagMonitor,
+                                      TransferMetrics transferMetrics) {
+        this.replicaLagMonitor = replicaLagMonitor;
+        this.transferMetrics = transferMetrics;
+        Map<Object, Object> replicas = new HashMap<>();
+        for (ReplicaLagMonitor.Replica replica : replicaLagMonitor.getReplicas()) {
+            replicas.put(replica.name(), replica.dataSource());
+        }
+        setTargetDataSources(replicas);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+    
+    /**
+     * @return A replica's name, null for the primary
+     */
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Duration budget = ReplicaRouting.stalenessBudget();
+        if (budget == null || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return null;
+        }
+        String replica = replicaLagMonitor.pickReplica(budget).orElse(null);
+        if (replica == null) {
+            transferMetrics.recordReplicaFallback();
+        } else {
+            transferMetrics.recordReplicaRead(replica);
+        }
+        return replica;
+    }
+}
@@ -0,0 +1,213 @@
+package com.npci.transfer.config;
+
+import com.npci.transfer.metrics.TransferMetrics;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replica Lag Monitor - the replica pools and how far behind each one is
+ * 
+ * Every transfer.replicas.lag-check-interval each replica reports how long
+ * ago the transaction it last replayed was committed; a replica streaming
+ * from the primary that has replayed everything it received counts as 0,
+ * so an idle primary does not make its replicas look stale. A replica
+ * whose WAL receiver is not streaming has nothing to measure against: its
+ * lag is unknown, and so is that of a replica whose check failed. Neither
+ * takes reads.
+ * 
+ * A read's budget has to cover the lag last measured plus the time since it
+ * was measured, as the replica may have fallen further behind meanwhile.
+ * 
+ * Checks run on a thread of their own rather than the shared task
+ * scheduler, so an unreachable replica cannot hold up other scheduled work.
+ * 
+ * Each replica gets its own Hikari pool, configured like the primary's
+ * (spring.datasource.hikari) apart from URL, credentials, size and
+ * connection timeout, and named after it so hikaricp_* metrics are
+ * reported per pool.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements SmartLifecycle, DisposableBean {
+    
+    private static final String REPLAY_LAG_MILLIS = """
+        SELECT CASE
+            WHEN NOT pg_is_in_recovery() THEN 0
+            WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN -1
+            WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+            ELSE COALESCE(EXTRACT(EPOCH FROM clock_timestamp() - pg_last_xact_replay_timestamp()) * 1000, -1)
+        END""";
+    
+    private static final long UNKNOWN = -1;
+    
+    private final List<Replica> replicas;
+    private final Duration lagCheckInterval;
+    private final TransferMetrics transferMetrics;
+    private final Clock clock;
+    private final AtomicInteger next = new AtomicInteger();
+    private ScheduledExecutorService lagChecker;
+    
+    public ReplicaLagMonitor(HikariDataSource primary, TransferProperties transferProperties,
+                             TransferMetrics transferMetrics, MeterRegistry meterRegistry) {
+        this(createPools(primary, transferProperties.getReplicas(), meterRegistry),
+            transferProperties.getReplicas().getLagCheckInterval(), transferMetrics, Clock.systemUTC());
+    }
+    
+    ReplicaLagMonitor(List<Replica> replicas, Duration lagCheckInterval, TransferMetrics transferMetrics,
+                      Clock clock) {
+        this.replicas = List.copyOf(replicas);
+        this.lagCheckInterval = lagCheckInterval;
+        this.transferMetrics = transferMetrics;
+        this.clock = clock;
+        for (Replica replica : this.replicas) {
+            transferMetrics.registerReplicaLag(replica.name(),
+                () -> replica.lagMillis == UNKNOWN ? Double.NaN : replica.lagMillis);
+        }
+    }
+    
+    private static List<Replica> createPools(HikariDataSource primary, TransferProperties.Replicas properties,
+                                             MeterRegistry meterRegistry) {
+        List<Replica> replicas = new ArrayList<>();
+        for (TransferProperties.Replica node : properties.getNodes()) {
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource pool = new HikariDataSource();
+            primary.copyStateTo(pool);
+            pool.setPoolName(primary.getPoolName() + "-" + name);
+            pool.setJdbcUrl(node.getUrl());
+            if (node.getUsername() != null) {
+                pool.setUsername(node.getUsername());
+            }
+            if (node.getPassword() != null) {
+                pool.setPassword(node.getPassword());
+            }
+            pool.setMaximumPoolSize(properties.getMaximumPoolSize());
+            // A read waits this long at most before failing; the primary's timeout suits a queue, not a dead host
+            pool.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+            if (pool.getMinimumIdle() > properties.getMaximumPoolSize()) {
+                pool.setMinimumIdle(properties.getMaximumPoolSize());
+            }
+            pool.setReadOnly(true);
+            if (pool.getMetricRegistry() == null) {
+                pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            }
+            replicas.add(new Replica(name, pool, new JdbcTemplate(pool)));
+        }
+        return replicas;
+    }
+    
+    /**
+     * Measures every replica; a failure marks only that replica as unusable.
+     */
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            try {
+                Double lag = replica.jdbcTemplate().queryForObject(REPLAY_LAG_MILLIS, Double.class);
+                replica.lagMillis = lag == null || lag < 0 ? UNKNOWN : Math.round(lag);
+                replica.checkedAt = clock.instant();
+            } catch (RuntimeException e) {
+                replica.lagMillis = UNKNOWN;
+                transferMetrics.recordReplicaLagCheckFailure(replica.name());
+                log.warn("Lag check of {} failed, reads go elsewhere: {}", replica.name(), e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Round-robin over the replicas within maxLag, counting the age of each
+     * lag measurement on top of the lag itself.
+     * 
+     * @return The replica's name, empty if none qualifies
+     */
+    public Optional<String> pickReplica(Duration maxLag) {
+        Instant now = clock.instant();
+        List<Replica> usable = replicas.stream()
+            .filter(replica -> replica.lagMillis != UNKNOWN && replica.checkedAt != null)
+            .filter(replica -> replica.lagMillis + Duration.between(replica.checkedAt, now).toMillis()
+                <= maxLag.toMillis())
+            .toList();
+        if (usable.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(usable.get(Math.floorMod(next.getAndIncrement(), usable.size())).name());
+    }
+    
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+    
+    // ========== Lifecycle ==========
+    
+    @Override
+    public void start() {
+        lagChecker = Executors.newSingleThreadScheduledExecutor(task -> new Thread(task, "replica-lag-check"));
+        lagChecker.scheduleWithFixedDelay(this::checkLag, 0, lagCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    @Override
+    public void stop() {
+        if (lagChecker != null) {
+            lagChecker.shutdownNow();
+            lagChecker = null;
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return lagChecker != null;
+    }
+    
+    @Override
+    public void destroy() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource() instanceof HikariDataSource pool) {
+                pool.close();
+            }
+        }
+    }
+    
+    /**
+     * One replica and its last measured lag.
+     */
+    public static final class Replica {
+        
+        private final String name;
+        private final DataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        private volatile long lagMillis = UNKNOWN;
+        private volatile Instant checkedAt;
+        
+        Replica(String name, DataSource dataSource, JdbcTemplate jdbcTemplate) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.jdbcTemplate = jdbcTemplate;
+        }
+        
+        public String name() {
+            return name;
+        }
+        
+        public DataSource dataSource() {
+            return dataSource;
+        }
+        
+        JdbcTemplate jdbcTemplate() {
+            return jdbcTemplate;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.npci.transfer.config;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Replica Routing - how stale the reads of the current thread may be
+ * 
+ * A read-only transaction goes to a replica only when the code around it
+ * has declared a staleness budget here; everything else (writes, and reads
+ * that must see the latest commit, such as idempotency checks or the
+ * metadata cache reload) keeps using the primary. Opt-in, so adding
+ * replicas never changes what an unmarked read returns.
+ * 
+ * Has no effect unless transfer.replicas.enabled=true.
+ */
+public final class ReplicaRouting {
+    
+    private static final ThreadLocal<Duration> STALENESS_BUDGET = new ThreadLocal<>();
+    
+    private ReplicaRouting() {
+    }
+    
+    /**
+     * Runs work with read-only transactions allowed on a replica at most
+     * maxLag behind the primary; the previous budget is restored afterwards.
+     */
+    public static <T> T withStalenessBudget(Duration maxLag, Supplier<T> work) {
+        Duration previous = STALENESS_BUDGET.get();
+        STALENESS_BUDGET.set(maxLag);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                STALENESS_BUDGET.remove();
+            } else {
+                STALENESS_BUDGET.set(previous);
+            }
+        }
+    }
+    
+    /**
+     * @return The budget declared by the caller, null if none
+     */
+    static Duration stalenessBudget() {
+        return STALENESS_BUDGET.get();
+    }
+}
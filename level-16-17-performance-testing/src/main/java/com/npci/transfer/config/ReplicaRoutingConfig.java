@@ -0,0 +1,40 @@
+package com.npci.transfer.config;
+
+import com.npci.transfer.metrics.TransferMetrics;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Read replicas (transfer.replicas.enabled=true)
+ * 
+ * Puts ReadWriteRoutingDataSource in front of the primary pool from
+ * DataSourceConfig; JPA, JdbcTemplate and the transaction manager all pick
+ * the routing DataSource up as the primary bean.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "transfer.replicas", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+    
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(HikariDataSource dataSource, TransferProperties transferProperties,
+                                               TransferMetrics transferMetrics, MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(dataSource, transferProperties, transferMetrics, meterRegistry);
+    }
+    
+    @Bean
+    @Primary
+    public DataSource routingDataSource(HikariDataSource dataSource, ReplicaLagMonitor replicaLagMonitor,
+                                        TransferMetrics transferMetrics) {
+        ReadWriteRoutingDataSource routing =
+            new ReadWriteRoutingDataSource(dataSource, replicaLagMonitor, transferMetrics);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
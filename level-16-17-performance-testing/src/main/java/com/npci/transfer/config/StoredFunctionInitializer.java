@@ -0,0 +1,51 @@
+package com.npci.transfer.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Installs the transfer_funds() function when STORED_FUNCTION mode is on.
+ * 
+ * Depends on the EntityManagerFactory so Hibernate has created the
+ * accounts / transactions tables (ddl-auto) before the function is compiled.
+ * Runs in a transaction because pooled connections are not auto-commit.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StoredFunctionInitializer {
+    
+    private static final String TRANSFER_FUNDS_SCRIPT = "db/postgres/transfer_funds.sql";
+    
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransferProperties transferProperties;
+    private final PlatformTransactionManager transactionManager;
+    
+    @PostConstruct
+    void installTransferFunction() {
+        if (transferProperties.getExecution().getMode() != ExecutionMode.STORED_FUNCTION) {
+            return;
+        }
+        
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(
+            new ClassPathResource(TRANSFER_FUNDS_SCRIPT));
+        // Function body is dollar-quoted: run the file as a single statement
+        populator.setSeparator(ScriptUtils.EOF_STATEMENT_SEPARATOR);
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+            status -> DatabasePopulatorUtils.execute(populator, dataSource));
+        
+        log.info("Installed {} for STORED_FUNCTION execution mode", TRANSFER_FUNDS_SCRIPT);
+    }
+}
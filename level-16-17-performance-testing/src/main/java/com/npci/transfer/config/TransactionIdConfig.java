@@ -0,0 +1,59 @@
+package com.npci.transfer.config;
+
+import com.npci.transfer.id.RandomTransactionIdGenerator;
+import com.npci.transfer.id.SnowflakeTransactionIdGenerator;
+import com.npci.transfer.id.TransactionIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Clock;
+
+/**
+ * Transaction ID generator, chosen by transfer.id.strategy
+ * 
+ * A partitioned transactions table only checks transaction_id per
+ * timestamp, so with transfer.partitioning.enabled IDs must be unique by
+ * construction: snowflake, with a node ID set per instance.
+ */
+@Configuration
+@Slf4j
+public class TransactionIdConfig {
+    
+    @Bean
+    public TransactionIdGenerator transactionIdGenerator(TransferProperties transferProperties) {
+        TransferProperties.Id id = transferProperties.getId();
+        if (transferProperties.getPartitioning().isEnabled()
+                && (id.getStrategy() != TransactionIdStrategy.SNOWFLAKE || id.getNodeId() == null)) {
+            throw new IllegalStateException("transfer.partitioning.enabled requires transfer.id.strategy=snowflake "
+                + "and an explicit transfer.id.node-id: transaction IDs are not checked across partitions");
+        }
+        if (id.getStrategy() == TransactionIdStrategy.RANDOM) {
+            return new RandomTransactionIdGenerator();
+        }
+        
+        int nodeId = id.getNodeId() != null ? id.getNodeId() : derivedNodeId();
+        log.info("Transaction IDs: snowflake, node {}", nodeId);
+        return new SnowflakeTransactionIdGenerator(nodeId, Clock.systemDefaultZone());
+    }
+    
+    /**
+     * Host name and PID folded into 10 bits; two instances may still end up
+     * with the same node ID, so set transfer.id.node-id when running several.
+     */
+    private int derivedNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "localhost";
+        }
+        int nodeId = (31 * host.hashCode() + Long.hashCode(ProcessHandle.current().pid()))
+            & SnowflakeTransactionIdGenerator.MAX_NODE_ID;
+        log.warn("transfer.id.node-id not set, derived node {} from host {} and PID; "
+            + "set it explicitly when running more than one instance", nodeId, host);
+        return nodeId;
+    }
+}
@@ -0,0 +1,13 @@
+package com.npci.transfer.config;
+
+/**
+ * How transaction IDs are generated.
+ * 
+ * - SNOWFLAKE: time-ordered, node-aware, lock-free; unique without any
+ *   database coordination as long as every instance has its own node ID
+ * - RANDOM: the previous TXN-yyyyMMddHHmmss-NNNN format (collides under load)
+ */
+public enum TransactionIdStrategy {
+    SNOWFLAKE,
+    RANDOM
+}
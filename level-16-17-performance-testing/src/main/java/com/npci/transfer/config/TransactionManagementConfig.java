@@ -0,0 +1,26 @@
+package com.npci.transfer.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionManager;
+import org.springframework.transaction.annotation.TransactionManagementConfigurer;
+
+/**
+ * Default transaction manager for @Transactional
+ * 
+ * With R2DBC on the classpath there are two transaction managers: the JPA
+ * one and an R2dbcTransactionManager. @Transactional keeps using JPA; the
+ * reactive path demarcates its transactions with a TransactionalOperator.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class TransactionManagementConfig implements TransactionManagementConfigurer {
+    
+    private final PlatformTransactionManager transactionManager;
+    
+    @Override
+    public TransactionManager annotationDrivenTransactionManager() {
+        return transactionManager;
+    }
+}
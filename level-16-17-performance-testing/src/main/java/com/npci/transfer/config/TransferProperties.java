@@ -0,0 +1,438 @@
+package com.npci.transfer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transfer Service tuning switches (prefix: transfer)
+ *
+ * Lets the performance tests compare strategies without code changes.
+ */
+@Data
+@ConfigurationProperties(prefix = "transfer")
+public class TransferProperties {
+
+    private Locking locking = new Locking();
+
+    private Execution execution = new Execution();
+
+    private Striping striping = new Striping();
+
+    private Ledger ledger = new Ledger();
+
+    private GroupCommit groupCommit = new GroupCommit();
+
+    private Async async = new Async();
+
+    private Batch batch = new Batch();
+
+    private Idempotency idempotency = new Idempotency();
+
+    private Limits limits = new Limits();
+
+    private Id id = new Id();
+
+    private MetadataCache metadataCache = new MetadataCache();
+
+    private UpiIdFilter upiIdFilter = new UpiIdFilter();
+
+    private Fees fees = new Fees();
+
+    private Partitioning partitioning = new Partitioning();
+
+    private StatusCache statusCache = new StatusCache();
+
+    private Replicas replicas = new Replicas();
+
+    @Data
+    public static class Locking {
+
+        /**
+         * Row locking strategy used by initiateTransfer.
+         */
+        private LockingMode mode = LockingMode.OPTIMISTIC;
+
+        private Optimistic optimistic = new Optimistic();
+    }
+
+    @Data
+    public static class Execution {
+
+        /**
+         * How initiateTransfer talks to the database.
+         */
+        private ExecutionMode mode = ExecutionMode.JPA;
+    }
+
+    @Data
+    public static class Striping {
+
+        /**
+         * UPI IDs (typically merchants) whose balance is split into stripes at startup.
+         */
+        private List<String> hotAccounts = new ArrayList<>();
+
+        /**
+         * Stripes per hot account; credit throughput scales with this number.
+         */
+        private int stripes = 8;
+
+        /**
+         * How often stripe balances are folded back into the accounts row.
+         */
+        private Duration consolidationInterval = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class Ledger {
+
+        /**
+         * Single-writer partitions; accounts are assigned by hash of UPI ID.
+         */
+        private int partitions = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Caller transfers queued per partition before new ones are refused.
+         */
+        private int queueCapacity = 10_000;
+
+        /**
+         * Commands applied per journal flush (one fsync per batch).
+         */
+        private int maxBatch = 512;
+
+        private String journalDirectory = "data/ledger";
+
+        /**
+         * fsync the journal before acknowledging; off = flushed to the OS only.
+         */
+        private boolean fsync = true;
+
+        /**
+         * Journal records between snapshots of a partition.
+         */
+        private long snapshotInterval = 100_000;
+
+        private Duration projectionInterval = Duration.ofMillis(50);
+
+        private int projectionBatchSize = 1_000;
+
+        /**
+         * How long initiateTransfer waits for its partition to answer.
+         */
+        private Duration timeout = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class GroupCommit {
+
+        /**
+         * Transfers applied in one database transaction at most.
+         */
+        private int maxBatchSize = 64;
+
+        /**
+         * Longest a queued transfer waits for others to join its batch.
+         */
+        private Duration maxDelay = Duration.ofMillis(5);
+
+        /**
+         * Retry a failed batch as two halves (down to single transfers)
+         * instead of failing every transfer in it.
+         */
+        private boolean splitOnFailure = true;
+
+        /**
+         * Threads building and committing batches; each holds one connection per batch.
+         */
+        private int committers = 2;
+
+        /**
+         * How long initiateTransfer waits for its batch to be picked up.
+         */
+        private Duration timeout = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Async {
+
+        /**
+         * Threads claiming and executing PENDING transfers; each holds one connection per batch.
+         */
+        private int workers = 4;
+
+        /**
+         * PENDING transfers claimed and executed per database transaction.
+         */
+        private int batchSize = 32;
+
+        /**
+         * Pause of a worker that found nothing to claim.
+         */
+        private Duration pollInterval = Duration.ofMillis(20);
+
+        /**
+         * How often the queue depth / age gauges are refreshed from the database.
+         */
+        private Duration statsInterval = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class Batch {
+
+        /**
+         * Most transfers accepted by one POST /v1/transfers/batch call.
+         */
+        private int maxSize = 1_000;
+
+        /**
+         * Transfers applied per database transaction; bounds how long account rows stay locked.
+         */
+        private int chunkSize = 250;
+    }
+
+    @Data
+    public static class Idempotency {
+
+        /**
+         * Responses kept in memory for replays; the least recently used are evicted first.
+         */
+        private long cacheSize = 100_000;
+
+        /**
+         * How long a response stays in memory after it was stored.
+         */
+        private Duration cacheTtl = Duration.ofMinutes(10);
+
+        /**
+         * How long a key is remembered in the database (and so across restarts).
+         */
+        private Duration retention = Duration.ofHours(24);
+
+        private Duration purgeInterval = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Limits {
+
+        /**
+         * Enforce the daily / monthly limits of the source account.
+         */
+        private boolean enabled = true;
+
+        private LimitMode mode = LimitMode.LOCAL;
+
+        /**
+         * LOCAL: how often counted usage is written back to the accounts rows.
+         * LEASE: how often expired leases are given back.
+         */
+        private Duration flushInterval = Duration.ofSeconds(1);
+
+        /**
+         * Allowance leased per round trip; larger means fewer round trips but
+         * more allowance parked on one instance while others run short.
+         * A slice below half of it is topped up in the background.
+         */
+        private BigDecimal leaseSize = new BigDecimal("5000");
+
+        /**
+         * Unspent allowance is given back this long after it was leased.
+         */
+        private Duration leaseTtl = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Id {
+
+        private TransactionIdStrategy strategy = TransactionIdStrategy.SNOWFLAKE;
+
+        /**
+         * Snowflake node ID (0-1023), unique per instance; derived from host name and PID when unset.
+         */
+        private Integer nodeId;
+    }
+
+    @Data
+    public static class MetadataCache {
+
+        /**
+         * Cache account metadata (id, status, limits, stripes) by UPI ID; off means every lookup queries.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Accounts kept in memory; the least recently used are evicted first.
+         */
+        private long maximumSize = 100_000;
+
+        /**
+         * Upper bound on staleness should a change notification be missed.
+         */
+        private Duration ttl = Duration.ofMinutes(5);
+
+        /**
+         * Pause before the LISTEN connection is opened again after it failed.
+         */
+        private Duration reconnectDelay = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class UpiIdFilter {
+
+        /**
+         * Reject transfers to / from UPI IDs the Bloom filter has never seen without a query.
+         * Needs the metadata cache's change notifications to learn of new accounts.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Accounts the filter is sized for; beyond that the false-positive rate climbs.
+         * About 1.2 bytes per account at 1% (500M accounts: ~570 MiB of heap).
+         */
+        private long expectedAccounts = 1_000_000;
+
+        /**
+         * Share of unknown UPI IDs that still cost a query.
+         */
+        private double falsePositiveRate = 0.01;
+    }
+
+    @Data
+    public static class Fees {
+
+        /**
+         * How often fee_rules is read again; a changed table is compiled and swapped in.
+         */
+        private Duration reloadInterval = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Partitioning {
+
+        /**
+         * Range-partition transactions on timestamp (PostgreSQL). A plain table
+         * is converted on startup and kept as the partition for older rows.
+         */
+        private boolean enabled = false;
+
+        private PartitionInterval interval = PartitionInterval.MONTHLY;
+
+        /**
+         * Partitions created ahead of the current one, so inserts never find
+         * their range missing while maintenance is down.
+         */
+        private int premake = 3;
+
+        /**
+         * Age at which a partition's newest possible row makes it expire.
+         */
+        private Period retention = Period.ofMonths(13);
+
+        private ExpiredPartitionAction expired = ExpiredPartitionAction.DETACH;
+
+        private Duration maintenanceInterval = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class StatusCache {
+
+        /**
+         * Keep SUCCESS / FAILED / REVERSED transactions in memory from the moment
+         * they commit; off means every status lookup queries.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Transactions kept in memory; the least recently used are evicted first.
+         */
+        private long maximumSize = 200_000;
+
+        /**
+         * Bounds memory only: a terminal transaction never changes.
+         */
+        private Duration ttl = Duration.ofMinutes(15);
+
+        /**
+         * Cache-Control max-age of a terminal transaction; clients and proxies
+         * may serve it that long without asking again.
+         */
+        private Duration httpMaxAge = Duration.ofDays(365);
+    }
+
+    @Data
+    public static class Replicas {
+
+        /**
+         * Route read-only work that declares a staleness budget to read replicas.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Streaming replicas of spring.datasource; each gets a pool of its own.
+         */
+        private List<Replica> nodes = new ArrayList<>();
+
+        /**
+         * Connections per replica pool; the other pool settings follow spring.datasource.hikari.
+         */
+        private int maximumPoolSize = 10;
+
+        /**
+         * How long a replica pool waits for a connection; short, so an unreachable
+         * replica fails its reads and lag checks fast (Hikari's minimum is 250ms).
+         */
+        private Duration connectionTimeout = Duration.ofMillis(500);
+
+        /**
+         * How often each replica's replay lag is measured. The time since the
+         * last check counts against a read's budget, so keep this well below
+         * the smallest budget.
+         */
+        private Duration lagCheckInterval = Duration.ofMillis(100);
+
+        /**
+         * Staleness budgets: a replica lagging further behind is skipped for
+         * that kind of read, and the primary serves it.
+         */
+        private Duration statusMaxLag = Duration.ofMillis(500);
+
+        private Duration balanceMaxLag = Duration.ofSeconds(2);
+
+        private Duration historyMaxLag = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Replica {
+
+        private String url;
+
+        /**
+         * Default to spring.datasource.username / password.
+         */
+        private String username;
+
+        private String password;
+    }
+
+    @Data
+    public static class Optimistic {
+
+        /**
+         * Retry budget per request, including the first attempt.
+         */
+        private int maxAttempts = 4;
+
+        /**
+         * Backoff before the first retry; doubled (with random jitter) per retry.
+         */
+        private Duration initialBackoff = Duration.ofMillis(5);
+
+        private Duration maxBackoff = Duration.ofMillis(50);
+    }
+}
@@ -0,0 +1,46 @@
+package com.npci.transfer.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checks the virtual-thread mode (spring.threads.virtual.enabled).
+ * 
+ * When it is on, Spring Boot runs Tomcat requests, @Scheduled and @Async
+ * work on virtual threads, so TransferService runs on one virtual thread per
+ * request and parks cheaply while it waits for a pooled connection or for
+ * PostgreSQL. The JDBC path does not pin the carrier thread: the PostgreSQL
+ * driver guards its connection with a ReentrantLock, not synchronized.
+ * The java21 Maven profile adds -Djdk.tracePinnedThreads=short to verify this.
+ * 
+ * Spring Boot silently ignores the switch below Java 21; fail fast instead.
+ */
+@Component
+@Slf4j
+public class VirtualThreadsInitializer {
+    
+    static final int MIN_JAVA_VERSION = 21;
+    
+    private final boolean virtualThreads;
+    
+    public VirtualThreadsInitializer(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+    
+    @PostConstruct
+    void checkJavaVersion() {
+        if (!virtualThreads) {
+            return;
+        }
+        
+        int javaVersion = Runtime.version().feature();
+        if (javaVersion < MIN_JAVA_VERSION) {
+            throw new IllegalStateException("spring.threads.virtual.enabled=true needs Java " + MIN_JAVA_VERSION
+                + ", running on Java " + javaVersion + " (build and run with -Pjava21)");
+        }
+        
+        log.info("Virtual threads enabled: requests are handled on virtual threads (Java {})", javaVersion);
+    }
+}
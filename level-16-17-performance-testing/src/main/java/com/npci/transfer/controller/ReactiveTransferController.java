@@ -0,0 +1,71 @@
+package com.npci.transfer.controller;
+
+import com.npci.transfer.dto.TransferRequest;
+import com.npci.transfer.dto.TransferResponse;
+import com.npci.transfer.service.ReactiveTransferService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Reactive Transfer Controller - WebFlux on Netty
+ * 
+ * Same paths, DTOs and error mapping (GlobalExceptionHandler) as
+ * TransferController, which it replaces when the app runs as a reactive
+ * web application (the "reactive" profile).
+ */
+@RestController
+@RequestMapping("/v1")
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTransferController {
+    
+    private final ReactiveTransferService reactiveTransferService;
+    
+    /**
+     * Initiates a money transfer.
+     */
+    @PostMapping("/transfers")
+    public Mono<ResponseEntity<TransferResponse>> initiateTransfer(
+            @Valid @RequestBody TransferRequest request) {
+        
+        log.info("Received transfer request from {} to {}",
+            sanitizeForLog(request.getSourceUPI()),
+            sanitizeForLog(request.getDestinationUPI()));
+        
+        return reactiveTransferService.initiateTransfer(request)
+            .map(ResponseEntity::ok);
+    }
+    
+    /**
+     * Health check endpoint.
+     */
+    @GetMapping("/health")
+    public Mono<Map<String, String>> health() {
+        return Mono.just(Map.of(
+            "status", "UP",
+            "timestamp", LocalDateTime.now().toString(),
+            "service", "transfer-service"
+        ));
+    }
+    
+    /**
+     * Sanitizes input for logging to prevent CRLF injection attacks
+     */
+    private String sanitizeForLog(String input) {
+        if (input == null) {
+            return null;
+        }
+        return input.replace('\n', '_')
+                    .replace('\r', '_')
+                    .replace('\t', '_');
+    }
+}
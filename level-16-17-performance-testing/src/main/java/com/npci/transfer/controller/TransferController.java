@@ -1,14 +1,26 @@
 package com.npci.transfer.controller;
 
+import com.npci.transfer.cache.TransactionStatusCache;
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.dto.BatchTransferRequest;
+import com.npci.transfer.dto.BatchTransferResponse;
+import com.npci.transfer.dto.TransactionHistoryRequest;
+import com.npci.transfer.dto.TransactionHistoryResponse;
 import com.npci.transfer.dto.TransferRequest;
 import com.npci.transfer.dto.TransferResponse;
+import com.npci.transfer.service.BatchTransferService;
+import com.npci.transfer.service.IdempotencyService;
+import com.npci.transfer.service.TransactionHistoryService;
 import com.npci.transfer.service.TransferService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.Map;
 
@@ -16,30 +28,109 @@ import java.util.Map;
  * Transfer Controller - HTTP Layer (SECURITY FIXED)
  * 
  * SECURITY FIX: Added CRLF injection prevention in logging
+ * 
+ * Servlet stack only; see ReactiveTransferController for the reactive one.
  */
 @RestController
 @RequestMapping("/v1")
 @RequiredArgsConstructor
 @Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class TransferController {
     
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    
     private final TransferService transferService;
+    private final BatchTransferService batchTransferService;
+    private final IdempotencyService idempotencyService;
+    private final TransactionHistoryService transactionHistoryService;
+    private final TransferProperties transferProperties;
     
     /**
      * Initiates a money transfer.
+     * 
+     * With an Idempotency-Key header a retried request is answered with the
+     * first response (marked Idempotent-Replayed) instead of being executed again.
      */
     @PostMapping("/transfers")
     public ResponseEntity<TransferResponse> initiateTransfer(
-            @Valid @RequestBody TransferRequest request) {
+            @Valid @RequestBody TransferRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         
         // SECURITY FIX: Log with sanitized inputs (prevent CRLF injection)
         log.info("Received transfer request from {} to {}",
             sanitizeForLog(request.getSourceUPI()), 
             sanitizeForLog(request.getDestinationUPI()));
         
-        TransferResponse response = transferService.initiateTransfer(request);
+        TransferResponse response;
+        boolean replayed = false;
+        if (idempotencyKey == null) {
+            response = transferService.initiateTransfer(request);
+        } else {
+            IdempotencyService.Outcome outcome = idempotencyService.execute(
+                idempotencyKey, request, () -> transferService.initiateTransfer(request));
+            response = outcome.response();
+            replayed = outcome.replayed();
+        }
+        
+        ResponseEntity.BodyBuilder builder;
+        if ("PENDING".equals(response.getStatus())) {
+            // ASYNC mode: accepted, executed later; poll the Location for the outcome
+            builder = ResponseEntity.accepted()
+                .location(URI.create("/v1/transactions/" + response.getTransactionId()));
+        } else {
+            builder = ResponseEntity.ok();
+        }
+        if (replayed) {
+            builder.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        return builder.body(response);
+    }
+    
+    /**
+     * Initiates many transfers in one call; the response has one result per
+     * transfer, in request order, so some may fail while the others succeed.
+     */
+    @PostMapping("/transfers/batch")
+    public ResponseEntity<BatchTransferResponse> initiateBatchTransfer(
+            @Valid @RequestBody BatchTransferRequest request) {
+        
+        log.info("Received batch transfer request with {} transfers", request.getTransfers().size());
         
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(batchTransferService.transferBatch(request.getTransfers()));
+    }
+    
+    /**
+     * Returns a transaction, e.g. to poll an accepted (PENDING) transfer.
+     * 
+     * SUCCESS, FAILED and REVERSED never change, so they carry an ETag and a
+     * long public max-age: browsers and proxies answer repeated polls, and an
+     * If-None-Match revalidation gets 304 without a body. PENDING is no-store,
+     * so every poll sees the outcome as soon as there is one.
+     */
+    @GetMapping("/transactions/{transactionId}")
+    public ResponseEntity<TransferResponse> getTransaction(@PathVariable String transactionId) {
+        TransferResponse transfer = transferService.getTransfer(transactionId);
+        if (!TransactionStatusCache.isTerminal(transfer.getStatus())) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(transfer);
+        }
+        return ResponseEntity.ok()
+            .eTag(transfer.getTransactionId() + "-" + transfer.getStatus())
+            .cacheControl(CacheControl.maxAge(transferProperties.getStatusCache().getHttpMaxAge())
+                .cachePublic()
+                .immutable())
+            .body(transfer);
+    }
+    
+    /**
+     * Returns a page of an account's transfers, sent and received, newest
+     * first by default; pass nextCursor as cursor for the next page.
+     */
+    @GetMapping("/transactions")
+    public ResponseEntity<TransactionHistoryResponse> getTransactionHistory(
+            @Valid TransactionHistoryRequest request) {
+        return ResponseEntity.ok(transactionHistoryService.getHistory(request));
     }
     
     /**
@@ -0,0 +1,26 @@
+package com.npci.transfer.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Batch Transfer Request DTO
+ * 
+ * Many transfers in one call. Only the list itself is validated here: each
+ * item is validated like a single TransferRequest by BatchTransferService,
+ * so an invalid item fails only its own result.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransferRequest {
+    
+    @NotEmpty(message = "At least one transfer is required")
+    private List<TransferRequest> transfers;
+}
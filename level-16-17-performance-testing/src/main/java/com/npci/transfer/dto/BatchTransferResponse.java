@@ -0,0 +1,24 @@
+package com.npci.transfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Batch Transfer Response DTO
+ * 
+ * One result per requested transfer, in request order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransferResponse {
+    
+    private int succeeded;
+    private int failed;
+    private List<BatchTransferResult> results;
+}
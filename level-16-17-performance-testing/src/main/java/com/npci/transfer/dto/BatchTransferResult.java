@@ -0,0 +1,30 @@
+package com.npci.transfer.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.npci.transfer.exception.ErrorResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a batch transfer: its transfer, or why it was rejected.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchTransferResult {
+    
+    /**
+     * Position of the item in the request.
+     */
+    private int index;
+    private TransferResponse transfer;
+    private ErrorResponse error;
+    
+    public boolean isSuccess() {
+        return transfer != null;
+    }
+}
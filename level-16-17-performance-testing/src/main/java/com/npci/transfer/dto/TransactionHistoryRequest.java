@@ -0,0 +1,64 @@
+package com.npci.transfer.dto;
+
+import com.npci.transfer.upi.ValidUpiId;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transaction History Request - query parameters of GET /v1/transactions
+ * 
+ * Pages are fetched by cursor (the nextCursor of the previous page), not by
+ * number: every page then costs the same, however deep. The cursor is only
+ * valid with the same upiId, filters and sort it was issued for.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionHistoryRequest {
+    
+    /**
+     * Account whose transfers are listed, sent or received.
+     */
+    @NotBlank(message = "UPI ID is required")
+    @ValidUpiId
+    private String upiId;
+    
+    /**
+     * Kept from the API spec; only the first page can be asked for by number.
+     */
+    @Min(value = 0, message = "Page must not be negative")
+    @Max(value = 0, message = "Page numbers are not supported, pass the previous page's nextCursor")
+    @Builder.Default
+    private int page = 0;
+    
+    @Min(value = 1, message = "Size must be at least 1")
+    @Max(value = 100, message = "Size cannot exceed 100")
+    @Builder.Default
+    private int size = 20;
+    
+    @Pattern(regexp = "timestamp,(asc|desc)", message = "Sort must be timestamp,asc or timestamp,desc")
+    @Builder.Default
+    private String sort = "timestamp,desc";
+    
+    @Pattern(regexp = "SUCCESS|FAILED|PENDING|REVERSED", message = "Unknown status")
+    private String status;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime fromDate;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime toDate;
+    
+    private String cursor;
+    
+    public boolean isAscending() {
+        return "timestamp,asc".equals(sort);
+    }
+}
@@ -0,0 +1,26 @@
+package com.npci.transfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Transaction History Response
+ * 
+ * One page of transfers; nextCursor fetches the next one and is null on the
+ * last page. There are no totals: counting an account's rows would cost as
+ * much as reading them.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionHistoryResponse {
+    
+    private List<TransferResponse> content;
+    private int size;
+    private String nextCursor;
+}
@@ -1,5 +1,6 @@
 package com.npci.transfer.dto;
 
+import com.npci.transfer.upi.ValidUpiId;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -13,6 +14,7 @@ import java.math.BigDecimal;
  * 
  * Used for transferring data between layers.
  * Includes validation annotations for automatic validation.
+ * UPI IDs stay strings on the wire; @ValidUpiId checks them without a regex.
  */
 @Data
 @Builder
@@ -21,13 +23,11 @@ import java.math.BigDecimal;
 public class TransferRequest {
     
     @NotBlank(message = "Source UPI ID is required")
-    @Pattern(regexp = "^[a-zA-Z0-9.\\-_]+@[a-zA-Z]+$", 
-             message = "Invalid UPI ID format")
+    @ValidUpiId
     private String sourceUPI;
     
     @NotBlank(message = "Destination UPI ID is required")
-    @Pattern(regexp = "^[a-zA-Z0-9.\\-_]+@[a-zA-Z]+$", 
-             message = "Invalid UPI ID format")
+    @ValidUpiId
     private String destinationUPI;
     
     @NotNull(message = "Amount is required")
@@ -1,11 +1,12 @@
 package com.npci.transfer.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.npci.transfer.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
@@ -23,12 +24,18 @@ public class TransferResponse {
     private String status;
     private String sourceUPI;
     private String destinationUPI;
-    private BigDecimal amount;
-    private BigDecimal fee;
-    private BigDecimal totalDebited;
+    private Money amount;
+    private Money fee;
+    private Money totalDebited;
     private LocalDateTime timestamp;
     private String remarks;
     
+    /**
+     * Why the transfer FAILED; only set for asynchronously executed transfers.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String errorCode;
+    
     public boolean isSuccess() {
         return "SUCCESS".equalsIgnoreCase(status);
     }
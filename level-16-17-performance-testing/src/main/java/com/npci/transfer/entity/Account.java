@@ -1,26 +1,34 @@
 package com.npci.transfer.entity;
 
+import com.npci.transfer.cache.AccountCreatedListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 
 /**
  * Account Entity
  */
 @Entity
 @Table(name = "accounts")
+@EntityListeners(AccountCreatedListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Account {
     
+    /**
+     * From accounts_seq, 50 ids per nextval (pooled-lo), so inserts can be batched.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accounts_seq")
+    @SequenceGenerator(name = "accounts_seq", sequenceName = "accounts_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "upi_id", unique = true, nullable = false)
@@ -35,15 +43,54 @@ public class Account {
     @Column(name = "daily_limit", precision = 15, scale = 2)
     private BigDecimal dailyLimit;
     
-    @Column(name = "daily_used", precision = 15, scale = 2)
+    /**
+     * Usage columns are written only by TransferLimitService (updatable = false),
+     * so saving an account for its balance never overwrites the counted usage.
+     */
+    @Column(name = "daily_used", precision = 15, scale = 2, updatable = false)
     private BigDecimal dailyUsed;
     
     @Column(name = "monthly_limit", precision = 15, scale = 2)
     private BigDecimal monthlyLimit;
     
-    @Column(name = "monthly_used", precision = 15, scale = 2)
+    @Column(name = "monthly_used", precision = 15, scale = 2, updatable = false)
     private BigDecimal monthlyUsed;
     
+    /**
+     * Day that daily_used (and the month that monthly_used) was counted for.
+     */
+    @Column(name = "limits_date", updatable = false)
+    private LocalDate limitsDate;
+    
     @Column(nullable = false)
     private String status;
+    
+    /**
+     * Optimistic locking version - bumped on every balance update.
+     * Null until persisted, so Spring Data sees a new account as new and
+     * Hibernate sets 0 on insert. Hibernate cannot increment a NULL version,
+     * so the column is NOT NULL DEFAULT 0 for rows inserted without it
+     * (level-03 V6 adds it to existing tables).
+     */
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+    
+    /**
+     * Number of balance stripes for hot accounts; null or 0 means the whole
+     * balance lives in this row (see StripedBalanceService).
+     */
+    @Column(name = "balance_stripes")
+    private Integer balanceStripes;
+    
+    /**
+     * Fee tier matched by fee_rules.tier (e.g. PREMIUM); null for standard accounts.
+     */
+    @Column(length = 20)
+    private String tier;
+    
+    public boolean isStriped() {
+        return balanceStripes != null && balanceStripes > 0;
+    }
 }
@@ -0,0 +1,39 @@
+package com.npci.transfer.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Account Balance Stripe Entity
+ * 
+ * One slice of a hot account's balance. The account's spendable balance is
+ * accounts.balance plus the sum of its stripes; credits land on any stripe
+ * so concurrent credits no longer queue up on the single accounts row.
+ */
+@Entity
+@Table(name = "account_balance_stripes",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"account_id", "stripe_no"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountBalanceStripe {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+    
+    @Column(name = "stripe_no", nullable = false)
+    private Integer stripeNo;
+    
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal balance;
+}
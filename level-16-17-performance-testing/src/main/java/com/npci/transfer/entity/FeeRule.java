@@ -0,0 +1,81 @@
+package com.npci.transfer.entity;
+
+import com.npci.transfer.money.Money;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalTime;
+
+/**
+ * Fee Rule Entity
+ * 
+ * One row of the fee table. A transfer pays the fee of the highest-priority
+ * rule it matches; a null condition matches every transfer. FeeCalculator
+ * compiles the whole table into a FeeSchedule, so rows are read only on reload.
+ */
+@Entity
+@Table(name = "fee_rules")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FeeRule {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    /**
+     * Higher wins; between equal priorities the rule with more conditions wins.
+     */
+    @Column(nullable = false)
+    private int priority;
+    
+    /**
+     * Amount slab, both ends inclusive.
+     */
+    @Column(name = "min_amount", precision = 15, scale = 2)
+    private Money minAmount;
+    
+    @Column(name = "max_amount", precision = 15, scale = 2)
+    private Money maxAmount;
+    
+    /**
+     * Bank handle of the destination UPI ID, the part after '@' (e.g. okaxis).
+     */
+    @Column(name = "payee_handle", length = 50)
+    private String payeeHandle;
+    
+    /**
+     * accounts.tier of the source account (e.g. PREMIUM).
+     */
+    @Column(length = 20)
+    private String tier;
+    
+    /**
+     * Time-of-day window [start, end), which may wrap past midnight.
+     */
+    @Column(name = "start_time")
+    private LocalTime startTime;
+    
+    @Column(name = "end_time")
+    private LocalTime endTime;
+    
+    @Column(name = "fixed_fee", nullable = false, precision = 15, scale = 2)
+    private Money fixedFee;
+    
+    /**
+     * Share of the amount added to the fixed fee, in basis points (1/100 of a percent).
+     */
+    @Column(name = "rate_bps", nullable = false)
+    private int rateBps;
+    
+    /**
+     * Cap on fixed fee plus rate; null for none.
+     */
+    @Column(name = "max_fee", precision = 15, scale = 2)
+    private Money maxFee;
+}
@@ -0,0 +1,44 @@
+package com.npci.transfer.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency Record Entity
+ * 
+ * The response first given for an Idempotency-Key, so a retried request is
+ * answered with it instead of being executed again - also after a restart.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+    
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String idempotencyKey;
+    
+    /**
+     * SHA-256 of the request, to detect a key reused for a different transfer.
+     */
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+    
+    /**
+     * The TransferResponse, as JSON. Written by the transaction that claimed
+     * the key, so other transactions never see it empty.
+     */
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -1,11 +1,11 @@
 package com.npci.transfer.entity;
 
+import com.npci.transfer.money.Money;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
@@ -18,10 +18,19 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Transaction {
     
+    /**
+     * From transactions_seq, 50 ids per nextval (pooled-lo), so inserts can be batched.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
     
+    /**
+     * Unique on a plain table: ledger replays (LedgerProjector) rely on it.
+     * Converting to a partitioned table (TransactionPartitionRepository)
+     * relaxes it to (transaction_id, timestamp).
+     */
     @Column(name = "transaction_id", unique = true, nullable = false)
     private String transactionId;
     
@@ -32,13 +41,13 @@ public class Transaction {
     private String destinationUPI;
     
     @Column(nullable = false, precision = 15, scale = 2)
-    private BigDecimal amount;
+    private Money amount;
     
     @Column(precision = 15, scale = 2)
-    private BigDecimal fee;
+    private Money fee;
     
     @Column(name = "total_debited", precision = 15, scale = 2)
-    private BigDecimal totalDebited;
+    private Money totalDebited;
     
     @Column(nullable = false)
     private String status;
@@ -46,6 +55,15 @@ public class Transaction {
     @Column
     private String remarks;
     
+    /**
+     * Why an asynchronously executed transfer FAILED (null otherwise).
+     */
+    @Column(name = "error_code", length = 50)
+    private String errorCode;
+    
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+    
     @Column(nullable = false)
     private LocalDateTime timestamp;
 }
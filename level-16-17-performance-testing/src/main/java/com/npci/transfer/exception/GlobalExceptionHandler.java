@@ -1,12 +1,16 @@
 package com.npci.transfer.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.UnsupportedMediaTypeStatusException;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -52,6 +56,34 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
     
+    @ExceptionHandler(TransactionNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleTransactionNotFound(TransactionNotFoundException ex) {
+        log.warn("Transaction not found: {}", sanitizeForLog(ex.getMessage()));
+        
+        ErrorResponse error = ErrorResponse.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.NOT_FOUND.value())
+            .error("Transaction Not Found")
+            .message(ex.getMessage())
+            .build();
+        
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+    
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        log.warn("Idempotency key reused: {}", sanitizeForLog(ex.getMessage()));
+        
+        ErrorResponse error = ErrorResponse.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.UNPROCESSABLE_ENTITY.value())
+            .error("Idempotency Key Reused")
+            .message(ex.getMessage())
+            .build();
+        
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(error);
+    }
+    
     @ExceptionHandler(InsufficientBalanceException.class)
     public ResponseEntity<ErrorResponse> handleInsufficientBalance(InsufficientBalanceException ex) {
         log.warn("Insufficient balance: {}", sanitizeForLog(ex.getMessage()));
@@ -66,6 +98,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
     
+    @ExceptionHandler(LimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleLimitExceeded(LimitExceededException ex) {
+        log.warn("Limit exceeded: {}", sanitizeForLog(ex.getMessage()));
+        
+        ErrorResponse error = ErrorResponse.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.BAD_REQUEST.value())
+            .error("Limit Exceeded")
+            .message(ex.getMessage())
+            .build();
+        
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+    
     @ExceptionHandler(InvalidTransferException.class)
     public ResponseEntity<ErrorResponse> handleInvalidTransfer(InvalidTransferException ex) {
         log.warn("Invalid transfer: {}", sanitizeForLog(ex.getMessage()));
@@ -94,14 +140,54 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
     
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursor(InvalidCursorException ex) {
+        log.warn("Invalid cursor: {}", sanitizeForLog(ex.getMessage()));
+        
+        ErrorResponse error = ErrorResponse.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.BAD_REQUEST.value())
+            .error("Invalid Cursor")
+            .message(ex.getMessage())
+            .build();
+        
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+    
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrentUpdate(OptimisticLockingFailureException ex) {
+        log.warn("Concurrent update, retry budget exhausted: {}", sanitizeForLog(ex.getMessage()));
+        
+        ErrorResponse error = ErrorResponse.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.CONFLICT.value())
+            .error("Concurrent Update")
+            .message("Account was updated concurrently, please retry")
+            .build();
+        
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+    
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationErrors(MethodArgumentNotValidException ex) {
         log.warn("Validation errors: {}", ex.getBindingResult().getFieldErrorCount());
-        
+        return validationError(ex.getBindingResult().getFieldErrors());
+    }
+    
+    /**
+     * WebFlux counterpart of MethodArgumentNotValidException (reactive profile)
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidationErrors(WebExchangeBindException ex) {
+        log.warn("Validation errors: {}", ex.getFieldErrorCount());
+        return validationError(ex.getFieldErrors());
+    }
+    
+    private ResponseEntity<ErrorResponse> validationError(List<FieldError> fieldErrors) {
         Map<String, String> errors = new HashMap<>();
         List<String> errorsList = new ArrayList<>();
         
-        ex.getBindingResult().getFieldErrors().forEach(error -> {
+        fieldErrors.forEach(error -> {
             errors.put(error.getField(), error.getDefaultMessage());
             errorsList.add(error.getDefaultMessage());
         });
@@ -137,6 +223,26 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).body(error);
     }
     
+    /**
+     * WebFlux counterpart of HttpMediaTypeNotSupportedException (reactive profile)
+     */
+    @ExceptionHandler(UnsupportedMediaTypeStatusException.class)
+    public ResponseEntity<ErrorResponse> handleUnsupportedMediaType(UnsupportedMediaTypeStatusException ex) {
+        String contentType = ex.getContentType() != null 
+            ? ex.getContentType().toString() 
+            : "unknown";
+        log.warn("Unsupported media type: {}", sanitizeForLog(contentType));
+        
+        ErrorResponse error = ErrorResponse.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value())
+            .error("Unsupported Media Type")
+            .message(ex.getReason())
+            .build();
+        
+        return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).body(error);
+    }
+    
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
         log.error("Unexpected error", ex);
@@ -0,0 +1,10 @@
+package com.npci.transfer.exception;
+
+/**
+ * Thrown when a transaction history cursor was not issued by this service.
+ */
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.npci.transfer.exception;
+
+public class LimitExceededException extends RuntimeException {
+    public LimitExceededException(String message) {
+        super(message);
+    }
+}
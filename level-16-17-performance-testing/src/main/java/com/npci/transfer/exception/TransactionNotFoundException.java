@@ -0,0 +1,10 @@
+package com.npci.transfer.exception;
+
+/**
+ * Thrown when a transaction is not found.
+ */
+public class TransactionNotFoundException extends RuntimeException {
+    public TransactionNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,338 @@
+package com.npci.transfer.fee;
+
+import com.npci.transfer.entity.FeeRule;
+import com.npci.transfer.money.Money;
+import com.npci.transfer.upi.UpiHandle;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Fee Schedule - the fee_rules table compiled for lookup
+ * 
+ * Immutable: FeeCalculator compiles a new one on reload and swaps it in whole.
+ * 
+ * - rules are ranked once: priority, then number of conditions, then id;
+ *   a lookup returns the first ranked rule that matches
+ * - per payee handle (indexed by UpiHandle id), and once for rules on any
+ *   handle, the amount axis is cut
+ *   into slabs at every rule boundary; each slab lists the rules covering it,
+ *   in rank order, and is found by binary search
+ * - a lookup merges the handle's slab list with the any-handle one and checks
+ *   tier and time of day on each candidate until one matches
+ * - rules live in flat int / long arrays (tiers as small ints), and fees
+ *   without a rate are built once, so a lookup allocates nothing
+ */
+public final class FeeSchedule {
+    
+    private static final int ANY = -1;
+    private static final int UNKNOWN_TIER = -2;
+    private static final long BASIS_POINTS = 10_000;
+    
+    // Stride of conditions: tier, start minute, end minute
+    private static final int CONDITIONS = 3;
+    // Stride of fees: fixed paise, rate in basis points, cap paise
+    private static final int FEES = 3;
+    
+    private static final Comparator<FeeRule> RANK = Comparator
+        .comparingInt(FeeRule::getPriority).reversed()
+        .thenComparing(Comparator.comparingInt(FeeSchedule::conditions).reversed())
+        .thenComparing(FeeRule::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+    
+    private static final Slabs NO_SLABS = Slabs.build(List.of(), new long[0], new long[0]);
+    
+    /**
+     * Used while fee_rules is empty: over ₹1,000 costs ₹5.
+     * Declared after RANK, which compiling it needs.
+     */
+    public static final FeeSchedule DEFAULT = compile(List.of(FeeRule.builder()
+        .minAmount(Money.of("1000.01"))
+        .fixedFee(Money.of("5.00"))
+        .build()));
+    
+    // Indexed by rank (times the stride)
+    private final int[] conditions;
+    private final long[] fees;
+    private final Money[] flatFees;
+    
+    private final String[] tiers;
+    // Indexed by UpiHandle id; NO_SLABS for handles without rules
+    private final Slabs[] handleSlabs;
+    private final Slabs anyHandleSlabs;
+    
+    /**
+     * Compiles a rule table.
+     * 
+     * @throws IllegalArgumentException if a rule cannot match anything or has no fee
+     */
+    public static FeeSchedule compile(List<FeeRule> rules) {
+        List<FeeRule> ranked = new ArrayList<>(rules);
+        ranked.forEach(FeeSchedule::validate);
+        ranked.sort(RANK);
+        return new FeeSchedule(ranked);
+    }
+    
+    private FeeSchedule(List<FeeRule> ranked) {
+        int size = ranked.size();
+        this.conditions = new int[size * CONDITIONS];
+        this.fees = new long[size * FEES];
+        this.flatFees = new Money[size];
+        long[] minAmounts = new long[size];
+        long[] maxAmounts = new long[size];
+        List<String> tierNames = new ArrayList<>();
+        Map<UpiHandle, List<Integer>> byHandle = new LinkedHashMap<>();
+        List<Integer> anyHandle = new ArrayList<>();
+        
+        for (int rank = 0; rank < size; rank++) {
+            FeeRule rule = ranked.get(rank);
+            int tier = ANY;
+            if (rule.getTier() != null) {
+                String name = rule.getTier().toUpperCase(Locale.ROOT);
+                if (!tierNames.contains(name)) {
+                    tierNames.add(name);
+                }
+                tier = tierNames.indexOf(name);
+            }
+            conditions[rank * CONDITIONS] = tier;
+            conditions[rank * CONDITIONS + 1] = rule.getStartTime() == null ? ANY : minuteOfDay(rule.getStartTime());
+            conditions[rank * CONDITIONS + 2] = rule.getEndTime() == null ? ANY : minuteOfDay(rule.getEndTime());
+            
+            long cap = rule.getMaxFee() == null ? Long.MAX_VALUE : rule.getMaxFee().paise();
+            fees[rank * FEES] = rule.getFixedFee().paise();
+            fees[rank * FEES + 1] = rule.getRateBps();
+            fees[rank * FEES + 2] = cap;
+            flatFees[rank] = rule.getRateBps() == 0 ? Money.ofPaise(Math.min(rule.getFixedFee().paise(), cap)) : null;
+            
+            minAmounts[rank] = rule.getMinAmount() == null ? Long.MIN_VALUE : rule.getMinAmount().paise();
+            maxAmounts[rank] = rule.getMaxAmount() == null ? Long.MAX_VALUE : rule.getMaxAmount().paise();
+            if (rule.getPayeeHandle() == null) {
+                anyHandle.add(rank);
+            } else {
+                byHandle.computeIfAbsent(UpiHandle.intern(rule.getPayeeHandle()), h -> new ArrayList<>()).add(rank);
+            }
+        }
+        
+        this.tiers = tierNames.toArray(String[]::new);
+        int maxId = byHandle.keySet().stream().mapToInt(UpiHandle::id).max().orElse(-1);
+        this.handleSlabs = new Slabs[maxId + 1];
+        Arrays.fill(handleSlabs, NO_SLABS);
+        byHandle.forEach((handle, ranks) -> handleSlabs[handle.id()] = Slabs.build(ranks, minAmounts, maxAmounts));
+        this.anyHandleSlabs = Slabs.build(anyHandle, minAmounts, maxAmounts);
+    }
+    
+    /**
+     * @param payee Handle of the destination UPI ID
+     * @param tier Source account's tier, null for none
+     * @param minuteOfDay Local time of the transfer, in minutes since midnight
+     * @return Fee of the first rule that matches, zero if none does
+     */
+    public Money fee(Money amount, UpiHandle payee, String tier, int minuteOfDay) {
+        int rank = match(amount.paise(), payee, tier, minuteOfDay);
+        if (rank < 0) {
+            return Money.ZERO;
+        }
+        Money flat = flatFees[rank];
+        return flat != null ? flat : Money.ofPaise(fee(rank, amount.paise()));
+    }
+    
+    /**
+     * As {@link #fee(Money, UpiHandle, String, int)}, in paise.
+     */
+    public long feePaise(long amountPaise, UpiHandle payee, String tier, int minuteOfDay) {
+        int rank = match(amountPaise, payee, tier, minuteOfDay);
+        return rank < 0 ? 0 : fee(rank, amountPaise);
+    }
+    
+    /**
+     * Whether any rule looks at the account tier, i.e. whether callers need to look it up.
+     */
+    public boolean usesTiers() {
+        return tiers.length > 0;
+    }
+    
+    public int size() {
+        return flatFees.length;
+    }
+    
+    private int match(long amount, UpiHandle payee, String tier, int minuteOfDay) {
+        Slabs specific = payee.id() < handleSlabs.length ? handleSlabs[payee.id()] : NO_SLABS;
+        Slabs any = anyHandleSlabs;
+        int tierId = tierId(tier);
+        
+        // Both lists are in rank order: walk them as one
+        int slab = specific.slab(amount);
+        int i = specific.offsets[slab];
+        int iEnd = specific.offsets[slab + 1];
+        slab = any.slab(amount);
+        int j = any.offsets[slab];
+        int jEnd = any.offsets[slab + 1];
+        while (i < iEnd || j < jEnd) {
+            int rank = j == jEnd || (i < iEnd && specific.ranks[i] < any.ranks[j])
+                ? specific.ranks[i++]
+                : any.ranks[j++];
+            if (matches(rank, tierId, minuteOfDay)) {
+                return rank;
+            }
+        }
+        return -1;
+    }
+    
+    private int tierId(String tier) {
+        if (tier == null) {
+            return UNKNOWN_TIER;
+        }
+        for (int id = 0; id < tiers.length; id++) {
+            if (tiers[id].equalsIgnoreCase(tier)) {
+                return id;
+            }
+        }
+        return UNKNOWN_TIER;
+    }
+    
+    private boolean matches(int rank, int tierId, int minuteOfDay) {
+        int at = rank * CONDITIONS;
+        int tier = conditions[at];
+        if (tier != ANY && tier != tierId) {
+            return false;
+        }
+        int start = conditions[at + 1];
+        if (start == ANY) {
+            return true;
+        }
+        int end = conditions[at + 2];
+        return start < end
+            ? minuteOfDay >= start && minuteOfDay < end
+            : minuteOfDay >= start || minuteOfDay < end;
+    }
+    
+    private long fee(int rank, long amount) {
+        int at = rank * FEES;
+        // Half-up to the paisa; amounts are positive
+        long rate = (Math.multiplyExact(amount, fees[at + 1]) + BASIS_POINTS / 2) / BASIS_POINTS;
+        return Math.min(Math.addExact(fees[at], rate), fees[at + 2]);
+    }
+    
+    private static void validate(FeeRule rule) {
+        if (rule.getFixedFee() == null || rule.getFixedFee().isLessThan(Money.ZERO) || rule.getRateBps() < 0) {
+            throw new IllegalArgumentException("Fee rule " + rule.getId() + " has no fee or a negative one");
+        }
+        if (rule.getMinAmount() != null && rule.getMaxAmount() != null
+                && rule.getMinAmount().isGreaterThan(rule.getMaxAmount())) {
+            throw new IllegalArgumentException("Fee rule " + rule.getId() + " has min_amount above max_amount");
+        }
+        if ((rule.getStartTime() == null) != (rule.getEndTime() == null)
+                || (rule.getStartTime() != null && minuteOfDay(rule.getStartTime()) == minuteOfDay(rule.getEndTime()))) {
+            throw new IllegalArgumentException("Fee rule " + rule.getId() + " needs both start_time and end_time, "
+                + "a minute or more apart");
+        }
+    }
+    
+    private static int conditions(FeeRule rule) {
+        int conditions = 0;
+        if (rule.getMinAmount() != null || rule.getMaxAmount() != null) {
+            conditions++;
+        }
+        if (rule.getPayeeHandle() != null) {
+            conditions++;
+        }
+        if (rule.getTier() != null) {
+            conditions++;
+        }
+        if (rule.getStartTime() != null) {
+            conditions++;
+        }
+        return conditions;
+    }
+    
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+    
+    /**
+     * The amount axis of one handle: slab k runs from lowerBounds[k] up to the
+     * next bound, and ranks[offsets[k]] to ranks[offsets[k + 1]] are the rules
+     * covering it.
+     */
+    private static final class Slabs {
+        
+        private final long[] lowerBounds;
+        private final int[] offsets;
+        private final int[] ranks;
+        
+        private Slabs(long[] lowerBounds, int[] offsets, int[] ranks) {
+            this.lowerBounds = lowerBounds;
+            this.offsets = offsets;
+            this.ranks = ranks;
+        }
+        
+        /**
+         * Binary search without an early exit: the same number of steps for
+         * every amount, each a conditional move rather than a branch the CPU
+         * would mispredict half the time.
+         */
+        int slab(long amount) {
+            int slab = 0;
+            int length = lowerBounds.length;
+            while (length > 1) {
+                int half = length >>> 1;
+                slab = lowerBounds[slab + half] <= amount ? slab + half : slab;
+                length -= half;
+            }
+            return slab;
+        }
+        
+        /**
+         * @param rules Ranks of the rules on this handle, ascending
+         */
+        static Slabs build(List<Integer> rules, long[] minAmounts, long[] maxAmounts) {
+            TreeSet<Long> cuts = new TreeSet<>();
+            cuts.add(Long.MIN_VALUE);
+            for (int rank : rules) {
+                cuts.add(minAmounts[rank]);
+                if (maxAmounts[rank] != Long.MAX_VALUE) {
+                    cuts.add(maxAmounts[rank] + 1);
+                }
+            }
+            long[] bounds = cuts.stream().mapToLong(Long::longValue).toArray();
+            
+            List<List<Integer>> covering = new ArrayList<>(bounds.length);
+            for (int k = 0; k < bounds.length; k++) {
+                covering.add(new ArrayList<>());
+            }
+            for (int rank : rules) {
+                int from = Arrays.binarySearch(bounds, minAmounts[rank]);
+                int to = maxAmounts[rank] == Long.MAX_VALUE
+                    ? bounds.length
+                    : Arrays.binarySearch(bounds, maxAmounts[rank] + 1);
+                for (int k = from; k < to; k++) {
+                    covering.get(k).add(rank);
+                }
+            }
+            
+            // Merge neighbouring slabs covered by the same rules
+            List<Long> lowerBounds = new ArrayList<>();
+            List<Integer> offsets = new ArrayList<>();
+            List<Integer> ranks = new ArrayList<>();
+            List<Integer> previous = null;
+            for (int k = 0; k < bounds.length; k++) {
+                if (!covering.get(k).equals(previous)) {
+                    previous = covering.get(k);
+                    lowerBounds.add(bounds[k]);
+                    offsets.add(ranks.size());
+                    ranks.addAll(previous);
+                }
+            }
+            offsets.add(ranks.size());
+            return new Slabs(lowerBounds.stream().mapToLong(Long::longValue).toArray(),
+                offsets.stream().mapToInt(Integer::intValue).toArray(),
+                ranks.stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+}
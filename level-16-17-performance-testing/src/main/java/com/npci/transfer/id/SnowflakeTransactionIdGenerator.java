@@ -0,0 +1,103 @@
+package com.npci.transfer.id;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered, node-aware generator: TXN-yyyyMMdd-XXXXXXXXXXXXX
+ * 
+ * The 13 characters after the date are a 63-bit Snowflake-style value in
+ * Crockford base32 (fixed width, so IDs sort by creation time):
+ * 
+ *   41 bits  milliseconds since 2024-01-01T00:00Z (good until 2093)
+ *   10 bits  node ID (0-1023), unique per running instance
+ *   12 bits  sequence within the millisecond (4096 IDs/ms per node)
+ * 
+ * Lock-free: one CAS on (milliseconds, sequence). That pair only ever
+ * increases - if the clock goes backwards, or more than 4096 IDs are taken
+ * within a millisecond, IDs keep counting from the last one issued (borrowing
+ * future milliseconds) until the clock catches up. No database coordination:
+ * uniqueness across instances comes from the node ID, which therefore has to
+ * be distinct per instance.
+ */
+public class SnowflakeTransactionIdGenerator implements TransactionIdGenerator {
+    
+    /**
+     * 2024-01-01T00:00:00Z
+     */
+    static final long EPOCH_MILLIS = 1_704_067_200_000L;
+    
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final char[] CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int ENCODED_LENGTH = 13;
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("yyyyMMdd");
+    
+    /**
+     * "TXN-yyyyMMdd-" of one local day, and the millisecond range it covers.
+     */
+    private record DayPrefix(long fromMillis, long toMillis, char[] chars) {
+    }
+    
+    private final long nodeBits;
+    private final Clock clock;
+    private final ZoneId zone;
+    
+    /**
+     * (milliseconds since EPOCH_MILLIS << SEQUENCE_BITS) | sequence of the last ID issued.
+     */
+    private final AtomicLong last = new AtomicLong();
+    private volatile DayPrefix dayPrefix = new DayPrefix(0, 0, new char[0]);
+    
+    public SnowflakeTransactionIdGenerator(int nodeId, Clock clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+        this.zone = clock.getZone();
+    }
+    
+    @Override
+    public String nextId() {
+        long value = nextValue();
+        long millis = (value >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+        
+        DayPrefix prefix = dayPrefix;
+        if (millis < prefix.fromMillis() || millis >= prefix.toMillis()) {
+            prefix = dayPrefix(millis);
+            dayPrefix = prefix;
+        }
+        
+        char[] id = new char[prefix.chars().length + ENCODED_LENGTH];
+        System.arraycopy(prefix.chars(), 0, id, 0, prefix.chars().length);
+        for (int i = id.length - 1; i >= prefix.chars().length; i--) {
+            id[i] = CROCKFORD[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(id);
+    }
+    
+    /**
+     * The next ID as a number; strictly increasing within this generator.
+     */
+    public long nextValue() {
+        long now = (clock.millis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long next = last.updateAndGet(previous -> Math.max(previous + 1, now));
+        return (next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS) | nodeBits | (next & SEQUENCE_MASK);
+    }
+    
+    private DayPrefix dayPrefix(long millis) {
+        LocalDate day = Instant.ofEpochMilli(millis).atZone(zone).toLocalDate();
+        long from = day.atStartOfDay(zone).toInstant().toEpochMilli();
+        long to = day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        return new DayPrefix(from, to, (PREFIX + DAY.format(day) + "-").toCharArray());
+    }
+}
@@ -0,0 +1,39 @@
+package com.npci.transfer.id;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+/**
+ * Source of transaction IDs (transactions.transaction_id).
+ * 
+ * Implementations must be thread-safe and never return the same ID twice;
+ * every ID starts with the documented "TXN-" prefix.
+ * 
+ * @see com.npci.transfer.config.TransactionIdConfig
+ */
+public interface TransactionIdGenerator {
+    
+    String PREFIX = "TXN-";
+    
+    String nextId();
+    
+    /**
+     * Local day an ID was issued on, from the "TXN-yyyyMMdd" both formats start with.
+     * 
+     * @return Empty if the ID does not start that way
+     */
+    static Optional<LocalDate> dayOf(String transactionId) {
+        int end = PREFIX.length() + 8;
+        if (transactionId == null || transactionId.length() < end || !transactionId.startsWith(PREFIX)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(LocalDate.parse(transactionId.substring(PREFIX.length(), end),
+                DateTimeFormatter.BASIC_ISO_DATE));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+}
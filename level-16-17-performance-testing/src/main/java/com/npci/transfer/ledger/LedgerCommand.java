@@ -0,0 +1,60 @@
+package com.npci.transfer.ledger;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Messages processed by a partition's writer thread.
+ * 
+ * Cross-partition protocol (source S, destination D):
+ * 1. Submit  -> S: debit, journal DEBIT, remember as in-flight
+ * 2. Credit  -> D: credit, journal CREDIT, answer the caller   (or REJECT)
+ * 3. Settle  -> S: forget the in-flight debit, journal SETTLE  (or Refund)
+ * After a crash S re-sends Credit for every in-flight debit; D answers
+ * duplicates from its journal, so every transfer is applied exactly once.
+ * 
+ * Steps 2 and 3 identify the transfer by its debit ID (source partition +
+ * journal sequence of the DEBIT record), not by the caller's transaction ID,
+ * which is not guaranteed to be unique.
+ */
+sealed interface LedgerCommand {
+    
+    /**
+     * Fails the caller waiting on this command, if any.
+     */
+    default void fail(Throwable cause) {
+    }
+    
+    record Submit(LedgerTransfer transfer, CompletableFuture<Void> result) implements LedgerCommand {
+        @Override
+        public void fail(Throwable cause) {
+            result.completeExceptionally(cause);
+        }
+    }
+    
+    record Credit(long debitId, LedgerTransfer transfer, CompletableFuture<Void> result) implements LedgerCommand {
+        @Override
+        public void fail(Throwable cause) {
+            result.completeExceptionally(cause);
+        }
+    }
+    
+    record Refund(long debitId, LedgerTransfer transfer, CompletableFuture<Void> result) implements LedgerCommand {
+        @Override
+        public void fail(Throwable cause) {
+            result.completeExceptionally(cause);
+        }
+    }
+    
+    record Settle(long debitId) implements LedgerCommand {
+    }
+    
+    record Open(String upiId, long balance) implements LedgerCommand {
+    }
+    
+    record BalanceQuery(String upiId, CompletableFuture<Long> result) implements LedgerCommand {
+        @Override
+        public void fail(Throwable cause) {
+            result.completeExceptionally(cause);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.npci.transfer.ledger;
+
+import com.npci.transfer.config.ExecutionMode;
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.entity.Account;
+import com.npci.transfer.ledger.LedgerCommand.BalanceQuery;
+import com.npci.transfer.ledger.LedgerCommand.Open;
+import com.npci.transfer.ledger.LedgerCommand.Submit;
+import com.npci.transfer.ledger.LedgerRejectedException.Reason;
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.repository.AccountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * In-memory ledger engine for LEDGER execution mode
+ * 
+ * - Balances live in memory, split into partitions by hash of UPI ID
+ * - Each partition has one writer thread fed by its own queue: no locks
+ * - Durability: per-partition append-only journal (one flush per batch)
+ *   plus periodic snapshots; state is rebuilt from them on startup
+ * - PostgreSQL is an asynchronous projection (LedgerProjector)
+ * - Accounts are loaded from PostgreSQL on first use
+ * 
+ * Only started when transfer.execution.mode=ledger.
+ */
+@Component
+@Slf4j
+public class LedgerEngine implements SmartLifecycle {
+    
+    private final TransferProperties transferProperties;
+    private final AccountRepository accountRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransferMetrics transferMetrics;
+    
+    private final Set<String> loadedAccounts = ConcurrentHashMap.newKeySet();
+    private LedgerPartition[] partitions;
+    private LedgerProjector projector;
+    private volatile boolean running;
+    
+    public LedgerEngine(TransferProperties transferProperties, AccountRepository accountRepository,
+                        JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                        TransferMetrics transferMetrics) {
+        this.transferProperties = transferProperties;
+        this.accountRepository = accountRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transferMetrics = transferMetrics;
+    }
+    
+    // ========== Transfers ==========
+    
+    /**
+     * Executes a transfer and waits until it is journaled.
+     * 
+     * @throws LedgerRejectedException if an account is missing or the balance is insufficient
+     */
+    public void transfer(String transactionId, String sourceUpi, String destinationUpi,
+                         BigDecimal amount, BigDecimal fee, String remarks, LocalDateTime timestamp) {
+        requireRunning();
+        if (!ensureLoaded(sourceUpi)) {
+            throw new LedgerRejectedException(Reason.SOURCE_NOT_FOUND, null);
+        }
+        if (!ensureLoaded(destinationUpi)) {
+            throw new LedgerRejectedException(Reason.DESTINATION_NOT_FOUND, null);
+        }
+        
+        LedgerTransfer transfer = new LedgerTransfer(transactionId, sourceUpi, destinationUpi,
+            LedgerTransfer.toPaise(amount), LedgerTransfer.toPaise(fee), remarks, timestamp);
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        try {
+            partitionOf(sourceUpi).submit(new Submit(transfer, result), timeoutMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing transfer " + transactionId, e);
+        }
+        await(result);
+    }
+    
+    /**
+     * Current in-memory balance, or empty if the account does not exist.
+     */
+    public Optional<BigDecimal> balance(String upiId) {
+        requireRunning();
+        if (!ensureLoaded(upiId)) {
+            return Optional.empty();
+        }
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        partitionOf(upiId).enqueue(new BalanceQuery(upiId, result));
+        Long paise = await(result);
+        return paise == null ? Optional.empty() : Optional.of(LedgerTransfer.toRupees(paise));
+    }
+    
+    LedgerPartition partitionOf(String upiId) {
+        return partitions[Math.floorMod(upiId.hashCode(), partitions.length)];
+    }
+    
+    /**
+     * Makes sure the account's partition knows it, loading it from PostgreSQL on first use.
+     * Open is idempotent, so two callers racing on the same cold account are harmless.
+     */
+    private boolean ensureLoaded(String upiId) {
+        if (loadedAccounts.contains(upiId)) {
+            return true;
+        }
+        Optional<Account> account = accountRepository.findByUpiId(upiId);
+        if (account.isEmpty()) {
+            return false;
+        }
+        partitionOf(upiId).enqueue(new Open(upiId, LedgerTransfer.toPaise(account.get().getBalance())));
+        loadedAccounts.add(upiId);
+        return true;
+    }
+    
+    private <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.get(timeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Ledger command failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Ledger did not answer within "
+                + transferProperties.getLedger().getTimeout(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the ledger", e);
+        }
+    }
+    
+    private long timeoutMillis() {
+        return transferProperties.getLedger().getTimeout().toMillis();
+    }
+    
+    private void requireRunning() {
+        if (!running) {
+            throw new IllegalStateException("Ledger engine is not running (transfer.execution.mode=ledger)");
+        }
+    }
+    
+    // ========== Lifecycle ==========
+    
+    @Override
+    public void start() {
+        if (transferProperties.getExecution().getMode() != ExecutionMode.LEDGER) {
+            return;
+        }
+        
+        TransferProperties.Ledger config = transferProperties.getLedger();
+        try {
+            Path directory = Path.of(config.getJournalDirectory());
+            Files.createDirectories(directory);
+            
+            projector = new LedgerProjector(jdbcTemplate, transactionTemplate, config.getPartitions(),
+                config.getProjectionInterval(), config.getProjectionBatchSize());
+            partitions = new LedgerPartition[config.getPartitions()];
+            for (int i = 0; i < partitions.length; i++) {
+                partitions[i] = new LedgerPartition(i, this, new LedgerJournal(directory, i, config.isFsync()),
+                    projector, transferMetrics, config.getQueueCapacity(), config.getMaxBatch(),
+                    config.getSnapshotInterval());
+                loadedAccounts.addAll(partitions[i].recover());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ledger recovery failed", e);
+        }
+        
+        transferMetrics.registerLedgerProjectionBacklog(projector::backlog);
+        projector.start();
+        for (LedgerPartition partition : partitions) {
+            partition.start();
+        }
+        for (LedgerPartition partition : partitions) {
+            partition.resumeInFlight();
+        }
+        running = true;
+        
+        log.info("Ledger engine started: {} partitions, journal in {}", partitions.length,
+            config.getJournalDirectory());
+    }
+    
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            for (LedgerPartition partition : partitions) {
+                partition.stop();
+            }
+            projector.stop();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Ledger engine stopped");
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
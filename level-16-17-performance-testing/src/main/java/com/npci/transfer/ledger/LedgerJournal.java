@@ -0,0 +1,293 @@
+package com.npci.transfer.ledger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal and snapshot files of one ledger partition
+ * 
+ * partition-N.journal  - [length][crc32][record] entries, appended by the writer thread
+ * partition-N.snapshot - full partition state as of a journal sequence number
+ * 
+ * Every record carries its sequence number, so replaying a journal on top of
+ * a newer snapshot (crash between snapshot and truncation) is harmless.
+ * A torn or corrupt tail record ends the replay.
+ */
+final class LedgerJournal implements Closeable {
+    
+    static final byte OPEN = 1;
+    static final byte TRANSFER = 2;
+    static final byte DEBIT = 3;
+    static final byte CREDIT = 4;
+    static final byte REJECT = 5;
+    static final byte REFUND = 6;
+    static final byte SETTLE = 7;
+    
+    private static final int SNAPSHOT_VERSION = 1;
+    
+    /**
+     * One decoded journal entry; only the fields of its type are set.
+     */
+    record Entry(long seq, byte type, String upiId, long balance, long debitId,
+                 LedgerTransfer transfer, int encodedLength) {
+    }
+    
+    record Snapshot(long seq,
+                    Map<String, Long> balances,
+                    Map<Long, LedgerTransfer> inFlight,
+                    Map<Long, Boolean> creditOutcomes) {
+        
+        static Snapshot empty() {
+            return new Snapshot(0, Map.of(), Map.of(), Map.of());
+        }
+    }
+    
+    private final Path journalFile;
+    private final Path snapshotFile;
+    private final boolean fsync;
+    
+    private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(256);
+    private final DataOutputStream record = new DataOutputStream(recordBytes);
+    private final CRC32 crc = new CRC32();
+    
+    private FileOutputStream file;
+    private DataOutputStream out;
+    
+    LedgerJournal(Path directory, int partition, boolean fsync) {
+        this.journalFile = directory.resolve("partition-" + partition + ".journal");
+        this.snapshotFile = directory.resolve("partition-" + partition + ".snapshot");
+        this.fsync = fsync;
+    }
+    
+    // ========== Writing ==========
+    
+    /**
+     * Opens the journal for appending, cutting off anything after the
+     * last intact record (as reported by replay).
+     */
+    void open(long validLength) throws IOException {
+        file = new FileOutputStream(journalFile.toFile(), true);
+        file.getChannel().truncate(validLength);
+        out = new DataOutputStream(new BufferedOutputStream(file, 64 * 1024));
+    }
+    
+    void appendOpen(long seq, String upiId, long balance) throws IOException {
+        beginRecord(seq, OPEN);
+        record.writeUTF(upiId);
+        record.writeLong(balance);
+        endRecord();
+    }
+    
+    void appendTransfer(long seq, byte type, long debitId, LedgerTransfer transfer) throws IOException {
+        beginRecord(seq, type);
+        record.writeLong(debitId);
+        writeTransfer(record, transfer);
+        endRecord();
+    }
+    
+    void appendSettle(long seq, long debitId) throws IOException {
+        beginRecord(seq, SETTLE);
+        record.writeLong(debitId);
+        endRecord();
+    }
+    
+    /**
+     * Makes everything appended so far durable (one fsync per writer batch).
+     */
+    void flush() throws IOException {
+        out.flush();
+        if (fsync) {
+            file.getFD().sync();
+        }
+    }
+    
+    /**
+     * Writes the snapshot atomically, then starts an empty journal.
+     */
+    void snapshot(Snapshot snapshot) throws IOException {
+        Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (FileOutputStream snapshotOut = new FileOutputStream(temp.toFile());
+             DataOutputStream data = new DataOutputStream(new BufferedOutputStream(snapshotOut, 64 * 1024))) {
+            data.writeInt(SNAPSHOT_VERSION);
+            data.writeLong(snapshot.seq());
+            data.writeInt(snapshot.balances().size());
+            for (Map.Entry<String, Long> balance : snapshot.balances().entrySet()) {
+                data.writeUTF(balance.getKey());
+                data.writeLong(balance.getValue());
+            }
+            data.writeInt(snapshot.inFlight().size());
+            for (Map.Entry<Long, LedgerTransfer> transfer : snapshot.inFlight().entrySet()) {
+                data.writeLong(transfer.getKey());
+                writeTransfer(data, transfer.getValue());
+            }
+            data.writeInt(snapshot.creditOutcomes().size());
+            for (Map.Entry<Long, Boolean> outcome : snapshot.creditOutcomes().entrySet()) {
+                data.writeLong(outcome.getKey());
+                data.writeBoolean(outcome.getValue());
+            }
+            data.flush();
+            snapshotOut.getFD().sync();
+        }
+        Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        
+        close();
+        file = new FileOutputStream(journalFile.toFile(), false);
+        out = new DataOutputStream(new BufferedOutputStream(file, 64 * 1024));
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+    
+    private void beginRecord(long seq, byte type) throws IOException {
+        recordBytes.reset();
+        record.writeLong(seq);
+        record.writeByte(type);
+    }
+    
+    private void endRecord() throws IOException {
+        crc.reset();
+        crc.update(recordBytes.toByteArray(), 0, recordBytes.size());
+        out.writeInt(recordBytes.size());
+        out.writeInt((int) crc.getValue());
+        recordBytes.writeTo(out);
+    }
+    
+    // ========== Reading ==========
+    
+    Snapshot readSnapshot() throws IOException {
+        if (!Files.exists(snapshotFile)) {
+            return Snapshot.empty();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            int version = in.readInt();
+            if (version != SNAPSHOT_VERSION) {
+                throw new IOException("Unsupported ledger snapshot version " + version + " in " + snapshotFile);
+            }
+            long seq = in.readLong();
+            int accounts = in.readInt();
+            Map<String, Long> balances = new HashMap<>(accounts * 2);
+            for (int i = 0; i < accounts; i++) {
+                balances.put(in.readUTF(), in.readLong());
+            }
+            int transfers = in.readInt();
+            Map<Long, LedgerTransfer> inFlight = new LinkedHashMap<>(transfers * 2);
+            for (int i = 0; i < transfers; i++) {
+                inFlight.put(in.readLong(), readTransfer(in));
+            }
+            int outcomes = in.readInt();
+            Map<Long, Boolean> creditOutcomes = new HashMap<>(outcomes * 2);
+            for (int i = 0; i < outcomes; i++) {
+                creditOutcomes.put(in.readLong(), in.readBoolean());
+            }
+            return new Snapshot(seq, balances, inFlight, creditOutcomes);
+        }
+    }
+    
+    /**
+     * Feeds every intact journal entry with a sequence number above afterSeq to the consumer.
+     * 
+     * @return Length in bytes of the intact part of the journal
+     */
+    long replay(long afterSeq, Consumer<Entry> consumer) throws IOException {
+        if (!Files.exists(journalFile)) {
+            return 0;
+        }
+        long validLength = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(journalFile)))) {
+            Entry entry;
+            while ((entry = readEntry(in)) != null) {
+                validLength += entry.encodedLength();
+                if (entry.seq() > afterSeq) {
+                    consumer.accept(entry);
+                }
+            }
+        }
+        return validLength;
+    }
+    
+    private Entry readEntry(DataInputStream in) throws IOException {
+        byte[] bytes;
+        int checksum;
+        try {
+            int length = in.readInt();
+            checksum = in.readInt();
+            if (length <= 0 || length > 1 << 20) {
+                return null;
+            }
+            bytes = in.readNBytes(length);
+            if (bytes.length != length) {
+                return null;
+            }
+        } catch (EOFException e) {
+            return null;
+        }
+        crc.reset();
+        crc.update(bytes);
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+        
+        int encodedLength = 8 + bytes.length;
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(bytes));
+        long seq = data.readLong();
+        byte type = data.readByte();
+        return switch (type) {
+            case OPEN -> new Entry(seq, type, data.readUTF(), data.readLong(), 0, null, encodedLength);
+            case SETTLE -> new Entry(seq, type, null, 0, data.readLong(), null, encodedLength);
+            default -> {
+                long debitId = data.readLong();
+                yield new Entry(seq, type, null, 0, debitId, readTransfer(data), encodedLength);
+            }
+        };
+    }
+    
+    // ========== Transfer encoding ==========
+    
+    private static void writeTransfer(DataOutputStream data, LedgerTransfer transfer) throws IOException {
+        data.writeUTF(transfer.transactionId());
+        data.writeUTF(transfer.sourceUpi());
+        data.writeUTF(transfer.destinationUpi());
+        data.writeLong(transfer.amount());
+        data.writeLong(transfer.fee());
+        data.writeBoolean(transfer.remarks() != null);
+        if (transfer.remarks() != null) {
+            data.writeUTF(transfer.remarks());
+        }
+        data.writeLong(transfer.timestamp().toEpochSecond(ZoneOffset.UTC));
+        data.writeInt(transfer.timestamp().getNano());
+    }
+    
+    private static LedgerTransfer readTransfer(DataInputStream data) throws IOException {
+        String transactionId = data.readUTF();
+        String sourceUpi = data.readUTF();
+        String destinationUpi = data.readUTF();
+        long amount = data.readLong();
+        long fee = data.readLong();
+        String remarks = data.readBoolean() ? data.readUTF() : null;
+        LocalDateTime timestamp = LocalDateTime.ofEpochSecond(data.readLong(), data.readInt(), ZoneOffset.UTC);
+        return new LedgerTransfer(transactionId, sourceUpi, destinationUpi, amount, fee, remarks, timestamp);
+    }
+}
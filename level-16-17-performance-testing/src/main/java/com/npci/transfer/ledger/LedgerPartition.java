@@ -0,0 +1,434 @@
+package com.npci.transfer.ledger;
+
+import com.npci.transfer.ledger.LedgerCommand.BalanceQuery;
+import com.npci.transfer.ledger.LedgerCommand.Credit;
+import com.npci.transfer.ledger.LedgerCommand.Open;
+import com.npci.transfer.ledger.LedgerCommand.Refund;
+import com.npci.transfer.ledger.LedgerCommand.Settle;
+import com.npci.transfer.ledger.LedgerCommand.Submit;
+import com.npci.transfer.ledger.LedgerJournal.Entry;
+import com.npci.transfer.ledger.LedgerJournal.Snapshot;
+import com.npci.transfer.ledger.LedgerRejectedException.Reason;
+import com.npci.transfer.metrics.TransferMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One single-writer ledger partition
+ * 
+ * All state below is owned by the writer thread, so applying a command
+ * needs no locks. The writer drains up to maxBatch commands, applies them,
+ * journals them with one flush, and only then answers callers and forwards
+ * cross-partition messages - nothing becomes visible before it is durable.
+ */
+@Slf4j
+final class LedgerPartition implements Runnable {
+    
+    private static final Duration SNAPSHOT_PROJECTION_WAIT = Duration.ofSeconds(1);
+    
+    /**
+     * Mutable balance in paise, to avoid boxing on every update.
+     */
+    private static final class Balance {
+        long paise;
+        
+        Balance(long paise) {
+            this.paise = paise;
+        }
+    }
+    
+    private final int id;
+    private final LedgerEngine engine;
+    private final LedgerJournal journal;
+    private final LedgerProjector projector;
+    private final TransferMetrics transferMetrics;
+    private final int maxBatch;
+    private final long snapshotInterval;
+    
+    private final LinkedBlockingQueue<LedgerCommand> queue = new LinkedBlockingQueue<>();
+    private final Semaphore admission;
+    
+    // Writer thread state
+    private final Map<String, Balance> balances = new HashMap<>();
+    private final Map<Long, LedgerTransfer> inFlight = new LinkedHashMap<>();
+    private Map<Long, Boolean> creditOutcomes = new HashMap<>();
+    private Map<Long, Boolean> previousCreditOutcomes = new HashMap<>();
+    private final List<Runnable> afterFlush = new ArrayList<>();
+    private long seq;
+    private long nextSnapshotSeq;
+    
+    private volatile boolean running;
+    private volatile Throwable failure;
+    private Thread thread;
+    
+    LedgerPartition(int id, LedgerEngine engine, LedgerJournal journal, LedgerProjector projector,
+                    TransferMetrics transferMetrics, int queueCapacity, int maxBatch, long snapshotInterval) {
+        this.id = id;
+        this.engine = engine;
+        this.journal = journal;
+        this.projector = projector;
+        this.transferMetrics = transferMetrics;
+        this.admission = new Semaphore(queueCapacity);
+        this.maxBatch = maxBatch;
+        this.snapshotInterval = snapshotInterval;
+    }
+    
+    // ========== Lifecycle ==========
+    
+    /**
+     * Rebuilds state from snapshot + journal and re-projects it to PostgreSQL.
+     * 
+     * @return UPI IDs owned by this partition
+     */
+    Set<String> recover() throws IOException {
+        Snapshot snapshot = journal.readSnapshot();
+        snapshot.balances().forEach((upiId, paise) -> balances.put(upiId, new Balance(paise)));
+        inFlight.putAll(snapshot.inFlight());
+        previousCreditOutcomes = new HashMap<>(snapshot.creditOutcomes());
+        seq = snapshot.seq();
+        nextSnapshotSeq = snapshot.seq() + snapshotInterval;
+        
+        List<LedgerTransfer> replayedTransfers = new ArrayList<>();
+        long validLength = journal.replay(snapshot.seq(), entry -> {
+            replay(entry);
+            if (entry.type() == LedgerJournal.TRANSFER || entry.type() == LedgerJournal.CREDIT) {
+                replayedTransfers.add(entry.transfer());
+            }
+            seq = entry.seq();
+        });
+        journal.open(validLength);
+        
+        balances.forEach((upiId, balance) -> projector.balanceChanged(id, upiId, balance.paise));
+        replayedTransfers.forEach(transfer -> projector.transferCompleted(id, transfer));
+        
+        log.info("Ledger partition {} recovered {} accounts, {} in-flight transfers (seq {})",
+            id, balances.size(), inFlight.size(), seq);
+        return Set.copyOf(balances.keySet());
+    }
+    
+    /**
+     * Re-sends the credit step of debits whose outcome was not journaled before a restart.
+     */
+    void resumeInFlight() {
+        Map<Long, LedgerTransfer> pending = Map.copyOf(inFlight);
+        pending.forEach((debitId, transfer) -> engine.partitionOf(transfer.destinationUpi())
+            .enqueue(new Credit(debitId, transfer, new CompletableFuture<>())));
+    }
+    
+    void start() {
+        running = true;
+        thread = new Thread(this, "ledger-partition-" + id);
+        thread.start();
+    }
+    
+    /**
+     * Applies what is already queued, then stops. Messages forwarded to a stopped
+     * partition are not lost: the in-flight debit is re-sent after restart.
+     */
+    void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Could not close journal of ledger partition {}", id, e);
+        }
+    }
+    
+    // ========== Submission (any thread) ==========
+    
+    /**
+     * Queues a caller's transfer, waiting at most timeoutMillis for queue space.
+     */
+    void submit(Submit command, long timeoutMillis) throws InterruptedException {
+        if (!admission.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("Ledger partition " + id + " is saturated");
+        }
+        command.result().whenComplete((ignored, error) -> admission.release());
+        enqueue(command);
+    }
+    
+    void enqueue(LedgerCommand command) {
+        if (failure != null) {
+            command.fail(new IllegalStateException("Ledger partition " + id + " has failed", failure));
+            return;
+        }
+        queue.add(command);
+    }
+    
+    int queueDepth() {
+        return queue.size();
+    }
+    
+    // ========== Writer thread ==========
+    
+    @Override
+    public void run() {
+        List<LedgerCommand> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                LedgerCommand first = queue.poll(10, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            
+            try {
+                for (LedgerCommand command : batch) {
+                    apply(command);
+                }
+                journal.flush();
+            } catch (IOException | RuntimeException e) {
+                // Memory is now ahead of the journal: refuse everything from here on
+                afterFlush.clear();
+                batch.forEach(command -> command.fail(e));
+                halt(e);
+                return;
+            }
+            
+            afterFlush.forEach(Runnable::run);
+            afterFlush.clear();
+            transferMetrics.recordLedgerBatch(batch.size());
+            batch.clear();
+            
+            try {
+                snapshotIfDue();
+            } catch (IOException e) {
+                halt(e);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+    
+    private void halt(Exception cause) {
+        log.error("Ledger partition {} failed, stopping it", id, cause);
+        failure = cause;
+        LedgerCommand queued;
+        while ((queued = queue.poll()) != null) {
+            queued.fail(cause);
+        }
+    }
+    
+    private void apply(LedgerCommand command) throws IOException {
+        if (command instanceof Submit submit) {
+            applySubmit(submit);
+        } else if (command instanceof Credit credit) {
+            applyCredit(credit);
+        } else if (command instanceof Settle settle) {
+            applySettle(settle);
+        } else if (command instanceof Refund refund) {
+            applyRefund(refund);
+        } else if (command instanceof Open open) {
+            applyOpen(open);
+        } else if (command instanceof BalanceQuery query) {
+            Balance balance = balances.get(query.upiId());
+            Long paise = balance == null ? null : balance.paise;
+            afterFlush.add(() -> query.result().complete(paise));
+        }
+    }
+    
+    private void applySubmit(Submit submit) throws IOException {
+        LedgerTransfer transfer = submit.transfer();
+        Balance source = balances.get(transfer.sourceUpi());
+        if (source == null) {
+            submit.result().completeExceptionally(new LedgerRejectedException(Reason.SOURCE_NOT_FOUND, null));
+            return;
+        }
+        
+        LedgerPartition destinationPartition = engine.partitionOf(transfer.destinationUpi());
+        Balance destination = null;
+        if (destinationPartition == this) {
+            destination = balances.get(transfer.destinationUpi());
+            if (destination == null) {
+                submit.result().completeExceptionally(
+                    new LedgerRejectedException(Reason.DESTINATION_NOT_FOUND, null));
+                return;
+            }
+        }
+        
+        if (source.paise < transfer.totalDebit()) {
+            submit.result().completeExceptionally(new LedgerRejectedException(
+                Reason.INSUFFICIENT_BALANCE, LedgerTransfer.toRupees(source.paise)));
+            return;
+        }
+        
+        source.paise -= transfer.totalDebit();
+        long sourceBalance = source.paise;
+        
+        if (destination != null) {
+            // Same partition: the whole transfer is one journal record
+            destination.paise += transfer.amount();
+            long destinationBalance = destination.paise;
+            journal.appendTransfer(++seq, LedgerJournal.TRANSFER, 0, transfer);
+            afterFlush.add(() -> {
+                projector.balanceChanged(id, transfer.sourceUpi(), sourceBalance);
+                projector.balanceChanged(id, transfer.destinationUpi(), destinationBalance);
+                projector.transferCompleted(id, transfer);
+                submit.result().complete(null);
+            });
+        } else {
+            // Step 1 of 3: debit here, credit on the destination's partition
+            long debitId = debitId(id, ++seq);
+            journal.appendTransfer(seq, LedgerJournal.DEBIT, debitId, transfer);
+            inFlight.put(debitId, transfer);
+            afterFlush.add(() -> {
+                projector.balanceChanged(id, transfer.sourceUpi(), sourceBalance);
+                destinationPartition.enqueue(new Credit(debitId, transfer, submit.result()));
+            });
+        }
+    }
+    
+    private void applyCredit(Credit credit) throws IOException {
+        LedgerTransfer transfer = credit.transfer();
+        LedgerPartition sourcePartition = engine.partitionOf(transfer.sourceUpi());
+        
+        Boolean outcome = creditOutcome(credit.debitId());
+        if (outcome != null) {
+            // Re-sent after a restart: answer again without applying twice
+            afterFlush.add(() -> {
+                if (outcome) {
+                    credit.result().complete(null);
+                    sourcePartition.enqueue(new Settle(credit.debitId()));
+                } else {
+                    sourcePartition.enqueue(new Refund(credit.debitId(), transfer, credit.result()));
+                }
+            });
+            return;
+        }
+        
+        Balance destination = balances.get(transfer.destinationUpi());
+        if (destination == null) {
+            journal.appendTransfer(++seq, LedgerJournal.REJECT, credit.debitId(), transfer);
+            creditOutcomes.put(credit.debitId(), Boolean.FALSE);
+            afterFlush.add(() -> sourcePartition.enqueue(new Refund(credit.debitId(), transfer, credit.result())));
+            return;
+        }
+        
+        // Step 2 of 3
+        destination.paise += transfer.amount();
+        long destinationBalance = destination.paise;
+        journal.appendTransfer(++seq, LedgerJournal.CREDIT, credit.debitId(), transfer);
+        creditOutcomes.put(credit.debitId(), Boolean.TRUE);
+        afterFlush.add(() -> {
+            projector.balanceChanged(id, transfer.destinationUpi(), destinationBalance);
+            projector.transferCompleted(id, transfer);
+            credit.result().complete(null);
+            sourcePartition.enqueue(new Settle(credit.debitId()));
+        });
+    }
+    
+    private void applySettle(Settle settle) throws IOException {
+        // Step 3 of 3
+        if (inFlight.remove(settle.debitId()) != null) {
+            journal.appendSettle(++seq, settle.debitId());
+        }
+    }
+    
+    private void applyRefund(Refund refund) throws IOException {
+        LedgerTransfer transfer = refund.transfer();
+        if (inFlight.remove(refund.debitId()) == null) {
+            return;
+        }
+        
+        // Compensation: the destination disappeared between check and credit
+        Balance source = balances.get(transfer.sourceUpi());
+        source.paise += transfer.totalDebit();
+        long sourceBalance = source.paise;
+        journal.appendTransfer(++seq, LedgerJournal.REFUND, refund.debitId(), transfer);
+        afterFlush.add(() -> {
+            projector.balanceChanged(id, transfer.sourceUpi(), sourceBalance);
+            refund.result().completeExceptionally(new LedgerRejectedException(Reason.DESTINATION_NOT_FOUND, null));
+        });
+    }
+    
+    private void applyOpen(Open open) throws IOException {
+        if (balances.containsKey(open.upiId())) {
+            return;
+        }
+        balances.put(open.upiId(), new Balance(open.balance()));
+        journal.appendOpen(++seq, open.upiId(), open.balance());
+    }
+    
+    private Boolean creditOutcome(long debitId) {
+        Boolean outcome = creditOutcomes.get(debitId);
+        return outcome != null ? outcome : previousCreditOutcomes.get(debitId);
+    }
+    
+    /**
+     * Engine-wide ID of a cross-partition debit: partition in the top bits, journal sequence below.
+     */
+    private static long debitId(int partition, long seq) {
+        return ((long) partition << 48) | seq;
+    }
+    
+    /**
+     * Snapshots once enough records accumulated. The journal is truncated afterwards,
+     * so the writer first waits (briefly) for PostgreSQL to see every change; if the
+     * projection is stuck, the journal simply keeps growing until the next attempt.
+     * Credit outcomes are kept for two snapshot intervals to answer re-sent credits.
+     */
+    private void snapshotIfDue() throws IOException, InterruptedException {
+        if (seq < nextSnapshotSeq) {
+            return;
+        }
+        if (!projector.awaitCaughtUp(id, SNAPSHOT_PROJECTION_WAIT)) {
+            log.warn("Ledger partition {} skipped a snapshot: projection backlog did not drain", id);
+            nextSnapshotSeq = seq + snapshotInterval;
+            return;
+        }
+        
+        Map<String, Long> balanceCopy = new HashMap<>(balances.size() * 2);
+        balances.forEach((upiId, balance) -> balanceCopy.put(upiId, balance.paise));
+        journal.snapshot(new Snapshot(seq, balanceCopy, new LinkedHashMap<>(inFlight), creditOutcomes));
+        previousCreditOutcomes = creditOutcomes;
+        creditOutcomes = new HashMap<>();
+        nextSnapshotSeq = seq + snapshotInterval;
+    }
+    
+    private void replay(Entry entry) {
+        switch (entry.type()) {
+            case LedgerJournal.OPEN -> balances.putIfAbsent(entry.upiId(), new Balance(entry.balance()));
+            case LedgerJournal.TRANSFER -> {
+                balances.get(entry.transfer().sourceUpi()).paise -= entry.transfer().totalDebit();
+                balances.get(entry.transfer().destinationUpi()).paise += entry.transfer().amount();
+            }
+            case LedgerJournal.DEBIT -> {
+                balances.get(entry.transfer().sourceUpi()).paise -= entry.transfer().totalDebit();
+                inFlight.put(entry.debitId(), entry.transfer());
+            }
+            case LedgerJournal.CREDIT -> {
+                balances.get(entry.transfer().destinationUpi()).paise += entry.transfer().amount();
+                creditOutcomes.put(entry.debitId(), Boolean.TRUE);
+            }
+            case LedgerJournal.REJECT -> creditOutcomes.put(entry.debitId(), Boolean.FALSE);
+            case LedgerJournal.REFUND -> {
+                balances.get(entry.transfer().sourceUpi()).paise += entry.transfer().totalDebit();
+                inFlight.remove(entry.debitId());
+            }
+            case LedgerJournal.SETTLE -> inFlight.remove(entry.debitId());
+            default -> throw new IllegalStateException("Unknown ledger journal record type " + entry.type());
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.npci.transfer.ledger;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Asynchronous PostgreSQL projection of the ledger
+ * 
+ * Partitions publish balance changes and completed transfers after their
+ * journal flush; one projector thread writes them in batches:
+ * - balances coalesced per account (only the latest value is written)
+ * - transactions inserted with ON CONFLICT DO NOTHING (replays are idempotent);
+ *   no conflict target, as a partitioned table has no key on transaction_id alone
+ * 
+ * A failed batch is kept and retried on the next cycle.
+ */
+@Slf4j
+final class LedgerProjector implements Runnable {
+    
+    private static final String UPDATE_BALANCE_SQL =
+        "UPDATE accounts SET balance = ?, version = COALESCE(version, 0) + 1 WHERE upi_id = ?";
+    
+    private static final String INSERT_TRANSACTION_SQL =
+        "INSERT INTO transactions (id, transaction_id, source_upi, destination_upi, amount, fee, "
+            + "total_debited, status, remarks, \"timestamp\") "
+            + "VALUES (nextval('transactions_seq'), ?, ?, ?, ?, ?, ?, 'SUCCESS', ?, ?) "
+            + "ON CONFLICT DO NOTHING";
+    
+    private record Change(int partition, String upiId, long balance, LedgerTransfer transfer) {
+    }
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration interval;
+    private final int batchSize;
+    
+    private final LinkedBlockingQueue<Change> changes = new LinkedBlockingQueue<>();
+    private final AtomicIntegerArray unprojected;
+    
+    private final Map<String, Long> pendingBalances = new LinkedHashMap<>();
+    private final List<LedgerTransfer> pendingTransfers = new ArrayList<>();
+    private final int[] pendingPerPartition;
+    
+    private volatile boolean running;
+    private Thread thread;
+    
+    LedgerProjector(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                    int partitions, Duration interval, int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.interval = interval;
+        this.batchSize = batchSize;
+        this.unprojected = new AtomicIntegerArray(partitions);
+        this.pendingPerPartition = new int[partitions];
+    }
+    
+    void balanceChanged(int partition, String upiId, long balance) {
+        publish(new Change(partition, upiId, balance, null));
+    }
+    
+    void transferCompleted(int partition, LedgerTransfer transfer) {
+        publish(new Change(partition, null, 0, transfer));
+    }
+    
+    /**
+     * Waits until every change published by the partition has reached PostgreSQL
+     * (a partition only snapshots, and truncates its journal, when it has).
+     * 
+     * @return false if the projection did not catch up in time
+     */
+    boolean awaitCaughtUp(int partition, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (unprojected.get(partition) > 0) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            Thread.sleep(1);
+        }
+        return true;
+    }
+    
+    int backlog() {
+        int total = 0;
+        for (int i = 0; i < unprojected.length(); i++) {
+            total += unprojected.get(i);
+        }
+        return total;
+    }
+    
+    void start() {
+        running = true;
+        thread = new Thread(this, "ledger-projector");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    /**
+     * Stops after projecting everything published so far.
+     */
+    void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+    
+    @Override
+    public void run() {
+        List<Change> drained = new ArrayList<>(batchSize);
+        while (running || !changes.isEmpty() || hasPending()) {
+            try {
+                Change first = changes.poll(interval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    drained.add(first);
+                    changes.drainTo(drained, batchSize - 1);
+                    for (Change change : drained) {
+                        collect(change);
+                    }
+                    drained.clear();
+                }
+                if (hasPending()) {
+                    write();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Ledger projection failed, retrying in {}", interval, e);
+                sleepQuietly();
+            }
+        }
+    }
+    
+    private void publish(Change change) {
+        unprojected.incrementAndGet(change.partition());
+        changes.add(change);
+    }
+    
+    private void collect(Change change) {
+        if (change.transfer() != null) {
+            pendingTransfers.add(change.transfer());
+        } else {
+            pendingBalances.put(change.upiId(), change.balance());
+        }
+        pendingPerPartition[change.partition()]++;
+    }
+    
+    private boolean hasPending() {
+        return !pendingBalances.isEmpty() || !pendingTransfers.isEmpty();
+    }
+    
+    private void write() {
+        List<Object[]> balanceArgs = new ArrayList<>(pendingBalances.size());
+        pendingBalances.forEach((upiId, balance) ->
+            balanceArgs.add(new Object[] {LedgerTransfer.toRupees(balance), upiId}));
+        
+        List<Object[]> transferArgs = new ArrayList<>(pendingTransfers.size());
+        for (LedgerTransfer transfer : pendingTransfers) {
+            transferArgs.add(new Object[] {
+                transfer.transactionId(),
+                transfer.sourceUpi(),
+                transfer.destinationUpi(),
+                LedgerTransfer.toRupees(transfer.amount()),
+                LedgerTransfer.toRupees(transfer.fee()),
+                LedgerTransfer.toRupees(transfer.totalDebit()),
+                transfer.remarks(),
+                Timestamp.valueOf(transfer.timestamp())
+            });
+        }
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!balanceArgs.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_BALANCE_SQL, balanceArgs);
+            }
+            if (!transferArgs.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, transferArgs);
+            }
+        });
+        
+        pendingBalances.clear();
+        pendingTransfers.clear();
+        for (int partition = 0; partition < pendingPerPartition.length; partition++) {
+            if (pendingPerPartition[partition] > 0) {
+                unprojected.addAndGet(partition, -pendingPerPartition[partition]);
+                pendingPerPartition[partition] = 0;
+            }
+        }
+    }
+    
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(interval.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.npci.transfer.ledger;
+
+import java.math.BigDecimal;
+
+/**
+ * A transfer the ledger refused without changing any balance.
+ * TransferService maps the reason to the same exceptions as the JPA path.
+ */
+public class LedgerRejectedException extends RuntimeException {
+    
+    public enum Reason {
+        SOURCE_NOT_FOUND,
+        DESTINATION_NOT_FOUND,
+        INSUFFICIENT_BALANCE
+    }
+    
+    private final Reason reason;
+    private final BigDecimal availableBalance;
+    
+    public LedgerRejectedException(Reason reason, BigDecimal availableBalance) {
+        super(reason.name(), null, false, false);
+        this.reason = reason;
+        this.availableBalance = availableBalance;
+    }
+    
+    public Reason getReason() {
+        return reason;
+    }
+    
+    /**
+     * Source balance at the time of rejection (INSUFFICIENT_BALANCE only).
+     */
+    public BigDecimal getAvailableBalance() {
+        return availableBalance;
+    }
+}
@@ -0,0 +1,28 @@
+package com.npci.transfer.ledger;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A transfer as the ledger stores it: amounts in paise.
+ */
+record LedgerTransfer(String transactionId,
+                      String sourceUpi,
+                      String destinationUpi,
+                      long amount,
+                      long fee,
+                      String remarks,
+                      LocalDateTime timestamp) {
+    
+    long totalDebit() {
+        return amount + fee;
+    }
+    
+    static long toPaise(BigDecimal rupees) {
+        return rupees.movePointRight(2).longValueExact();
+    }
+    
+    static BigDecimal toRupees(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+}
@@ -0,0 +1,501 @@
+package com.npci.transfer.metrics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.npci.transfer.upi.UpiHandle;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Transfer Metrics - custom Micrometer meters for the transfer hot path
+ * 
+ * Exposed via /actuator/prometheus next to http_server_requests_seconds,
+ * so JMeter runs can be correlated with what happens inside the service.
+ */
+@Component
+public class TransferMetrics {
+    
+    private final Timer lockWaitTimer;
+    private final Counter optimisticConflicts;
+    private final Counter optimisticRetries;
+    private final Counter optimisticExhausted;
+    private final Counter stripeCreditWaits;
+    private final Timer stripeConsolidationTimer;
+    private final DistributionSummary ledgerBatchSize;
+    private final DistributionSummary groupCommitBatchSize;
+    private final Timer groupCommitWaitTimer;
+    private final Timer groupCommitTimer;
+    private final Counter groupCommitFailures;
+    private final Counter groupCommitSplits;
+    private final DistributionSummary asyncBatchSize;
+    private final Timer asyncLagTimer;
+    private final Counter asyncSucceeded;
+    private final Counter asyncFailed;
+    private final Counter asyncBatchFailures;
+    private final DistributionSummary batchRequestSize;
+    private final Timer batchChunkTimer;
+    private final DistributionSummary limitFlushSize;
+    private final Timer limitFlushTimer;
+    private final DistributionSummary limitLeaseSize;
+    private final DistributionSummary limitLeaseReturned;
+    private final Timer metadataLoadTimer;
+    private final Timer metadataInvalidationLag;
+    private final Counter metadataListenFailures;
+    private final Counter upiFilterRejections;
+    private final Counter upiFilterFalsePositives;
+    private final Timer upiFilterBuildTimer;
+    private final Timer feeScheduleCompileTimer;
+    private final Counter feeScheduleReloadFailures;
+    private final Timer partitionMaintenanceTimer;
+    private final Counter partitionMaintenanceFailures;
+    private final Counter statusDatabaseReads;
+    private final Counter replicaFallbacks;
+    private final Map<UpiHandle, Counter> requestsByPayeeHandle = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    
+    public TransferMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.lockWaitTimer = Timer.builder("transfer.account.lock.wait")
+            .description("Time spent acquiring row locks on the source and destination accounts")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        
+        this.optimisticConflicts = Counter.builder("transfer.optimistic.conflicts")
+            .description("Transfers that hit a stale account @Version on commit")
+            .register(meterRegistry);
+        this.optimisticRetries = Counter.builder("transfer.optimistic.retries")
+            .description("Transfer attempts repeated after an optimistic locking conflict")
+            .register(meterRegistry);
+        this.optimisticExhausted = Counter.builder("transfer.optimistic.exhausted")
+            .description("Transfers that ran out of retry budget")
+            .register(meterRegistry);
+        
+        this.stripeCreditWaits = Counter.builder("transfer.striping.credit.waits")
+            .description("Credits to a hot account that found every stripe locked and had to wait")
+            .register(meterRegistry);
+        this.stripeConsolidationTimer = Timer.builder("transfer.striping.consolidation")
+            .description("Time to fold the stripes of one hot account back into its accounts row")
+            .register(meterRegistry);
+        
+        this.ledgerBatchSize = DistributionSummary.builder("transfer.ledger.batch.size")
+            .description("Commands applied by a ledger partition per journal flush")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        
+        this.groupCommitBatchSize = DistributionSummary.builder("transfer.groupcommit.batch.size")
+            .description("Transfers committed together in one database transaction")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.groupCommitWaitTimer = Timer.builder("transfer.groupcommit.wait")
+            .description("Time a transfer waited in the queue before its batch started")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+        this.groupCommitTimer = Timer.builder("transfer.groupcommit.commit")
+            .description("Time to apply and commit one batch of transfers")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+        this.groupCommitFailures = Counter.builder("transfer.groupcommit.failures")
+            .description("Batch transactions that failed and were rolled back")
+            .register(meterRegistry);
+        this.groupCommitSplits = Counter.builder("transfer.groupcommit.splits")
+            .description("Failed batches retried as two halves")
+            .register(meterRegistry);
+        
+        this.asyncBatchSize = DistributionSummary.builder("transfer.async.batch.size")
+            .description("PENDING transfers claimed and executed in one database transaction")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.asyncLagTimer = Timer.builder("transfer.async.lag")
+            .description("Time from accepting a transfer (202) to executing it")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+        this.asyncSucceeded = Counter.builder("transfer.async.executed")
+            .description("Asynchronous transfers executed, by outcome")
+            .tag("outcome", "success")
+            .register(meterRegistry);
+        this.asyncFailed = Counter.builder("transfer.async.executed")
+            .description("Asynchronous transfers executed, by outcome")
+            .tag("outcome", "failed")
+            .register(meterRegistry);
+        this.asyncBatchFailures = Counter.builder("transfer.async.batch.failures")
+            .description("Worker transactions that failed and were rolled back")
+            .register(meterRegistry);
+        
+        this.batchRequestSize = DistributionSummary.builder("transfer.batch.request.size")
+            .description("Transfers per POST /v1/transfers/batch call")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.batchChunkTimer = Timer.builder("transfer.batch.chunk")
+            .description("Time to apply and commit one chunk of a batch transfer call")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+        
+        this.limitFlushSize = DistributionSummary.builder("transfer.limits.flush.accounts")
+            .description("Accounts whose limit usage was written back per flush")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.limitFlushTimer = Timer.builder("transfer.limits.flush")
+            .description("Time to write changed limit usage back to the accounts table")
+            .register(meterRegistry);
+        this.limitLeaseSize = DistributionSummary.builder("transfer.limits.lease.granted")
+            .description("Allowance leased from an accounts row per round trip")
+            .baseUnit("rupees")
+            .register(meterRegistry);
+        this.limitLeaseReturned = DistributionSummary.builder("transfer.limits.lease.returned")
+            .description("Unspent leased allowance given back on expiry or shutdown")
+            .baseUnit("rupees")
+            .register(meterRegistry);
+        
+        this.metadataLoadTimer = Timer.builder("transfer.metadata.load")
+            .description("Time to load the metadata of an account missing from the cache")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+        this.metadataInvalidationLag = Timer.builder("transfer.metadata.invalidation.lag")
+            .description("Time from an accounts row change to this instance evicting its cached metadata")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+        this.metadataListenFailures = Counter.builder("transfer.metadata.listen.failures")
+            .description("LISTEN connections lost; the whole metadata cache is dropped on reconnect")
+            .register(meterRegistry);
+        
+        this.upiFilterRejections = Counter.builder("transfer.upi.filter.rejections")
+            .description("Lookups of UPI IDs the Bloom filter has never seen, answered without a query")
+            .register(meterRegistry);
+        this.upiFilterFalsePositives = Counter.builder("transfer.upi.filter.false.positives")
+            .description("UPI IDs the Bloom filter let through that the database did not know")
+            .register(meterRegistry);
+        this.upiFilterBuildTimer = Timer.builder("transfer.upi.filter.build")
+            .description("Time to stream every accounts.upi_id into a new Bloom filter")
+            .register(meterRegistry);
+        
+        this.feeScheduleCompileTimer = Timer.builder("transfer.fees.compile")
+            .description("Time to compile a changed fee_rules table into a new fee schedule")
+            .register(meterRegistry);
+        this.feeScheduleReloadFailures = Counter.builder("transfer.fees.reload.failures")
+            .description("fee_rules reads or compiles that failed; the previous schedule stays in use")
+            .register(meterRegistry);
+        
+        this.partitionMaintenanceTimer = Timer.builder("transfer.partitions.maintenance")
+            .description("Time to create upcoming transactions partitions and retire expired ones")
+            .register(meterRegistry);
+        this.partitionMaintenanceFailures = Counter.builder("transfer.partitions.maintenance.failures")
+            .description("Partition maintenance runs that failed; premade partitions keep inserts working")
+            .register(meterRegistry);
+        
+        this.statusDatabaseReads = Counter.builder("transfer.status.database.reads")
+            .description("Transaction status lookups not answered from the status cache")
+            .register(meterRegistry);
+        
+        this.replicaFallbacks = Counter.builder("transfer.replica.fallbacks")
+            .description("Read-only transactions sent to the primary because no replica was within their staleness budget")
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Records how long the SELECT ... FOR UPDATE for a transfer took.
+     * 
+     * @param nanos Elapsed time in nanoseconds
+     */
+    public void recordLockWait(long nanos) {
+        lockWaitTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordOptimisticConflict() {
+        optimisticConflicts.increment();
+    }
+    
+    public void recordOptimisticRetries(int retries) {
+        if (retries > 0) {
+            optimisticRetries.increment(retries);
+        }
+    }
+    
+    public void recordOptimisticExhausted() {
+        optimisticExhausted.increment();
+    }
+    
+    public void recordStripeCreditWait() {
+        stripeCreditWaits.increment();
+    }
+    
+    public void recordStripeConsolidation(long nanos) {
+        stripeConsolidationTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordLedgerBatch(int commands) {
+        ledgerBatchSize.record(commands);
+    }
+    
+    /**
+     * Exposes how many balance / transaction updates still wait for PostgreSQL.
+     */
+    public void registerLedgerProjectionBacklog(Supplier<Number> backlog) {
+        Gauge.builder("transfer.ledger.projection.backlog", backlog)
+            .description("Ledger changes not yet projected to PostgreSQL")
+            .register(meterRegistry);
+    }
+    
+    public void recordGroupCommitWait(long nanos) {
+        groupCommitWaitTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordGroupCommit(int transfers, long nanos) {
+        groupCommitBatchSize.record(transfers);
+        groupCommitTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordGroupCommitFailure(boolean split) {
+        groupCommitFailures.increment();
+        if (split) {
+            groupCommitSplits.increment();
+        }
+    }
+    
+    /**
+     * Exposes how many transfers wait for a group commit batch.
+     */
+    public void registerGroupCommitQueue(Supplier<Number> depth) {
+        Gauge.builder("transfer.groupcommit.queue.depth", depth)
+            .description("Transfers queued for the next group commit batch")
+            .register(meterRegistry);
+    }
+    
+    public void recordAsyncBatch(int transfers) {
+        asyncBatchSize.record(transfers);
+    }
+    
+    /**
+     * Records one executed asynchronous transfer.
+     * 
+     * @param lagNanos Time since it was accepted
+     */
+    public void recordAsyncTransfer(boolean succeeded, long lagNanos) {
+        (succeeded ? asyncSucceeded : asyncFailed).increment();
+        asyncLagTimer.record(lagNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordAsyncBatchFailure() {
+        asyncBatchFailures.increment();
+    }
+    
+    /**
+     * Exposes how many transfers are PENDING and how long the oldest has waited.
+     */
+    public void registerAsyncQueue(Supplier<Number> depth, Supplier<Number> ageSeconds) {
+        Gauge.builder("transfer.async.queue.depth", depth)
+            .description("Accepted transfers still PENDING")
+            .register(meterRegistry);
+        Gauge.builder("transfer.async.queue.age", ageSeconds)
+            .description("How long the oldest PENDING transfer has waited")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+    
+    public void recordBatchRequest(int transfers) {
+        batchRequestSize.record(transfers);
+    }
+    
+    public void recordBatchChunk(long nanos) {
+        batchChunkTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Counts a request answered with a stored response instead of being executed.
+     * 
+     * @param source cache or database
+     */
+    public void recordIdempotentReplay(String source) {
+        Counter.builder("transfer.idempotency.replays")
+            .description("Requests answered with the response stored for their Idempotency-Key")
+            .tag("source", source)
+            .register(meterRegistry)
+            .increment();
+    }
+    
+    /**
+     * Counts a transfer rejected by the daily or monthly limit of its source account.
+     * 
+     * @param period daily or monthly
+     */
+    public void recordLimitRejection(String period) {
+        Counter.builder("transfer.limits.rejected")
+            .description("Transfers rejected because they would exceed an account limit")
+            .tag("period", period)
+            .register(meterRegistry)
+            .increment();
+    }
+    
+    public void recordLimitFlush(int accounts, long nanos) {
+        limitFlushSize.record(accounts);
+        limitFlushTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordLimitLease(double amount) {
+        limitLeaseSize.record(amount);
+    }
+    
+    public void recordLimitLeaseReturn(double amount) {
+        limitLeaseReturned.record(amount);
+    }
+    
+    /**
+     * Exports size, hits, misses and evictions (cache_* with cache=account.metadata)
+     * and the hit ratio of the account metadata cache.
+     */
+    public void registerMetadataCache(Cache<?, ?> cache) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "account.metadata");
+        Gauge.builder("transfer.metadata.cache.hit.ratio", cache, c -> c.stats().hitRate())
+            .description("Share of account metadata lookups answered from memory")
+            .register(meterRegistry);
+    }
+    
+    public void recordMetadataLoad(long nanos) {
+        metadataLoadTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordMetadataInvalidation(long lagMillis) {
+        metadataInvalidationLag.record(Math.max(0, lagMillis), TimeUnit.MILLISECONDS);
+    }
+    
+    public void recordMetadataListenFailure() {
+        metadataListenFailures.increment();
+    }
+    
+    /**
+     * Exposes the size and fill of the UPI ID Bloom filter.
+     */
+    public void registerUpiIdFilter(Supplier<Number> accounts, Supplier<Number> sizeBytes,
+                                    Supplier<Number> falsePositiveRate) {
+        Gauge.builder("transfer.upi.filter.accounts", accounts)
+            .description("UPI IDs in the Bloom filter")
+            .register(meterRegistry);
+        Gauge.builder("transfer.upi.filter.size", sizeBytes)
+            .description("Heap taken by the Bloom filter's bits")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("transfer.upi.filter.expected.fpp", falsePositiveRate)
+            .description("False-positive rate expected at the filter's current fill")
+            .register(meterRegistry);
+    }
+    
+    public void recordUpiIdFilterRejection() {
+        upiFilterRejections.increment();
+    }
+    
+    public void recordUpiIdFilterFalsePositive() {
+        upiFilterFalsePositives.increment();
+    }
+    
+    public void recordUpiIdFilterBuild(long nanos) {
+        upiFilterBuildTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void registerFeeSchedule(Supplier<Number> rules) {
+        Gauge.builder("transfer.fees.rules", rules)
+            .description("Rules in the fee schedule in use")
+            .register(meterRegistry);
+    }
+    
+    public void recordFeeScheduleCompile(long nanos) {
+        feeScheduleCompileTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordFeeScheduleReloadFailure() {
+        feeScheduleReloadFailures.increment();
+    }
+    
+    public void registerTransactionPartitions(Supplier<Number> partitions) {
+        Gauge.builder("transfer.partitions", partitions)
+            .description("Partitions of the transactions table, as of the last maintenance run")
+            .register(meterRegistry);
+    }
+    
+    public void recordPartitionMaintenance(long nanos) {
+        partitionMaintenanceTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordPartitionMaintenanceFailure() {
+        partitionMaintenanceFailures.increment();
+    }
+    
+    /**
+     * Counts a transactions partition retired past its retention.
+     * 
+     * @param action detach or drop
+     */
+    public void recordPartitionExpired(String action) {
+        Counter.builder("transfer.partitions.expired")
+            .description("Transactions partitions detached or dropped past the retention")
+            .tag("action", action)
+            .register(meterRegistry)
+            .increment();
+    }
+    
+    /**
+     * Exports size, hits, misses and evictions (cache_* with cache=transaction.status)
+     * and the hit ratio of the transaction status cache.
+     */
+    public void registerStatusCache(Cache<?, ?> cache) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "transaction.status");
+        Gauge.builder("transfer.status.cache.hit.ratio", cache, c -> c.stats().hitRate())
+            .description("Share of transaction status lookups answered from memory")
+            .register(meterRegistry);
+    }
+    
+    public void recordStatusDatabaseRead() {
+        statusDatabaseReads.increment();
+    }
+    
+    /**
+     * Exports a replica's replay lag as of its last check; NaN while unknown.
+     */
+    public void registerReplicaLag(String replica, Supplier<Number> lagMillis) {
+        TimeGauge.builder("transfer.replica.lag", lagMillis, TimeUnit.MILLISECONDS)
+            .description("How far a read replica trails the primary, as of the last lag check")
+            .tag("replica", replica)
+            .register(meterRegistry);
+    }
+    
+    public void recordReplicaRead(String replica) {
+        Counter.builder("transfer.replica.reads")
+            .description("Read-only transactions served by a replica")
+            .tag("replica", replica)
+            .register(meterRegistry)
+            .increment();
+    }
+    
+    public void recordReplicaFallback() {
+        replicaFallbacks.increment();
+    }
+    
+    public void recordReplicaLagCheckFailure(String replica) {
+        Counter.builder("transfer.replica.lag.check.failures")
+            .description("Replica lag checks that failed; the replica takes no reads until one succeeds")
+            .tag("replica", replica)
+            .register(meterRegistry)
+            .increment();
+    }
+    
+    /**
+     * Counts a transfer request by its payee's bank handle. Handles are
+     * interned and capped (UpiHandle.MAX_HANDLES), so the tag stays bounded.
+     */
+    public void recordTransferRequest(UpiHandle payee) {
+        requestsByPayeeHandle.computeIfAbsent(payee, handle -> Counter.builder("transfer.requests")
+            .description("Transfer requests by the bank handle of the payee's UPI ID")
+            .tag("payee_handle", handle.name())
+            .register(meterRegistry))
+            .increment();
+    }
+}
@@ -0,0 +1,151 @@
+package com.npci.transfer.money;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+
+/**
+ * Money - an amount in rupees, held as a long count of paise
+ * 
+ * Replaces BigDecimal on the transfer hot path: comparing is one long
+ * comparison, adding or subtracting zero allocates nothing, and the rest
+ * allocate one small object instead of a BigDecimal (and its BigInteger).
+ * 
+ * - immutable, equal when the paise are equal (500 and 500.00 are the same Money)
+ * - keeps the number of decimal places it was given, like BigDecimal, for
+ *   JSON only: a request's 500 is echoed as 500, 5.00 as 5.00
+ * - every result that would overflow a long throws ArithmeticException,
+ *   as would an amount with more than 2 decimal places
+ * - stored in the existing NUMERIC(15, 2) columns by MoneyConverter and
+ *   written to JSON as the same number a BigDecimal would be
+ */
+@JsonSerialize(using = MoneyJsonSerializer.class)
+@JsonDeserialize(using = MoneyJsonDeserializer.class)
+public final class Money implements Comparable<Money> {
+    
+    public static final Money ZERO = new Money(0, 0);
+    
+    private static final int SCALE = 2;
+    private static final long PAISE_PER_RUPEE = 100;
+    private static final Money[] ZEROS = {ZERO, new Money(0, 1), new Money(0, SCALE)};
+    
+    private final long paise;
+    
+    /**
+     * Decimal places (0 to 2) the amount is written to JSON with.
+     */
+    private final byte scale;
+    
+    private Money(long paise, int scale) {
+        this.paise = paise;
+        this.scale = (byte) scale;
+    }
+    
+    /**
+     * @return The amount, with 2 decimal places (ZERO, with none, for 0)
+     */
+    public static Money ofPaise(long paise) {
+        return paise == 0 ? ZERO : new Money(paise, SCALE);
+    }
+    
+    /**
+     * @return The amount, with no decimal places
+     */
+    public static Money ofRupees(long rupees) {
+        return rupees == 0 ? ZERO : new Money(Math.multiplyExact(rupees, PAISE_PER_RUPEE), 0);
+    }
+    
+    /**
+     * @throws ArithmeticException if the amount has more than 2 decimal places or overflows
+     */
+    public static Money of(BigDecimal amount) {
+        int scale = Math.max(0, Math.min(amount.scale(), SCALE));
+        if (amount.signum() == 0) {
+            return ZEROS[scale];
+        }
+        return new Money(amount.movePointRight(SCALE).longValueExact(), scale);
+    }
+    
+    /**
+     * @param amount Rupees, e.g. "1500" or "5.00"
+     */
+    public static Money of(String amount) {
+        return of(new BigDecimal(amount));
+    }
+    
+    public long paise() {
+        return paise;
+    }
+    
+    /**
+     * @return The sum, with the larger number of decimal places of the two
+     */
+    public Money plus(Money other) {
+        if (other.paise == 0 && other.scale <= scale) {
+            return this;
+        }
+        return new Money(Math.addExact(paise, other.paise), Math.max(scale, other.scale));
+    }
+    
+    public Money minus(Money other) {
+        if (other.paise == 0 && other.scale <= scale) {
+            return this;
+        }
+        return new Money(Math.subtractExact(paise, other.paise), Math.max(scale, other.scale));
+    }
+    
+    public Money negate() {
+        return new Money(Math.negateExact(paise), scale);
+    }
+    
+    public boolean isZero() {
+        return paise == 0;
+    }
+    
+    public boolean isLessThan(Money other) {
+        return paise < other.paise;
+    }
+    
+    public boolean isGreaterThan(Money other) {
+        return paise > other.paise;
+    }
+    
+    /**
+     * @return The amount in rupees, always with 2 decimal places
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(paise, SCALE);
+    }
+    
+    /**
+     * @return The amount with the decimal places it was given, e.g. 500 for
+     *         Money.of("500") and 1505.00 for Money.of("1500").plus(Money.of("5.00"))
+     */
+    public BigDecimal toScaledBigDecimal() {
+        return BigDecimal.valueOf(paise, SCALE).setScale(scale);
+    }
+    
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(paise, other.paise);
+    }
+    
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Money money && money.paise == paise;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Long.hashCode(paise);
+    }
+    
+    /**
+     * @return Rupees with 2 decimal places, e.g. "1505.00"
+     */
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
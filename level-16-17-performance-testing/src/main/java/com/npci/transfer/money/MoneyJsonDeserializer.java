@@ -0,0 +1,41 @@
+package com.npci.transfer.money;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Reads Money from a JSON number or numeric string, as BigDecimal amounts were read.
+ */
+public class MoneyJsonDeserializer extends StdDeserializer<Money> {
+    
+    public MoneyJsonDeserializer() {
+        super(Money.class);
+    }
+    
+    @Override
+    public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        BigDecimal amount;
+        if (parser.hasToken(JsonToken.VALUE_NUMBER_INT) || parser.hasToken(JsonToken.VALUE_NUMBER_FLOAT)) {
+            amount = parser.getDecimalValue();
+        } else if (parser.hasToken(JsonToken.VALUE_STRING)) {
+            try {
+                amount = new BigDecimal(parser.getText().trim());
+            } catch (NumberFormatException e) {
+                return (Money) context.handleWeirdStringValue(Money.class, parser.getText(), "not a number");
+            }
+        } else {
+            return (Money) context.handleUnexpectedToken(Money.class, parser);
+        }
+        
+        try {
+            return Money.of(amount);
+        } catch (ArithmeticException e) {
+            return (Money) context.handleWeirdNumberValue(Money.class, amount, "more than 2 decimal places");
+        }
+    }
+}
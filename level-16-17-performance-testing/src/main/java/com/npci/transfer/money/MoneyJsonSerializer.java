@@ -0,0 +1,24 @@
+package com.npci.transfer.money;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes Money as a JSON number with the decimal places it was given
+ * (Money.toScaledBigDecimal): a request's 500 is written back as 500, a
+ * fee of 5.00 as 5.00, an amount read from a NUMERIC(15, 2) column as 500.00.
+ */
+public class MoneyJsonSerializer extends StdSerializer<Money> {
+    
+    public MoneyJsonSerializer() {
+        super(Money.class);
+    }
+    
+    @Override
+    public void serialize(Money money, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeNumber(money.toScaledBigDecimal());
+    }
+}
@@ -0,0 +1,76 @@
+package com.npci.transfer.repository;
+
+import com.npci.transfer.entity.AccountBalanceStripe;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Account Balance Stripe Repository
+ * 
+ * Credits and consolidation use native PostgreSQL statements
+ * (FOR UPDATE SKIP LOCKED) so they never wait behind each other.
+ */
+@Repository
+public interface AccountBalanceStripeRepository extends JpaRepository<AccountBalanceStripe, Long> {
+    
+    /**
+     * Locks all stripes of an account, always in stripe order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM AccountBalanceStripe s WHERE s.accountId = :accountId ORDER BY s.stripeNo")
+    List<AccountBalanceStripe> findAllByAccountIdForUpdate(@Param("accountId") Long accountId);
+    
+    @Query("SELECT COALESCE(SUM(s.balance), 0) FROM AccountBalanceStripe s WHERE s.accountId = :accountId")
+    BigDecimal sumBalanceByAccountId(@Param("accountId") Long accountId);
+    
+    /**
+     * Credits the first stripe, starting at startStripe and wrapping around,
+     * that no other transaction holds a lock on.
+     * 
+     * @return 1 if a stripe was credited, 0 if every stripe is currently locked
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE account_balance_stripes SET balance = balance + :amount
+        WHERE id = (SELECT s.id FROM account_balance_stripes s
+                    WHERE s.account_id = :accountId
+                    ORDER BY s.stripe_no < :startStripe, s.stripe_no
+                    LIMIT 1
+                    FOR UPDATE SKIP LOCKED)
+        """, nativeQuery = true)
+    int creditUnlockedStripe(@Param("accountId") Long accountId,
+                             @Param("startStripe") int startStripe,
+                             @Param("amount") BigDecimal amount);
+    
+    /**
+     * Credits one specific stripe, waiting for its row lock if necessary.
+     */
+    @Modifying
+    @Query("UPDATE AccountBalanceStripe s SET s.balance = s.balance + :amount "
+         + "WHERE s.accountId = :accountId AND s.stripeNo = :stripeNo")
+    int creditStripe(@Param("accountId") Long accountId,
+                     @Param("stripeNo") int stripeNo,
+                     @Param("amount") BigDecimal amount);
+    
+    /**
+     * Zeroes every non-empty stripe that is not locked right now
+     * and returns the amounts that were taken out.
+     */
+    @Query(value = """
+        UPDATE account_balance_stripes s SET balance = 0
+        FROM (SELECT id, balance FROM account_balance_stripes
+              WHERE account_id = :accountId AND balance <> 0
+              FOR UPDATE SKIP LOCKED) drained
+        WHERE s.id = drained.id
+        RETURNING drained.balance
+        """, nativeQuery = true)
+    List<BigDecimal> drainUnlockedStripes(@Param("accountId") Long accountId);
+}
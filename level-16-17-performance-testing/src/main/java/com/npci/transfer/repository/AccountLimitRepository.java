@@ -0,0 +1,135 @@
+package com.npci.transfer.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Account Limit Repository
+ * 
+ * Reads and writes the limit columns of accounts (daily_limit, daily_used,
+ * monthly_limit, monthly_used, limits_date). Plain JDBC: TransferLimitService
+ * touches only these columns, and JPA never writes the usage ones.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AccountLimitRepository {
+    
+    private static final String SELECT_LIMITS =
+        "SELECT daily_limit, daily_used, monthly_limit, monthly_used, limits_date FROM accounts WHERE upi_id = ?";
+    private static final String UPDATE_USAGE =
+        "UPDATE accounts SET daily_used = ?, monthly_used = ?, limits_date = ? WHERE upi_id = ?";
+    private static final String LOCK_ACCOUNTS =
+        "SELECT upi_id FROM accounts WHERE upi_id = ANY(?) ORDER BY upi_id FOR UPDATE";
+    
+    /**
+     * Takes usage counted on a past day off the row, if the row still counts that
+     * day (daily) or month (monthly); usage never drops below zero.
+     */
+    private static final String RETURN_USAGE = """
+        UPDATE accounts SET
+            daily_used = CASE WHEN limits_date = ? THEN GREATEST(daily_used - ?, 0) ELSE daily_used END,
+            monthly_used = CASE WHEN limits_date >= ? AND limits_date < ? THEN GREATEST(monthly_used - ?, 0)
+                ELSE monthly_used END
+        WHERE upi_id = ?""";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public Optional<AccountLimits> findByUpiId(String upiId) {
+        return find(SELECT_LIMITS, upiId);
+    }
+    
+    /**
+     * Same as findByUpiId, but locks the row until the caller's transaction ends.
+     */
+    public Optional<AccountLimits> findByUpiIdForUpdate(String upiId) {
+        return find(SELECT_LIMITS + " FOR UPDATE", upiId);
+    }
+    
+    private Optional<AccountLimits> find(String sql, String upiId) {
+        List<AccountLimits> rows = jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Date limitsDate = rs.getDate("limits_date");
+            return new AccountLimits(
+                rs.getBigDecimal("daily_limit"),
+                zeroIfNull(rs.getBigDecimal("daily_used")),
+                rs.getBigDecimal("monthly_limit"),
+                zeroIfNull(rs.getBigDecimal("monthly_used")),
+                limitsDate != null ? limitsDate.toLocalDate() : null);
+        }, upiId);
+        return rows.stream().findFirst();
+    }
+    
+    public void updateUsage(Usage usage) {
+        jdbcTemplate.update(UPDATE_USAGE, usage.dailyUsed(), usage.monthlyUsed(), Date.valueOf(usage.day()),
+            usage.upiId());
+    }
+    
+    /**
+     * Writes the usage of many accounts in one JDBC batch. Must run in a
+     * transaction: the rows are locked first, in the order transfers lock
+     * them (ORDER BY upi_id, in the database's collation), so the batch
+     * cannot deadlock with a transfer.
+     */
+    public void updateUsage(Collection<Usage> usages) {
+        String[] upiIds = usages.stream().map(Usage::upiId).toArray(String[]::new);
+        jdbcTemplate.queryForList(LOCK_ACCOUNTS, String.class, (Object) upiIds);
+        jdbcTemplate.batchUpdate(UPDATE_USAGE, usages, usages.size(), (ps, usage) -> {
+            ps.setBigDecimal(1, usage.dailyUsed());
+            ps.setBigDecimal(2, usage.monthlyUsed());
+            ps.setDate(3, Date.valueOf(usage.day()));
+            ps.setString(4, usage.upiId());
+        });
+    }
+    
+    /**
+     * Gives back an amount counted on the given day that was never spent.
+     */
+    public void returnUsage(String upiId, BigDecimal amount, LocalDate day) {
+        YearMonth month = YearMonth.from(day);
+        jdbcTemplate.update(RETURN_USAGE, Date.valueOf(day), amount,
+            Date.valueOf(month.atDay(1)), Date.valueOf(month.plusMonths(1).atDay(1)), amount, upiId);
+    }
+    
+    private static BigDecimal zeroIfNull(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+    
+    /**
+     * Limit columns of one accounts row; a null limit means unlimited.
+     */
+    public record AccountLimits(BigDecimal dailyLimit, BigDecimal dailyUsed,
+                                BigDecimal monthlyLimit, BigDecimal monthlyUsed,
+                                LocalDate limitsDate) {
+        
+        public boolean isUnlimited() {
+            return dailyLimit == null && monthlyLimit == null;
+        }
+        
+        /**
+         * Daily usage that still counts on the given day (none if stored for an earlier day).
+         * Without a limits_date the stored usage is taken to be current.
+         */
+        public BigDecimal dailyUsedOn(LocalDate day) {
+            return limitsDate == null || limitsDate.equals(day) ? dailyUsed : BigDecimal.ZERO;
+        }
+        
+        public BigDecimal monthlyUsedOn(LocalDate day) {
+            return limitsDate == null || YearMonth.from(limitsDate).equals(YearMonth.from(day))
+                ? monthlyUsed : BigDecimal.ZERO;
+        }
+    }
+    
+    /**
+     * Usage to store for one account, counted on the given day.
+     */
+    public record Usage(String upiId, BigDecimal dailyUsed, BigDecimal monthlyUsed, LocalDate day) {
+    }
+}
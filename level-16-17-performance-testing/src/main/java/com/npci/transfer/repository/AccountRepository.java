@@ -1,9 +1,17 @@
 package com.npci.transfer.repository;
 
+import com.npci.transfer.cache.AccountMetadata;
 import com.npci.transfer.entity.Account;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -17,10 +25,34 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     /**
      * Find account by UPI ID.
      */
+    @Transactional(readOnly = true)
     Optional<Account> findByUpiId(String upiId);
     
+    /**
+     * Loads only the slow-changing columns (see AccountMetadataCache).
+     */
+    @Query("SELECT new com.npci.transfer.cache.AccountMetadata(a.id, a.upiId, a.status, a.dailyLimit, "
+        + "a.monthlyLimit, a.balanceStripes, a.tier) FROM Account a WHERE a.upiId = :upiId")
+    Optional<AccountMetadata> findMetadataByUpiId(@Param("upiId") String upiId);
+    
     /**
      * Check if UPI ID exists.
      */
     boolean existsByUpiId(String upiId);
+    
+    /**
+     * Find accounts whose balance is split across stripes.
+     */
+    List<Account> findByBalanceStripesGreaterThan(int stripes);
+    
+    /**
+     * Locks all given accounts with a single SELECT ... FOR UPDATE.
+     * 
+     * Rows are locked in UPI ID order, so two transfers touching the same
+     * pair in opposite directions always queue up instead of deadlocking.
+     * Missing UPI IDs are simply absent from the result.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.upiId IN :upiIds ORDER BY a.upiId")
+    List<Account> findAllByUpiIdInForUpdate(@Param("upiIds") Collection<String> upiIds);
 }
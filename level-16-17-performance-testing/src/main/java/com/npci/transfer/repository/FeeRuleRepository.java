@@ -0,0 +1,12 @@
+package com.npci.transfer.repository;
+
+import com.npci.transfer.entity.FeeRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Fee Rule Repository
+ */
+@Repository
+public interface FeeRuleRepository extends JpaRepository<FeeRule, Long> {
+}
@@ -0,0 +1,53 @@
+package com.npci.transfer.repository;
+
+import com.npci.transfer.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency Record Repository
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    
+    /**
+     * Claims a key for the current transaction. While another transaction
+     * holds a claim on the same key, the insert waits for it to end, and
+     * inserts nothing if it committed.
+     * 
+     * @return 1 if claimed, 0 if the key is taken
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, request_hash, created_at) "
+        + "VALUES (:key, :requestHash, :createdAt) ON CONFLICT (idempotency_key) DO NOTHING", nativeQuery = true)
+    int claim(@Param("key") String idempotencyKey, @Param("requestHash") String requestHash,
+              @Param("createdAt") LocalDateTime createdAt);
+    
+    /**
+     * Completes a claim with the response it was answered with.
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.responseBody = :responseBody WHERE r.idempotencyKey = :key")
+    int storeResponse(@Param("key") String idempotencyKey, @Param("responseBody") String responseBody);
+    
+    /**
+     * Forgets the key if it was stored before the given time.
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key AND r.createdAt < :cutoff")
+    int deleteExpired(@Param("key") String idempotencyKey, @Param("cutoff") LocalDateTime cutoff);
+    
+    /**
+     * Forgets keys stored before the given time.
+     * 
+     * @return Number of keys removed
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,91 @@
+package com.npci.transfer.repository;
+
+import com.npci.transfer.entity.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Reactive Transfer Repository
+ * 
+ * Non-blocking counterpart of the account / transaction statements used by
+ * the JPA path, on R2DBC. Same tables and columns as the JPA entities;
+ * callers run these inside one transaction (TransactionalOperator).
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveTransferRepository {
+    
+    private static final String LOCK_ACCOUNTS =
+        "SELECT upi_id, balance FROM accounts WHERE upi_id IN (:upiIds) ORDER BY upi_id FOR UPDATE";
+    
+    /**
+     * COALESCE like transfer_funds.sql, for rows from before the NOT NULL version column.
+     */
+    private static final String ADD_TO_BALANCE =
+        "UPDATE accounts SET balance = balance + :delta, version = COALESCE(version, 0) + 1 WHERE upi_id = :upiId";
+    
+    private static final String INSERT_TRANSACTION =
+        "INSERT INTO transactions (id, transaction_id, source_upi, destination_upi, amount, fee, "
+            + "total_debited, status, remarks, timestamp) "
+            + "VALUES (nextval('transactions_seq'), :transactionId, :sourceUpi, :destinationUpi, :amount, :fee, "
+            + ":totalDebited, :status, :remarks, :timestamp) RETURNING id";
+    
+    private final DatabaseClient databaseClient;
+    
+    /**
+     * Locks the accounts with one SELECT ... FOR UPDATE, in UPI ID order like
+     * AccountRepository.findAllByUpiIdInForUpdate, so opposite transfers queue
+     * up instead of deadlocking.
+     * 
+     * @return Balance per UPI ID; missing accounts are absent
+     */
+    public Mono<Map<String, BigDecimal>> lockBalances(Collection<String> upiIds) {
+        return databaseClient.sql(LOCK_ACCOUNTS)
+            .bind("upiIds", upiIds)
+            .map((row, metadata) -> Map.entry(
+                row.get("upi_id", String.class),
+                row.get("balance", BigDecimal.class)))
+            .all()
+            .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+    
+    /**
+     * Adds delta (negative for a debit) to an account locked by lockBalances.
+     */
+    public Mono<Void> addToBalance(String upiId, BigDecimal delta) {
+        return databaseClient.sql(ADD_TO_BALANCE)
+            .bind("delta", delta)
+            .bind("upiId", upiId)
+            .fetch()
+            .rowsUpdated()
+            .then();
+    }
+    
+    /**
+     * Inserts the transaction row.
+     * 
+     * @return Generated row id
+     */
+    public Mono<Long> insertTransaction(Transaction transaction) {
+        DatabaseClient.GenericExecuteSpec insert = databaseClient.sql(INSERT_TRANSACTION)
+            .bind("transactionId", transaction.getTransactionId())
+            .bind("sourceUpi", transaction.getSourceUPI())
+            .bind("destinationUpi", transaction.getDestinationUPI())
+            .bind("amount", transaction.getAmount().toBigDecimal())
+            .bind("fee", transaction.getFee().toBigDecimal())
+            .bind("totalDebited", transaction.getTotalDebited().toBigDecimal())
+            .bind("status", transaction.getStatus())
+            .bind("timestamp", transaction.getTimestamp());
+        insert = transaction.getRemarks() != null
+            ? insert.bind("remarks", transaction.getRemarks())
+            : insert.bindNull("remarks", String.class);
+        
+        return insert.map((row, metadata) -> row.get("id", Long.class)).one();
+    }
+}
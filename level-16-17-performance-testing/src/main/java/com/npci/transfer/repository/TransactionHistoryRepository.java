@@ -0,0 +1,121 @@
+package com.npci.transfer.repository;
+
+import com.npci.transfer.dto.TransferResponse;
+import com.npci.transfer.money.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transaction History Repository
+ * 
+ * Keyset (seek) pagination over an account's transfers: a page starts right
+ * after the (timestamp, transaction_id) of the previous page's last row, so
+ * PostgreSQL reads size rows off the (source_upi, timestamp DESC) and
+ * (destination_upi, timestamp DESC) indexes whatever the depth - an OFFSET
+ * would read and throw away every row before the page.
+ * 
+ * Sent and received transfers are two index scans merged by one UNION ALL;
+ * a transfer is never both (source and destination differ). Rows map
+ * straight to TransferResponse, no entities are loaded.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionHistoryRepository {
+    
+    private static final String COLUMNS = "SELECT transaction_id, status, source_upi, destination_upi, amount, fee, "
+        + "total_debited, \"timestamp\", remarks FROM transactions WHERE ";
+    private static final String DESC = " ORDER BY \"timestamp\" DESC, transaction_id DESC LIMIT ?";
+    private static final String ASC = " ORDER BY \"timestamp\", transaction_id LIMIT ?";
+    
+    /**
+     * The redundant first comparison lets the timestamp index bound the scan;
+     * the second skips the rows of the boundary timestamp already returned.
+     */
+    private static final String AFTER_DESC =
+        " AND \"timestamp\" <= ? AND (\"timestamp\" < ? OR transaction_id < ?)";
+    private static final String AFTER_ASC =
+        " AND \"timestamp\" >= ? AND (\"timestamp\" > ? OR transaction_id > ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * @return Up to query.limit() transfers of the account, in query order
+     */
+    @Transactional(readOnly = true)
+    public List<TransferResponse> findHistory(HistoryQuery query) {
+        List<Object> args = new ArrayList<>();
+        String order = query.ascending() ? ASC : DESC;
+        String sql = "(" + side("source_upi", query, args) + order + ") UNION ALL ("
+            + side("destination_upi", query, args) + order + ")" + order;
+        args.add(query.limit());
+        return jdbcTemplate.query(sql, TransactionHistoryRepository::toResponse, args.toArray());
+    }
+    
+    private static String side(String column, HistoryQuery query, List<Object> args) {
+        StringBuilder sql = new StringBuilder(COLUMNS).append(column).append(" = ?");
+        args.add(query.upiId());
+        if (query.status() != null) {
+            sql.append(" AND status = ?");
+            args.add(query.status());
+        }
+        if (query.from() != null) {
+            sql.append(" AND \"timestamp\" >= ?");
+            args.add(query.from());
+        }
+        if (query.to() != null) {
+            sql.append(" AND \"timestamp\" <= ?");
+            args.add(query.to());
+        }
+        if (query.after() != null) {
+            sql.append(query.ascending() ? AFTER_ASC : AFTER_DESC);
+            args.add(query.after().timestamp());
+            args.add(query.after().timestamp());
+            args.add(query.after().transactionId());
+        }
+        args.add(query.limit());
+        return sql.toString();
+    }
+    
+    private static TransferResponse toResponse(ResultSet rs, int rowNum) throws SQLException {
+        return TransferResponse.builder()
+            .transactionId(rs.getString("transaction_id"))
+            .status(rs.getString("status"))
+            .sourceUPI(rs.getString("source_upi"))
+            .destinationUPI(rs.getString("destination_upi"))
+            .amount(money(rs.getBigDecimal("amount")))
+            .fee(money(rs.getBigDecimal("fee")))
+            .totalDebited(money(rs.getBigDecimal("total_debited")))
+            .timestamp(rs.getObject("timestamp", LocalDateTime.class))
+            .remarks(rs.getString("remarks"))
+            .build();
+    }
+    
+    private static Money money(BigDecimal amount) {
+        return amount == null ? null : Money.of(amount);
+    }
+    
+    /**
+     * @param status Only transfers in this status, null for all
+     * @param from   Only transfers at or after, null for no bound
+     * @param to     Only transfers at or before, null for no bound
+     * @param after  Position of the previous page's last row, null for the first page
+     */
+    public record HistoryQuery(String upiId, String status, LocalDateTime from, LocalDateTime to,
+                               boolean ascending, Position after, int limit) {
+    }
+    
+    /**
+     * A row's place in history order; transaction_id breaks timestamp ties.
+     */
+    public record Position(LocalDateTime timestamp, String transactionId) {
+    }
+}
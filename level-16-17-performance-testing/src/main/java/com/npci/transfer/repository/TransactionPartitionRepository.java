@@ -0,0 +1,149 @@
+package com.npci.transfer.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Transaction Partition Repository
+ * 
+ * PostgreSQL DDL for range-partitioning transactions on "timestamp" (see
+ * TransactionPartitionManager). Plain JDBC: none of this is JPA's business,
+ * and Hibernate keeps mapping the parent table as before.
+ * 
+ * Every partitioned table key has to include the partition column, so the
+ * primary key becomes (id, timestamp) and the transaction_id key
+ * (transaction_id, timestamp); the plain table keeps its own keys as the
+ * legacy partition. A ledger replay carries the original timestamp, so it
+ * still hits the relaxed key. Ids still come from transactions_seq and
+ * transaction IDs are unique by construction (TransactionIdConfig refuses
+ * to start without a node ID); the relaxed keys only stop PostgreSQL from
+ * checking it across partitions.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionPartitionRepository {
+    
+    private static final String IS_PARTITIONED =
+        "SELECT relkind = 'p' FROM pg_class WHERE oid = 'transactions'::regclass";
+    private static final String MAX_TIMESTAMP = "SELECT MAX(\"timestamp\") FROM transactions";
+    private static final String LIST_PARTITIONS = """
+        SELECT c.relname, pg_get_expr(c.relpartbound, c.oid)
+        FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'transactions'::regclass""";
+    
+    /**
+     * The plain table becomes transactions_legacy, attached below the first
+     * partition; the new parent copies its columns, defaults and checks.
+     */
+    private static final String[] PARTITION_TABLE = {
+        "ALTER TABLE transactions RENAME TO transactions_legacy",
+        "CREATE TABLE transactions (LIKE transactions_legacy INCLUDING DEFAULTS INCLUDING CONSTRAINTS) "
+            + "PARTITION BY RANGE (\"timestamp\")",
+        "ALTER TABLE transactions ADD PRIMARY KEY (id, \"timestamp\")",
+        "ALTER TABLE transactions ADD UNIQUE (transaction_id, \"timestamp\")",
+        "CREATE INDEX ON transactions (source_upi, \"timestamp\" DESC)",
+        "CREATE INDEX ON transactions (destination_upi, \"timestamp\" DESC)",
+        "CREATE INDEX ON transactions (\"timestamp\", id) WHERE status = 'PENDING'"
+    };
+    private static final String ATTACH_LEGACY =
+        "ALTER TABLE transactions ATTACH PARTITION transactions_legacy FOR VALUES FROM (MINVALUE) TO ('%s')";
+    
+    private static final String CREATE_PARTITION =
+        "CREATE TABLE IF NOT EXISTS %s PARTITION OF transactions FOR VALUES FROM ('%s') TO ('%s')";
+    private static final String DETACH_PARTITION = "ALTER TABLE transactions DETACH PARTITION %s";
+    private static final String DROP_PARTITION = "DROP TABLE %s";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_PARTITIONED, Boolean.class));
+    }
+    
+    public Optional<LocalDateTime> findMaxTimestamp() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(MAX_TIMESTAMP, LocalDateTime.class));
+    }
+    
+    /**
+     * Turns the plain transactions table into a partitioned one; its rows
+     * stay where they are, as the partition for everything before until.
+     * Must run in one transaction: it holds an exclusive lock on the table
+     * and validates every row against the bound.
+     */
+    public void partitionTable(LocalDateTime until) {
+        jdbcTemplate.batchUpdate(PARTITION_TABLE);
+        jdbcTemplate.execute(ATTACH_LEGACY.formatted(until));
+    }
+    
+    /**
+     * Range partitions of transactions; a DEFAULT partition is left out.
+     */
+    public List<TransactionPartition> findPartitions() {
+        return jdbcTemplate.query(LIST_PARTITIONS,
+                (rs, rowNum) -> TransactionPartition.fromBound(rs.getString(1), rs.getString(2)))
+            .stream()
+            .filter(Objects::nonNull)
+            .toList();
+    }
+    
+    public void createPartition(String name, LocalDateTime from, LocalDateTime to) {
+        jdbcTemplate.execute(CREATE_PARTITION.formatted(quote(name), from, to));
+    }
+    
+    public void detachPartition(String name) {
+        jdbcTemplate.execute(DETACH_PARTITION.formatted(quote(name)));
+    }
+    
+    public void dropPartition(String name) {
+        jdbcTemplate.execute(DROP_PARTITION.formatted(quote(name)));
+    }
+    
+    private static String quote(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+    
+    /**
+     * One range partition: rows with from <= timestamp < to.
+     * 
+     * @param from Lower bound, null for MINVALUE
+     * @param to Upper bound, null for MAXVALUE
+     */
+    public record TransactionPartition(String name, LocalDateTime from, LocalDateTime to) {
+        
+        private static final Pattern RANGE = Pattern.compile(
+            "FOR VALUES FROM \\((MINVALUE|'[^']+')\\) TO \\((MAXVALUE|'[^']+')\\)");
+        
+        /**
+         * @param bound pg_get_expr(relpartbound), e.g.
+         *              FOR VALUES FROM ('2026-10-01 00:00:00') TO ('2026-11-01 00:00:00')
+         * @return The partition, null if it is not a range partition
+         */
+        public static TransactionPartition fromBound(String name, String bound) {
+            Matcher matcher = RANGE.matcher(bound);
+            if (!matcher.matches()) {
+                return null;
+            }
+            return new TransactionPartition(name, timestamp(matcher.group(1)), timestamp(matcher.group(2)));
+        }
+        
+        /**
+         * Whether any row of [from, to) would belong here.
+         */
+        public boolean overlaps(LocalDateTime from, LocalDateTime to) {
+            return (this.from == null || this.from.isBefore(to)) && (this.to == null || from.isBefore(this.to));
+        }
+        
+        private static LocalDateTime timestamp(String literal) {
+            return literal.startsWith("'")
+                ? LocalDateTime.parse(literal.substring(1, literal.length() - 1).replace(' ', 'T'))
+                : null;
+        }
+    }
+}
@@ -2,8 +2,13 @@ package com.npci.transfer.repository;
 
 import com.npci.transfer.entity.Transaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -17,5 +22,31 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     /**
      * Find transaction by transaction ID.
      */
+    @Transactional(readOnly = true)
     Optional<Transaction> findByTransactionId(String transactionId);
+    
+    /**
+     * Find transaction by transaction ID within a time range; on a partitioned
+     * table only the partitions of that range are searched.
+     */
+    @Transactional(readOnly = true)
+    Optional<Transaction> findByTransactionIdAndTimestampBetween(String transactionId,
+                                                                 LocalDateTime from, LocalDateTime to);
+    
+    /**
+     * Claims up to limit PENDING transfers, oldest first, for the rest of the
+     * current transaction.
+     * 
+     * SKIP LOCKED passes over rows another worker has already claimed instead
+     * of waiting for them, so workers never queue up behind each other.
+     * Oldest means by timestamp: pooled ids are handed out in blocks per
+     * instance, so a lower id is not necessarily an earlier transfer.
+     */
+    @Query(value = "SELECT * FROM transactions WHERE status = 'PENDING' "
+        + "ORDER BY \"timestamp\", id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Transaction> claimPending(@Param("limit") int limit);
+    
+    long countByStatus(String status);
+    
+    Optional<Transaction> findFirstByStatusOrderByTimestampAscIdAsc(String status);
 }
@@ -0,0 +1,64 @@
+package com.npci.transfer.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.time.LocalDateTime;
+
+/**
+ * Transfer Function Repository
+ * 
+ * Calls the transfer_funds() PostgreSQL function (db/postgres/transfer_funds.sql).
+ * Plain JDBC on purpose: the whole transfer is one statement, there is
+ * nothing for Hibernate to track.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransferFunctionRepository {
+    
+    private static final String CALL_TRANSFER_FUNDS =
+        "SELECT result_code, available_balance, txn_id, txn_timestamp "
+            + "FROM transfer_funds(?, ?, ?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Executes debit, credit and transaction insert in a single round trip.
+     * 
+     * @return Outcome of the call; on SUCCESS carries the new transaction row id and timestamp
+     */
+    public TransferFunctionResult transferFunds(String transactionId, String sourceUpi,
+                                                String destinationUpi, BigDecimal amount,
+                                                BigDecimal fee, String remarks) {
+        return jdbcTemplate.queryForObject(CALL_TRANSFER_FUNDS,
+            (rs, rowNum) -> new TransferFunctionResult(
+                rs.getString("result_code"),
+                rs.getBigDecimal("available_balance"),
+                rs.getObject("txn_id", Long.class),
+                rs.getObject("txn_timestamp", LocalDateTime.class)),
+            transactionId,
+            sourceUpi,
+            destinationUpi,
+            amount,
+            fee,
+            new SqlParameterValue(Types.VARCHAR, remarks));
+    }
+    
+    /**
+     * Row returned by transfer_funds().
+     */
+    public record TransferFunctionResult(String resultCode,
+                                         BigDecimal availableBalance,
+                                         Long id,
+                                         LocalDateTime timestamp) {
+        
+        public static final String SUCCESS = "SUCCESS";
+        public static final String SOURCE_NOT_FOUND = "SOURCE_NOT_FOUND";
+        public static final String DESTINATION_NOT_FOUND = "DESTINATION_NOT_FOUND";
+        public static final String INSUFFICIENT_BALANCE = "INSUFFICIENT_BALANCE";
+    }
+}
@@ -0,0 +1,291 @@
+package com.npci.transfer.service;
+
+import com.npci.transfer.cache.TransactionStatusCache;
+import com.npci.transfer.config.ExecutionMode;
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.entity.Transaction;
+import com.npci.transfer.exception.AccountNotFoundException;
+import com.npci.transfer.exception.InsufficientBalanceException;
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.money.Money;
+import com.npci.transfer.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Async Transfer Service - executes accepted (PENDING) transfers
+ * 
+ * In ASYNC mode POST /v1/transfers only validates the request and inserts a
+ * PENDING transaction; the transactions table is the (durable) work queue.
+ * Worker threads claim the oldest PENDING rows with FOR UPDATE SKIP LOCKED and
+ * apply them in one database transaction (see TransferBatchApplier): applied
+ * transfers become SUCCESS, rejected ones FAILED with an error code.
+ * 
+ * If a batch transaction fails, the worker claims the same number of
+ * transfers again one at a time; a single transfer that still fails is marked
+ * FAILED (INTERNAL_SERVER_ERROR) so it cannot block the queue.
+ * 
+ * Only started when transfer.execution.mode=async.
+ */
+@Service
+@Slf4j
+public class AsyncTransferService implements SmartLifecycle, SchedulingConfigurer {
+    
+    static final String PENDING = "PENDING";
+    
+    /**
+     * Matches claimPending's ORDER BY; replaces the earlier index on (id).
+     */
+    private static final String[] PENDING_INDEX_DDL = {
+        "DROP INDEX IF EXISTS idx_transactions_pending",
+        "CREATE INDEX IF NOT EXISTS idx_transactions_pending_oldest "
+            + "ON transactions (\"timestamp\", id) WHERE status = 'PENDING'"
+    };
+    
+    private final TransferBatchApplier transferBatchApplier;
+    private final TransactionRepository transactionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransferProperties transferProperties;
+    private final TransferMetrics transferMetrics;
+    private final TransferLimitService transferLimitService;
+    private final TransactionStatusCache transactionStatusCache;
+    private final TransactionTemplate transactionTemplate;
+    
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+    private volatile long queueDepth;
+    private volatile double queueAgeSeconds;
+    
+    public AsyncTransferService(TransferBatchApplier transferBatchApplier, TransactionRepository transactionRepository,
+                                JdbcTemplate jdbcTemplate, TransferProperties transferProperties,
+                                TransferMetrics transferMetrics, TransferLimitService transferLimitService,
+                                TransactionStatusCache transactionStatusCache,
+                                PlatformTransactionManager transactionManager) {
+        this.transferBatchApplier = transferBatchApplier;
+        this.transactionRepository = transactionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transferProperties = transferProperties;
+        this.transferMetrics = transferMetrics;
+        this.transferLimitService = transferLimitService;
+        this.transactionStatusCache = transactionStatusCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    // ========== Workers ==========
+    
+    private void runWorker() {
+        TransferProperties.Async config = transferProperties.getAsync();
+        int singles = 0;
+        while (running) {
+            int limit = singles > 0 ? 1 : config.getBatchSize();
+            int claimed;
+            try {
+                claimed = executeBatch(limit);
+            } catch (RuntimeException e) {
+                // The batch was rolled back: isolate the transfer that broke it
+                log.warn("Async batch of up to {} transfers failed, retrying one at a time: {}", limit, e.toString());
+                singles = config.getBatchSize();
+                continue;
+            }
+            singles = Math.max(0, singles - claimed);
+            
+            if (claimed == 0) {
+                try {
+                    Thread.sleep(config.getPollInterval().toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Claims up to limit PENDING transfers and executes them in one transaction.
+     * 
+     * @return How many transfers were claimed (0 if the queue is empty)
+     * @throws RuntimeException if a batch of more than one transfer failed and was rolled back
+     */
+    int executeBatch(int limit) {
+        List<Long> claimedIds = new ArrayList<>(limit);
+        List<Transaction> executed;
+        try {
+            executed = transactionTemplate.execute(status -> applyBatch(limit, claimedIds));
+        } catch (RuntimeException e) {
+            transferMetrics.recordAsyncBatchFailure();
+            if (claimedIds.size() != 1) {
+                throw e;
+            }
+            markFailed(claimedIds.get(0), e);
+            return 1;
+        }
+        
+        if (!executed.isEmpty()) {
+            transferMetrics.recordAsyncBatch(executed.size());
+            LocalDateTime now = LocalDateTime.now();
+            for (Transaction transaction : executed) {
+                boolean succeeded = "SUCCESS".equals(transaction.getStatus());
+                transferMetrics.recordAsyncTransfer(succeeded,
+                    Duration.between(transaction.getTimestamp(), now).toNanos());
+                transactionStatusCache.put(TransferService.buildResponse(transaction));
+                if (!succeeded) {
+                    releaseLimit(transaction);
+                }
+            }
+        }
+        return executed.size();
+    }
+    
+    private List<Transaction> applyBatch(int limit, List<Long> claimedIds) {
+        List<Transaction> batch = transactionRepository.claimPending(limit);
+        if (batch.isEmpty()) {
+            return batch;
+        }
+        batch.forEach(transaction -> claimedIds.add(transaction.getId()));
+        
+        RuntimeException[] rejections = transferBatchApplier.apply(batch);
+        for (int i = 0; i < batch.size(); i++) {
+            Transaction transaction = batch.get(i);
+            if (rejections[i] == null) {
+                transaction.setStatus("SUCCESS");
+            } else {
+                fail(transaction, errorCode(rejections[i]), rejections[i].getMessage());
+            }
+        }
+        return transactionRepository.saveAll(batch);
+    }
+    
+    /**
+     * Marks a transfer that cannot be executed as FAILED, in a transaction of its own.
+     */
+    private void markFailed(Long id, RuntimeException cause) {
+        log.error("Async transfer {} could not be executed, marking it FAILED", id, cause);
+        Transaction failed = transactionTemplate.execute(status ->
+            transactionRepository.findById(id)
+                .filter(transaction -> PENDING.equals(transaction.getStatus()))
+                .map(transaction -> {
+                    fail(transaction, "INTERNAL_SERVER_ERROR", "Transfer could not be executed");
+                    transactionRepository.save(transaction);
+                    return transaction;
+                })
+                .orElse(null));
+        if (failed != null) {
+            transferMetrics.recordAsyncTransfer(false,
+                Duration.between(failed.getTimestamp(), LocalDateTime.now()).toNanos());
+            transactionStatusCache.put(TransferService.buildResponse(failed));
+            releaseLimit(failed);
+        }
+    }
+    
+    /**
+     * A FAILED transfer no longer counts towards the limits reserved when it was accepted.
+     * Only called once its status is committed, so a retried batch cannot release twice.
+     */
+    private void releaseLimit(Transaction transaction) {
+        transferLimitService.release(transaction.getSourceUPI(), transaction.getAmount().toBigDecimal(),
+            transaction.getTimestamp().toLocalDate());
+    }
+    
+    private void fail(Transaction transaction, String errorCode, String errorMessage) {
+        transaction.setStatus("FAILED");
+        transaction.setTotalDebited(Money.ZERO);
+        transaction.setErrorCode(errorCode);
+        transaction.setErrorMessage(errorMessage);
+    }
+    
+    /**
+     * Maps a rejection to the error codes of the transfer API.
+     */
+    static String errorCode(RuntimeException rejection) {
+        if (rejection instanceof InsufficientBalanceException) {
+            return "INSUFFICIENT_BALANCE";
+        }
+        if (rejection instanceof AccountNotFoundException) {
+            return rejection.getMessage().startsWith(TransferBatchApplier.SOURCE_NOT_FOUND)
+                ? "INVALID_SOURCE_UPI" : "INVALID_DESTINATION_UPI";
+        }
+        return "INTERNAL_SERVER_ERROR";
+    }
+    
+    // ========== Queue stats ==========
+    
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(this::refreshQueueStats,
+            transferProperties.getAsync().getStatsInterval());
+    }
+    
+    /**
+     * Counts PENDING transfers and measures how long the oldest one has waited.
+     */
+    void refreshQueueStats() {
+        if (!running) {
+            return;
+        }
+        queueDepth = transactionRepository.countByStatus(PENDING);
+        queueAgeSeconds = transactionRepository.findFirstByStatusOrderByTimestampAscIdAsc(PENDING)
+            .map(oldest -> Duration.between(oldest.getTimestamp(), LocalDateTime.now()).toMillis() / 1000.0)
+            .orElse(0.0);
+    }
+    
+    // ========== Lifecycle ==========
+    
+    @Override
+    public void start() {
+        if (transferProperties.getExecution().getMode() != ExecutionMode.ASYNC) {
+            return;
+        }
+        
+        // Keeps claiming cheap however many executed transfers the table holds
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(PENDING_INDEX_DDL));
+        
+        TransferProperties.Async config = transferProperties.getAsync();
+        running = true;
+        for (int i = 0; i < config.getWorkers(); i++) {
+            Thread worker = new Thread(this::runWorker, "transfer-worker-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+        transferMetrics.registerAsyncQueue(() -> queueDepth, () -> queueAgeSeconds);
+        
+        log.info("Async transfers started: {} workers, batches of up to {} transfers",
+            config.getWorkers(), config.getBatchSize());
+    }
+    
+    /**
+     * Finishes the batches in progress; PENDING transfers stay queued in the database.
+     */
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            for (Thread worker : workers) {
+                worker.join(TimeUnit.SECONDS.toMillis(30));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.clear();
+        log.info("Async transfers stopped");
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
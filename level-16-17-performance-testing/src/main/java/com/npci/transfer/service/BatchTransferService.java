@@ -0,0 +1,279 @@
+package com.npci.transfer.service;
+
+import com.npci.transfer.cache.TransactionStatusCache;
+import com.npci.transfer.config.ExecutionMode;
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.dto.BatchTransferResponse;
+import com.npci.transfer.dto.BatchTransferResult;
+import com.npci.transfer.dto.TransferRequest;
+import com.npci.transfer.dto.TransferResponse;
+import com.npci.transfer.entity.Transaction;
+import com.npci.transfer.exception.AccountNotFoundException;
+import com.npci.transfer.exception.ErrorResponse;
+import com.npci.transfer.exception.InsufficientBalanceException;
+import com.npci.transfer.exception.InvalidAmountException;
+import com.npci.transfer.exception.InvalidTransferException;
+import com.npci.transfer.exception.LimitExceededException;
+import com.npci.transfer.id.TransactionIdGenerator;
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.money.Money;
+import com.npci.transfer.repository.TransactionRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Batch Transfer Service - many transfers per HTTP call
+ * 
+ * Each item is validated like a single transfer (bean validation included,
+ * reported in that item's result); the valid ones are applied
+ * in chunks of transfer.batch.chunk-size, one database transaction per chunk
+ * (see TransferBatchApplier): the accounts of a chunk are locked with one
+ * SELECT ... FOR UPDATE and its transactions inserted with one saveAll.
+ * 
+ * A rejected item fails only itself. A chunk whose transaction fails is
+ * rolled back and retried as two halves, down to single transfers.
+ */
+@Service
+@Slf4j
+public class BatchTransferService {
+    
+    private record Item(int index, Transaction transaction) {
+    }
+    
+    private final TransferBatchApplier transferBatchApplier;
+    private final TransactionRepository transactionRepository;
+    private final FeeCalculator feeCalculator;
+    private final TransferProperties transferProperties;
+    private final TransferMetrics transferMetrics;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final TransferLimitService transferLimitService;
+    private final TransactionStatusCache transactionStatusCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    
+    public BatchTransferService(TransferBatchApplier transferBatchApplier, TransactionRepository transactionRepository,
+                                FeeCalculator feeCalculator, TransferProperties transferProperties,
+                                TransferMetrics transferMetrics, TransactionIdGenerator transactionIdGenerator,
+                                TransferLimitService transferLimitService,
+                                TransactionStatusCache transactionStatusCache,
+                                PlatformTransactionManager transactionManager, Validator validator) {
+        this.transferBatchApplier = transferBatchApplier;
+        this.transactionRepository = transactionRepository;
+        this.feeCalculator = feeCalculator;
+        this.transferProperties = transferProperties;
+        this.transferMetrics = transferMetrics;
+        this.transactionIdGenerator = transactionIdGenerator;
+        this.transferLimitService = transferLimitService;
+        this.transactionStatusCache = transactionStatusCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+    }
+    
+    /**
+     * Executes the transfers and reports every outcome in request order.
+     * 
+     * @throws InvalidTransferException if the batch is too large, or in LEDGER mode
+     */
+    public BatchTransferResponse transferBatch(List<TransferRequest> requests) {
+        if (transferProperties.getExecution().getMode() == ExecutionMode.LEDGER) {
+            // Balances live in the in-memory ledger; the database is only its projection
+            throw new InvalidTransferException("Batch transfers are not available in ledger execution mode");
+        }
+        int maxSize = transferProperties.getBatch().getMaxSize();
+        if (requests.size() > maxSize) {
+            throw new InvalidTransferException("A batch cannot contain more than " + maxSize + " transfers");
+        }
+        transferMetrics.recordBatchRequest(requests.size());
+        
+        BatchTransferResult[] results = new BatchTransferResult[requests.size()];
+        List<Item> accepted = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            TransferRequest request = requests.get(i);
+            if (request == null) {
+                results[i] = rejected(i, new InvalidTransferException("Transfer is required"));
+                continue;
+            }
+            Set<ConstraintViolation<TransferRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                results[i] = invalid(i, violations);
+                continue;
+            }
+            try {
+                accepted.add(new Item(i, newTransaction(request)));
+            } catch (RuntimeException e) {
+                results[i] = rejected(i, e);
+            }
+        }
+        
+        int chunkSize = transferProperties.getBatch().getChunkSize();
+        for (int from = 0; from < accepted.size(); from += chunkSize) {
+            applyChunk(accepted.subList(from, Math.min(from + chunkSize, accepted.size())), results);
+        }
+        
+        int succeeded = (int) Arrays.stream(results).filter(BatchTransferResult::isSuccess).count();
+        log.info("Batch of {} transfers completed: {} succeeded", results.length, succeeded);
+        
+        return BatchTransferResponse.builder()
+                .succeeded(succeeded)
+                .failed(results.length - succeeded)
+                .results(Arrays.asList(results))
+                .build();
+    }
+    
+    /**
+     * Validates one item and builds its (unsaved) transaction, as the single-transfer path does.
+     */
+    private Transaction newTransaction(TransferRequest request) {
+        Money amount = TransferService.validateAmount(request.getAmount());
+        if (request.getSourceUPI().equals(request.getDestinationUPI())) {
+            throw new InvalidTransferException("Cannot transfer to the same account");
+        }
+        
+        Money fee = feeCalculator.calculateFee(amount, request.getSourceUPI(), request.getDestinationUPI());
+        transferLimitService.reserve(request.getSourceUPI(), request.getAmount());
+        
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(transactionIdGenerator.nextId());
+        transaction.setSourceUPI(request.getSourceUPI());
+        transaction.setDestinationUPI(request.getDestinationUPI());
+        transaction.setAmount(amount);
+        transaction.setFee(fee);
+        transaction.setTotalDebited(amount.plus(fee));
+        transaction.setStatus("SUCCESS");
+        transaction.setRemarks(request.getRemarks());
+        transaction.setTimestamp(LocalDateTime.now());
+        return transaction;
+    }
+    
+    private void applyChunk(List<Item> chunk, BatchTransferResult[] results) {
+        long start = System.nanoTime();
+        RuntimeException[] rejections;
+        try {
+            rejections = transactionTemplate.execute(status -> applyInTransaction(chunk));
+        } catch (RuntimeException e) {
+            // Rolled back: forget IDs assigned by the failed INSERTs before anything is retried
+            chunk.forEach(item -> item.transaction().setId(null));
+            if (chunk.size() == 1) {
+                results[chunk.get(0).index()] = rejected(chunk.get(0).index(), e);
+                releaseLimit(chunk.get(0).transaction());
+                return;
+            }
+            log.warn("Batch chunk of {} transfers failed, retrying as two halves: {}", chunk.size(), e.toString());
+            int half = chunk.size() / 2;
+            applyChunk(chunk.subList(0, half), results);
+            applyChunk(chunk.subList(half, chunk.size()), results);
+            return;
+        }
+        transferMetrics.recordBatchChunk(System.nanoTime() - start);
+        
+        for (int i = 0; i < chunk.size(); i++) {
+            Item item = chunk.get(i);
+            if (rejections[i] == null) {
+                TransferResponse transfer = TransferService.buildResponse(item.transaction());
+                transactionStatusCache.put(transfer);
+                results[item.index()] = BatchTransferResult.builder()
+                    .index(item.index())
+                    .transfer(transfer)
+                    .build();
+            } else {
+                results[item.index()] = rejected(item.index(), rejections[i]);
+                releaseLimit(item.transaction());
+            }
+        }
+    }
+    
+    private void releaseLimit(Transaction transaction) {
+        transferLimitService.release(transaction.getSourceUPI(), transaction.getAmount().toBigDecimal(),
+            transaction.getTimestamp().toLocalDate());
+    }
+    
+    private RuntimeException[] applyInTransaction(List<Item> chunk) {
+        List<Transaction> transfers = new ArrayList<>(chunk.size());
+        for (Item item : chunk) {
+            transfers.add(item.transaction());
+        }
+        
+        RuntimeException[] rejections = transferBatchApplier.apply(transfers);
+        List<Transaction> applied = new ArrayList<>(chunk.size());
+        for (int i = 0; i < transfers.size(); i++) {
+            if (rejections[i] == null) {
+                applied.add(transfers.get(i));
+            }
+        }
+        transactionRepository.saveAll(applied);
+        return rejections;
+    }
+    
+    /**
+     * Same body as GlobalExceptionHandler gives a single transfer that fails bean validation.
+     */
+    private BatchTransferResult invalid(int index, Set<ConstraintViolation<TransferRequest>> violations) {
+        Map<String, String> validationErrors = new HashMap<>();
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<TransferRequest> violation : violations) {
+            validationErrors.put(violation.getPropertyPath().toString(), violation.getMessage());
+            errors.add(violation.getMessage());
+        }
+        
+        return BatchTransferResult.builder()
+                .index(index)
+                .error(ErrorResponse.builder()
+                    .timestamp(LocalDateTime.now())
+                    .status(HttpStatus.BAD_REQUEST.value())
+                    .error("Validation Error")
+                    .message("Invalid request parameters")
+                    .errors(errors)
+                    .validationErrors(validationErrors)
+                    .build())
+                .build();
+    }
+    
+    /**
+     * Same status, error and message as GlobalExceptionHandler gives a single transfer.
+     */
+    private BatchTransferResult rejected(int index, RuntimeException rejection) {
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+        String error;
+        String message = rejection.getMessage();
+        if (rejection instanceof AccountNotFoundException) {
+            status = HttpStatus.NOT_FOUND;
+            error = "Account Not Found";
+        } else if (rejection instanceof InsufficientBalanceException) {
+            error = "Insufficient Balance";
+        } else if (rejection instanceof InvalidTransferException) {
+            error = "Invalid Transfer";
+        } else if (rejection instanceof InvalidAmountException) {
+            error = "Invalid Amount";
+        } else if (rejection instanceof LimitExceededException) {
+            error = "Limit Exceeded";
+        } else {
+            log.error("Unexpected error in batch transfer item {}", index, rejection);
+            status = HttpStatus.INTERNAL_SERVER_ERROR;
+            error = "Internal Server Error";
+            message = "An unexpected error occurred";
+        }
+        
+        return BatchTransferResult.builder()
+                .index(index)
+                .error(ErrorResponse.builder()
+                    .timestamp(LocalDateTime.now())
+                    .status(status.value())
+                    .error(error)
+                    .message(message)
+                    .build())
+                .build();
+    }
+}
@@ -1,44 +1,138 @@
 package com.npci.transfer.service;
 
+import com.npci.transfer.cache.AccountMetadata;
+import com.npci.transfer.cache.AccountMetadataCache;
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.entity.FeeRule;
+import com.npci.transfer.fee.FeeSchedule;
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.money.Money;
+import com.npci.transfer.repository.FeeRuleRepository;
+import com.npci.transfer.upi.UpiHandle;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.zone.ZoneRules;
+import java.util.List;
 
 /**
  * Fee Calculator - Calculates transaction fees
  * 
- * Follows Open/Closed Principle (O in SOLID)
- * - Open for extension (can add new strategies)
- * - Closed for modification (existing logic unchanged)
+ * Fees come from the fee_rules table (amount slabs, payee handle, account
+ * tier, time of day), compiled into a FeeSchedule:
+ * - read and compiled every transfer.fees.reload-interval (first on startup);
+ *   an unchanged table is not compiled again
+ * - the new schedule replaces the old one in a single volatile write, so a
+ *   transfer sees one table or the other, never a mix
+ * - a table that fails to compile is logged and the old schedule kept
  * 
- * Currently uses simple fee strategy:
+ * While fee_rules is empty, FeeSchedule.DEFAULT applies:
  * - Amount > ₹1,000: ₹5 fee
  * - Amount ≤ ₹1,000: No fee
- * 
- * Future: Can be extended with Strategy pattern for:
- * - Premium accounts (no fee)
- * - Weekend transfers (higher fee)
- * - International transfers (different fee)
  */
 @Component
-public class FeeCalculator {
+@Slf4j
+public class FeeCalculator implements SchedulingConfigurer {
+    
+    private static final long MILLIS_PER_MINUTE = 60_000;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    
+    private final FeeRuleRepository feeRuleRepository;
+    private final AccountMetadataCache accountMetadataCache;
+    private final TransferProperties transferProperties;
+    private final TransferMetrics transferMetrics;
+    private final Clock clock;
+    
+    /**
+     * Offset of the clock's zone in minutes, if it never changes (e.g. IST); else null.
+     */
+    private final Integer fixedOffsetMinutes;
+    
+    private volatile FeeSchedule schedule = FeeSchedule.DEFAULT;
+    private List<FeeRule> compiledRules = List.of();
     
-    private static final BigDecimal FEE_THRESHOLD = new BigDecimal("1000");
-    private static final BigDecimal TRANSACTION_FEE = new BigDecimal("5.00");
+    @Autowired
+    public FeeCalculator(FeeRuleRepository feeRuleRepository, AccountMetadataCache accountMetadataCache,
+                         TransferProperties transferProperties, TransferMetrics transferMetrics) {
+        this(feeRuleRepository, accountMetadataCache, transferProperties, transferMetrics,
+            Clock.systemDefaultZone());
+    }
+    
+    FeeCalculator(FeeRuleRepository feeRuleRepository, AccountMetadataCache accountMetadataCache,
+                  TransferProperties transferProperties, TransferMetrics transferMetrics, Clock clock) {
+        this.feeRuleRepository = feeRuleRepository;
+        this.accountMetadataCache = accountMetadataCache;
+        this.transferProperties = transferProperties;
+        this.transferMetrics = transferMetrics;
+        this.clock = clock;
+        ZoneRules rules = clock.getZone().getRules();
+        this.fixedOffsetMinutes = rules.isFixedOffset()
+            ? rules.getOffset(clock.instant()).getTotalSeconds() / 60
+            : null;
+        transferMetrics.registerFeeSchedule(() -> schedule.size());
+    }
     
     /**
      * Calculates fee for a transfer.
      * 
      * @param amount Transfer amount
+     * @param sourceUpiId Payer; its tier is looked up only if a rule needs it
+     * @param destinationUpiId Payee; its handle selects handle rules
      * @return Fee to be charged
      */
-    public BigDecimal calculateFee(BigDecimal amount) {
+    public Money calculateFee(Money amount, String sourceUpiId, String destinationUpiId) {
         if (amount == null) {
-            return BigDecimal.ZERO;
+            return Money.ZERO;
         }
         
-        return amount.compareTo(FEE_THRESHOLD) > 0 
-            ? TRANSACTION_FEE 
-            : BigDecimal.ZERO;
+        FeeSchedule current = schedule;
+        String tier = current.usesTiers() && sourceUpiId != null
+            ? accountMetadataCache.find(sourceUpiId).map(AccountMetadata::tier).orElse(null)
+            : null;
+        return current.fee(amount, UpiHandle.of(destinationUpiId), tier, minuteOfDay());
+    }
+    
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(this::reload, transferProperties.getFees().getReloadInterval());
+    }
+    
+    /**
+     * Reads fee_rules and, if it changed, compiles and swaps in a new schedule.
+     * 
+     * @return true if a new schedule was swapped in
+     */
+    public synchronized boolean reload() {
+        try {
+            List<FeeRule> rules = feeRuleRepository.findAll();
+            if (rules.equals(compiledRules)) {
+                return false;
+            }
+            
+            long start = System.nanoTime();
+            FeeSchedule compiled = rules.isEmpty() ? FeeSchedule.DEFAULT : FeeSchedule.compile(rules);
+            transferMetrics.recordFeeScheduleCompile(System.nanoTime() - start);
+            
+            schedule = compiled;
+            compiledRules = rules;
+            log.info("Fee schedule reloaded: {} rules", rules.size());
+            return true;
+        } catch (RuntimeException e) {
+            transferMetrics.recordFeeScheduleReloadFailure();
+            log.warn("Fee rules not reloaded, keeping the current {} rules: {}", schedule.size(), e.getMessage());
+            return false;
+        }
+    }
+    
+    private int minuteOfDay() {
+        long millis = clock.millis();
+        int offset = fixedOffsetMinutes != null
+            ? fixedOffsetMinutes
+            : clock.getZone().getRules().getOffset(clock.instant()).getTotalSeconds() / 60;
+        return (int) Math.floorMod(Math.floorDiv(millis, MILLIS_PER_MINUTE) + offset, (long) MINUTES_PER_DAY);
     }
 }
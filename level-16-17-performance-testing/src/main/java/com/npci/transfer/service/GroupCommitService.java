@@ -0,0 +1,257 @@
+package com.npci.transfer.service;
+
+import com.npci.transfer.config.ExecutionMode;
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.entity.Transaction;
+import com.npci.transfer.exception.AccountNotFoundException;
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group Commit Service - many transfers, one database transaction
+ * 
+ * In GROUP_COMMIT mode initiateTransfer queues its transfer and waits.
+ * Committer threads take up to max-batch-size queued transfers (waiting at
+ * most max-delay after the oldest one) and apply them in one transaction
+ * (see TransferBatchApplier): a rejected transfer changes nothing and fails
+ * only its caller; one commit (one WAL fsync) for the whole batch.
+ * 
+ * If the batch transaction fails it is rolled back and, with split-on-failure,
+ * retried as two halves (down to single transfers), so one bad transfer
+ * cannot fail its neighbours.
+ * 
+ * Only started when transfer.execution.mode=group-commit.
+ */
+@Service
+@Slf4j
+public class GroupCommitService implements SmartLifecycle {
+    
+    private record Pending(Transaction transaction, long queuedAt, CompletableFuture<Transaction> result) {
+    }
+    
+    private final TransferBatchApplier transferBatchApplier;
+    private final TransactionRepository transactionRepository;
+    private final TransferProperties transferProperties;
+    private final TransferMetrics transferMetrics;
+    private final TransactionTemplate transactionTemplate;
+    
+    private final LinkedBlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final List<Thread> committers = new ArrayList<>();
+    private volatile boolean running;
+    
+    public GroupCommitService(TransferBatchApplier transferBatchApplier, TransactionRepository transactionRepository,
+                              TransferProperties transferProperties, TransferMetrics transferMetrics,
+                              PlatformTransactionManager transactionManager) {
+        this.transferBatchApplier = transferBatchApplier;
+        this.transactionRepository = transactionRepository;
+        this.transferProperties = transferProperties;
+        this.transferMetrics = transferMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    // ========== Callers ==========
+    
+    /**
+     * Queues a transfer for the next batch and waits until that batch has committed.
+     * 
+     * @param transaction Unsaved transaction carrying UPI IDs, amount, fee and total debit
+     * @return The saved transaction
+     * @throws AccountNotFoundException if an account does not exist
+     * @throws com.npci.transfer.exception.InsufficientBalanceException if the source cannot cover the debit
+     */
+    public Transaction commit(Transaction transaction) {
+        if (!running) {
+            throw new IllegalStateException("Group commit is not running (transfer.execution.mode=group-commit)");
+        }
+        Pending pending = new Pending(transaction, System.nanoTime(), new CompletableFuture<>());
+        queue.add(pending);
+        
+        try {
+            try {
+                return pending.result().get(
+                    transferProperties.getGroupCommit().getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (queue.remove(pending)) {
+                    throw new IllegalStateException("Transfer was not picked up by a group commit within "
+                        + transferProperties.getGroupCommit().getTimeout(), e);
+                }
+                // Already part of a batch that is committing: its outcome is on the way
+                return pending.result().get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Group commit failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for group commit", e);
+        }
+    }
+    
+    // ========== Committers ==========
+    
+    private void runCommitter() {
+        TransferProperties.GroupCommit config = transferProperties.getGroupCommit();
+        List<Pending> batch = new ArrayList<>(config.getMaxBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(batch, config);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(pending -> pending.result().completeExceptionally(
+                    new IllegalStateException("Group commit stopped", e)));
+                return;
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            
+            long start = System.nanoTime();
+            for (Pending pending : batch) {
+                transferMetrics.recordGroupCommitWait(start - pending.queuedAt());
+            }
+            commitBatch(batch, config.isSplitOnFailure());
+            batch.clear();
+        }
+    }
+    
+    /**
+     * Blocks for the first transfer, then keeps collecting until the batch is
+     * full or the oldest transfer in it has waited max-delay.
+     */
+    private void collect(List<Pending> batch, TransferProperties.GroupCommit config) throws InterruptedException {
+        Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        
+        long deadline = first.queuedAt() + config.getMaxDelay().toNanos();
+        while (batch.size() < config.getMaxBatchSize()) {
+            queue.drainTo(batch, config.getMaxBatchSize() - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= config.getMaxBatchSize() || remaining <= 0) {
+                return;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+    
+    private void commitBatch(List<Pending> batch, boolean splitOnFailure) {
+        long start = System.nanoTime();
+        RuntimeException[] rejections;
+        try {
+            rejections = transactionTemplate.execute(status -> applyBatch(batch));
+        } catch (RuntimeException e) {
+            // Rolled back: forget IDs assigned by the failed INSERTs before anything is retried
+            batch.forEach(pending -> pending.transaction().setId(null));
+            boolean split = splitOnFailure && batch.size() > 1;
+            transferMetrics.recordGroupCommitFailure(split);
+            if (!split) {
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+                return;
+            }
+            log.warn("Group commit of {} transfers failed, retrying as two halves: {}", batch.size(), e.toString());
+            int half = batch.size() / 2;
+            commitBatch(batch.subList(0, half), true);
+            commitBatch(batch.subList(half, batch.size()), true);
+            return;
+        }
+        transferMetrics.recordGroupCommit(batch.size(), System.nanoTime() - start);
+        
+        for (int i = 0; i < batch.size(); i++) {
+            Pending pending = batch.get(i);
+            if (rejections[i] != null) {
+                pending.result().completeExceptionally(rejections[i]);
+            } else {
+                pending.result().complete(pending.transaction());
+            }
+        }
+    }
+    
+    /**
+     * Applies the batch inside the current transaction and inserts the applied transfers.
+     * 
+     * @return Per transfer: the business rejection, or null if it was applied
+     */
+    private RuntimeException[] applyBatch(List<Pending> batch) {
+        List<Transaction> transfers = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            transfers.add(pending.transaction());
+        }
+        
+        RuntimeException[] rejections = transferBatchApplier.apply(transfers);
+        List<Transaction> applied = new ArrayList<>(batch.size());
+        for (int i = 0; i < transfers.size(); i++) {
+            if (rejections[i] == null) {
+                applied.add(transfers.get(i));
+            }
+        }
+        transactionRepository.saveAll(applied);
+        return rejections;
+    }
+    
+    // ========== Lifecycle ==========
+    
+    @Override
+    public void start() {
+        if (transferProperties.getExecution().getMode() != ExecutionMode.GROUP_COMMIT) {
+            return;
+        }
+        
+        TransferProperties.GroupCommit config = transferProperties.getGroupCommit();
+        running = true;
+        for (int i = 0; i < config.getCommitters(); i++) {
+            Thread committer = new Thread(this::runCommitter, "group-commit-" + i);
+            committers.add(committer);
+            committer.start();
+        }
+        transferMetrics.registerGroupCommitQueue(queue::size);
+        
+        log.info("Group commit started: {} committers, batches of up to {} transfers / {}",
+            config.getCommitters(), config.getMaxBatchSize(), config.getMaxDelay());
+    }
+    
+    /**
+     * Commits what is already queued, then stops.
+     */
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            for (Thread committer : committers) {
+                committer.join(TimeUnit.SECONDS.toMillis(30));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        committers.clear();
+        log.info("Group commit stopped");
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,213 @@
+package com.npci.transfer.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.npci.transfer.config.ExecutionMode;
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.dto.TransferRequest;
+import com.npci.transfer.dto.TransferResponse;
+import com.npci.transfer.entity.IdempotencyRecord;
+import com.npci.transfer.exception.IdempotencyKeyReusedException;
+import com.npci.transfer.exception.InvalidTransferException;
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.retry.annotation.Retryable;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency Service - executes a transfer at most once per Idempotency-Key
+ * 
+ * - the key is claimed in the idempotency_keys table, in the transaction
+ *   that executes the transfer and stores its response: both commit, or
+ *   neither does
+ * - hence not in LEDGER and GROUP_COMMIT modes, where the transfer commits
+ *   on another thread: a failed claim could not take it back, and a retry
+ *   would move the money again
+ * - a duplicate arriving while the first request is still executing - on
+ *   this instance or another - waits on that claim and replays its outcome
+ * - replays are answered from a bounded, TTL-evicted in-memory cache, then
+ *   from the idempotency_keys table (so they survive a restart)
+ * - the same key with a different request is rejected
+ * 
+ * Only successful (or accepted) responses are stored: a rejected transfer
+ * rolls its claim back and may be retried with the same key once the cause
+ * is fixed.
+ */
+@Service
+@Slf4j
+public class IdempotencyService implements SchedulingConfigurer {
+    
+    static final int MAX_KEY_LENGTH = 255;
+    
+    /**
+     * A response, and whether it was replayed instead of executed.
+     */
+    public record Outcome(TransferResponse response, boolean replayed) {
+    }
+    
+    private record Stored(String requestHash, TransferResponse response) {
+    }
+    
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader responseReader;
+    private final TransferProperties transferProperties;
+    private final TransferMetrics transferMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, Stored> cache;
+    
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository, ObjectMapper objectMapper,
+                              TransferProperties transferProperties, TransferMetrics transferMetrics,
+                              PlatformTransactionManager transactionManager) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        // Derived properties (success) are written too; stored responses must stay readable as the DTO evolves
+        this.responseReader = objectMapper.readerFor(TransferResponse.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.transferProperties = transferProperties;
+        this.transferMetrics = transferMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(transferProperties.getIdempotency().getCacheSize())
+            .expireAfterWrite(transferProperties.getIdempotency().getCacheTtl())
+            .build();
+    }
+    
+    /**
+     * Runs the transfer unless this key has already been (or is being) used.
+     * 
+     * The transfer joins the claiming transaction, so an optimistic locking
+     * conflict is retried here, claim included (see OptimisticRetryConfig).
+     * 
+     * @param idempotencyKey Client-chosen key of the logical request
+     * @param request Request the key was sent with
+     * @param transfer Executes the transfer
+     * @throws IdempotencyKeyReusedException if the key was used for a different request
+     * @throws InvalidTransferException if the key is malformed, or in LEDGER or GROUP_COMMIT mode
+     */
+    @Retryable(interceptor = "optimisticRetryInterceptor")
+    public Outcome execute(String idempotencyKey, TransferRequest request, Supplier<TransferResponse> transfer) {
+        ExecutionMode mode = transferProperties.getExecution().getMode();
+        if (mode == ExecutionMode.LEDGER || mode == ExecutionMode.GROUP_COMMIT) {
+            throw new InvalidTransferException(
+                "Idempotency-Key is not supported in ledger or group-commit execution mode");
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidTransferException(
+                "Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(request);
+        
+        Stored cached = cache.getIfPresent(idempotencyKey);
+        if (cached != null) {
+            return replay(idempotencyKey, cached, requestHash, "cache");
+        }
+        
+        Outcome outcome = transactionTemplate.execute(status -> {
+            Optional<Stored> taken = claim(idempotencyKey, requestHash);
+            if (taken.isPresent()) {
+                return replay(idempotencyKey, taken.get(), requestHash, "database");
+            }
+            TransferResponse response = transfer.get();
+            idempotencyRecordRepository.storeResponse(idempotencyKey, write(response));
+            return new Outcome(response, false);
+        });
+        cache.put(idempotencyKey, new Stored(requestHash, outcome.response()));
+        return outcome;
+    }
+    
+    /**
+     * Claims the key for the current transaction, or finds the response
+     * stored for it. A claim held by a transaction still running makes the
+     * insert wait for that transaction to end.
+     */
+    private Optional<Stored> claim(String idempotencyKey, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minus(transferProperties.getIdempotency().getRetention());
+        while (idempotencyRecordRepository.claim(idempotencyKey, requestHash, now) == 0) {
+            Optional<IdempotencyRecord> taken = idempotencyRecordRepository.findById(idempotencyKey)
+                .filter(record -> record.getCreatedAt().isAfter(cutoff));
+            if (taken.isPresent()) {
+                return Optional.of(read(taken.get()));
+            }
+            // Expired but not purged yet (or purged meanwhile): forget it and claim again
+            idempotencyRecordRepository.deleteExpired(idempotencyKey, cutoff);
+        }
+        return Optional.empty();
+    }
+    
+    private Outcome replay(String idempotencyKey, Stored stored, String requestHash, String source) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReusedException(
+                "Idempotency-Key " + idempotencyKey + " was already used for a different transfer");
+        }
+        transferMetrics.recordIdempotentReplay(source);
+        return new Outcome(stored.response(), true);
+    }
+    
+    private Stored read(IdempotencyRecord record) {
+        try {
+            return new Stored(record.getRequestHash(), responseReader.readValue(record.getResponseBody()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable response stored for an Idempotency-Key", e);
+        }
+    }
+    
+    private String write(TransferResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the response for an Idempotency-Key", e);
+        }
+    }
+    
+    /**
+     * SHA-256 over the fields that define the transfer.
+     */
+    static String hash(TransferRequest request) {
+        String canonical = request.getSourceUPI() + '\n'
+            + request.getDestinationUPI() + '\n'
+            + request.getAmount().stripTrailingZeros().toPlainString() + '\n'
+            + request.getRemarks();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    // ========== Retention ==========
+    
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(this::purgeExpired,
+            transferProperties.getIdempotency().getPurgeInterval());
+    }
+    
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(transferProperties.getIdempotency().getRetention());
+        Integer purged = transactionTemplate.execute(
+            status -> idempotencyRecordRepository.deleteCreatedBefore(cutoff));
+        if (purged != null && purged > 0) {
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.npci.transfer.service;
+
+import com.npci.transfer.dto.TransferRequest;
+import com.npci.transfer.dto.TransferResponse;
+import com.npci.transfer.entity.Transaction;
+import com.npci.transfer.exception.AccountNotFoundException;
+import com.npci.transfer.exception.InvalidTransferException;
+import com.npci.transfer.id.TransactionIdGenerator;
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.money.Money;
+import com.npci.transfer.repository.ReactiveTransferRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reactive Transfer Service
+ * 
+ * Same validation, fee and error messages as TransferService, but the
+ * lock / debit / credit / insert runs on R2DBC without blocking a thread.
+ * Always uses pessimistic row locking; the execution modes and hot-account
+ * striping of the JPA path do not apply here.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveTransferService {
+    
+    private final ReactiveTransferRepository reactiveTransferRepository;
+    private final FeeCalculator feeCalculator;
+    private final TransferMetrics transferMetrics;
+    private final TransactionalOperator transactionalOperator;
+    private final TransactionIdGenerator transactionIdGenerator;
+    
+    public Mono<TransferResponse> initiateTransfer(TransferRequest request) {
+        return Mono.fromCallable(() -> newTransaction(request))
+            .flatMap(transaction -> transfer(transaction).as(transactionalOperator::transactional))
+            .doOnNext(transaction -> log.info("Transfer completed via R2DBC. Transaction ID: {}",
+                sanitizeForLog(transaction.getTransactionId())))
+            .map(this::buildResponse);
+    }
+    
+    /**
+     * Validates the request and builds the (unsaved) transaction, as the JPA path does.
+     */
+    private Transaction newTransaction(TransferRequest request) {
+        Money amount = TransferService.validateAmount(request.getAmount());
+        if (request.getSourceUPI().equals(request.getDestinationUPI())) {
+            throw new InvalidTransferException("Cannot transfer to the same account");
+        }
+        
+        Money fee = feeCalculator.calculateFee(amount, request.getSourceUPI(), request.getDestinationUPI());
+        
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(transactionIdGenerator.nextId());
+        transaction.setSourceUPI(request.getSourceUPI());
+        transaction.setDestinationUPI(request.getDestinationUPI());
+        transaction.setAmount(amount);
+        transaction.setFee(fee);
+        transaction.setTotalDebited(amount.plus(fee));
+        transaction.setStatus("SUCCESS");
+        transaction.setRemarks(request.getRemarks());
+        transaction.setTimestamp(LocalDateTime.now());
+        return transaction;
+    }
+    
+    /**
+     * Locks both accounts, then debits, credits and inserts the transaction.
+     * Must run inside one transaction: the locks are held until it commits.
+     */
+    private Mono<Transaction> transfer(Transaction transaction) {
+        String source = transaction.getSourceUPI();
+        String destination = transaction.getDestinationUPI();
+        
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return reactiveTransferRepository.lockBalances(List.of(source, destination))
+                .doOnNext(balances -> transferMetrics.recordLockWait(System.nanoTime() - start));
+        }).flatMap(balances -> {
+            RuntimeException rejection = validate(balances, transaction);
+            if (rejection != null) {
+                return Mono.error(rejection);
+            }
+            return reactiveTransferRepository.addToBalance(source, transaction.getTotalDebited().negate().toBigDecimal())
+                .then(reactiveTransferRepository.addToBalance(destination, transaction.getAmount().toBigDecimal()))
+                .then(reactiveTransferRepository.insertTransaction(transaction))
+                .map(id -> {
+                    transaction.setId(id);
+                    return transaction;
+                });
+        });
+    }
+    
+    private RuntimeException validate(Map<String, BigDecimal> balances, Transaction transaction) {
+        BigDecimal available = balances.get(transaction.getSourceUPI());
+        if (available == null) {
+            return new AccountNotFoundException("Source account not found: " + transaction.getSourceUPI());
+        }
+        if (!balances.containsKey(transaction.getDestinationUPI())) {
+            return new AccountNotFoundException("Destination account not found: " + transaction.getDestinationUPI());
+        }
+        BigDecimal required = transaction.getTotalDebited().toBigDecimal();
+        if (available.compareTo(required) < 0) {
+            return TransferService.insufficientBalance(available, required);
+        }
+        return null;
+    }
+    
+    private TransferResponse buildResponse(Transaction transaction) {
+        return TransferResponse.builder()
+                .transactionId(transaction.getTransactionId())
+                .status(transaction.getStatus())
+                .sourceUPI(transaction.getSourceUPI())
+                .destinationUPI(transaction.getDestinationUPI())
+                .amount(transaction.getAmount())
+                .fee(transaction.getFee())
+                .totalDebited(transaction.getTotalDebited())
+                .timestamp(transaction.getTimestamp())
+                .remarks(transaction.getRemarks())
+                .build();
+    }
+    
+    /**
+     * SECURITY FIX: Prevent CRLF injection
+     */
+    private String sanitizeForLog(String input) {
+        if (input == null) {
+            return null;
+        }
+        return input.replace('\n', '_')
+                    .replace('\r', '_')
+                    .replace('\t', '_');
+    }
+}
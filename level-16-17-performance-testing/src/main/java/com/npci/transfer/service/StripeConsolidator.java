@@ -0,0 +1,59 @@
+package com.npci.transfer.service;
+
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.exception.AccountNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Background side of balance striping
+ * 
+ * - on startup: stripes the accounts listed in transfer.striping.hot-accounts
+ * - every transfer.striping.consolidation-interval: refreshes the hot account
+ *   set and folds stripe balances back into each accounts row, so the
+ *   stripes only ever hold recent credits
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StripeConsolidator implements SchedulingConfigurer {
+    
+    private final StripedBalanceService stripedBalanceService;
+    private final TransferProperties transferProperties;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void stripeConfiguredHotAccounts() {
+        TransferProperties.Striping striping = transferProperties.getStriping();
+        for (String upiId : striping.getHotAccounts()) {
+            try {
+                stripedBalanceService.enableStriping(upiId, striping.getStripes());
+            } catch (AccountNotFoundException e) {
+                log.warn("Hot account {} does not exist yet, not striped", upiId);
+            }
+        }
+        stripedBalanceService.refreshHotAccounts();
+    }
+    
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(this::consolidate,
+            transferProperties.getStriping().getConsolidationInterval());
+    }
+    
+    public void consolidate() {
+        stripedBalanceService.refreshHotAccounts();
+        for (String upiId : stripedBalanceService.hotAccounts()) {
+            BigDecimal drained = stripedBalanceService.consolidate(upiId);
+            if (drained.signum() != 0) {
+                log.debug("Consolidated ₹{} of stripe credits into {}", drained, upiId);
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.npci.transfer.service;
+
+import com.npci.transfer.cache.AccountMetadata;
+import com.npci.transfer.entity.Account;
+import com.npci.transfer.entity.AccountBalanceStripe;
+import com.npci.transfer.exception.AccountNotFoundException;
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.repository.AccountBalanceStripeRepository;
+import com.npci.transfer.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Striped Balance Service - sub-balances for hot (merchant) accounts
+ * 
+ * A striped account's balance is accounts.balance (the "base") plus the sum
+ * of its account_balance_stripes rows:
+ * - credit: adds to one stripe, so N stripes take N concurrent credits
+ * - debit:  draws from the base first, then from the stripes in stripe order
+ * - balance: base + SUM(stripes)
+ * 
+ * Lock order is always accounts row, then stripes in stripe order
+ * (debits and consolidation); credits only ever hold a single stripe.
+ * StripeConsolidator folds the stripes back into the base periodically.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StripedBalanceService {
+    
+    private final AccountRepository accountRepository;
+    private final AccountBalanceStripeRepository stripeRepository;
+    private final TransferMetrics transferMetrics;
+    
+    private final Set<String> hotUpiIds = ConcurrentHashMap.newKeySet();
+    
+    /**
+     * Whether credits to this UPI ID go to stripes, so its accounts row
+     * does not need to be locked. Backed by an in-memory set that is
+     * refreshed by StripeConsolidator.
+     */
+    public boolean isHot(String upiId) {
+        return hotUpiIds.contains(upiId);
+    }
+    
+    public Set<String> hotAccounts() {
+        return Set.copyOf(hotUpiIds);
+    }
+    
+    @Transactional(readOnly = true)
+    public void refreshHotAccounts() {
+        List<String> striped = accountRepository.findByBalanceStripesGreaterThan(0).stream()
+            .map(Account::getUpiId)
+            .toList();
+        hotUpiIds.addAll(striped);
+        hotUpiIds.retainAll(striped);
+    }
+    
+    /**
+     * Splits an account's future credits across the given number of stripes.
+     * The existing balance stays in the accounts row. No-op if already striped.
+     */
+    @Transactional
+    public void enableStriping(String upiId, int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive: " + stripes);
+        }
+        Account account = accountRepository.findAllByUpiIdInForUpdate(List.of(upiId)).stream()
+            .findFirst()
+            .orElseThrow(() -> new AccountNotFoundException("Account not found: " + upiId));
+        if (account.isStriped()) {
+            return;
+        }
+        
+        List<AccountBalanceStripe> rows = new ArrayList<>(stripes);
+        for (int stripeNo = 0; stripeNo < stripes; stripeNo++) {
+            rows.add(AccountBalanceStripe.builder()
+                .accountId(account.getId())
+                .stripeNo(stripeNo)
+                .balance(BigDecimal.ZERO)
+                .build());
+        }
+        stripeRepository.saveAll(rows);
+        account.setBalanceStripes(stripes);
+        accountRepository.save(account);
+        hotUpiIds.add(upiId);
+        
+        log.info("Enabled {} balance stripes for {}", stripes, upiId);
+    }
+    
+    /**
+     * Credits a striped account without touching its accounts row.
+     * Starts at a random stripe and takes the first one nobody has locked;
+     * only if all are locked (a debit is draining them) does it wait.
+     */
+    public void credit(Account account, BigDecimal amount) {
+        credit(account.getId(), account.getBalanceStripes(), account.getUpiId(), amount);
+    }
+    
+    /**
+     * Same, for an account known only by its cached metadata: no accounts row is read at all.
+     */
+    public void credit(AccountMetadata account, BigDecimal amount) {
+        credit(account.id(), account.balanceStripes(), account.upiId(), amount);
+    }
+    
+    private void credit(Long accountId, int stripes, String upiId, BigDecimal amount) {
+        int startStripe = ThreadLocalRandom.current().nextInt(stripes);
+        if (stripeRepository.creditUnlockedStripe(accountId, startStripe, amount) > 0) {
+            return;
+        }
+        
+        transferMetrics.recordStripeCreditWait();
+        if (stripeRepository.creditStripe(accountId, startStripe, amount) == 0) {
+            throw new IllegalStateException("Balance stripes missing for account: " + upiId);
+        }
+    }
+    
+    /**
+     * Debits a striped account. The caller holds the accounts row
+     * (pessimistic lock or @Version), so only the stripes are locked here,
+     * and only when the base alone cannot cover the amount.
+     * 
+     * @return false (and nothing changed) if base + stripes < amount
+     */
+    public boolean debit(Account account, BigDecimal amount) {
+        BigDecimal base = account.getBalance();
+        if (base.compareTo(amount) >= 0) {
+            account.setBalance(base.subtract(amount));
+            return true;
+        }
+        
+        List<AccountBalanceStripe> stripes = stripeRepository.findAllByAccountIdForUpdate(account.getId());
+        BigDecimal available = base;
+        for (AccountBalanceStripe stripe : stripes) {
+            available = available.add(stripe.getBalance());
+        }
+        if (available.compareTo(amount) < 0) {
+            return false;
+        }
+        
+        BigDecimal remaining = amount.subtract(base);
+        account.setBalance(BigDecimal.ZERO);
+        for (AccountBalanceStripe stripe : stripes) {
+            if (remaining.signum() == 0) {
+                break;
+            }
+            BigDecimal taken = stripe.getBalance().min(remaining);
+            stripe.setBalance(stripe.getBalance().subtract(taken));
+            remaining = remaining.subtract(taken);
+        }
+        return true;
+    }
+    
+    /**
+     * Base plus all stripes.
+     */
+    public BigDecimal totalBalance(Account account) {
+        return account.getBalance().add(stripeRepository.sumBalanceByAccountId(account.getId()));
+    }
+    
+    /**
+     * Moves every unlocked, non-empty stripe into the accounts row.
+     * Stripes busy with an in-flight credit are skipped until the next run.
+     * 
+     * @return Amount folded into the base
+     */
+    @Transactional
+    public BigDecimal consolidate(String upiId) {
+        long start = System.nanoTime();
+        List<Account> locked = accountRepository.findAllByUpiIdInForUpdate(List.of(upiId));
+        if (locked.isEmpty() || !locked.get(0).isStriped()) {
+            return BigDecimal.ZERO;
+        }
+        
+        Account account = locked.get(0);
+        BigDecimal drained = stripeRepository.drainUnlockedStripes(account.getId()).stream()
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (drained.signum() != 0) {
+            account.setBalance(account.getBalance().add(drained));
+        }
+        
+        transferMetrics.recordStripeConsolidation(System.nanoTime() - start);
+        return drained;
+    }
+}
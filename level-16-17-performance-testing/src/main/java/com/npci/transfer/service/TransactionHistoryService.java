@@ -0,0 +1,81 @@
+package com.npci.transfer.service;
+
+import com.npci.transfer.dto.TransactionHistoryRequest;
+import com.npci.transfer.dto.TransactionHistoryResponse;
+import com.npci.transfer.dto.TransferResponse;
+import com.npci.transfer.exception.InvalidCursorException;
+import com.npci.transfer.repository.TransactionHistoryRepository;
+import com.npci.transfer.repository.TransactionHistoryRepository.HistoryQuery;
+import com.npci.transfer.repository.TransactionHistoryRepository.Position;
+import com.npci.transfer.config.ReplicaRouting;
+import com.npci.transfer.config.TransferProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Transaction History Service - cursor-paged transfers of one account
+ * 
+ * The cursor is the position of a page's last row, base64url-encoded so
+ * clients treat it as opaque; one extra row is read to know whether another
+ * page follows. Pages may come from a replica up to
+ * transfer.replicas.history-max-lag behind.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionHistoryService {
+    
+    private static final char SEPARATOR = '/';
+    
+    private final TransactionHistoryRepository historyRepository;
+    private final TransferProperties transferProperties;
+    
+    public TransactionHistoryResponse getHistory(TransactionHistoryRequest request) {
+        int size = request.getSize();
+        HistoryQuery query = new HistoryQuery(
+            request.getUpiId(),
+            request.getStatus(),
+            request.getFromDate(),
+            request.getToDate(),
+            request.isAscending(),
+            request.getCursor() == null ? null : decode(request.getCursor()),
+            size + 1);
+        List<TransferResponse> rows = ReplicaRouting.withStalenessBudget(
+            transferProperties.getReplicas().getHistoryMaxLag(), () -> historyRepository.findHistory(query));
+        
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            TransferResponse last = rows.get(size - 1);
+            nextCursor = encode(new Position(last.getTimestamp(), last.getTransactionId()));
+        }
+        return TransactionHistoryResponse.builder()
+            .content(rows)
+            .size(size)
+            .nextCursor(nextCursor)
+            .build();
+    }
+    
+    static String encode(Position position) {
+        String value = position.timestamp().toString() + SEPARATOR + position.transactionId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    static Position decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if (separator < 0 || separator == value.length() - 1) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+            return new Position(LocalDateTime.parse(value.substring(0, separator)), value.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+}
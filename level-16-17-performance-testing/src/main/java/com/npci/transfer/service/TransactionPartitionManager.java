@@ -0,0 +1,164 @@
+package com.npci.transfer.service;
+
+import com.npci.transfer.config.ExpiredPartitionAction;
+import com.npci.transfer.config.PartitionInterval;
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.repository.TransactionPartitionRepository;
+import com.npci.transfer.repository.TransactionPartitionRepository.TransactionPartition;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Transaction Partition Manager - lifecycle of the partitioned transactions table
+ * 
+ * With transfer.partitioning.enabled, transactions is range-partitioned on
+ * timestamp (monthly or daily), so every insert maintains the indexes of one
+ * small partition however large the table gets, and old rows leave by
+ * dropping a partition instead of a DELETE.
+ * 
+ * - on startup: converts a plain transactions table (as Hibernate creates it)
+ *   in place; existing rows become the transactions_legacy partition
+ * - on startup and every transfer.partitioning.maintenance-interval:
+ *   creates the current partition and the next premake ones, then detaches
+ *   or drops those whose newest row is older than the retention
+ * - a failed run is logged and counted; the premade partitions keep inserts
+ *   working until the next one succeeds
+ * 
+ * Takes the EntityManagerFactory only so Hibernate has created the table
+ * first (like StoredFunctionInitializer); PostgreSQL only.
+ */
+@Component
+@Slf4j
+public class TransactionPartitionManager implements SchedulingConfigurer {
+    
+    private final TransactionPartitionRepository partitionRepository;
+    private final TransferProperties transferProperties;
+    private final TransferMetrics transferMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    
+    private volatile int partitions;
+    
+    @Autowired
+    public TransactionPartitionManager(TransactionPartitionRepository partitionRepository,
+                                       TransferProperties transferProperties, TransferMetrics transferMetrics,
+                                       PlatformTransactionManager transactionManager,
+                                       EntityManagerFactory entityManagerFactory) {
+        this(partitionRepository, transferProperties, transferMetrics, new TransactionTemplate(transactionManager),
+            Clock.systemDefaultZone());
+    }
+    
+    TransactionPartitionManager(TransactionPartitionRepository partitionRepository,
+                                TransferProperties transferProperties, TransferMetrics transferMetrics,
+                                TransactionTemplate transactionTemplate, Clock clock) {
+        this.partitionRepository = partitionRepository;
+        this.transferProperties = transferProperties;
+        this.transferMetrics = transferMetrics;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+    }
+    
+    @PostConstruct
+    void partitionTransactions() {
+        TransferProperties.Partitioning partitioning = transferProperties.getPartitioning();
+        if (!partitioning.isEnabled()) {
+            return;
+        }
+        transferMetrics.registerTransactionPartitions(() -> partitions);
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            if (partitionRepository.isPartitioned()) {
+                return;
+            }
+            // Everything up to the end of the current (or latest used) range stays in the old table
+            LocalDate today = LocalDate.now(clock);
+            LocalDate latest = partitionRepository.findMaxTimestamp()
+                .map(LocalDateTime::toLocalDate)
+                .filter(today::isBefore)
+                .orElse(today);
+            PartitionInterval interval = partitioning.getInterval();
+            LocalDateTime until = interval.next(interval.start(latest)).atStartOfDay();
+            partitionRepository.partitionTable(until);
+            log.info("Partitioned transactions {}; existing rows kept in transactions_legacy (before {})",
+                interval, until);
+        });
+        maintain();
+    }
+    
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        if (transferProperties.getPartitioning().isEnabled()) {
+            taskRegistrar.addFixedDelayTask(this::maintain,
+                transferProperties.getPartitioning().getMaintenanceInterval());
+        }
+    }
+    
+    /**
+     * Creates missing partitions up to premake ahead and retires expired ones.
+     * 
+     * @return false if a step failed (logged and counted)
+     */
+    public boolean maintain() {
+        TransferProperties.Partitioning partitioning = transferProperties.getPartitioning();
+        PartitionInterval interval = partitioning.getInterval();
+        long start = System.nanoTime();
+        try {
+            List<TransactionPartition> existing = partitionRepository.findPartitions();
+            
+            LocalDate period = interval.start(LocalDate.now(clock));
+            for (int i = 0; i <= partitioning.getPremake(); i++, period = interval.next(period)) {
+                LocalDateTime from = period.atStartOfDay();
+                LocalDateTime to = interval.next(period).atStartOfDay();
+                // Ranges already held by another partition (e.g. transactions_legacy) are skipped
+                if (existing.stream().noneMatch(partition -> partition.overlaps(from, to))) {
+                    String name = interval.partitionName(period);
+                    transactionTemplate.executeWithoutResult(
+                        status -> partitionRepository.createPartition(name, from, to));
+                    log.info("Created partition {} [{}, {})", name, from, to);
+                }
+            }
+            
+            LocalDateTime cutoff = LocalDateTime.now(clock).minus(partitioning.getRetention());
+            for (TransactionPartition partition : existing) {
+                if (partition.to() != null && !partition.to().isAfter(cutoff)) {
+                    retire(partition.name(), partitioning.getExpired());
+                }
+            }
+            
+            partitions = partitionRepository.findPartitions().size();
+            transferMetrics.recordPartitionMaintenance(System.nanoTime() - start);
+            return true;
+        } catch (RuntimeException e) {
+            transferMetrics.recordPartitionMaintenanceFailure();
+            log.warn("Transaction partition maintenance failed, retrying in {}: {}",
+                partitioning.getMaintenanceInterval(), e.getMessage());
+            return false;
+        }
+    }
+    
+    private void retire(String name, ExpiredPartitionAction action) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (action == ExpiredPartitionAction.DROP) {
+                partitionRepository.dropPartition(name);
+            } else {
+                partitionRepository.detachPartition(name);
+            }
+        });
+        transferMetrics.recordPartitionExpired(action.name().toLowerCase(Locale.ROOT));
+        log.info("Partition {} past retention: {}", name, action);
+    }
+}
@@ -0,0 +1,114 @@
+package com.npci.transfer.service;
+
+import com.npci.transfer.entity.Account;
+import com.npci.transfer.entity.Transaction;
+import com.npci.transfer.exception.AccountNotFoundException;
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.money.Money;
+import com.npci.transfer.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies a batch of transfers inside the caller's database transaction
+ * 
+ * Shared by GroupCommitService and AsyncTransferService:
+ * - every account of the batch is locked with one SELECT ... FOR UPDATE,
+ *   in UPI ID order, so concurrent batches cannot deadlock
+ * - each transfer is validated against the balances left by the transfers
+ *   before it; a rejected transfer changes nothing
+ * - changed accounts are saved; saving the transactions is up to the caller
+ */
+@Component
+@RequiredArgsConstructor
+public class TransferBatchApplier {
+    
+    static final String SOURCE_NOT_FOUND = "Source account not found: ";
+    static final String DESTINATION_NOT_FOUND = "Destination account not found: ";
+    
+    private final AccountRepository accountRepository;
+    private final StripedBalanceService stripedBalanceService;
+    private final TransferMetrics transferMetrics;
+    
+    /**
+     * @param transfers Transactions carrying UPI IDs, amount and total debit
+     * @return Per transfer: the business rejection, or null if it was applied
+     */
+    public RuntimeException[] apply(List<Transaction> transfers) {
+        Set<String> upiIds = new LinkedHashSet<>(transfers.size() * 4);
+        for (Transaction transaction : transfers) {
+            upiIds.add(transaction.getSourceUPI());
+            upiIds.add(transaction.getDestinationUPI());
+        }
+        
+        long lockStart = System.nanoTime();
+        List<Account> locked = accountRepository.findAllByUpiIdInForUpdate(upiIds);
+        transferMetrics.recordLockWait(System.nanoTime() - lockStart);
+        Map<String, Account> accounts = new HashMap<>(locked.size() * 2);
+        for (Account account : locked) {
+            accounts.put(account.getUpiId(), account);
+        }
+        
+        RuntimeException[] rejections = new RuntimeException[transfers.size()];
+        Map<String, Account> changed = new LinkedHashMap<>();
+        for (int i = 0; i < transfers.size(); i++) {
+            Transaction transaction = transfers.get(i);
+            Account source = accounts.get(transaction.getSourceUPI());
+            Account destination = accounts.get(transaction.getDestinationUPI());
+            if (source == null) {
+                rejections[i] = new AccountNotFoundException(SOURCE_NOT_FOUND + transaction.getSourceUPI());
+                continue;
+            }
+            if (destination == null) {
+                rejections[i] = new AccountNotFoundException(DESTINATION_NOT_FOUND + transaction.getDestinationUPI());
+                continue;
+            }
+            
+            rejections[i] = debit(source, transaction.getTotalDebited());
+            if (rejections[i] != null) {
+                continue;
+            }
+            credit(destination, transaction.getAmount());
+            changed.put(source.getUpiId(), source);
+            changed.put(destination.getUpiId(), destination);
+        }
+        
+        accountRepository.saveAll(changed.values());
+        return rejections;
+    }
+    
+    /**
+     * Same rules as the single-transfer path; striped (hot) accounts may draw on their stripes.
+     * 
+     * @return The rejection, or null if the debit was applied
+     */
+    private RuntimeException debit(Account source, Money totalDebited) {
+        BigDecimal totalDebit = totalDebited.toBigDecimal();
+        if (source.isStriped()) {
+            return stripedBalanceService.debit(source, totalDebit) ? null
+                : TransferService.insufficientBalance(stripedBalanceService.totalBalance(source), totalDebit);
+        }
+        if (source.getBalance().compareTo(totalDebit) < 0) {
+            return TransferService.insufficientBalance(source.getBalance(), totalDebit);
+        }
+        source.setBalance(source.getBalance().subtract(totalDebit));
+        return null;
+    }
+    
+    private void credit(Account destination, Money amount) {
+        BigDecimal credit = amount.toBigDecimal();
+        if (destination.isStriped()) {
+            stripedBalanceService.credit(destination, credit);
+            return;
+        }
+        destination.setBalance(destination.getBalance().add(credit));
+    }
+}
@@ -0,0 +1,542 @@
+package com.npci.transfer.service;
+
+import com.npci.transfer.cache.AccountMetadata;
+import com.npci.transfer.cache.AccountMetadataCache;
+import com.npci.transfer.config.LimitMode;
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.exception.LimitExceededException;
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.repository.AccountLimitRepository;
+import com.npci.transfer.repository.AccountLimitRepository.AccountLimits;
+import com.npci.transfer.repository.AccountLimitRepository.Usage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Transfer Limit Service - daily and monthly limits of the source account
+ * 
+ * The accounts row carries daily_limit / daily_used and monthly_limit /
+ * monthly_used. Usage is counted in memory, one counter per account (each
+ * with its own lock, so only transfers from the same account contend):
+ * - reserve: checks and adds the amount before the transfer runs; no SQL
+ *   on the hot path
+ * - release: takes a reservation back if the transfer did not happen
+ * - counters start a new day / month the first time they are used in it,
+ *   so nothing has to reset every account at midnight
+ * 
+ * transfer.limits.mode decides what the counters hold:
+ * - LOCAL: the account's usage, loaded from its row once and written back
+ *   every transfer.limits.flush-interval with one batched UPDATE (and on
+ *   shutdown); exact only while one instance serves the account
+ * - LEASE: a slice of the account's remaining allowance, leased from its row
+ *   (SELECT ... FOR UPDATE, usage += slice) in a transaction of its own.
+ *   The row's usage therefore counts everything leased by any instance; a
+ *   slice not spent within transfer.limits.lease-ttl, or at shutdown, is
+ *   given back. Spending a slice needs no coordination. A slice down to
+ *   half of lease-size is topped up ahead of time on a thread of its own;
+ *   a transfer the slice cannot cover leases on its own thread, taking a
+ *   second pooled connection while its transaction holds one.
+ * 
+ * The limits themselves are read from AccountMetadataCache, so a changed limit
+ * applies on every instance as soon as the change is notified. Accounts
+ * without a limit are not counted at all. JPA never writes the usage columns
+ * (see Account). Not applied by the reactive variant.
+ */
+@Service
+@Slf4j
+public class TransferLimitService implements SmartLifecycle, SchedulingConfigurer {
+    
+    /**
+     * LOCAL mode: usage of one account; every field is guarded by the counter itself.
+     */
+    private static final class Counter {
+        
+        private final String upiId;
+        private LocalDate day;
+        private BigDecimal dailyUsed;
+        private BigDecimal monthlyUsed;
+        private boolean dirty;
+        
+        private Counter(String upiId, AccountLimits limits, LocalDate today) {
+            this.upiId = upiId;
+            this.day = today;
+            this.dailyUsed = limits.dailyUsedOn(today);
+            this.monthlyUsed = limits.monthlyUsedOn(today);
+        }
+        
+        /**
+         * Starts a new day (and month) lazily; usage of a past period no longer counts.
+         */
+        private void rollTo(LocalDate today) {
+            if (today.isAfter(day)) {
+                if (!YearMonth.from(today).equals(YearMonth.from(day))) {
+                    monthlyUsed = BigDecimal.ZERO;
+                }
+                dailyUsed = BigDecimal.ZERO;
+                day = today;
+                dirty = true;
+            }
+        }
+    }
+    
+    /**
+     * LEASE mode: allowance of one account leased by this instance and not yet
+     * spent; every field is guarded by the lease's lock. A lock rather than
+     * the monitor: leasing waits on the database, which would pin a virtual thread.
+     */
+    private static final class Lease {
+        
+        private final String upiId;
+        private final ReentrantLock lock = new ReentrantLock();
+        private LocalDate day;
+        private BigDecimal remaining = BigDecimal.ZERO;
+        private long expiresAt;
+        private boolean refilling;
+        /**
+         * The row had less allowance left than lease-size: no top-ups until the day is over.
+         */
+        private boolean drained;
+        
+        private Lease(String upiId) {
+            this.upiId = upiId;
+        }
+    }
+    
+    private final AccountLimitRepository accountLimitRepository;
+    private final AccountMetadataCache accountMetadataCache;
+    private final TransferProperties transferProperties;
+    private final TransferMetrics transferMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate leaseTransactionTemplate;
+    private final Clock clock;
+    
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+    private volatile ExecutorService leaseRefiller;
+    private volatile boolean running;
+    
+    @Autowired
+    public TransferLimitService(AccountLimitRepository accountLimitRepository,
+                                AccountMetadataCache accountMetadataCache, TransferProperties transferProperties,
+                                TransferMetrics transferMetrics, PlatformTransactionManager transactionManager) {
+        this(accountLimitRepository, accountMetadataCache, transferProperties, transferMetrics, transactionManager,
+            Clock.systemDefaultZone());
+    }
+    
+    TransferLimitService(AccountLimitRepository accountLimitRepository, AccountMetadataCache accountMetadataCache,
+                         TransferProperties transferProperties, TransferMetrics transferMetrics,
+                         PlatformTransactionManager transactionManager, Clock clock) {
+        this.accountLimitRepository = accountLimitRepository;
+        this.accountMetadataCache = accountMetadataCache;
+        this.transferProperties = transferProperties;
+        this.transferMetrics = transferMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // A lease commits on its own: the row lock must not wait for the transfer that needed it
+        this.leaseTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.leaseTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.clock = clock;
+    }
+    
+    // ========== Reserve / release ==========
+    
+    /**
+     * Counts a transfer of amount from upiId against today's and this month's limit.
+     * Inside a transaction the reservation is released again if it rolls back.
+     * 
+     * @throws LimitExceededException if either limit would be exceeded (nothing is counted)
+     */
+    public void reserve(String upiId, BigDecimal amount) {
+        TransferProperties.Limits config = transferProperties.getLimits();
+        if (!config.isEnabled()) {
+            return;
+        }
+        
+        AccountMetadata account = accountMetadataCache.find(upiId).orElse(null);
+        if (account == null || account.isUnlimited()) {
+            // Unknown account: the transfer itself reports it
+            return;
+        }
+        
+        LocalDate today = LocalDate.now(clock);
+        boolean reserved = config.getMode() == LimitMode.LEASE
+            ? reserveFromLease(upiId, amount, today)
+            : reserveFromCounter(account, amount, today);
+        
+        if (reserved && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(upiId, amount, today);
+                    }
+                }
+            });
+        }
+    }
+    
+    /**
+     * Takes back a reservation made on the given day for a transfer that did not happen.
+     * Usage of a day or month that is already over is left alone.
+     */
+    public void release(String upiId, BigDecimal amount, LocalDate reservedOn) {
+        Lease lease = leases.get(upiId);
+        if (lease != null) {
+            lease.lock.lock();
+            try {
+                // Back into the slice it came from, if that is still today's
+                if (reservedOn.equals(lease.day)) {
+                    lease.remaining = lease.remaining.add(amount);
+                }
+            } finally {
+                lease.lock.unlock();
+            }
+            return;
+        }
+        
+        Counter counter = counters.get(upiId);
+        if (counter == null) {
+            return;
+        }
+        synchronized (counter) {
+            counter.rollTo(LocalDate.now(clock));
+            if (reservedOn.equals(counter.day)) {
+                counter.dailyUsed = counter.dailyUsed.subtract(amount).max(BigDecimal.ZERO);
+            }
+            if (YearMonth.from(reservedOn).equals(YearMonth.from(counter.day))) {
+                counter.monthlyUsed = counter.monthlyUsed.subtract(amount).max(BigDecimal.ZERO);
+            }
+            counter.dirty = true;
+        }
+    }
+    
+    /**
+     * @return false if the account no longer exists (nothing to release)
+     */
+    private boolean reserveFromCounter(AccountMetadata account, BigDecimal amount, LocalDate today) {
+        Counter counter = counter(account.upiId(), today);
+        if (counter == null) {
+            return false;
+        }
+        
+        synchronized (counter) {
+            counter.rollTo(today);
+            BigDecimal dailyUsed = counter.dailyUsed.add(amount);
+            if (account.dailyLimit() != null && dailyUsed.compareTo(account.dailyLimit()) > 0) {
+                transferMetrics.recordLimitRejection("daily");
+                throw limitExceeded("Daily", account.dailyLimit(), counter.dailyUsed, amount);
+            }
+            BigDecimal monthlyUsed = counter.monthlyUsed.add(amount);
+            if (account.monthlyLimit() != null && monthlyUsed.compareTo(account.monthlyLimit()) > 0) {
+                transferMetrics.recordLimitRejection("monthly");
+                throw limitExceeded("Monthly", account.monthlyLimit(), counter.monthlyUsed, amount);
+            }
+            counter.dailyUsed = dailyUsed;
+            counter.monthlyUsed = monthlyUsed;
+            counter.dirty = true;
+        }
+        return true;
+    }
+    
+    /**
+     * The account's counter, loaded from its accounts row the first time; null if there is no such account.
+     */
+    private Counter counter(String upiId, LocalDate today) {
+        Counter counter = counters.get(upiId);
+        if (counter != null) {
+            return counter;
+        }
+        
+        Optional<AccountLimits> limits = transactionTemplate.execute(status ->
+            accountLimitRepository.findByUpiId(upiId));
+        if (limits == null || limits.isEmpty()) {
+            return null;
+        }
+        Counter existing = counters.putIfAbsent(upiId, new Counter(upiId, limits.get(), today));
+        return existing != null ? existing : counters.get(upiId);
+    }
+    
+    /**
+     * Spends from this instance's slice of the allowance, leasing a new slice
+     * (one SQL round trip, holding only this account's lease) when it runs short
+     * and having it topped up in the background when it runs low.
+     * 
+     * @return false if the account no longer exists or is not limited (nothing to release)
+     */
+    private boolean reserveFromLease(String upiId, BigDecimal amount, LocalDate today) {
+        Lease lease = leases.computeIfAbsent(upiId, Lease::new);
+        boolean refill;
+        lease.lock.lock();
+        try {
+            if (!today.equals(lease.day)) {
+                giveBack(lease);
+                lease.day = today;
+                lease.drained = false;
+            }
+            if (lease.remaining.compareTo(amount) < 0 && !extend(lease, amount, today)) {
+                return false;
+            }
+            lease.remaining = lease.remaining.subtract(amount);
+            refill = !lease.refilling && !lease.drained && runsLow(lease);
+            lease.refilling |= refill;
+        } finally {
+            lease.lock.unlock();
+        }
+        
+        ExecutorService refiller = leaseRefiller;
+        if (refill && refiller != null) {
+            try {
+                refiller.execute(() -> refill(lease, today));
+            } catch (RejectedExecutionException e) {
+                // Shutting down: the lease is given back anyway
+            }
+        }
+        return true;
+    }
+    
+    private boolean runsLow(Lease lease) {
+        BigDecimal leaseSize = transferProperties.getLimits().getLeaseSize();
+        return lease.remaining.multiply(BigDecimal.valueOf(2)).compareTo(leaseSize) < 0;
+    }
+    
+    /**
+     * Tops a lease that runs low up by lease-size, on the refiller's thread,
+     * so that the next transfers need not lease on their own.
+     */
+    private void refill(Lease lease, LocalDate today) {
+        lease.lock.lock();
+        try {
+            lease.refilling = false;
+            if (today.equals(lease.day) && !lease.drained && runsLow(lease)) {
+                extend(lease, BigDecimal.ZERO, today);
+            }
+        } catch (RuntimeException e) {
+            // The next transfer the slice cannot cover leases for itself
+            log.debug("Topping up the leased limit of {} failed: {}", lease.upiId, e.toString());
+        } finally {
+            lease.lock.unlock();
+        }
+    }
+    
+    /**
+     * Leases another slice: at least what the transfer still needs, lease-size
+     * if the account has that much allowance left.
+     * 
+     * @return false if the account does not exist or is not limited
+     * @throws LimitExceededException if the account has less allowance left than needed
+     */
+    private boolean extend(Lease lease, BigDecimal amount, LocalDate today) {
+        BigDecimal needed = amount.subtract(lease.remaining).max(BigDecimal.ZERO);
+        BigDecimal wanted = needed.max(transferProperties.getLimits().getLeaseSize());
+        
+        BigDecimal[] granted = new BigDecimal[1];
+        Optional<AccountLimits> row = leaseTransactionTemplate.execute(status -> {
+            Optional<AccountLimits> locked = accountLimitRepository.findByUpiIdForUpdate(lease.upiId);
+            locked.filter(limits -> !limits.isUnlimited())
+                .ifPresent(limits -> granted[0] = grant(lease, limits, amount, needed, wanted, today));
+            return locked;
+        });
+        if (row == null || row.isEmpty()) {
+            // Unknown account: looked up again next time
+            leases.remove(lease.upiId);
+            return false;
+        }
+        if (row.get().isUnlimited()) {
+            // Limit removed since the metadata was cached
+            return false;
+        }
+        
+        lease.remaining = lease.remaining.add(granted[0]);
+        lease.drained = granted[0].compareTo(wanted) < 0;
+        lease.expiresAt = clock.millis() + transferProperties.getLimits().getLeaseTtl().toMillis();
+        transferMetrics.recordLimitLease(granted[0].doubleValue());
+        return true;
+    }
+    
+    /**
+     * Takes min(wanted, allowance left) off the locked row.
+     * 
+     * @throws LimitExceededException if less than needed is left
+     */
+    private BigDecimal grant(Lease lease, AccountLimits limits, BigDecimal amount, BigDecimal needed,
+                             BigDecimal wanted, LocalDate today) {
+        BigDecimal dailyUsed = limits.dailyUsedOn(today);
+        BigDecimal monthlyUsed = limits.monthlyUsedOn(today);
+        BigDecimal dailyLeft = limits.dailyLimit() != null ? limits.dailyLimit().subtract(dailyUsed) : wanted;
+        BigDecimal monthlyLeft = limits.monthlyLimit() != null ? limits.monthlyLimit().subtract(monthlyUsed) : wanted;
+        
+        // Used as the other limit modes report it: without what this instance leased but has not spent
+        if (dailyLeft.compareTo(needed) < 0) {
+            transferMetrics.recordLimitRejection("daily");
+            throw limitExceeded("Daily", limits.dailyLimit(), dailyUsed.subtract(lease.remaining), amount);
+        }
+        if (monthlyLeft.compareTo(needed) < 0) {
+            transferMetrics.recordLimitRejection("monthly");
+            throw limitExceeded("Monthly", limits.monthlyLimit(), monthlyUsed.subtract(lease.remaining), amount);
+        }
+        
+        BigDecimal grant = wanted.min(dailyLeft).min(monthlyLeft).max(BigDecimal.ZERO);
+        accountLimitRepository.updateUsage(new Usage(lease.upiId, dailyUsed.add(grant), monthlyUsed.add(grant), today));
+        return grant;
+    }
+    
+    /**
+     * Returns the unspent part of a lease to its accounts row. The caller holds the lease.
+     */
+    private void giveBack(Lease lease) {
+        if (lease.remaining.signum() == 0) {
+            return;
+        }
+        BigDecimal unspent = lease.remaining;
+        lease.remaining = BigDecimal.ZERO;
+        try {
+            leaseTransactionTemplate.executeWithoutResult(status ->
+                accountLimitRepository.returnUsage(lease.upiId, unspent, lease.day));
+            transferMetrics.recordLimitLeaseReturn(unspent.doubleValue());
+        } catch (RuntimeException e) {
+            // Only errs on the safe side: the allowance stays used until the day / month is over
+            log.warn("Could not give back ₹{} of leased limit for {}: {}", unspent, lease.upiId, e.toString());
+        }
+    }
+    
+    private static LimitExceededException limitExceeded(String period, BigDecimal limit,
+                                                        BigDecimal used, BigDecimal amount) {
+        return new LimitExceededException(String.format("%s limit exceeded. Limit: ₹%s, Used: ₹%s, Requested: ₹%s",
+            period, limit, used, amount));
+    }
+    
+    // ========== Flush / lease expiry ==========
+    
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(() -> {
+            if (transferProperties.getLimits().getMode() == LimitMode.LEASE) {
+                returnExpiredLeases();
+            } else {
+                flush();
+            }
+        }, transferProperties.getLimits().getFlushInterval());
+    }
+    
+    /**
+     * LOCAL mode: writes every counter changed since the last flush to its accounts row.
+     * 
+     * @return Accounts updated
+     */
+    public int flush() {
+        List<Usage> changed = new ArrayList<>();
+        for (Counter counter : counters.values()) {
+            synchronized (counter) {
+                if (counter.dirty) {
+                    counter.dirty = false;
+                    changed.add(new Usage(counter.upiId, counter.dailyUsed, counter.monthlyUsed, counter.day));
+                }
+            }
+        }
+        if (changed.isEmpty()) {
+            return 0;
+        }
+        // updateUsage locks the rows as transfers do; the batch follows UPI ID order too
+        changed.sort(Comparator.comparing(Usage::upiId));
+        
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> accountLimitRepository.updateUsage(changed));
+        } catch (RuntimeException e) {
+            // Written again by the next flush
+            changed.forEach(usage -> markDirty(usage.upiId()));
+            log.warn("Flushing transfer limit usage of {} accounts failed: {}", changed.size(), e.toString());
+            return 0;
+        }
+        transferMetrics.recordLimitFlush(changed.size(), System.nanoTime() - start);
+        return changed.size();
+    }
+    
+    private void markDirty(String upiId) {
+        Counter counter = counters.get(upiId);
+        synchronized (counter) {
+            counter.dirty = true;
+        }
+    }
+    
+    /**
+     * LEASE mode: gives back every lease not topped up within lease-ttl,
+     * so other instances can use that allowance.
+     * 
+     * @return Leases given back
+     */
+    public int returnExpiredLeases() {
+        return returnLeases(clock.millis());
+    }
+    
+    private int returnLeases(long expiredBy) {
+        int returned = 0;
+        for (Lease lease : leases.values()) {
+            lease.lock.lock();
+            try {
+                if (lease.expiresAt <= expiredBy && lease.remaining.signum() > 0) {
+                    giveBack(lease);
+                    returned++;
+                }
+            } finally {
+                lease.lock.unlock();
+            }
+        }
+        return returned;
+    }
+    
+    // ========== Lifecycle ==========
+    
+    @Override
+    public void start() {
+        if (transferProperties.getLimits().getMode() == LimitMode.LEASE) {
+            leaseRefiller = Executors.newSingleThreadExecutor(task -> new Thread(task, "limit-lease-refill"));
+        }
+        running = true;
+    }
+    
+    /**
+     * Flushes what is still only in memory and gives back every lease.
+     */
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        if (leaseRefiller != null) {
+            leaseRefiller.shutdownNow();
+            leaseRefiller = null;
+        }
+        flush();
+        returnLeases(Long.MAX_VALUE);
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -1,5 +1,13 @@
 package com.npci.transfer.service;
 
+import com.npci.transfer.cache.AccountMetadata;
+import com.npci.transfer.cache.AccountMetadataCache;
+import com.npci.transfer.cache.TransactionStatusCache;
+import com.npci.transfer.cache.UpiIdFilter;
+import com.npci.transfer.config.ExecutionMode;
+import com.npci.transfer.config.LockingMode;
+import com.npci.transfer.config.ReplicaRouting;
+import com.npci.transfer.config.TransferProperties;
 import com.npci.transfer.dto.TransferRequest;
 import com.npci.transfer.dto.TransferResponse;
 import com.npci.transfer.entity.Account;
@@ -8,17 +16,29 @@ import com.npci.transfer.exception.AccountNotFoundException;
 import com.npci.transfer.exception.InsufficientBalanceException;
 import com.npci.transfer.exception.InvalidTransferException;
 import com.npci.transfer.exception.InvalidAmountException;
+import com.npci.transfer.exception.TransactionNotFoundException;
+import com.npci.transfer.id.TransactionIdGenerator;
+import com.npci.transfer.ledger.LedgerEngine;
+import com.npci.transfer.ledger.LedgerRejectedException;
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.money.Money;
 import com.npci.transfer.repository.AccountRepository;
 import com.npci.transfer.repository.TransactionRepository;
+import com.npci.transfer.repository.TransferFunctionRepository;
+import com.npci.transfer.repository.TransferFunctionRepository.TransferFunctionResult;
+import com.npci.transfer.upi.UpiHandle;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.security.SecureRandom;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Transfer Service - ALL SECURITY FIXES + TEST COMPATIBILITY
@@ -30,27 +50,96 @@ public class TransferService {
     
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
+    private final TransferFunctionRepository transferFunctionRepository;
     private final FeeCalculator feeCalculator;
+    private final TransferProperties transferProperties;
+    private final TransferMetrics transferMetrics;
+    private final StripedBalanceService stripedBalanceService;
+    private final LedgerEngine ledgerEngine;
+    private final GroupCommitService groupCommitService;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final TransferLimitService transferLimitService;
+    private final AccountMetadataCache accountMetadataCache;
+    private final TransactionStatusCache transactionStatusCache;
+    private final UpiIdFilter upiIdFilter;
     
     private static final BigDecimal MIN_AMOUNT = new BigDecimal("1");
     private static final BigDecimal MAX_AMOUNT = new BigDecimal("100000");
     
-    // SECURITY FIX: SecureRandom for cryptographically strong randomness
-    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
-    
+    /**
+     * Executes a transfer. In OPTIMISTIC locking mode a stale account
+     * version on commit is retried transparently (see OptimisticRetryConfig).
+     */
+    @Retryable(interceptor = "optimisticRetryInterceptor")
     @Transactional
     public TransferResponse initiateTransfer(TransferRequest request) {
+        TransferResponse response = transfer(request);
+        // Polls for the outcome are answered from memory once this commits
+        transactionStatusCache.putOnCommit(response);
+        return response;
+    }
+    
+    private TransferResponse transfer(TransferRequest request) {
         // Validate amount
-        validateAmount(request.getAmount());
+        Money amount = validateAmount(request.getAmount());
         
         // Validate same account transfer (before DB lookup for efficiency)
         if (request.getSourceUPI().equals(request.getDestinationUPI())) {
             throw new InvalidTransferException("Cannot transfer to the same account");
         }
         
-        // Find accounts
-        Account sourceAccount = findAccount(request.getSourceUPI(), "Source");
-        Account destinationAccount = findAccount(request.getDestinationUPI(), "Destination");
+        transferMetrics.recordTransferRequest(UpiHandle.of(request.getDestinationUPI()));
+        
+        // UPI IDs no account has are mostly rejected without a query (ASYNC reports them on execution)
+        if (transferProperties.getExecution().getMode() != ExecutionMode.ASYNC) {
+            requireKnown(request.getSourceUPI(), "Source");
+            requireKnown(request.getDestinationUPI(), "Destination");
+        }
+        
+        // Daily / monthly limits, counted in memory; released again if this transaction rolls back
+        transferLimitService.reserve(request.getSourceUPI(), request.getAmount());
+        
+        if (transferProperties.getExecution().getMode() == ExecutionMode.STORED_FUNCTION) {
+            return transferViaStoredFunction(request, amount);
+        }
+        if (transferProperties.getExecution().getMode() == ExecutionMode.LEDGER) {
+            return transferViaLedger(request, amount);
+        }
+        if (transferProperties.getExecution().getMode() == ExecutionMode.GROUP_COMMIT) {
+            return transferViaGroupCommit(request, amount);
+        }
+        if (transferProperties.getExecution().getMode() == ExecutionMode.ASYNC) {
+            return transferViaAsync(request, amount);
+        }
+        
+        // Credits to a hot account go to a balance stripe: its accounts row is neither
+        // locked nor read, its id and stripe count come from the metadata cache
+        AccountMetadata hotDestination = stripedBalanceService.isHot(request.getDestinationUPI())
+            ? accountMetadataCache.find(request.getDestinationUPI()).filter(AccountMetadata::isStriped).orElse(null)
+            : null;
+        
+        // Find accounts (locked in a deterministic order when pessimistic locking is on)
+        Account sourceAccount;
+        Account destinationAccount = null;
+        if (transferProperties.getLocking().getMode() == LockingMode.PESSIMISTIC) {
+            if (hotDestination != null) {
+                Map<String, Account> locked = lockAccounts(List.of(request.getSourceUPI()));
+                sourceAccount = requireAccount(locked.get(request.getSourceUPI()),
+                    request.getSourceUPI(), "Source");
+            } else {
+                Map<String, Account> locked = lockAccounts(
+                    List.of(request.getSourceUPI(), request.getDestinationUPI()));
+                sourceAccount = requireAccount(locked.get(request.getSourceUPI()),
+                    request.getSourceUPI(), "Source");
+                destinationAccount = requireAccount(locked.get(request.getDestinationUPI()),
+                    request.getDestinationUPI(), "Destination");
+            }
+        } else {
+            sourceAccount = findAccount(request.getSourceUPI(), "Source");
+            if (hotDestination == null) {
+                destinationAccount = findAccount(request.getDestinationUPI(), "Destination");
+            }
+        }
         
         // SECURITY FIX: Sanitized logging
         log.info("Initiating transfer from {} to {} for amount {}",
@@ -59,26 +148,29 @@ public class TransferService {
             request.getAmount());
         
         // Calculate fee
-        BigDecimal fee = feeCalculator.calculateFee(request.getAmount());
-        BigDecimal totalDebit = request.getAmount().add(fee);
-        
-        // Validate sufficient balance (with detailed error message for tests)
-        validateSufficientBalance(sourceAccount, totalDebit);
+        Money fee = feeCalculator.calculateFee(amount, request.getSourceUPI(), request.getDestinationUPI());
+        Money totalDebit = amount.plus(fee);
         
-        // Perform transfer
-        sourceAccount.setBalance(sourceAccount.getBalance().subtract(totalDebit));
-        destinationAccount.setBalance(destinationAccount.getBalance().add(request.getAmount()));
+        // Perform transfer (validates sufficient balance first)
+        debit(sourceAccount, totalDebit);
+        if (hotDestination != null) {
+            stripedBalanceService.credit(hotDestination, amount.toBigDecimal());
+        } else {
+            credit(destinationAccount, amount);
+        }
         
         // Save updated accounts
         accountRepository.save(sourceAccount);
-        accountRepository.save(destinationAccount);
+        if (destinationAccount != null) {
+            accountRepository.save(destinationAccount);
+        }
         
         // Create transaction
         Transaction transaction = new Transaction();
-        transaction.setTransactionId(generateTransactionId());
+        transaction.setTransactionId(transactionIdGenerator.nextId());
         transaction.setSourceUPI(request.getSourceUPI());
         transaction.setDestinationUPI(request.getDestinationUPI());
-        transaction.setAmount(request.getAmount());
+        transaction.setAmount(amount);
         transaction.setFee(fee);
         transaction.setTotalDebited(totalDebit);
         transaction.setStatus("SUCCESS");
@@ -91,40 +183,246 @@ public class TransferService {
         log.info("Transfer completed successfully. Transaction ID: {}",
             sanitizeForLog(savedTransaction.getTransactionId()));
         
-        return TransferResponse.builder()
-                .transactionId(savedTransaction.getTransactionId())
-                .status(savedTransaction.getStatus())
-                .sourceUPI(savedTransaction.getSourceUPI())
-                .destinationUPI(savedTransaction.getDestinationUPI())
-                .amount(savedTransaction.getAmount())
-                .fee(savedTransaction.getFee())
-                .totalDebited(savedTransaction.getTotalDebited())
-                .timestamp(savedTransaction.getTimestamp())
-                .remarks(savedTransaction.getRemarks())
-                .build();
+        return buildResponse(savedTransaction);
+    }
+    
+    /**
+     * STORED_FUNCTION mode: lock, debit, credit and insert in one round trip.
+     * Business failures are reported by the function as result codes and
+     * mapped to the same exceptions (and messages) as the JPA path.
+     */
+    private TransferResponse transferViaStoredFunction(TransferRequest request, Money amount) {
+        Money fee = feeCalculator.calculateFee(amount, request.getSourceUPI(), request.getDestinationUPI());
+        Money totalDebit = amount.plus(fee);
+        String transactionId = transactionIdGenerator.nextId();
+        
+        TransferFunctionResult result = transferFunctionRepository.transferFunds(
+            transactionId,
+            request.getSourceUPI(),
+            request.getDestinationUPI(),
+            amount.toBigDecimal(),
+            fee.toBigDecimal(),
+            request.getRemarks());
+        
+        if (!TransferFunctionResult.SUCCESS.equals(result.resultCode())) {
+            throw storedFunctionFailure(result, request, totalDebit);
+        }
+        
+        Transaction transaction = new Transaction();
+        transaction.setId(result.id());
+        transaction.setTransactionId(transactionId);
+        transaction.setSourceUPI(request.getSourceUPI());
+        transaction.setDestinationUPI(request.getDestinationUPI());
+        transaction.setAmount(amount);
+        transaction.setFee(fee);
+        transaction.setTotalDebited(totalDebit);
+        transaction.setStatus("SUCCESS");
+        transaction.setRemarks(request.getRemarks());
+        transaction.setTimestamp(result.timestamp());
+        
+        log.info("Transfer completed via transfer_funds(). Transaction ID: {}",
+            sanitizeForLog(transactionId));
+        
+        return buildResponse(transaction);
+    }
+    
+    /**
+     * LEDGER mode: the in-memory ledger applies the transfer and journals it;
+     * PostgreSQL is updated asynchronously by its projector, so no database
+     * connection is used here.
+     */
+    private TransferResponse transferViaLedger(TransferRequest request, Money amount) {
+        Money fee = feeCalculator.calculateFee(amount, request.getSourceUPI(), request.getDestinationUPI());
+        Money totalDebit = amount.plus(fee);
+        String transactionId = transactionIdGenerator.nextId();
+        LocalDateTime timestamp = LocalDateTime.now();
+        
+        try {
+            ledgerEngine.transfer(transactionId, request.getSourceUPI(), request.getDestinationUPI(),
+                amount.toBigDecimal(), fee.toBigDecimal(), request.getRemarks(), timestamp);
+        } catch (LedgerRejectedException e) {
+            throw ledgerFailure(e, request, totalDebit);
+        }
+        
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(transactionId);
+        transaction.setSourceUPI(request.getSourceUPI());
+        transaction.setDestinationUPI(request.getDestinationUPI());
+        transaction.setAmount(amount);
+        transaction.setFee(fee);
+        transaction.setTotalDebited(totalDebit);
+        transaction.setStatus("SUCCESS");
+        transaction.setRemarks(request.getRemarks());
+        transaction.setTimestamp(timestamp);
+        
+        log.info("Transfer completed via ledger. Transaction ID: {}", sanitizeForLog(transactionId));
+        
+        return buildResponse(transaction);
+    }
+    
+    /**
+     * GROUP_COMMIT mode: the transfer is applied together with other concurrent
+     * transfers in one database transaction by GroupCommitService; this thread
+     * only waits for that batch to commit.
+     */
+    private TransferResponse transferViaGroupCommit(TransferRequest request, Money amount) {
+        Money fee = feeCalculator.calculateFee(amount, request.getSourceUPI(), request.getDestinationUPI());
+        
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(transactionIdGenerator.nextId());
+        transaction.setSourceUPI(request.getSourceUPI());
+        transaction.setDestinationUPI(request.getDestinationUPI());
+        transaction.setAmount(amount);
+        transaction.setFee(fee);
+        transaction.setTotalDebited(amount.plus(fee));
+        transaction.setStatus("SUCCESS");
+        transaction.setRemarks(request.getRemarks());
+        transaction.setTimestamp(LocalDateTime.now());
+        
+        Transaction savedTransaction = groupCommitService.commit(transaction);
+        
+        log.info("Transfer completed via group commit. Transaction ID: {}",
+            sanitizeForLog(savedTransaction.getTransactionId()));
+        
+        return buildResponse(savedTransaction);
+    }
+    
+    /**
+     * ASYNC mode: only records the transfer as PENDING; AsyncTransferService
+     * executes it later (accounts and balance are checked then), and the
+     * caller polls GET /v1/transactions/{transactionId} for the outcome.
+     */
+    private TransferResponse transferViaAsync(TransferRequest request, Money amount) {
+        Money fee = feeCalculator.calculateFee(amount, request.getSourceUPI(), request.getDestinationUPI());
+        
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(transactionIdGenerator.nextId());
+        transaction.setSourceUPI(request.getSourceUPI());
+        transaction.setDestinationUPI(request.getDestinationUPI());
+        transaction.setAmount(amount);
+        transaction.setFee(fee);
+        transaction.setTotalDebited(amount.plus(fee));
+        transaction.setStatus(AsyncTransferService.PENDING);
+        transaction.setRemarks(request.getRemarks());
+        transaction.setTimestamp(LocalDateTime.now());
+        
+        Transaction savedTransaction = transactionRepository.save(transaction);
+        
+        log.info("Transfer accepted for async execution. Transaction ID: {}",
+            sanitizeForLog(savedTransaction.getTransactionId()));
+        
+        return buildResponse(savedTransaction);
     }
     
+    /**
+     * May be served by a replica up to transfer.replicas.balance-max-lag behind.
+     */
     public BigDecimal checkBalance(String upiId) {
-        Account account = findAccount(upiId, "Account");
-        return account.getBalance();
+        if (transferProperties.getExecution().getMode() == ExecutionMode.LEDGER) {
+            return ledgerEngine.balance(upiId)
+                    .orElseThrow(() -> new AccountNotFoundException("Account account not found: " + upiId));
+        }
+        return ReplicaRouting.withStalenessBudget(transferProperties.getReplicas().getBalanceMaxLag(), () -> {
+            Account account = findAccount(upiId, "Account");
+            return account.isStriped() ? stripedBalanceService.totalBalance(account) : account.getBalance();
+        });
     }
     
     public Transaction getTransactionStatus(String transactionId) {
-        return transactionRepository.findByTransactionId(transactionId)
-                .orElseThrow(() -> new InvalidTransferException(
+        return findTransaction(transactionId)
+                .orElseThrow(() -> new TransactionNotFoundException(
                         "Transaction not found: " + transactionId));
     }
     
+    /**
+     * Terminal transactions are answered from TransactionStatusCache.
+     */
+    public TransferResponse getTransfer(String transactionId) {
+        return transactionStatusCache.get(transactionId, () -> buildResponse(getTransactionStatus(transactionId)));
+    }
+    
+    /**
+     * With read replicas, first asks one up to transfer.replicas.status-max-lag
+     * behind; a transaction not found there may just not have been replicated
+     * yet (polled right after it was accepted), so the primary is asked next.
+     */
+    private Optional<Transaction> findTransaction(String transactionId) {
+        TransferProperties.Replicas replicas = transferProperties.getReplicas();
+        if (replicas.isEnabled()) {
+            Optional<Transaction> replicated = ReplicaRouting.withStalenessBudget(replicas.getStatusMaxLag(),
+                () -> lookupTransaction(transactionId));
+            if (replicated.isPresent()) {
+                return replicated;
+            }
+        }
+        return lookupTransaction(transactionId);
+    }
+    
+    /**
+     * On a partitioned table, first searches the days around the one in the
+     * ID, so only their partitions are read; the row's timestamp may be a
+     * day off (database clock, midnight). Falls back to every partition.
+     */
+    private Optional<Transaction> lookupTransaction(String transactionId) {
+        if (transferProperties.getPartitioning().isEnabled()) {
+            Optional<Transaction> recent = TransactionIdGenerator.dayOf(transactionId)
+                .flatMap(day -> transactionRepository.findByTransactionIdAndTimestampBetween(transactionId,
+                    day.minusDays(1).atStartOfDay(), day.plusDays(2).atStartOfDay()));
+            if (recent.isPresent()) {
+                return recent;
+            }
+        }
+        return transactionRepository.findByTransactionId(transactionId);
+    }
+    
     /**
      * Find account with specific error message for source/destination
      */
     private Account findAccount(String upiId, String accountType) {
+        requireKnown(upiId, accountType);
         return accountRepository.findByUpiId(upiId)
-                .orElseThrow(() -> new AccountNotFoundException(
-                        accountType + " account not found: " + upiId));
+                .orElseThrow(() -> {
+                    upiIdFilter.recordFalsePositive();
+                    return new AccountNotFoundException(accountType + " account not found: " + upiId);
+                });
+    }
+    
+    /**
+     * Throws for a UPI ID the filter has never seen; no database round trip.
+     */
+    private void requireKnown(String upiId, String accountType) {
+        if (upiIdFilter.isDefinitelyAbsent(upiId)) {
+            throw new AccountNotFoundException(accountType + " account not found: " + upiId);
+        }
+    }
+    
+    /**
+     * Locks the accounts in one statement and records how long we waited.
+     */
+    private Map<String, Account> lockAccounts(List<String> upiIds) {
+        long start = System.nanoTime();
+        List<Account> accounts = accountRepository.findAllByUpiIdInForUpdate(upiIds);
+        transferMetrics.recordLockWait(System.nanoTime() - start);
+        
+        Map<String, Account> byUpiId = new HashMap<>(4);
+        for (Account account : accounts) {
+            byUpiId.put(account.getUpiId(), account);
+        }
+        return byUpiId;
     }
     
-    private void validateAmount(BigDecimal amount) {
+    private Account requireAccount(Account account, String upiId, String accountType) {
+        if (account == null) {
+            upiIdFilter.recordFalsePositive();
+            throw new AccountNotFoundException(accountType + " account not found: " + upiId);
+        }
+        return account;
+    }
+    
+    /**
+     * @return The amount as Money, once it is known to fit
+     */
+    static Money validateAmount(BigDecimal amount) {
         if (amount == null) {
             throw new InvalidAmountException("Amount cannot be null");
         }
@@ -141,6 +439,33 @@ public class TransferService {
             throw new InvalidAmountException(
                     "Amount cannot have more than 2 decimal places");
         }
+        return Money.of(amount);
+    }
+    
+    /**
+     * Debits amount + fee; striped (hot) accounts may draw on their stripes.
+     */
+    private void debit(Account source, Money totalDebit) {
+        BigDecimal debit = totalDebit.toBigDecimal();
+        if (source.isStriped()) {
+            if (!stripedBalanceService.debit(source, debit)) {
+                throw insufficientBalance(stripedBalanceService.totalBalance(source), debit);
+            }
+            return;
+        }
+        
+        // Validate sufficient balance (with detailed error message for tests)
+        validateSufficientBalance(source, debit);
+        source.setBalance(source.getBalance().subtract(debit));
+    }
+    
+    private void credit(Account destination, Money amount) {
+        BigDecimal credit = amount.toBigDecimal();
+        if (destination.isStriped()) {
+            stripedBalanceService.credit(destination, credit);
+            return;
+        }
+        destination.setBalance(destination.getBalance().add(credit));
     }
     
     /**
@@ -148,20 +473,54 @@ public class TransferService {
      */
     private void validateSufficientBalance(Account account, BigDecimal requiredAmount) {
         if (account.getBalance().compareTo(requiredAmount) < 0) {
-            throw new InsufficientBalanceException(
-                String.format("Insufficient balance. Available: ₹%s, Required: ₹%s",
-                    account.getBalance(), requiredAmount));
+            throw insufficientBalance(account.getBalance(), requiredAmount);
         }
     }
     
-    /**
-     * SECURITY FIX: SecureRandom + correct format for tests
-     */
-    private String generateTransactionId() {
-        String timestamp = LocalDateTime.now()
-                .format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        int randomSuffix = SECURE_RANDOM.nextInt(10000);
-        return String.format("TXN-%s-%04d", timestamp, randomSuffix);
+    private RuntimeException storedFunctionFailure(TransferFunctionResult result,
+                                                   TransferRequest request, Money totalDebit) {
+        return switch (result.resultCode()) {
+            case TransferFunctionResult.SOURCE_NOT_FOUND ->
+                new AccountNotFoundException("Source account not found: " + request.getSourceUPI());
+            case TransferFunctionResult.DESTINATION_NOT_FOUND ->
+                new AccountNotFoundException("Destination account not found: " + request.getDestinationUPI());
+            case TransferFunctionResult.INSUFFICIENT_BALANCE ->
+                insufficientBalance(result.availableBalance(), totalDebit.toBigDecimal());
+            default ->
+                new IllegalStateException("Unexpected transfer_funds() result: " + result.resultCode());
+        };
+    }
+    
+    private RuntimeException ledgerFailure(LedgerRejectedException e,
+                                           TransferRequest request, Money totalDebit) {
+        return switch (e.getReason()) {
+            case SOURCE_NOT_FOUND ->
+                new AccountNotFoundException("Source account not found: " + request.getSourceUPI());
+            case DESTINATION_NOT_FOUND ->
+                new AccountNotFoundException("Destination account not found: " + request.getDestinationUPI());
+            case INSUFFICIENT_BALANCE ->
+                insufficientBalance(e.getAvailableBalance(), totalDebit.toBigDecimal());
+        };
+    }
+    
+    static InsufficientBalanceException insufficientBalance(BigDecimal available, BigDecimal required) {
+        return new InsufficientBalanceException(
+            String.format("Insufficient balance. Available: ₹%s, Required: ₹%s", available, required));
+    }
+    
+    static TransferResponse buildResponse(Transaction transaction) {
+        return TransferResponse.builder()
+                .transactionId(transaction.getTransactionId())
+                .status(transaction.getStatus())
+                .sourceUPI(transaction.getSourceUPI())
+                .destinationUPI(transaction.getDestinationUPI())
+                .amount(transaction.getAmount())
+                .fee(transaction.getFee())
+                .totalDebited(transaction.getTotalDebited())
+                .timestamp(transaction.getTimestamp())
+                .remarks(transaction.getRemarks())
+                .errorCode(transaction.getErrorCode())
+                .build();
     }
     
     /**
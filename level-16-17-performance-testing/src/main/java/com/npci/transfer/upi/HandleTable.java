@@ -0,0 +1,115 @@
+package com.npci.transfer.upi;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Open-addressing map from bank handle (the part of a UPI ID after '@') to
+ * its position in the list it was built from, looked up straight from the
+ * whole UPI ID: no substring is cut and nothing is allocated.
+ * 
+ * One backward pass over the UPI ID finds the '@' and hashes the handle.
+ * Handles compare ignoring ASCII case, as UPI handles do.
+ */
+final class HandleTable {
+    
+    /**
+     * 2^32 / golden ratio: spreads handles that differ only in their last
+     * characters (bank1, bank2, ...) across the table instead of side by side.
+     */
+    private static final int FIBONACCI = 0x9E3779B9;
+    
+    /**
+     * Per slot: the handle's hash in the high half, its id + 1 in the low
+     * half, 0 if empty - a probe reads one long, and a key only on a hash match.
+     */
+    private final long[] entries;
+    private final String[] keys;
+    private final int mask;
+    private final int shift;
+    
+    /**
+     * @param handles Distinct handles, without the '@'
+     */
+    HandleTable(List<String> handles) {
+        int capacity = Math.max(2, Integer.highestOneBit(Math.max(1, handles.size() * 2 - 1)) << 1);
+        this.entries = new long[capacity];
+        this.keys = new String[capacity];
+        this.mask = capacity - 1;
+        this.shift = Integer.numberOfLeadingZeros(capacity) + 1;
+        for (int id = 0; id < handles.size(); id++) {
+            String key = handles.get(id).toLowerCase(Locale.ROOT);
+            int hash = 0;
+            for (int i = key.length() - 1; i >= 0; i--) {
+                hash = 31 * hash + key.charAt(i);
+            }
+            int slot = (hash * FIBONACCI) >>> shift;
+            while (keys[slot] != null) {
+                if (keys[slot].equals(key)) {
+                    throw new IllegalArgumentException("Duplicate handle " + key);
+                }
+                slot = (slot + 1) & mask;
+            }
+            entries[slot] = (long) hash << 32 | (id + 1);
+            keys[slot] = key;
+        }
+    }
+    
+    /**
+     * @return Position of the UPI ID's handle, -1 if it has no handle or local part,
+     *         or the handle is not in the table
+     */
+    int find(String upiId) {
+        return find(upiId, true);
+    }
+    
+    /**
+     * @param handle A handle on its own, without the '@'
+     * @return Its position, -1 if it is not in the table
+     */
+    int findHandle(String handle) {
+        return find(handle, false);
+    }
+    
+    private int find(String s, boolean upiId) {
+        if (s == null) {
+            return -1;
+        }
+        int hash = 0;
+        int at = s.length() - 1;
+        char c;
+        while (at >= 0 && (c = s.charAt(at)) != '@') {
+            hash = 31 * hash + lowerCase(c);
+            at--;
+        }
+        if (upiId ? at <= 0 : at >= 0) {
+            return -1;
+        }
+        
+        int slot = (hash * FIBONACCI) >>> shift;
+        long entry;
+        while ((entry = entries[slot]) != 0) {
+            if ((int) (entry >>> 32) == hash && sameHandle(s, at + 1, keys[slot])) {
+                return (int) entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+    
+    private static boolean sameHandle(String s, int from, String key) {
+        if (s.length() - from != key.length()) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (lowerCase(s.charAt(from + i)) != key.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static char lowerCase(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+}
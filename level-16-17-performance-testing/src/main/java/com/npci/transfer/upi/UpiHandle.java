@@ -0,0 +1,133 @@
+package com.npci.transfer.upi;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * UPI Handle - the bank part of a UPI ID (okaxis, ybl, paytm), interned
+ * 
+ * There is one UpiHandle per handle name, with a small dense id, so
+ * routing tables index arrays by id and metrics tag by a fixed set of
+ * values instead of hashing strings.
+ * 
+ * - looked up straight from the UPI ID (see HandleTable): a known handle
+ *   costs one hash of the handle's characters and allocates nothing
+ * - the dictionary is copy-on-write: readers take one volatile read, a
+ *   new handle copies it under a lock
+ * - handles first seen in requests are capped at MAX_HANDLES, after which
+ *   they all share OTHER; handles from configuration are always interned
+ */
+public final class UpiHandle {
+    
+    /**
+     * Stands for a handle that is missing, invalid or beyond MAX_HANDLES.
+     */
+    public static final UpiHandle OTHER = new UpiHandle(0, "other");
+    
+    /**
+     * Handles interned from UPI IDs before the rest become OTHER, keeping
+     * the dictionary and the metrics tagged by it bounded.
+     */
+    static final int MAX_HANDLES = 1_024;
+    
+    private static final Object LOCK = new Object();
+    private static volatile Dictionary dictionary = new Dictionary(new UpiHandle[0]);
+    
+    private final int id;
+    private final String name;
+    
+    private UpiHandle(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+    
+    /**
+     * A known handle is found from the part after the '@' alone; a new one is
+     * interned only from a valid UPI ID, and anything else gives OTHER.
+     * 
+     * @param upiId Any string, null included
+     * @return The interned handle of the UPI ID
+     */
+    public static UpiHandle of(String upiId) {
+        Dictionary current = dictionary;
+        int position = current.table.find(upiId);
+        if (position >= 0) {
+            return current.handles[position];
+        }
+        if (!UpiId.isValid(upiId)) {
+            return OTHER;
+        }
+        return add(upiId.substring(upiId.indexOf('@') + 1), false);
+    }
+    
+    /**
+     * Interns a handle named in configuration (e.g. a fee rule), even past MAX_HANDLES.
+     * 
+     * @param handle Handle name, with or without a leading '@'
+     */
+    public static UpiHandle intern(String handle) {
+        String name = handle.startsWith("@") ? handle.substring(1) : handle;
+        Dictionary current = dictionary;
+        int position = current.table.findHandle(name);
+        return position >= 0 ? current.handles[position] : add(name, true);
+    }
+    
+    /**
+     * Highest id handed out so far, so id-indexed arrays can be sized.
+     */
+    public static int maxId() {
+        return dictionary.handles.length;
+    }
+    
+    private static UpiHandle add(String name, boolean always) {
+        synchronized (LOCK) {
+            Dictionary current = dictionary;
+            int position = current.table.findHandle(name);
+            if (position >= 0) {
+                return current.handles[position];
+            }
+            if (!always && current.handles.length >= MAX_HANDLES) {
+                return OTHER;
+            }
+            UpiHandle handle = new UpiHandle(current.handles.length + 1, name.toLowerCase(Locale.ROOT));
+            UpiHandle[] handles = Arrays.copyOf(current.handles, current.handles.length + 1);
+            handles[handles.length - 1] = handle;
+            dictionary = new Dictionary(handles);
+            return handle;
+        }
+    }
+    
+    /**
+     * Dense id, 0 for OTHER and 1 up for interned handles.
+     */
+    public int id() {
+        return id;
+    }
+    
+    /**
+     * Lower-case name, without the '@'.
+     */
+    public String name() {
+        return name;
+    }
+    
+    @Override
+    public String toString() {
+        return name;
+    }
+    
+    /**
+     * Handles by position (id - 1) and the table finding them, swapped together.
+     */
+    private static final class Dictionary {
+        
+        private final UpiHandle[] handles;
+        private final HandleTable table;
+        
+        private Dictionary(UpiHandle[] handles) {
+            this.handles = handles;
+            this.table = new HandleTable(Arrays.stream(handles).map(UpiHandle::name).toList());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.npci.transfer.upi;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Reads a UpiId from a JSON string, rejecting one that is not a valid UPI ID.
+ */
+public class UpiIdJsonDeserializer extends StdDeserializer<UpiId> {
+    
+    public UpiIdJsonDeserializer() {
+        super(UpiId.class);
+    }
+    
+    @Override
+    public UpiId deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!parser.hasToken(JsonToken.VALUE_STRING)) {
+            return (UpiId) context.handleUnexpectedToken(UpiId.class, parser);
+        }
+        String text = parser.getText();
+        if (!UpiId.isValid(text)) {
+            return (UpiId) context.handleWeirdStringValue(UpiId.class, text, "Invalid UPI ID format");
+        }
+        return UpiId.parse(text);
+    }
+}
@@ -0,0 +1,22 @@
+package com.npci.transfer.upi;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes a UpiId as the plain JSON string a String UPI ID was written as.
+ */
+public class UpiIdJsonSerializer extends StdSerializer<UpiId> {
+    
+    public UpiIdJsonSerializer() {
+        super(UpiId.class);
+    }
+    
+    @Override
+    public void serialize(UpiId upiId, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeString(upiId.value());
+    }
+}
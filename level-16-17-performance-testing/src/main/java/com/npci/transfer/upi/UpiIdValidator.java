@@ -0,0 +1,15 @@
+package com.npci.transfer.upi;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Checks @ValidUpiId with UpiId's single-pass check instead of a regex.
+ */
+public class UpiIdValidator implements ConstraintValidator<ValidUpiId, CharSequence> {
+    
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        return value == null || UpiId.isValid(value);
+    }
+}
@@ -0,0 +1,27 @@
+package com.npci.transfer.upi;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The annotated string must be a valid UPI ID (see UpiId); null is valid,
+ * as with @Pattern, so pair it with @NotBlank.
+ */
+@Documented
+@Constraint(validatedBy = UpiIdValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidUpiId {
+    
+    String message() default "Invalid UPI ID format";
+    
+    Class<?>[] groups() default {};
+    
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,84 @@
+-- transfer_funds: executes a complete transfer in one round trip
+--
+-- 1. Locks source and destination rows in UPI ID order (same order as
+--    AccountRepository.findAllByUpiIdInForUpdate, so no deadlocks)
+-- 2. Conditionally debits amount + fee (balance >= amount + fee)
+-- 3. Credits the destination
+-- 4. Inserts the SUCCESS transaction row (id from transactions_seq, like
+--    the JPA path) and returns it
+--
+-- Business failures do not raise; they come back as result_code
+-- SOURCE_NOT_FOUND / DESTINATION_NOT_FOUND / INSUFFICIENT_BALANCE
+-- with nothing modified, so the caller can map them to the same
+-- exceptions as the JPA path.
+CREATE OR REPLACE FUNCTION transfer_funds(
+    p_transaction_id  VARCHAR,
+    p_source_upi      VARCHAR,
+    p_destination_upi VARCHAR,
+    p_amount          NUMERIC,
+    p_fee             NUMERIC,
+    p_remarks         VARCHAR
+) RETURNS TABLE (
+    result_code       VARCHAR,
+    available_balance NUMERIC,
+    txn_id            BIGINT,
+    txn_timestamp     TIMESTAMP
+)
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_total_debit        NUMERIC := p_amount + p_fee;
+    v_source_balance     NUMERIC;
+    v_source_found       BOOLEAN := FALSE;
+    v_destination_found  BOOLEAN := FALSE;
+    v_account            RECORD;
+BEGIN
+    FOR v_account IN
+        SELECT a.upi_id, a.balance
+        FROM accounts a
+        WHERE a.upi_id IN (p_source_upi, p_destination_upi)
+        ORDER BY a.upi_id
+        FOR UPDATE
+    LOOP
+        IF v_account.upi_id = p_source_upi THEN
+            v_source_found := TRUE;
+            v_source_balance := v_account.balance;
+        ELSE
+            v_destination_found := TRUE;
+        END IF;
+    END LOOP;
+
+    IF NOT v_source_found THEN
+        RETURN QUERY SELECT 'SOURCE_NOT_FOUND'::VARCHAR, NULL::NUMERIC, NULL::BIGINT, NULL::TIMESTAMP;
+        RETURN;
+    END IF;
+
+    IF NOT v_destination_found THEN
+        RETURN QUERY SELECT 'DESTINATION_NOT_FOUND'::VARCHAR, NULL::NUMERIC, NULL::BIGINT, NULL::TIMESTAMP;
+        RETURN;
+    END IF;
+
+    UPDATE accounts a
+    SET balance = a.balance - v_total_debit,
+        version = COALESCE(a.version, 0) + 1
+    WHERE a.upi_id = p_source_upi
+      AND a.balance >= v_total_debit;
+
+    IF NOT FOUND THEN
+        RETURN QUERY SELECT 'INSUFFICIENT_BALANCE'::VARCHAR, v_source_balance, NULL::BIGINT, NULL::TIMESTAMP;
+        RETURN;
+    END IF;
+
+    UPDATE accounts a
+    SET balance = a.balance + p_amount,
+        version = COALESCE(a.version, 0) + 1
+    WHERE a.upi_id = p_destination_upi;
+
+    RETURN QUERY
+    INSERT INTO transactions AS t (id, transaction_id, source_upi, destination_upi, amount, fee,
+                                   total_debited, status, remarks, "timestamp")
+    VALUES (nextval('transactions_seq'), p_transaction_id, p_source_upi, p_destination_upi, p_amount, p_fee,
+            v_total_debit, 'SUCCESS', p_remarks, LOCALTIMESTAMP)
+    RETURNING 'SUCCESS'::VARCHAR, NULL::NUMERIC, t.id, t."timestamp";
+END;
+$$;
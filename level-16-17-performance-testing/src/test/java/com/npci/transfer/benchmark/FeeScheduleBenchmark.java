@@ -0,0 +1,143 @@
+package com.npci.transfer.benchmark;
+
+import com.npci.transfer.entity.FeeRule;
+import com.npci.transfer.fee.FeeSchedule;
+import com.npci.transfer.money.Money;
+import com.npci.transfer.upi.UpiHandle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fee schedule micro-benchmark over a 10,000-rule table
+ * 
+ * - 500 payee handles, each with 16 amount slabs (8,000 rules), a PREMIUM
+ *   tier rule and a night-time rate rule with a cap
+ * - 1,000 amount slabs for any handle
+ * 
+ * Lookups cycle through 1,024 random transfers (amount, payee, tier, minute),
+ * a tenth of them to handles without rules:
+ * - fee: as FeeCalculator calls it, payee handle lookup included, returning Money
+ * - feePaise: the same lookup returning a long
+ * - compile: building the schedule from the table, as a reload does
+ * 
+ * Runs with the GC profiler: gc.alloc.rate.norm is the bytes allocated per lookup.
+ * Not a unit test (no *Test suffix, so Surefire skips it): run main() on the
+ * test classpath, e.g. from the IDE.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeeScheduleBenchmark {
+    
+    private static final int HANDLES = 500;
+    private static final int SLABS_PER_HANDLE = 16;
+    private static final int ANY_HANDLE_SLABS = 1_000;
+    private static final int INPUTS = 1_024;
+    
+    private List<FeeRule> rules;
+    private FeeSchedule schedule;
+    
+    private final Money[] amounts = new Money[INPUTS];
+    private final String[] payees = new String[INPUTS];
+    private final String[] tiers = new String[INPUTS];
+    private final int[] minutes = new int[INPUTS];
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        rules = rules();
+        schedule = FeeSchedule.compile(rules);
+        
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < INPUTS; i++) {
+            amounts[i] = Money.ofPaise(random.nextLong(1, 100_000_00));
+            int handle = random.nextInt(HANDLES + HANDLES / 9);
+            payees[i] = "user" + i + "@bank" + handle;
+            tiers[i] = random.nextInt(10) == 0 ? "PREMIUM" : null;
+            minutes[i] = random.nextInt(24 * 60);
+        }
+    }
+    
+    @Benchmark
+    public Money fee() {
+        int i = next++ & (INPUTS - 1);
+        return schedule.fee(amounts[i], UpiHandle.of(payees[i]), tiers[i], minutes[i]);
+    }
+    
+    @Benchmark
+    public long feePaise() {
+        int i = next++ & (INPUTS - 1);
+        return schedule.feePaise(amounts[i].paise(), UpiHandle.of(payees[i]), tiers[i], minutes[i]);
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public FeeSchedule compile() {
+        return FeeSchedule.compile(rules);
+    }
+    
+    private static List<FeeRule> rules() {
+        List<FeeRule> rules = new ArrayList<>();
+        long id = 1;
+        for (int handle = 0; handle < HANDLES; handle++) {
+            for (int slab = 0; slab < SLABS_PER_HANDLE; slab++) {
+                rules.add(FeeRule.builder().id(id++)
+                    .payeeHandle("bank" + handle)
+                    .minAmount(Money.ofRupees(slab * 1_000L))
+                    .maxAmount(Money.ofPaise(slab * 1_000_00L + 999_99))
+                    .fixedFee(Money.ofPaise((handle + slab) % 10 * 50L))
+                    .build());
+            }
+            rules.add(FeeRule.builder().id(id++).priority(1)
+                .payeeHandle("bank" + handle)
+                .tier("PREMIUM")
+                .fixedFee(Money.ZERO)
+                .build());
+            rules.add(FeeRule.builder().id(id++).priority(2)
+                .payeeHandle("bank" + handle)
+                .startTime(LocalTime.of(23, 0))
+                .endTime(LocalTime.of(5, 0))
+                .fixedFee(Money.ofRupees(1))
+                .rateBps(10)
+                .maxFee(Money.ofRupees(20))
+                .build());
+        }
+        for (int slab = 0; slab < ANY_HANDLE_SLABS; slab++) {
+            rules.add(FeeRule.builder().id(id++)
+                .minAmount(Money.ofRupees(slab * 100L))
+                .maxAmount(Money.ofPaise(slab * 100_00L + 99_99))
+                .fixedFee(Money.ofPaise(slab))
+                .build());
+        }
+        return rules;
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(FeeScheduleBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
@@ -0,0 +1,114 @@
+package com.npci.transfer.benchmark;
+
+import com.npci.transfer.fee.FeeSchedule;
+import com.npci.transfer.money.Money;
+import com.npci.transfer.upi.UpiHandle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Money vs BigDecimal micro-benchmark
+ * 
+ * The arithmetic of one transfer, as TransferService did it on BigDecimal
+ * and does it now on Money:
+ * - fee*: the default fee rule (over ₹1,000 costs ₹5)
+ * - transfer*: fee, total debit, balance check, new source and destination balances
+ * 
+ * Runs with the GC profiler: gc.alloc.rate.norm is the bytes allocated per transfer.
+ * Not a unit test (no *Test suffix, so Surefire skips it): run main() on the
+ * test classpath, e.g. from the IDE.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+    
+    private static final BigDecimal FEE_THRESHOLD = new BigDecimal("1000");
+    private static final BigDecimal TRANSACTION_FEE = new BigDecimal("5.00");
+    
+    /**
+     * Below and above the fee threshold.
+     */
+    @Param({"500.00", "1500.50"})
+    private String amount;
+    
+    private final FeeSchedule feeSchedule = FeeSchedule.DEFAULT;
+    private final UpiHandle payee = UpiHandle.of("bob@paytm");
+    
+    private BigDecimal decimalAmount;
+    private BigDecimal decimalSource;
+    private BigDecimal decimalDestination;
+    private Money moneyAmount;
+    private Money moneySource;
+    private Money moneyDestination;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        decimalAmount = new BigDecimal(amount);
+        decimalSource = new BigDecimal("250000.00");
+        decimalDestination = new BigDecimal("1200.75");
+        moneyAmount = Money.of(decimalAmount);
+        moneySource = Money.of(decimalSource);
+        moneyDestination = Money.of(decimalDestination);
+    }
+    
+    @Benchmark
+    public BigDecimal feeBigDecimal() {
+        return decimalAmount.compareTo(FEE_THRESHOLD) > 0 ? TRANSACTION_FEE : BigDecimal.ZERO;
+    }
+    
+    @Benchmark
+    public Money feeMoney() {
+        return feeSchedule.fee(moneyAmount, payee, null, 600);
+    }
+    
+    @Benchmark
+    public void transferBigDecimal(Blackhole blackhole) {
+        BigDecimal fee = decimalAmount.compareTo(FEE_THRESHOLD) > 0 ? TRANSACTION_FEE : BigDecimal.ZERO;
+        BigDecimal totalDebit = decimalAmount.add(fee);
+        if (decimalSource.compareTo(totalDebit) < 0) {
+            throw new IllegalStateException("Insufficient balance");
+        }
+        blackhole.consume(decimalSource.subtract(totalDebit));
+        blackhole.consume(decimalDestination.add(decimalAmount));
+    }
+    
+    @Benchmark
+    public void transferMoney(Blackhole blackhole) {
+        Money fee = feeSchedule.fee(moneyAmount, payee, null, 600);
+        Money totalDebit = moneyAmount.plus(fee);
+        if (moneySource.isLessThan(totalDebit)) {
+            throw new IllegalStateException("Insufficient balance");
+        }
+        blackhole.consume(moneySource.minus(totalDebit));
+        blackhole.consume(moneyDestination.plus(moneyAmount));
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(MoneyBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
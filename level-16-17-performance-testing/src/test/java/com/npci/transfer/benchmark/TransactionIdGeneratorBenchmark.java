@@ -0,0 +1,72 @@
+package com.npci.transfer.benchmark;
+
+import com.npci.transfer.id.RandomTransactionIdGenerator;
+import com.npci.transfer.id.SnowflakeTransactionIdGenerator;
+import com.npci.transfer.id.TransactionIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transaction ID generator micro-benchmark
+ * 
+ * One generator shared by all benchmark threads, as in the service:
+ * - nextId: single thread, cost of the ID itself
+ * - nextIdContended: 8 threads on the same generator (CAS contention)
+ * 
+ * Not a unit test (no *Test suffix, so Surefire skips it): run main() on the
+ * test classpath, e.g. from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionIdGeneratorBenchmark {
+    
+    @Param({"snowflake", "random"})
+    private String strategy;
+    
+    private TransactionIdGenerator generator;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        generator = "random".equals(strategy)
+            ? new RandomTransactionIdGenerator()
+            : new SnowflakeTransactionIdGenerator(1, Clock.systemDefaultZone());
+    }
+    
+    @Benchmark
+    public String nextId() {
+        return generator.nextId();
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public String nextIdContended() {
+        return generator.nextId();
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(TransactionIdGeneratorBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,94 @@
+package com.npci.transfer.benchmark;
+
+import com.npci.transfer.upi.UpiHandle;
+import com.npci.transfer.upi.UpiId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * UPI ID validation micro-benchmark: the @Pattern regex against UpiId
+ * 
+ * Cycles through 1,024 UPI IDs over 20 handles, one in ten malformed:
+ * - regex: the precompiled pattern TransferRequest used, as Hibernate
+ *   Validator runs it (a Matcher per call)
+ * - isValid: UpiId's single pass, what @ValidUpiId runs
+ * - parse: isValid plus the split and the interned handle
+ * - handle: UpiHandle.of, as FeeCalculator and the metrics look it up
+ * 
+ * Runs with the GC profiler: gc.alloc.rate.norm is the bytes allocated per check.
+ * Not a unit test (no *Test suffix, so Surefire skips it): run main() on the
+ * test classpath, e.g. from the IDE.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UpiIdBenchmark {
+    
+    private static final Pattern REGEX = Pattern.compile("^[a-zA-Z0-9.\\-_]+@[a-zA-Z]+$");
+    private static final String[] HANDLES = {
+        "okaxis", "okhdfcbank", "okicici", "oksbi", "ybl", "paytm", "ibl", "axl", "upi", "apl",
+        "yapl", "rapl", "jupiteraxis", "fbl", "kotak", "idfcbank", "barodampay", "pnb", "sbi", "icici"
+    };
+    private static final int INPUTS = 1_024;
+    
+    private final String[] upiIds = new String[INPUTS];
+    private final String[] validUpiIds = new String[INPUTS];
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < INPUTS; i++) {
+            validUpiIds[i] = (random.nextBoolean() ? "98" + random.nextInt(10_000_000, 100_000_000) : "user." + i)
+                + "@" + HANDLES[random.nextInt(HANDLES.length)];
+            upiIds[i] = random.nextInt(10) == 0 ? validUpiIds[i].replace('@', ' ') : validUpiIds[i];
+        }
+    }
+    
+    @Benchmark
+    public boolean regex() {
+        return REGEX.matcher(upiIds[next++ & (INPUTS - 1)]).matches();
+    }
+    
+    @Benchmark
+    public boolean isValid() {
+        return UpiId.isValid(upiIds[next++ & (INPUTS - 1)]);
+    }
+    
+    @Benchmark
+    public UpiId parse() {
+        return UpiId.parse(validUpiIds[next++ & (INPUTS - 1)]);
+    }
+    
+    @Benchmark
+    public UpiHandle handle() {
+        return UpiHandle.of(validUpiIds[next++ & (INPUTS - 1)]);
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(UpiIdBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
@@ -0,0 +1,169 @@
+package com.npci.transfer.cache;
+
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.repository.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Account Metadata Cache Tests
+ * 
+ * Cache and AccountChangeListener.onNotification against a mocked repository;
+ * delivery of the notifications themselves is covered by AccountMetadataCacheComponentTest.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Account Metadata Cache Tests")
+class AccountMetadataCacheTest {
+    
+    private static final AccountMetadata ALICE =
+        new AccountMetadata(1L, "alice@okaxis", "ACTIVE", new BigDecimal("1000.00"), new BigDecimal("1500.00"),
+            null, null);
+    
+    @Mock
+    private AccountRepository accountRepository;
+    
+    @Mock
+    private UpiIdFilter upiIdFilter;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TransferProperties transferProperties;
+    private AccountMetadataCache accountMetadataCache;
+    
+    @BeforeEach
+    void setUp() {
+        transferProperties = new TransferProperties();
+        accountMetadataCache = new AccountMetadataCache(accountRepository, upiIdFilter, transferProperties,
+            new TransferMetrics(meterRegistry));
+    }
+    
+    @Test
+    @DisplayName("Should query an account once and then answer from memory")
+    void shouldAnswerFromMemory() {
+        // Arrange
+        when(accountRepository.findMetadataByUpiId("alice@okaxis")).thenReturn(Optional.of(ALICE));
+        
+        // Act
+        for (int i = 0; i < 4; i++) {
+            assertThat(accountMetadataCache.find("alice@okaxis")).contains(ALICE);
+        }
+        
+        // Assert
+        verify(accountRepository, times(1)).findMetadataByUpiId("alice@okaxis");
+        assertThat(meterRegistry.get("transfer.metadata.cache.hit.ratio").gauge().value()).isEqualTo(0.75);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "account.metadata").tag("result", "hit")
+            .functionCounter().count()).isEqualTo(3);
+        assertThat(meterRegistry.timer("transfer.metadata.load").count()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should let concurrent misses on one account wait for a single query")
+    void shouldLoadOnce_WhenMissedConcurrently() throws Exception {
+        // Arrange
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(accountRepository.findMetadataByUpiId("alice@okaxis")).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(ALICE);
+        });
+        
+        // Act
+        List<CompletableFuture<Optional<AccountMetadata>>> lookups = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            lookups.add(CompletableFuture.supplyAsync(() -> accountMetadataCache.find("alice@okaxis")));
+        }
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(100);
+        release.countDown();
+        
+        // Assert
+        for (CompletableFuture<Optional<AccountMetadata>> lookup : lookups) {
+            assertThat(lookup.get(5, TimeUnit.SECONDS)).contains(ALICE);
+        }
+        verify(accountRepository, times(1)).findMetadataByUpiId("alice@okaxis");
+    }
+    
+    @Test
+    @DisplayName("Should not cache an unknown UPI ID, so an account created later is found")
+    void shouldNotCacheUnknownAccount() {
+        // Arrange
+        when(accountRepository.findMetadataByUpiId("alice@okaxis"))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(ALICE));
+        
+        // Act & Assert
+        assertThat(accountMetadataCache.find("alice@okaxis")).isEmpty();
+        assertThat(accountMetadataCache.find("alice@okaxis")).contains(ALICE);
+    }
+    
+    @Test
+    @DisplayName("Should evict an account on its change notification and record the lag")
+    void shouldEvictOnNotification() {
+        // Arrange
+        AccountMetadata striped = new AccountMetadata(1L, "alice@okaxis", "ACTIVE", null, null, 8, null);
+        when(accountRepository.findMetadataByUpiId("alice@okaxis"))
+            .thenReturn(Optional.of(ALICE))
+            .thenReturn(Optional.of(striped));
+        AccountChangeListener listener = new AccountChangeListener(accountMetadataCache, upiIdFilter,
+            new DataSourceProperties(),
+            mock(JdbcTemplate.class), transferProperties, new TransferMetrics(meterRegistry),
+            mock(PlatformTransactionManager.class));
+        accountMetadataCache.find("alice@okaxis");
+        
+        // Act
+        listener.onNotification("alice@okaxis|" + (System.currentTimeMillis() - 250));
+        
+        // Assert
+        assertThat(accountMetadataCache.find("alice@okaxis")).contains(striped);
+        verify(upiIdFilter).add("alice@okaxis");
+        assertThat(meterRegistry.timer("transfer.metadata.invalidation.lag").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("transfer.metadata.invalidation.lag").max(TimeUnit.MILLISECONDS))
+            .isGreaterThanOrEqualTo(250);
+    }
+    
+    @Test
+    @DisplayName("Should answer a UPI ID the filter has never seen without a query")
+    void shouldNotQuery_WhenFilterRejects() {
+        // Arrange
+        when(upiIdFilter.isDefinitelyAbsent("bob@okaxis")).thenReturn(true);
+        
+        // Act & Assert
+        assertThat(accountMetadataCache.find("bob@okaxis")).isEmpty();
+        verifyNoInteractions(accountRepository);
+    }
+    
+    @Test
+    @DisplayName("Should query every time when the cache is switched off")
+    void shouldQueryEveryTime_WhenDisabled() {
+        // Arrange
+        transferProperties.getMetadataCache().setEnabled(false);
+        when(accountRepository.findMetadataByUpiId("alice@okaxis")).thenReturn(Optional.of(ALICE));
+        
+        // Act
+        accountMetadataCache.find("alice@okaxis");
+        accountMetadataCache.find("alice@okaxis");
+        
+        // Assert
+        verify(accountRepository, times(2)).findMetadataByUpiId("alice@okaxis");
+    }
+}
@@ -0,0 +1,77 @@
+package com.npci.transfer.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Bloom Filter Tests
+ */
+@DisplayName("Bloom Filter Tests")
+class BloomFilterTest {
+    
+    @Test
+    @DisplayName("Should find every UPI ID that was put")
+    void shouldHaveNoFalseNegatives() {
+        // Arrange
+        BloomFilter filter = BloomFilter.create(100_000, 0.01);
+        
+        // Act
+        for (int i = 0; i < 100_000; i++) {
+            filter.put("user" + i + "@okaxis");
+        }
+        
+        // Assert
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(filter.mightContain("user" + i + "@okaxis")).isTrue();
+        }
+        assertThat(filter.insertions()).isGreaterThan(99_000);
+    }
+    
+    @Test
+    @DisplayName("Should keep false positives near the configured rate")
+    void shouldKeepFalsePositiveRate() {
+        // Arrange
+        BloomFilter filter = BloomFilter.create(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put("user" + i + "@okaxis");
+        }
+        
+        // Act
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("user" + i + "@ybl")) {
+                falsePositives++;
+            }
+        }
+        
+        // Assert
+        assertThat(falsePositives / 100_000.0).isBetween(0.005, 0.015);
+        assertThat(filter.expectedFalsePositiveRate()).isCloseTo(0.01, within(0.002));
+    }
+    
+    @Test
+    @DisplayName("Should size 500M UPI IDs at 1% to about 571 MiB and 7 hash functions")
+    void shouldSizeForFiveHundredMillionAccounts() {
+        // Act
+        long bits = BloomFilter.optimalBitSize(500_000_000L, 0.01);
+        
+        // Assert
+        assertThat(bits % Long.SIZE).isZero();
+        assertThat(bits / Byte.SIZE >> 20).isEqualTo(571);
+        assertThat(BloomFilter.optimalHashFunctions(500_000_000L, bits)).isEqualTo(7);
+    }
+    
+    @Test
+    @DisplayName("Should reject sizes it cannot hold")
+    void shouldRejectInvalidSizes() {
+        assertThatThrownBy(() -> BloomFilter.create(0, 0.01))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BloomFilter.create(1_000, 1.0))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BloomFilter.optimalBitSize(100_000_000_000L, 0.000001))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("need more than");
+    }
+}
@@ -0,0 +1,159 @@
+package com.npci.transfer.cache;
+
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.dto.TransferResponse;
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.money.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Transaction Status Cache Tests
+ * 
+ * Drives Spring's transaction synchronization by hand to check that
+ * entries appear on commit only.
+ */
+@DisplayName("Transaction Status Cache Tests")
+class TransactionStatusCacheTest {
+    
+    private TransferProperties transferProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private TransactionStatusCache cache;
+    private final AtomicInteger databaseReads = new AtomicInteger();
+    
+    @BeforeEach
+    void setUp() {
+        transferProperties = new TransferProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TransactionStatusCache(transferProperties, new TransferMetrics(meterRegistry));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    
+    @Test
+    @DisplayName("Should answer a committed transfer without reading the database")
+    void shouldServeFromMemory_AfterCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        cache.putOnCommit(response("TXN-1", "SUCCESS"));
+        
+        // Act
+        commit();
+        TransferResponse found = cache.get("TXN-1", database("TXN-1", "SUCCESS"));
+        
+        // Assert
+        assertThat(found.getStatus()).isEqualTo("SUCCESS");
+        assertThat(databaseReads).hasValue(0);
+        assertThat(meterRegistry.get("transfer.status.cache.hit.ratio").gauge().value()).isEqualTo(1.0);
+    }
+    
+    @Test
+    @DisplayName("Should cache nothing before the transaction commits, or if it rolls back")
+    void shouldNotCache_BeforeCommitOrOnRollback() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        cache.putOnCommit(response("TXN-1", "SUCCESS"));
+        
+        // Act
+        TransferResponse beforeCommit = cache.get("TXN-1", database("TXN-1", "SUCCESS"));
+        rollback();
+        cache.invalidateAll();
+        cache.get("TXN-1", database("TXN-1", "SUCCESS"));
+        
+        // Assert
+        assertThat(beforeCommit.getStatus()).isEqualTo("SUCCESS");
+        assertThat(databaseReads).hasValue(2);
+    }
+    
+    @Test
+    @DisplayName("Should keep a terminal transaction read from the database")
+    void shouldCacheLoadedTerminalTransaction() {
+        cache.get("TXN-1", database("TXN-1", "FAILED"));
+        cache.get("TXN-1", database("TXN-1", "FAILED"));
+        
+        assertThat(databaseReads).hasValue(1);
+        assertThat(meterRegistry.get("transfer.status.database.reads").counter().count()).isEqualTo(1.0);
+    }
+    
+    @Test
+    @DisplayName("Should always read a PENDING transaction from the database")
+    void shouldNeverCachePending() {
+        cache.putOnCommit(response("TXN-1", "PENDING"));
+        cache.get("TXN-1", database("TXN-1", "PENDING"));
+        cache.get("TXN-1", database("TXN-1", "PENDING"));
+        
+        assertThat(databaseReads).hasValue(2);
+    }
+    
+    @Test
+    @DisplayName("Should read through to the database when disabled")
+    void shouldReadDatabase_WhenDisabled() {
+        transferProperties.getStatusCache().setEnabled(false);
+        
+        cache.put(response("TXN-1", "SUCCESS"));
+        cache.get("TXN-1", database("TXN-1", "SUCCESS"));
+        
+        assertThat(databaseReads).hasValue(1);
+    }
+    
+    @Test
+    @DisplayName("Should answer with the amounts as the database row has them, not as the request wrote them")
+    void shouldCacheAmountsAsStored() {
+        // Arrange
+        TransferResponse posted = TransferResponse.builder()
+            .transactionId("TXN-1")
+            .status("SUCCESS")
+            .amount(Money.of("500"))
+            .fee(Money.ZERO)
+            .totalDebited(Money.of("500"))
+            .build();
+        
+        // Act
+        cache.put(posted);
+        TransferResponse found = cache.get("TXN-1", database("TXN-1", "SUCCESS"));
+        
+        // Assert
+        assertThat(found.getAmount().toScaledBigDecimal()).isEqualTo(new BigDecimal("500.00"));
+        assertThat(found.getFee().toScaledBigDecimal()).isEqualTo(new BigDecimal("0.00"));
+        assertThat(posted.getAmount().toScaledBigDecimal()).isEqualTo(new BigDecimal("500"));
+        assertThat(databaseReads).hasValue(0);
+    }
+    
+    private Supplier<TransferResponse> database(String transactionId, String status) {
+        return () -> {
+            databaseReads.incrementAndGet();
+            return response(transactionId, status);
+        };
+    }
+    
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+    
+    private static void rollback() {
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+    
+    private static TransferResponse response(String transactionId, String status) {
+        return TransferResponse.builder().transactionId(transactionId).status(status).build();
+    }
+}
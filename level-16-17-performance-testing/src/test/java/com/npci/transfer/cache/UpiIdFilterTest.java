@@ -0,0 +1,121 @@
+package com.npci.transfer.cache;
+
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.metrics.TransferMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * UPI ID Filter Tests
+ * 
+ * The accounts table is a mocked JdbcTemplate that returns no rows, so the
+ * filter only knows the UPI IDs passed to add().
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UPI ID Filter Tests")
+class UpiIdFilterTest {
+    
+    private static final String UNKNOWN = "nobody@okaxis";
+    
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private UpiIdFilter upiIdFilter;
+    
+    @BeforeEach
+    void setUp() {
+        upiIdFilter = new UpiIdFilter(jdbcTemplate, new TransferProperties(),
+            new TransferMetrics(new SimpleMeterRegistry()), transactionManager);
+    }
+    
+    @Test
+    @DisplayName("Should reject only UPI IDs it has never seen once built")
+    void shouldRejectUnknownUpiIds_OnceBuilt() throws Exception {
+        // Arrange
+        upiIdFilter.rebuild();
+        upiIdFilter.add("alice@okaxis");
+        
+        // Act
+        awaitPublished();
+        upiIdFilter.add("bob@paytm");
+        
+        // Assert
+        assertThat(upiIdFilter.isDefinitelyAbsent("alice@okaxis")).isFalse();
+        assertThat(upiIdFilter.isDefinitelyAbsent("bob@paytm")).isFalse();
+        assertThat(upiIdFilter.isDefinitelyAbsent(UNKNOWN)).isTrue();
+    }
+    
+    @Test
+    @DisplayName("Should not reject nor lose UPI IDs while no filter is built")
+    void shouldNotReject_WhileSuspended() {
+        // Act
+        upiIdFilter.suspend();
+        upiIdFilter.add("alice@okaxis");
+        
+        // Assert
+        assertThat(upiIdFilter.isDefinitelyAbsent(UNKNOWN)).isFalse();
+    }
+    
+    @Test
+    @DisplayName("Should keep every UPI ID added while a build publishes its filter")
+    void shouldKeepUpiIdsAdded_WhileBuildPublishes() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            // Arrange - the build finishes its scan once the adder is running
+            CountDownLatch adding = new CountDownLatch(1);
+            doAnswer(invocation -> adding.await(5, TimeUnit.SECONDS))
+                .when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+            upiIdFilter.rebuild();
+            
+            // Act - add UPI IDs until well after the filter is published
+            String prefix = "user" + round + "-";
+            CompletableFuture<Integer> adder = CompletableFuture.supplyAsync(() -> {
+                int added = 0;
+                int afterPublish = 0;
+                while (afterPublish < 100) {
+                    upiIdFilter.add(prefix + added++ + "@okaxis");
+                    adding.countDown();
+                    if (upiIdFilter.isDefinitelyAbsent(UNKNOWN)) {
+                        afterPublish++;
+                    }
+                }
+                return added;
+            });
+            int added = adder.get(10, TimeUnit.SECONDS);
+            
+            // Assert
+            for (int i = 0; i < added; i++) {
+                assertThat(upiIdFilter.isDefinitelyAbsent(prefix + i + "@okaxis"))
+                    .as("round %d, UPI ID %d of %d", round, i, added)
+                    .isFalse();
+            }
+        }
+    }
+    
+    private void awaitPublished() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!upiIdFilter.isDefinitelyAbsent(UNKNOWN)) {
+            assertThat(System.currentTimeMillis()).as("filter was not built").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.npci.transfer.component;
+
+import com.npci.transfer.cache.AccountMetadata;
+import com.npci.transfer.cache.AccountMetadataCache;
+import com.npci.transfer.config.PostgreSQLTestContainer;
+import com.npci.transfer.entity.Account;
+import com.npci.transfer.repository.AccountRepository;
+import com.npci.transfer.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Component Tests for the account metadata cache
+ * 
+ * Not @Transactional: NOTIFY is only delivered once the change commits.
+ * Changes are made with plain SQL, as another instance (or an operator) would.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Account Metadata Cache Component Tests - PostgreSQL")
+class AccountMetadataCacheComponentTest extends PostgreSQLTestContainer {
+    
+    @Autowired
+    private AccountMetadataCache accountMetadataCache;
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        
+        accountRepository.save(Account.builder()
+                .upiId("alice@okaxis")
+                .phone("9876543210")
+                .balance(new BigDecimal("10000.00"))
+                .dailyLimit(new BigDecimal("1000.00"))
+                .monthlyLimit(new BigDecimal("5000.00"))
+                .status("ACTIVE")
+                .build());
+    }
+    
+    @Test
+    @DisplayName("Should evict an account once a change to its limits is committed")
+    void shouldEvictOnCommittedChange() throws Exception {
+        // Given
+        assertEquals(0, new BigDecimal("1000.00").compareTo(
+            accountMetadataCache.find("alice@okaxis").orElseThrow().dailyLimit()));
+        
+        // When
+        jdbcTemplate.update("UPDATE accounts SET daily_limit = 2000 WHERE upi_id = 'alice@okaxis'");
+        
+        // Then
+        awaitMetadata(metadata -> metadata != null
+            && new BigDecimal("2000.00").compareTo(metadata.dailyLimit()) == 0);
+        assertTrue(meterRegistry.timer("transfer.metadata.invalidation.lag").count() > 0);
+    }
+    
+    @Test
+    @DisplayName("Should keep an account cached while only its balance changes")
+    void shouldIgnoreBalanceChanges() throws Exception {
+        // Given
+        accountMetadataCache.find("alice@okaxis");
+        double lookups = meterRegistry.timer("transfer.metadata.load").count();
+        
+        // When
+        jdbcTemplate.update("UPDATE accounts SET balance = balance - 100 WHERE upi_id = 'alice@okaxis'");
+        Thread.sleep(500);
+        
+        // Then
+        accountMetadataCache.find("alice@okaxis");
+        assertEquals(lookups, meterRegistry.timer("transfer.metadata.load").count());
+    }
+    
+    @Test
+    @DisplayName("Should forget a deleted account")
+    void shouldEvictDeletedAccount() throws Exception {
+        // Given
+        assertTrue(accountMetadataCache.find("alice@okaxis").isPresent());
+        
+        // When
+        jdbcTemplate.update("DELETE FROM accounts WHERE upi_id = 'alice@okaxis'");
+        
+        // Then
+        awaitMetadata(metadata -> metadata == null);
+    }
+    
+    private void awaitMetadata(Predicate<AccountMetadata> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.test(accountMetadataCache.find("alice@okaxis").orElse(null))) {
+            assertTrue(System.currentTimeMillis() < deadline, "Change notification was not received");
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.npci.transfer.component;
+
+import com.npci.transfer.config.PostgreSQLTestContainer;
+import com.npci.transfer.dto.TransferRequest;
+import com.npci.transfer.dto.TransferResponse;
+import com.npci.transfer.entity.Transaction;
+import com.npci.transfer.repository.AccountRepository;
+import com.npci.transfer.repository.TransactionRepository;
+import com.npci.transfer.service.TransferService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.npci.transfer.util.TestDataBuilders.AccountBuilder.anAccount;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Component Tests for ASYNC execution mode
+ * 
+ * Not @Transactional: transfers are executed by the worker threads in
+ * their own transactions, so the test data has to be committed too.
+ */
+@SpringBootTest(properties = {
+    "transfer.execution.mode=async",
+    "transfer.async.workers=2",
+    "transfer.async.batch-size=4",
+    "spring.datasource.hikari.auto-commit=false",
+    "spring.jpa.properties.hibernate.connection.provider_disables_autocommit=true"
+})
+@ActiveProfiles("test")
+@DisplayName("Async Transfer Component Tests - PostgreSQL")
+class AsyncTransferComponentTest extends PostgreSQLTestContainer {
+    
+    @Autowired
+    private TransferService transferService;
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        
+        accountRepository.save(anAccount().withUpiId("alice@okaxis").withBalance("1000.00").build());
+        accountRepository.save(anAccount().withUpiId("bob@paytm").withBalance("0.00").build());
+    }
+    
+    @Test
+    @DisplayName("Should accept transfers as PENDING and execute them without double-spending")
+    void shouldExecuteAcceptedTransfers() throws Exception {
+        // When - 15 transfers of ₹100 are accepted from an account holding ₹1000
+        for (int i = 0; i < 15; i++) {
+            TransferResponse response = transferService.initiateTransfer(transfer("alice@okaxis", "bob@paytm"));
+            assertEquals("PENDING", response.getStatus());
+        }
+        awaitNoPending();
+        
+        // Then - exactly ten were executed, the rest failed for lack of balance
+        List<Transaction> transactions = transactionRepository.findAll();
+        assertEquals(10, transactions.stream().filter(t -> "SUCCESS".equals(t.getStatus())).count());
+        assertEquals(5, transactions.stream()
+                .filter(t -> "FAILED".equals(t.getStatus()))
+                .filter(t -> "INSUFFICIENT_BALANCE".equals(t.getErrorCode()))
+                .count());
+        assertEquals(0, BigDecimal.ZERO.compareTo(transferService.checkBalance("alice@okaxis")));
+        assertEquals(0, new BigDecimal("1000.00").compareTo(transferService.checkBalance("bob@paytm")));
+    }
+    
+    @Test
+    @DisplayName("Should fail an accepted transfer to an unknown account")
+    void shouldFailTransferToUnknownAccount() throws Exception {
+        // When
+        TransferResponse accepted = transferService.initiateTransfer(transfer("alice@okaxis", "nobody@ybl"));
+        awaitNoPending();
+        
+        // Then
+        TransferResponse executed = transferService.getTransfer(accepted.getTransactionId());
+        assertEquals("FAILED", executed.getStatus());
+        assertEquals("INVALID_DESTINATION_UPI", executed.getErrorCode());
+        assertEquals(0, new BigDecimal("1000.00").compareTo(transferService.checkBalance("alice@okaxis")));
+    }
+    
+    private void awaitNoPending() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (transactionRepository.countByStatus("PENDING") > 0) {
+            assertTrue(System.currentTimeMillis() < deadline, "PENDING transfers were not executed");
+            Thread.sleep(50);
+        }
+    }
+    
+    private TransferRequest transfer(String from, String to) {
+        return TransferRequest.builder()
+                .sourceUPI(from)
+                .destinationUPI(to)
+                .amount(new BigDecimal("100.00"))
+                .build();
+    }
+}
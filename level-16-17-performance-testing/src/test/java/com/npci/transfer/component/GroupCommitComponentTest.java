@@ -0,0 +1,101 @@
+package com.npci.transfer.component;
+
+import com.npci.transfer.config.PostgreSQLTestContainer;
+import com.npci.transfer.dto.TransferRequest;
+import com.npci.transfer.exception.InsufficientBalanceException;
+import com.npci.transfer.repository.AccountRepository;
+import com.npci.transfer.repository.TransactionRepository;
+import com.npci.transfer.service.TransferService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.npci.transfer.util.TestDataBuilders.AccountBuilder.anAccount;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Component Tests for GROUP_COMMIT execution mode
+ * 
+ * Not @Transactional: batches are committed by the committer threads in
+ * their own transactions, so the test data has to be committed too.
+ * Connections are not auto-commit (as in application.yml), so waiting
+ * callers do not hold one of the test pool's five connections.
+ */
+@SpringBootTest(properties = {
+    "transfer.execution.mode=group-commit",
+    "transfer.group-commit.max-delay=20ms",
+    "spring.datasource.hikari.auto-commit=false",
+    "spring.jpa.properties.hibernate.connection.provider_disables_autocommit=true"
+})
+@ActiveProfiles("test")
+@DisplayName("Group Commit Component Tests - PostgreSQL")
+class GroupCommitComponentTest extends PostgreSQLTestContainer {
+    
+    @Autowired
+    private TransferService transferService;
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        
+        accountRepository.save(anAccount().withUpiId("alice@okaxis").withBalance("1000.00").build());
+        accountRepository.save(anAccount().withUpiId("bob@paytm").withBalance("0.00").build());
+    }
+    
+    @Test
+    @DisplayName("Should commit concurrent transfers and keep balances consistent")
+    void shouldCommitConcurrentTransfers() throws Exception {
+        // When - 15 callers try to move ₹100 from an account holding ₹1000
+        ExecutorService executor = Executors.newFixedThreadPool(15);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            results.add(executor.submit(() -> transferService.initiateTransfer(transfer("alice@okaxis", "bob@paytm"))));
+        }
+        
+        int succeeded = 0;
+        int rejected = 0;
+        for (Future<?> result : results) {
+            try {
+                result.get();
+                succeeded++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(InsufficientBalanceException.class, e.getCause());
+                rejected++;
+            }
+        }
+        executor.shutdown();
+        
+        // Then - exactly ten fit, none double-spent
+        assertEquals(10, succeeded);
+        assertEquals(5, rejected);
+        assertEquals(10, transactionRepository.count());
+        assertEquals(0, BigDecimal.ZERO.compareTo(transferService.checkBalance("alice@okaxis")));
+        assertEquals(0, new BigDecimal("1000.00").compareTo(transferService.checkBalance("bob@paytm")));
+    }
+    
+    private TransferRequest transfer(String from, String to) {
+        return TransferRequest.builder()
+                .sourceUPI(from)
+                .destinationUPI(to)
+                .amount(new BigDecimal("100.00"))
+                .build();
+    }
+}
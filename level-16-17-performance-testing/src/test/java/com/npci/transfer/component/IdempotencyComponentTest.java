@@ -0,0 +1,115 @@
+package com.npci.transfer.component;
+
+import com.npci.transfer.config.PostgreSQLTestContainer;
+import com.npci.transfer.dto.TransferRequest;
+import com.npci.transfer.exception.InsufficientBalanceException;
+import com.npci.transfer.repository.AccountRepository;
+import com.npci.transfer.repository.IdempotencyRecordRepository;
+import com.npci.transfer.repository.TransactionRepository;
+import com.npci.transfer.service.IdempotencyService;
+import com.npci.transfer.service.TransferService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.npci.transfer.util.TestDataBuilders.AccountBuilder.anAccount;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Component Tests for Idempotency-Key handling
+ * 
+ * Not @Transactional: the claim, the transfer and the stored response are
+ * committed together by IdempotencyService, and duplicates wait on that
+ * transaction from threads of their own.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Idempotency Component Tests - PostgreSQL")
+class IdempotencyComponentTest extends PostgreSQLTestContainer {
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
+    @Autowired
+    private TransferService transferService;
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    
+    @BeforeEach
+    void setUp() {
+        idempotencyRecordRepository.deleteAll();
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        
+        accountRepository.save(anAccount().withUpiId("alice@okaxis").withBalance("10000.00").build());
+        accountRepository.save(anAccount().withUpiId("bob@paytm").withBalance("0.00").build());
+    }
+    
+    @Test
+    @DisplayName("Should debit once when the same Idempotency-Key is retried concurrently")
+    void shouldExecuteOnce_WhenRetriedConcurrently() throws Exception {
+        // Given
+        String idempotencyKey = "payroll-2024-12-alice-bob";
+        TransferRequest request = TransferRequest.builder()
+                .sourceUPI("alice@okaxis")
+                .destinationUPI("bob@paytm")
+                .amount(new BigDecimal("500.00"))
+                .build();
+        
+        // When - 10 retries of the same request
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        List<Future<IdempotencyService.Outcome>> outcomes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            outcomes.add(executor.submit(() -> idempotencyService.execute(
+                idempotencyKey, request, () -> transferService.initiateTransfer(request))));
+        }
+        List<String> transactionIds = new ArrayList<>();
+        for (Future<IdempotencyService.Outcome> outcome : outcomes) {
+            transactionIds.add(outcome.get().response().getTransactionId());
+        }
+        executor.shutdown();
+        
+        // Then - one transfer, one stored response, every caller got it
+        assertEquals(1, transactionIds.stream().distinct().count());
+        assertEquals(1, transactionRepository.count());
+        assertTrue(idempotencyRecordRepository.existsById(idempotencyKey));
+        assertEquals(0, new BigDecimal("9500.00").compareTo(transferService.checkBalance("alice@okaxis")));
+    }
+    
+    @Test
+    @DisplayName("Should release the key when the transfer is rejected")
+    void shouldRollBackClaim_WhenTransferRejected() {
+        // Given
+        String idempotencyKey = "too-much";
+        TransferRequest request = TransferRequest.builder()
+                .sourceUPI("alice@okaxis")
+                .destinationUPI("bob@paytm")
+                .amount(new BigDecimal("20000.00"))
+                .build();
+        
+        // When
+        assertThrows(InsufficientBalanceException.class, () -> idempotencyService.execute(
+            idempotencyKey, request, () -> transferService.initiateTransfer(request)));
+        
+        // Then
+        assertFalse(idempotencyRecordRepository.existsById(idempotencyKey));
+        assertEquals(0, transactionRepository.count());
+    }
+}
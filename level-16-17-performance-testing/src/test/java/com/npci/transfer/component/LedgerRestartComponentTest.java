@@ -0,0 +1,93 @@
+package com.npci.transfer.component;
+
+import com.npci.transfer.config.PostgreSQLTestContainer;
+import com.npci.transfer.dto.TransferRequest;
+import com.npci.transfer.ledger.LedgerEngine;
+import com.npci.transfer.repository.AccountRepository;
+import com.npci.transfer.repository.TransactionRepository;
+import com.npci.transfer.service.TransferService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static com.npci.transfer.util.TestDataBuilders.AccountBuilder.anAccount;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Component Tests for LEDGER execution mode across a restart
+ * 
+ * Recovery re-projects every transfer journaled since the last snapshot;
+ * the unique key on transaction_id must turn those into no-ops.
+ */
+@SpringBootTest(properties = {
+    "transfer.execution.mode=ledger",
+    "transfer.ledger.partitions=2",
+    "transfer.ledger.journal-directory=target/ledger-restart-${random.uuid}"
+})
+@ActiveProfiles("test")
+@DisplayName("Ledger Restart Component Tests - PostgreSQL")
+class LedgerRestartComponentTest extends PostgreSQLTestContainer {
+    
+    @Autowired
+    private LedgerEngine ledgerEngine;
+    
+    @Autowired
+    private TransferService transferService;
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        
+        accountRepository.save(anAccount().withUpiId("alice@okaxis").withBalance("1000.00").build());
+        accountRepository.save(anAccount().withUpiId("bob@paytm").withBalance("0.00").build());
+    }
+    
+    @Test
+    @DisplayName("Should not insert transaction rows twice when the journal is replayed on restart")
+    void shouldProjectEachTransferOnce_AcrossRestart() throws Exception {
+        // Given - three transfers, projected to PostgreSQL
+        for (int i = 0; i < 3; i++) {
+            transferService.initiateTransfer(transfer());
+        }
+        awaitTransactionRows(3);
+        
+        // When - restart: recovery re-projects the three journaled transfers, then one more
+        ledgerEngine.stop();
+        ledgerEngine.start();
+        transferService.initiateTransfer(transfer());
+        awaitTransactionRows(4);
+        Thread.sleep(500);
+        
+        // Then
+        assertEquals(4, transactionRepository.count());
+        assertEquals(0, new BigDecimal("600.00").compareTo(transferService.checkBalance("alice@okaxis")));
+    }
+    
+    private void awaitTransactionRows(long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (transactionRepository.count() < expected) {
+            assertTrue(System.currentTimeMillis() < deadline, "Transfers were not projected");
+            Thread.sleep(50);
+        }
+    }
+    
+    private TransferRequest transfer() {
+        return TransferRequest.builder()
+                .sourceUPI("alice@okaxis")
+                .destinationUPI("bob@paytm")
+                .amount(new BigDecimal("100.00"))
+                .build();
+    }
+}
@@ -0,0 +1,118 @@
+package com.npci.transfer.component;
+
+import com.npci.transfer.config.PostgreSQLTestContainer;
+import com.npci.transfer.dto.TransferRequest;
+import com.npci.transfer.dto.TransferResponse;
+import com.npci.transfer.exception.AccountNotFoundException;
+import com.npci.transfer.exception.InsufficientBalanceException;
+import com.npci.transfer.money.Money;
+import com.npci.transfer.repository.AccountRepository;
+import com.npci.transfer.repository.TransactionRepository;
+import com.npci.transfer.service.ReactiveTransferService;
+import com.npci.transfer.service.TransferService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static com.npci.transfer.util.TestDataBuilders.AccountBuilder.anAccount;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Component Tests for the reactive (R2DBC) transfer path
+ * 
+ * Not @Transactional: R2DBC uses its own connections, so the test data
+ * written through JPA has to be committed before a transfer can see it.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Reactive Transfer Component Tests - PostgreSQL")
+class ReactiveTransferComponentTest extends PostgreSQLTestContainer {
+    
+    @Autowired
+    private ReactiveTransferService reactiveTransferService;
+    
+    @Autowired
+    private TransferService transferService;
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        
+        accountRepository.save(anAccount().withUpiId("alice@okaxis").withBalance("10000.00").build());
+        accountRepository.save(anAccount().withUpiId("bob@paytm").withBalance("5000.00").build());
+    }
+    
+    @Test
+    @DisplayName("Should debit, credit and record the transaction atomically")
+    void shouldTransferAndPersistTransaction() {
+        // When - ₹1500 carries a ₹5 fee
+        TransferResponse response = reactiveTransferService.initiateTransfer(transfer("1500.00")).block();
+        
+        // Then
+        assertNotNull(response);
+        assertEquals("SUCCESS", response.getStatus());
+        assertEquals(Money.of("1505.00"), response.getTotalDebited());
+        assertEquals(0, new BigDecimal("8495.00").compareTo(transferService.checkBalance("alice@okaxis")));
+        assertEquals(0, new BigDecimal("6500.00").compareTo(transferService.checkBalance("bob@paytm")));
+        assertTrue(transactionRepository.findByTransactionId(response.getTransactionId()).isPresent());
+    }
+    
+    @Test
+    @DisplayName("Should leave balances untouched when the destination does not exist")
+    void shouldRejectUnknownDestination() {
+        TransferRequest request = transfer("100.00");
+        request.setDestinationUPI("nobody@paytm");
+        
+        AccountNotFoundException e = assertThrows(AccountNotFoundException.class,
+            () -> reactiveTransferService.initiateTransfer(request).block());
+        
+        assertEquals("Destination account not found: nobody@paytm", e.getMessage());
+        assertEquals(0, new BigDecimal("10000.00").compareTo(transferService.checkBalance("alice@okaxis")));
+        assertEquals(0, transactionRepository.count());
+    }
+    
+    @Test
+    @DisplayName("Should keep balances consistent under concurrent transfers")
+    void shouldNotDoubleSpendUnderConcurrency() {
+        // When - 15 concurrent ₹1000 transfers from an account holding ₹10000
+        List<Object> results = Flux.range(0, 15)
+            .flatMap(i -> reactiveTransferService.initiateTransfer(transfer("1000.00"))
+                .<Object>map(response -> response)
+                .onErrorResume(InsufficientBalanceException.class, e -> Mono.just(e)))
+            .collectList()
+            .block(Duration.ofSeconds(30));
+        
+        // Then - exactly ten fit, none double-spent
+        assertNotNull(results);
+        long succeeded = results.stream().filter(TransferResponse.class::isInstance).count();
+        assertEquals(10, succeeded);
+        assertEquals(5, results.size() - succeeded);
+        assertEquals(10, transactionRepository.count());
+        assertEquals(0, BigDecimal.ZERO.compareTo(transferService.checkBalance("alice@okaxis")));
+        assertEquals(0, new BigDecimal("15000.00").compareTo(transferService.checkBalance("bob@paytm")));
+    }
+    
+    private TransferRequest transfer(String amount) {
+        return TransferRequest.builder()
+                .sourceUPI("alice@okaxis")
+                .destinationUPI("bob@paytm")
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+}
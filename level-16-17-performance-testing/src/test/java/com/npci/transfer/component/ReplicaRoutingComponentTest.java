@@ -0,0 +1,100 @@
+package com.npci.transfer.component;
+
+import com.npci.transfer.config.PostgreSQLTestContainer;
+import com.npci.transfer.config.ReplicaLagMonitor;
+import com.npci.transfer.entity.Transaction;
+import com.npci.transfer.money.Money;
+import com.npci.transfer.repository.TransactionRepository;
+import com.npci.transfer.service.TransferService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Component Tests for read/write routing
+ * 
+ * The "replica" is a second pool on the test container itself: a server
+ * that is not in recovery reports no lag, so every budgeted read-only
+ * transaction should go through that pool. A real streaming replica is
+ * docker compose --profile replica (see README).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "transfer.replicas.enabled=true",
+    "transfer.replicas.nodes[0].url=${spring.datasource.url}",
+    "transfer.replicas.maximum-pool-size=2"
+})
+@DisplayName("Replica Routing Component Tests - PostgreSQL")
+class ReplicaRoutingComponentTest extends PostgreSQLTestContainer {
+    
+    @Autowired
+    private TransferService transferService;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        replicaLagMonitor.checkLag();
+    }
+    
+    @Test
+    @DisplayName("Should measure no lag on a server that is not a standby")
+    void shouldReportZeroLag_WhenNotInRecovery() {
+        // Then
+        assertEquals(0.0, meterRegistry.get("transfer.replica.lag").tag("replica", "replica-1").timeGauge()
+            .value(TimeUnit.MILLISECONDS));
+        assertTrue(replicaLagMonitor.pickReplica(Duration.ofSeconds(1)).isPresent());
+    }
+    
+    @Test
+    @DisplayName("Should serve a status lookup from the replica pool and writes from the primary")
+    void shouldRouteStatusLookupToReplica() {
+        // Given
+        double readsBefore = replicaReads();
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId("TXN-REPLICA-1");
+        transaction.setSourceUPI("alice@okaxis");
+        transaction.setDestinationUPI("bob@paytm");
+        transaction.setAmount(Money.ofRupees(100));
+        transaction.setFee(Money.ZERO);
+        transaction.setTotalDebited(Money.ofRupees(100));
+        transaction.setStatus("SUCCESS");
+        transaction.setTimestamp(LocalDateTime.now());
+        transactionRepository.save(transaction);
+        assertEquals(readsBefore, replicaReads());
+        
+        // When
+        Transaction found = transferService.getTransactionStatus("TXN-REPLICA-1");
+        
+        // Then
+        assertEquals("SUCCESS", found.getStatus());
+        assertEquals(readsBefore + 1, replicaReads());
+        assertTrue(meterRegistry.find("hikaricp.connections").gauges().stream()
+            .anyMatch(gauge -> gauge.getId().getTag("pool").endsWith("-replica-1")));
+    }
+    
+    private double replicaReads() {
+        var counter = meterRegistry.find("transfer.replica.reads").tag("replica", "replica-1").counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,139 @@
+package com.npci.transfer.component;
+
+import com.npci.transfer.config.PostgreSQLTestContainer;
+import com.npci.transfer.dto.TransferRequest;
+import com.npci.transfer.entity.Account;
+import com.npci.transfer.exception.InsufficientBalanceException;
+import com.npci.transfer.repository.AccountBalanceStripeRepository;
+import com.npci.transfer.repository.AccountRepository;
+import com.npci.transfer.repository.TransactionRepository;
+import com.npci.transfer.service.StripedBalanceService;
+import com.npci.transfer.service.TransferService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static com.npci.transfer.util.TestDataBuilders.AccountBuilder.anAccount;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Component Tests for striped (hot) account balances
+ * 
+ * Runs the native stripe statements (FOR UPDATE SKIP LOCKED, UPDATE ... RETURNING)
+ * against PostgreSQL and checks balances always add up to base + stripes.
+ */
+@SpringBootTest(properties = "transfer.locking.mode=pessimistic")
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Striped Balance Component Tests - PostgreSQL")
+class StripedBalanceComponentTest extends PostgreSQLTestContainer {
+    
+    @Autowired
+    private TransferService transferService;
+    
+    @Autowired
+    private StripedBalanceService stripedBalanceService;
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private AccountBalanceStripeRepository stripeRepository;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        stripeRepository.deleteAll();
+        accountRepository.deleteAll();
+        
+        accountRepository.save(anAccount().withUpiId("alice@okaxis").withBalance("10000.00").build());
+        accountRepository.save(anAccount().withUpiId("merchant@okaxis").withBalance("100.00").build());
+        stripedBalanceService.enableStriping("merchant@okaxis", 4);
+        
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    @Test
+    @DisplayName("Should credit stripes and leave the merchant accounts row untouched")
+    void shouldCreditStripes() {
+        // When
+        for (int i = 0; i < 5; i++) {
+            transferService.initiateTransfer(transfer("alice@okaxis", "merchant@okaxis", "200.00"));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        
+        // Then
+        Account merchant = accountRepository.findByUpiId("merchant@okaxis").orElseThrow();
+        assertEquals(new BigDecimal("100.00"), merchant.getBalance());
+        assertEquals(0, new BigDecimal("1000.00").compareTo(stripeRepository.sumBalanceByAccountId(merchant.getId())));
+        assertEquals(0, new BigDecimal("1100.00").compareTo(transferService.checkBalance("merchant@okaxis")));
+        assertEquals(0, new BigDecimal("9000.00").compareTo(transferService.checkBalance("alice@okaxis")));
+    }
+    
+    @Test
+    @DisplayName("Should fold stripes back into the accounts row on consolidation")
+    void shouldConsolidateStripes() {
+        // Given
+        transferService.initiateTransfer(transfer("alice@okaxis", "merchant@okaxis", "500.00"));
+        entityManager.flush();
+        entityManager.clear();
+        
+        // When
+        BigDecimal drained = stripedBalanceService.consolidate("merchant@okaxis");
+        entityManager.flush();
+        entityManager.clear();
+        
+        // Then
+        Account merchant = accountRepository.findByUpiId("merchant@okaxis").orElseThrow();
+        assertEquals(0, new BigDecimal("500.00").compareTo(drained));
+        assertEquals(0, new BigDecimal("600.00").compareTo(merchant.getBalance()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(stripeRepository.sumBalanceByAccountId(merchant.getId())));
+    }
+    
+    @Test
+    @DisplayName("Should debit a hot account across base and stripes")
+    void shouldDebitAcrossStripes() {
+        // Given - base 100, stripes 500
+        transferService.initiateTransfer(transfer("alice@okaxis", "merchant@okaxis", "500.00"));
+        entityManager.flush();
+        entityManager.clear();
+        
+        // When - 400 (no fee below ₹1000) needs 300 from the stripes
+        transferService.initiateTransfer(transfer("merchant@okaxis", "alice@okaxis", "400.00"));
+        entityManager.flush();
+        entityManager.clear();
+        
+        // Then
+        assertEquals(0, new BigDecimal("200.00").compareTo(transferService.checkBalance("merchant@okaxis")));
+        assertEquals(0, BigDecimal.ZERO.compareTo(
+                accountRepository.findByUpiId("merchant@okaxis").orElseThrow().getBalance()));
+        
+        // And - more than base + stripes (₹200) is rejected
+        assertThrows(InsufficientBalanceException.class, () -> transferService.initiateTransfer(
+                transfer("merchant@okaxis", "alice@okaxis", "500.00")));
+    }
+    
+    private TransferRequest transfer(String from, String to, String amount) {
+        return TransferRequest.builder()
+                .sourceUPI(from)
+                .destinationUPI(to)
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+}
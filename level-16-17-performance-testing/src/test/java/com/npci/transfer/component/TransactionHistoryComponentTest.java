@@ -0,0 +1,150 @@
+package com.npci.transfer.component;
+
+import com.npci.transfer.config.PostgreSQLTestContainer;
+import com.npci.transfer.dto.TransactionHistoryRequest;
+import com.npci.transfer.dto.TransactionHistoryResponse;
+import com.npci.transfer.dto.TransferResponse;
+import com.npci.transfer.entity.Transaction;
+import com.npci.transfer.money.Money;
+import com.npci.transfer.repository.TransactionRepository;
+import com.npci.transfer.service.TransactionHistoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Component Tests for cursor-paged transaction history
+ * 
+ * Walks an account's history page by page against PostgreSQL and checks
+ * that the pages add up to every transfer exactly once, in order, including
+ * transfers sharing a timestamp across a page boundary.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Transaction History Component Tests - PostgreSQL")
+class TransactionHistoryComponentTest extends PostgreSQLTestContainer {
+    
+    private static final LocalDateTime START = LocalDateTime.of(2024, 12, 1, 9, 0);
+    
+    @Autowired
+    private TransactionHistoryService transactionHistoryService;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    private final List<Transaction> aliceTransactions = new ArrayList<>();
+    
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        aliceTransactions.clear();
+        
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            // Pairs of transfers share a timestamp; alice sends the even ones and receives the odd ones
+            LocalDateTime timestamp = START.plusMinutes(i / 2);
+            Transaction transaction = i % 2 == 0
+                ? transaction(i, "alice@okaxis", "bob@paytm", timestamp, "SUCCESS")
+                : transaction(i, "carol@ybl", "alice@okaxis", timestamp, i % 3 == 0 ? "FAILED" : "SUCCESS");
+            transactions.add(transaction);
+            aliceTransactions.add(transaction);
+        }
+        transactions.add(transaction(99, "bob@paytm", "carol@ybl", START, "SUCCESS"));
+        transactionRepository.saveAll(transactions);
+    }
+    
+    @Test
+    @DisplayName("Should return every sent and received transfer once, newest first, across pages")
+    void shouldPageThroughHistory_NewestFirst() {
+        // When
+        List<String> seen = readAll(request("timestamp,desc", null));
+        
+        // Then
+        List<String> expected = aliceTransactions.stream()
+            .sorted(Comparator.comparing(Transaction::getTimestamp)
+                .thenComparing(Transaction::getTransactionId).reversed())
+            .map(Transaction::getTransactionId)
+            .toList();
+        assertEquals(expected, seen);
+    }
+    
+    @Test
+    @DisplayName("Should page oldest first when sorted ascending")
+    void shouldPageThroughHistory_OldestFirst() {
+        // When
+        List<String> seen = readAll(request("timestamp,asc", null));
+        
+        // Then
+        List<String> expected = aliceTransactions.stream()
+            .sorted(Comparator.comparing(Transaction::getTimestamp).thenComparing(Transaction::getTransactionId))
+            .map(Transaction::getTransactionId)
+            .toList();
+        assertEquals(expected, seen);
+    }
+    
+    @Test
+    @DisplayName("Should apply status and date filters on every page")
+    void shouldFilterByStatusAndDate() {
+        // Given
+        TransactionHistoryRequest request = request("timestamp,desc", "FAILED");
+        request.setFromDate(START.plusMinutes(2));
+        
+        // When
+        List<String> seen = readAll(request);
+        
+        // Then
+        List<String> expected = aliceTransactions.stream()
+            .filter(t -> t.getStatus().equals("FAILED") && !t.getTimestamp().isBefore(START.plusMinutes(2)))
+            .sorted(Comparator.comparing(Transaction::getTimestamp)
+                .thenComparing(Transaction::getTransactionId).reversed())
+            .map(Transaction::getTransactionId)
+            .toList();
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, seen);
+    }
+    
+    private List<String> readAll(TransactionHistoryRequest request) {
+        List<String> seen = new ArrayList<>();
+        TransactionHistoryResponse page;
+        do {
+            page = transactionHistoryService.getHistory(request);
+            assertTrue(page.getContent().size() <= 4);
+            page.getContent().stream().map(TransferResponse::getTransactionId).forEach(seen::add);
+            request.setCursor(page.getNextCursor());
+        } while (page.getNextCursor() != null);
+        return seen;
+    }
+    
+    private static TransactionHistoryRequest request(String sort, String status) {
+        return TransactionHistoryRequest.builder()
+            .upiId("alice@okaxis")
+            .size(4)
+            .sort(sort)
+            .status(status)
+            .build();
+    }
+    
+    private static Transaction transaction(int n, String source, String destination,
+                                           LocalDateTime timestamp, String status) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId("TXN-20241201-%04d".formatted(n));
+        transaction.setSourceUPI(source);
+        transaction.setDestinationUPI(destination);
+        transaction.setAmount(Money.ofRupees(100 + n));
+        transaction.setFee(Money.ZERO);
+        transaction.setTotalDebited(Money.ofRupees(100 + n));
+        transaction.setStatus(status);
+        transaction.setTimestamp(timestamp);
+        return transaction;
+    }
+}
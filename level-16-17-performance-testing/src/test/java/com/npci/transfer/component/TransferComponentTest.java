@@ -6,6 +6,7 @@ import com.npci.transfer.dto.TransferResponse;
 import com.npci.transfer.entity.Account;
 import com.npci.transfer.exception.AccountNotFoundException;
 import com.npci.transfer.exception.InsufficientBalanceException;
+import com.npci.transfer.money.Money;
 import com.npci.transfer.repository.AccountRepository;
 import com.npci.transfer.repository.TransactionRepository;
 import com.npci.transfer.service.FeeCalculator;
@@ -112,7 +113,7 @@ class TransferComponentTest extends PostgreSQLTestContainer {
         // Then
         assertNotNull(response);
         assertEquals("SUCCESS", response.getStatus());
-        assertEquals(new BigDecimal("500.00"), response.getAmount());
+        assertEquals(Money.of("500.00"), response.getAmount());
         
         // Verify balances updated in database
         Account updatedSource = accountRepository.findByUpiId("alice@okaxis").orElseThrow();
@@ -175,7 +176,7 @@ class TransferComponentTest extends PostgreSQLTestContainer {
         assertTrue(transaction.isPresent());
         assertEquals("alice@okaxis", transaction.get().getSourceUPI());
         assertEquals("bob@paytm", transaction.get().getDestinationUPI());
-        assertEquals(new BigDecimal("100.00"), transaction.get().getAmount());
+        assertEquals(Money.of("100.00"), transaction.get().getAmount());
     }
     
     @Test
@@ -0,0 +1,137 @@
+package com.npci.transfer.component;
+
+import com.npci.transfer.config.PostgreSQLTestContainer;
+import com.npci.transfer.dto.TransferRequest;
+import com.npci.transfer.dto.TransferResponse;
+import com.npci.transfer.exception.AccountNotFoundException;
+import com.npci.transfer.exception.InsufficientBalanceException;
+import com.npci.transfer.money.Money;
+import com.npci.transfer.repository.AccountRepository;
+import com.npci.transfer.repository.TransactionRepository;
+import com.npci.transfer.service.TransferService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static com.npci.transfer.util.TestDataBuilders.AccountBuilder.anAccount;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Component Tests for STORED_FUNCTION execution mode
+ * 
+ * Runs the real transfer_funds() function in PostgreSQL and checks it
+ * behaves exactly like the JPA path (balances, history, exceptions).
+ */
+@SpringBootTest(properties = "transfer.execution.mode=stored-function")
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Transfer Function Component Tests - PostgreSQL")
+class TransferFunctionComponentTest extends PostgreSQLTestContainer {
+    
+    @Autowired
+    private TransferService transferService;
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        
+        accountRepository.save(anAccount().withUpiId("alice@okaxis").withBalance("10000.00").build());
+        accountRepository.save(anAccount().withUpiId("bob@paytm").withBalance("5000.00").build());
+        
+        // The function works on the database rows, not on the persistence context
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    @Test
+    @DisplayName("Should debit amount plus fee and credit amount in one call")
+    void shouldTransferMoneySuccessfully() {
+        // Given
+        TransferRequest request = TransferRequest.builder()
+                .sourceUPI("alice@okaxis")
+                .destinationUPI("bob@paytm")
+                .amount(new BigDecimal("2000.00"))
+                .remarks("Stored function transfer")
+                .build();
+        
+        // When
+        TransferResponse response = transferService.initiateTransfer(request);
+        
+        // Then
+        assertEquals("SUCCESS", response.getStatus());
+        assertEquals(Money.of("2005.00"), response.getTotalDebited());
+        assertNotNull(response.getTimestamp());
+        
+        entityManager.clear();
+        assertEquals(new BigDecimal("7995.00"),
+                accountRepository.findByUpiId("alice@okaxis").orElseThrow().getBalance());
+        assertEquals(new BigDecimal("7000.00"),
+                accountRepository.findByUpiId("bob@paytm").orElseThrow().getBalance());
+        
+        var transaction = transactionRepository.findByTransactionId(response.getTransactionId());
+        assertTrue(transaction.isPresent());
+        assertEquals("Stored function transfer", transaction.get().getRemarks());
+    }
+    
+    @Test
+    @DisplayName("Should reject debit and leave balances unchanged on insufficient balance")
+    void shouldRejectInsufficientBalance() {
+        // Given
+        TransferRequest request = TransferRequest.builder()
+                .sourceUPI("alice@okaxis")
+                .destinationUPI("bob@paytm")
+                .amount(new BigDecimal("10000.00"))  // + ₹5 fee > balance
+                .build();
+        
+        // When & Then
+        InsufficientBalanceException ex = assertThrows(InsufficientBalanceException.class,
+                () -> transferService.initiateTransfer(request));
+        assertEquals("Insufficient balance. Available: ₹10000.00, Required: ₹10005.00", ex.getMessage());
+        
+        entityManager.clear();
+        assertEquals(new BigDecimal("10000.00"),
+                accountRepository.findByUpiId("alice@okaxis").orElseThrow().getBalance());
+        assertEquals(0, transactionRepository.count());
+    }
+    
+    @Test
+    @DisplayName("Should report missing source and destination accounts")
+    void shouldReportMissingAccounts() {
+        TransferRequest unknownSource = TransferRequest.builder()
+                .sourceUPI("nonexistent@fake")
+                .destinationUPI("bob@paytm")
+                .amount(new BigDecimal("100.00"))
+                .build();
+        TransferRequest unknownDestination = TransferRequest.builder()
+                .sourceUPI("alice@okaxis")
+                .destinationUPI("nonexistent@fake")
+                .amount(new BigDecimal("100.00"))
+                .build();
+        
+        AccountNotFoundException source = assertThrows(AccountNotFoundException.class,
+                () -> transferService.initiateTransfer(unknownSource));
+        AccountNotFoundException destination = assertThrows(AccountNotFoundException.class,
+                () -> transferService.initiateTransfer(unknownDestination));
+        
+        assertEquals("Source account not found: nonexistent@fake", source.getMessage());
+        assertEquals("Destination account not found: nonexistent@fake", destination.getMessage());
+    }
+}
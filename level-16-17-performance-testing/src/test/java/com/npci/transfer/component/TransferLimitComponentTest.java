@@ -0,0 +1,106 @@
+package com.npci.transfer.component;
+
+import com.npci.transfer.config.PostgreSQLTestContainer;
+import com.npci.transfer.dto.TransferRequest;
+import com.npci.transfer.entity.Account;
+import com.npci.transfer.exception.LimitExceededException;
+import com.npci.transfer.repository.AccountRepository;
+import com.npci.transfer.repository.TransactionRepository;
+import com.npci.transfer.service.TransferLimitService;
+import com.npci.transfer.service.TransferService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static com.npci.transfer.util.TestDataBuilders.AccountBuilder.anAccount;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Component Tests for daily / monthly transfer limits
+ * 
+ * Not @Transactional: the usage is written back by TransferLimitService.flush()
+ * in a transaction of its own. Counters stay in memory for the whole context,
+ * so every test uses its own source account.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.hikari.auto-commit=false",
+    "spring.jpa.properties.hibernate.connection.provider_disables_autocommit=true"
+})
+@ActiveProfiles("test")
+@DisplayName("Transfer Limit Component Tests - PostgreSQL")
+class TransferLimitComponentTest extends PostgreSQLTestContainer {
+    
+    @Autowired
+    private TransferService transferService;
+    
+    @Autowired
+    private TransferLimitService transferLimitService;
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        
+        accountRepository.save(anAccount().withUpiId("bob@paytm").withDailyLimit("1000.00").build());
+    }
+    
+    @Test
+    @DisplayName("Should reject the transfer that would exceed the daily limit and persist the usage")
+    void shouldEnforceDailyLimit() {
+        // Given - ₹1000 a day, plenty of balance
+        accountRepository.save(anAccount().withUpiId("daily@okaxis").withDailyLimit("1000.00").build());
+        
+        // When
+        transferService.initiateTransfer(transfer("daily@okaxis", "600.00"));
+        assertThrows(LimitExceededException.class,
+            () -> transferService.initiateTransfer(transfer("daily@okaxis", "600.00")));
+        transferService.initiateTransfer(transfer("daily@okaxis", "400.00"));
+        transferLimitService.flush();
+        
+        // Then - usage is written back, the balance change is not lost
+        Account account = accountRepository.findByUpiId("daily@okaxis").orElseThrow();
+        assertEquals(0, new BigDecimal("1000.00").compareTo(account.getDailyUsed()));
+        assertEquals(0, new BigDecimal("1000.00").compareTo(account.getMonthlyUsed()));
+        assertEquals(LocalDate.now(), account.getLimitsDate());
+        assertEquals(0, new BigDecimal("9000.00").compareTo(account.getBalance()));
+    }
+    
+    @Test
+    @DisplayName("Should not count a transfer that failed")
+    void shouldReleaseFailedTransfer() {
+        // Given - only ₹100 of balance
+        Account poor = anAccount().withUpiId("poor@okaxis").withDailyLimit("1000.00").build();
+        poor.setBalance(new BigDecimal("100.00"));
+        accountRepository.save(poor);
+        
+        // When - rejected for balance, so the ₹500 must not use up the limit
+        assertThrows(RuntimeException.class,
+            () -> transferService.initiateTransfer(transfer("poor@okaxis", "500.00")));
+        transferService.initiateTransfer(transfer("poor@okaxis", "100.00"));
+        transferLimitService.flush();
+        
+        // Then
+        Account account = accountRepository.findByUpiId("poor@okaxis").orElseThrow();
+        assertEquals(0, new BigDecimal("100.00").compareTo(account.getDailyUsed()));
+    }
+    
+    private TransferRequest transfer(String from, String amount) {
+        return TransferRequest.builder()
+                .sourceUPI(from)
+                .destinationUPI("bob@paytm")
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+}
@@ -0,0 +1,128 @@
+package com.npci.transfer.config;
+
+import com.npci.transfer.exception.InsufficientBalanceException;
+import com.npci.transfer.metrics.TransferMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Optimistic Retry Config Tests
+ * 
+ * The interceptor around a scripted call: each attempt throws the next
+ * failure, or succeeds once none is left.
+ */
+@DisplayName("Optimistic Retry Config Tests")
+class OptimisticRetryConfigTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Deque<RuntimeException> failures = new ArrayDeque<>();
+    private Supplier<String> call;
+    
+    @BeforeEach
+    void setUp() {
+        TransferProperties transferProperties = new TransferProperties();
+        ProxyFactory proxyFactory = new ProxyFactory((Supplier<String>) this::attempt);
+        proxyFactory.addAdvice(new OptimisticRetryConfig()
+            .optimisticRetryInterceptor(transferProperties, new TransferMetrics(meterRegistry)));
+        @SuppressWarnings("unchecked")
+        Supplier<String> proxy = (Supplier<String>) proxyFactory.getProxy();
+        call = proxy;
+    }
+    
+    @Test
+    @DisplayName("Should count conflicts and the retries that resolved them")
+    void shouldCountConflicts_WhenRetrySucceeds() {
+        // Arrange
+        failures.addAll(List.of(conflict(), conflict()));
+        
+        // Act
+        String result = call.get();
+        
+        // Assert
+        assertThat(result).isEqualTo("done");
+        assertThat(count("transfer.optimistic.conflicts")).isEqualTo(2);
+        assertThat(count("transfer.optimistic.retries")).isEqualTo(2);
+        assertThat(count("transfer.optimistic.exhausted")).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should count a conflict wrapped in another exception")
+    void shouldCountWrappedConflict() {
+        // Arrange
+        failures.add(new IllegalStateException("commit failed", conflict()));
+        
+        // Act
+        call.get();
+        
+        // Assert
+        assertThat(count("transfer.optimistic.conflicts")).isEqualTo(1);
+        assertThat(count("transfer.optimistic.retries")).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should not count other errors as conflicts")
+    void shouldNotCountOtherErrors() {
+        // Arrange
+        failures.add(new InsufficientBalanceException("Insufficient balance"));
+        
+        // Act & Assert
+        assertThatThrownBy(call::get).isInstanceOf(InsufficientBalanceException.class);
+        assertThat(count("transfer.optimistic.conflicts")).isZero();
+        assertThat(count("transfer.optimistic.retries")).isZero();
+        assertThat(count("transfer.optimistic.exhausted")).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should record the retries made when a later attempt fails otherwise")
+    void shouldRecordRetries_WhenLastAttemptFailsOtherwise() {
+        // Arrange
+        failures.addAll(List.of(conflict(), conflict(), new DataAccessResourceFailureException("connection lost")));
+        
+        // Act & Assert
+        assertThatThrownBy(call::get).isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(count("transfer.optimistic.conflicts")).isEqualTo(2);
+        assertThat(count("transfer.optimistic.retries")).isEqualTo(2);
+        assertThat(count("transfer.optimistic.exhausted")).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should count a transfer that ran out of attempts as exhausted")
+    void shouldCountExhausted_WhenEveryAttemptConflicts() {
+        // Arrange: the default budget is four attempts
+        failures.addAll(List.of(conflict(), conflict(), conflict(), conflict()));
+        
+        // Act & Assert
+        assertThatThrownBy(call::get).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(count("transfer.optimistic.conflicts")).isEqualTo(4);
+        assertThat(count("transfer.optimistic.retries")).isEqualTo(3);
+        assertThat(count("transfer.optimistic.exhausted")).isEqualTo(1);
+    }
+    
+    private String attempt() {
+        RuntimeException failure = failures.poll();
+        if (failure != null) {
+            throw failure;
+        }
+        return "done";
+    }
+    
+    private double count(String name) {
+        return meterRegistry.counter(name).count();
+    }
+    
+    private static ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException("Account", 1L);
+    }
+}
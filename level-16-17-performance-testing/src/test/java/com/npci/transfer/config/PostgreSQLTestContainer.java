@@ -33,5 +33,19 @@ public abstract class PostgreSQLTestContainer {
         registry.add("spring.datasource.url", POSTGRES_CONTAINER::getJdbcUrl);
         registry.add("spring.datasource.username", POSTGRES_CONTAINER::getUsername);
         registry.add("spring.datasource.password", POSTGRES_CONTAINER::getPassword);
+        registry.add("spring.r2dbc.url", () -> String.format("r2dbc:postgresql://%s:%d/%s",
+            POSTGRES_CONTAINER.getHost(),
+            POSTGRES_CONTAINER.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT),
+            POSTGRES_CONTAINER.getDatabaseName()));
+        registry.add("spring.r2dbc.username", POSTGRES_CONTAINER::getUsername);
+        registry.add("spring.r2dbc.password", POSTGRES_CONTAINER::getPassword);
+    }
+    
+    /**
+     * Plain JDBC access to the container, for tests that bring their own
+     * schema instead of a Spring context.
+     */
+    protected static PostgreSQLContainer<?> postgres() {
+        return POSTGRES_CONTAINER;
     }
 }
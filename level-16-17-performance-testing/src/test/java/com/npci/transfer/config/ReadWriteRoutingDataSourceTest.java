@@ -0,0 +1,117 @@
+package com.npci.transfer.config;
+
+import com.npci.transfer.metrics.TransferMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Read/Write Routing DataSource Tests
+ * 
+ * Sets the transaction's read-only flag by hand, as the transaction
+ * manager does once the transaction has begun.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Read/Write Routing DataSource Tests")
+class ReadWriteRoutingDataSourceTest {
+    
+    private static final Duration BUDGET = Duration.ofMillis(500);
+    
+    @Mock
+    private ReplicaLagMonitor replicaLagMonitor;
+    
+    @Mock
+    private DataSource primary;
+    
+    @Mock
+    private DataSource replica;
+    
+    private SimpleMeterRegistry meterRegistry;
+    private ReadWriteRoutingDataSource routing;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        when(replicaLagMonitor.getReplicas())
+            .thenReturn(List.of(new ReplicaLagMonitor.Replica("replica-1", replica, null)));
+        routing = new ReadWriteRoutingDataSource(primary, replicaLagMonitor, new TransferMetrics(meterRegistry));
+        routing.afterPropertiesSet();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+    
+    @Test
+    @DisplayName("Should send a read-only transaction under a staleness budget to a replica")
+    void shouldRouteToReplica_WhenReadOnlyWithBudget() {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replicaLagMonitor.pickReplica(BUDGET)).thenReturn(Optional.of("replica-1"));
+        
+        // Act
+        Object key = ReplicaRouting.withStalenessBudget(BUDGET, routing::determineCurrentLookupKey);
+        
+        // Assert
+        assertThat(key).isEqualTo("replica-1");
+        assertThat(routing.getResolvedDataSources()).containsEntry("replica-1", replica);
+        assertThat(meterRegistry.get("transfer.replica.reads").tag("replica", "replica-1").counter().count())
+            .isEqualTo(1.0);
+    }
+    
+    @Test
+    @DisplayName("Should use the primary, and count a fallback, when no replica is within budget")
+    void shouldFallBackToPrimary_WhenNoReplicaWithinBudget() {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replicaLagMonitor.pickReplica(BUDGET)).thenReturn(Optional.empty());
+        
+        // Act
+        Object key = ReplicaRouting.withStalenessBudget(BUDGET, routing::determineCurrentLookupKey);
+        
+        // Assert
+        assertThat(key).isNull();
+        assertThat(routing.getResolvedDefaultDataSource()).isSameAs(primary);
+        assertThat(meterRegistry.get("transfer.replica.fallbacks").counter().count()).isEqualTo(1.0);
+    }
+    
+    @Test
+    @DisplayName("Should keep read-write transactions on the primary, budget or not")
+    void shouldUsePrimary_WhenNotReadOnly() {
+        // Act
+        Object key = ReplicaRouting.withStalenessBudget(BUDGET, routing::determineCurrentLookupKey);
+        
+        // Assert
+        assertThat(key).isNull();
+        verify(replicaLagMonitor, never()).pickReplica(any());
+    }
+    
+    @Test
+    @DisplayName("Should keep read-only transactions without a staleness budget on the primary")
+    void shouldUsePrimary_WhenNoBudgetDeclared() {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        
+        // Act
+        Object key = routing.determineCurrentLookupKey();
+        
+        // Assert
+        assertThat(key).isNull();
+        verify(replicaLagMonitor, never()).pickReplica(any());
+    }
+}
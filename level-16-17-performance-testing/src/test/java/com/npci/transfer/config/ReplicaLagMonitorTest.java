@@ -0,0 +1,157 @@
+package com.npci.transfer.config;
+
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.util.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Replica Lag Monitor Tests
+ * 
+ * Replica lag comes from mocked JdbcTemplates; the lag query itself runs in
+ * ReplicaRoutingComponentTest.
+ */
+@DisplayName("Replica Lag Monitor Tests")
+class ReplicaLagMonitorTest {
+    
+    private static final Duration INTERVAL = Duration.ofSeconds(1);
+    
+    private final JdbcTemplate first = mock(JdbcTemplate.class);
+    private final JdbcTemplate second = mock(JdbcTemplate.class);
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-12-20T10:00:00Z"));
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaLagMonitor monitor;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new ReplicaLagMonitor(List.of(
+                new ReplicaLagMonitor.Replica("replica-1", mock(DataSource.class), first),
+                new ReplicaLagMonitor.Replica("replica-2", mock(DataSource.class), second)),
+            INTERVAL, new TransferMetrics(meterRegistry), clock);
+    }
+    
+    @Test
+    @DisplayName("Should only pick replicas within the staleness budget")
+    void shouldSkipReplica_WhenLaggingPastBudget() {
+        // Arrange
+        lag(first, 100.0);
+        lag(second, 3_000.0);
+        
+        // Act
+        monitor.checkLag();
+        
+        // Assert
+        assertThat(monitor.pickReplica(Duration.ofMillis(500))).contains("replica-1");
+        assertThat(monitor.pickReplica(Duration.ofMillis(50))).isEmpty();
+        assertThat(meterRegistry.get("transfer.replica.lag").tag("replica", "replica-2").timeGauge()
+            .value(TimeUnit.MILLISECONDS)).isEqualTo(3_000.0);
+    }
+    
+    @Test
+    @DisplayName("Should spread reads over every replica within budget")
+    void shouldRoundRobin_AcrossUsableReplicas() {
+        // Arrange
+        lag(first, 0.0);
+        lag(second, 0.0);
+        monitor.checkLag();
+        
+        // Act
+        List<String> picked = IntStream.range(0, 4)
+            .mapToObj(i -> monitor.pickReplica(Duration.ofMillis(500)).orElseThrow())
+            .toList();
+        
+        // Assert
+        assertThat(picked).containsExactly("replica-1", "replica-2", "replica-1", "replica-2");
+    }
+    
+    @Test
+    @DisplayName("Should take a replica out when its lag check fails or its lag is unknown")
+    void shouldSkipReplica_WhenLagUnknown() {
+        // Arrange
+        lag(first, 0.0);
+        lag(second, 0.0);
+        monitor.checkLag();
+        when(first.queryForObject(anyString(), eq(Double.class)))
+            .thenThrow(new DataAccessResourceFailureException("connection refused"));
+        lag(second, -1.0);
+        
+        // Act
+        monitor.checkLag();
+        
+        // Assert
+        assertThat(monitor.pickReplica(Duration.ofHours(1))).isEmpty();
+        assertThat(meterRegistry.get("transfer.replica.lag.check.failures").tag("replica", "replica-1")
+            .counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("transfer.replica.lag").tag("replica", "replica-2").timeGauge()
+            .value(TimeUnit.MILLISECONDS)).isNaN();
+    }
+    
+    @Test
+    @DisplayName("Should count the time since the last check against the budget")
+    void shouldSkipReplica_WhenLagPlusCheckAgeExceedsBudget() {
+        // Arrange
+        lag(first, 100.0);
+        lag(second, 300.0);
+        monitor.checkLag();
+        
+        // Act
+        clock.advance(Duration.ofMillis(300));
+        
+        // Assert
+        assertThat(monitor.pickReplica(Duration.ofMillis(500))).contains("replica-1");
+        assertThat(monitor.pickReplica(Duration.ofMillis(500))).contains("replica-1");
+        clock.advance(Duration.ofMillis(101));
+        assertThat(monitor.pickReplica(Duration.ofMillis(500))).isEmpty();
+    }
+    
+    @Test
+    @DisplayName("Should pick no replica before the first lag check")
+    void shouldPickNothing_BeforeFirstCheck() {
+        assertThat(monitor.pickReplica(Duration.ofHours(1))).isEmpty();
+    }
+    
+    @Test
+    @DisplayName("Should check lag on a thread of its own once started")
+    void shouldCheckLagOnOwnThread_WhenStarted() throws Exception {
+        // Arrange
+        CompletableFuture<String> checkedOn = new CompletableFuture<>();
+        when(first.queryForObject(anyString(), eq(Double.class))).thenAnswer(invocation -> {
+            checkedOn.complete(Thread.currentThread().getName());
+            return 0.0;
+        });
+        lag(second, 0.0);
+        
+        // Act
+        monitor.start();
+        try {
+            // Assert
+            assertThat(checkedOn.get(5, TimeUnit.SECONDS)).isEqualTo("replica-lag-check");
+            assertThat(monitor.isRunning()).isTrue();
+        } finally {
+            monitor.stop();
+        }
+        assertThat(monitor.isRunning()).isFalse();
+    }
+    
+    private static void lag(JdbcTemplate replica, double millis) {
+        when(replica.queryForObject(anyString(), eq(Double.class))).thenReturn(millis);
+    }
+}
@@ -0,0 +1,55 @@
+package com.npci.transfer.config;
+
+import com.npci.transfer.id.SnowflakeTransactionIdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Transaction ID Config Tests
+ */
+@DisplayName("Transaction ID Config Tests")
+class TransactionIdConfigTest {
+    
+    private final TransactionIdConfig config = new TransactionIdConfig();
+    private TransferProperties transferProperties;
+    
+    @BeforeEach
+    void setUp() {
+        transferProperties = new TransferProperties();
+        transferProperties.getPartitioning().setEnabled(true);
+    }
+    
+    @Test
+    @DisplayName("Should refuse to start partitioned without an explicit node ID")
+    void shouldFail_WhenPartitionedWithoutNodeId() {
+        assertThatThrownBy(() -> config.transactionIdGenerator(transferProperties))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("transfer.id.node-id");
+    }
+    
+    @Test
+    @DisplayName("Should refuse to start partitioned with random transaction IDs")
+    void shouldFail_WhenPartitionedWithRandomIds() {
+        // Arrange
+        transferProperties.getId().setStrategy(TransactionIdStrategy.RANDOM);
+        transferProperties.getId().setNodeId(1);
+        
+        // Act & Assert
+        assertThatThrownBy(() -> config.transactionIdGenerator(transferProperties))
+            .isInstanceOf(IllegalStateException.class);
+    }
+    
+    @Test
+    @DisplayName("Should start partitioned with snowflake IDs and a node ID")
+    void shouldCreateSnowflakeGenerator_WhenPartitionedWithNodeId() {
+        // Arrange
+        transferProperties.getId().setNodeId(7);
+        
+        // Act & Assert
+        assertThat(config.transactionIdGenerator(transferProperties))
+            .isInstanceOf(SnowflakeTransactionIdGenerator.class);
+    }
+}
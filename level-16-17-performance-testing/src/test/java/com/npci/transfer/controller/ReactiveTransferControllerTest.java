@@ -0,0 +1,166 @@
+package com.npci.transfer.controller;
+
+import com.npci.transfer.dto.TransferResponse;
+import com.npci.transfer.exception.AccountNotFoundException;
+import com.npci.transfer.exception.InsufficientBalanceException;
+import com.npci.transfer.money.Money;
+import com.npci.transfer.service.ReactiveTransferService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Reactive Controller Layer Tests
+ * 
+ * Same HTTP contract as TransferControllerTest, on WebFlux: status codes,
+ * response mapping and the GlobalExceptionHandler error bodies.
+ */
+@WebFluxTest(ReactiveTransferController.class)
+@DisplayName("Reactive Transfer Controller Tests")
+class ReactiveTransferControllerTest {
+    
+    private static final String TRANSFER_BODY = """
+        {
+            "sourceUPI": "alice@okaxis",
+            "destinationUPI": "bob@paytm",
+            "amount": 1500
+        }
+        """;
+    
+    @Autowired
+    private WebTestClient webTestClient;
+    
+    @MockBean
+    private ReactiveTransferService reactiveTransferService;
+    
+    @Test
+    @DisplayName("Should return 200 OK when transfer is successful")
+    void shouldReturn200_WhenTransferSuccessful() {
+        // Arrange
+        TransferResponse response = TransferResponse.builder()
+            .transactionId("TXN-20241220-123457")
+            .status("SUCCESS")
+            .sourceUPI("alice@okaxis")
+            .destinationUPI("bob@paytm")
+            .amount(Money.of("1500"))
+            .fee(Money.of("5.00"))
+            .totalDebited(Money.of("1505.00"))
+            .timestamp(LocalDateTime.now())
+            .build();
+        
+        when(reactiveTransferService.initiateTransfer(any()))
+            .thenReturn(Mono.just(response));
+        
+        // Act & Assert
+        postTransfer(TRANSFER_BODY)
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.transactionId").isEqualTo("TXN-20241220-123457")
+            .jsonPath("$.status").isEqualTo("SUCCESS")
+            .jsonPath("$.fee").isEqualTo(5.00)
+            .jsonPath("$.totalDebited").isEqualTo(1505.00);
+    }
+    
+    @Test
+    @DisplayName("Should return 400 Validation Error when source UPI is missing")
+    void shouldReturn400_WhenSourceUPIMissing() {
+        postTransfer("""
+                {
+                    "destinationUPI": "bob@paytm",
+                    "amount": 500
+                }
+                """)
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("Validation Error")
+            .jsonPath("$.validationErrors.sourceUPI").exists();
+        
+        verifyNoInteractions(reactiveTransferService);
+    }
+    
+    @Test
+    @DisplayName("Should return 404 Not Found when account not found")
+    void shouldReturn404_WhenAccountNotFound() {
+        // Arrange
+        when(reactiveTransferService.initiateTransfer(any()))
+            .thenReturn(Mono.error(new AccountNotFoundException("Account not found")));
+        
+        // Act & Assert
+        postTransfer(TRANSFER_BODY)
+            .expectStatus().isNotFound()
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("Account Not Found")
+            .jsonPath("$.message").isEqualTo("Account not found")
+            .jsonPath("$.status").isEqualTo(404);
+    }
+    
+    @Test
+    @DisplayName("Should return 400 Bad Request when insufficient balance")
+    void shouldReturn400_WhenInsufficientBalance() {
+        // Arrange
+        when(reactiveTransferService.initiateTransfer(any()))
+            .thenReturn(Mono.error(new InsufficientBalanceException("Insufficient balance")));
+        
+        // Act & Assert
+        postTransfer(TRANSFER_BODY)
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("Insufficient Balance")
+            .jsonPath("$.message").isEqualTo("Insufficient balance");
+    }
+    
+    @Test
+    @DisplayName("Should return 500 Internal Server Error when unexpected error occurs")
+    void shouldReturn500_WhenUnexpectedErrorOccurs() {
+        // Arrange
+        when(reactiveTransferService.initiateTransfer(any()))
+            .thenReturn(Mono.error(new RuntimeException("Unexpected error")));
+        
+        // Act & Assert
+        postTransfer(TRANSFER_BODY)
+            .expectStatus().is5xxServerError()
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("Internal Server Error")
+            .jsonPath("$.status").isEqualTo(500);
+    }
+    
+    @Test
+    @DisplayName("Should return 415 Unsupported Media Type when content type is not JSON")
+    void shouldReturn415_WhenContentTypeNotJSON() {
+        webTestClient.post().uri("/v1/transfers")
+            .contentType(MediaType.TEXT_PLAIN)
+            .bodyValue("plain text")
+            .exchange()
+            .expectStatus().isEqualTo(415)
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("Unsupported Media Type");
+    }
+    
+    @Test
+    @DisplayName("Should return 200 OK for health check")
+    void shouldReturn200_ForHealthCheck() {
+        webTestClient.get().uri("/v1/health")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.status").isEqualTo("UP")
+            .jsonPath("$.timestamp").exists();
+    }
+    
+    private WebTestClient.ResponseSpec postTransfer(String body) {
+        return webTestClient.post().uri("/v1/transfers")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(body)
+            .exchange();
+    }
+}
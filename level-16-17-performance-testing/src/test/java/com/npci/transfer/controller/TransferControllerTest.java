@@ -1,8 +1,17 @@
 package com.npci.transfer.controller;
 
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.dto.BatchTransferResponse;
+import com.npci.transfer.dto.BatchTransferResult;
+import com.npci.transfer.dto.TransactionHistoryRequest;
+import com.npci.transfer.dto.TransactionHistoryResponse;
 import com.npci.transfer.dto.TransferRequest;
 import com.npci.transfer.dto.TransferResponse;
 import com.npci.transfer.exception.*;
+import com.npci.transfer.money.Money;
+import com.npci.transfer.service.BatchTransferService;
+import com.npci.transfer.service.IdempotencyService;
+import com.npci.transfer.service.TransactionHistoryService;
 import com.npci.transfer.service.TransferService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -10,15 +19,18 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -40,6 +52,7 @@ import static org.hamcrest.Matchers.*;
  * - Database access (tested in RepositoryTest)
  */
 @WebMvcTest(TransferController.class)
+@EnableConfigurationProperties(TransferProperties.class)
 @DisplayName("Transfer Controller Tests")
 class TransferControllerTest {
     
@@ -52,6 +65,15 @@ class TransferControllerTest {
     @MockBean
     private TransferService transferService;
     
+    @MockBean
+    private BatchTransferService batchTransferService;
+    
+    @MockBean
+    private IdempotencyService idempotencyService;
+    
+    @MockBean
+    private TransactionHistoryService transactionHistoryService;
+    
     // ========== Happy Path Tests ==========
     
     @Test
@@ -63,9 +85,9 @@ class TransferControllerTest {
             .status("SUCCESS")
             .sourceUPI("alice@okaxis")
             .destinationUPI("bob@paytm")
-            .amount(new BigDecimal("500"))
-            .fee(BigDecimal.ZERO)
-            .totalDebited(new BigDecimal("500"))
+            .amount(Money.of("500"))
+            .fee(Money.ZERO)
+            .totalDebited(Money.of("500"))
             .timestamp(LocalDateTime.now())
             .remarks("Test transfer")
             .build();
@@ -106,9 +128,9 @@ class TransferControllerTest {
             .status("SUCCESS")
             .sourceUPI("alice@okaxis")
             .destinationUPI("bob@paytm")
-            .amount(new BigDecimal("1500"))
-            .fee(new BigDecimal("5.00"))
-            .totalDebited(new BigDecimal("1505.00"))
+            .amount(Money.of("1500"))
+            .fee(Money.of("5.00"))
+            .totalDebited(Money.of("1505.00"))
             .timestamp(LocalDateTime.now())
             .build();
         
@@ -291,6 +313,28 @@ class TransferControllerTest {
             .andExpect(jsonPath("$.message").value("Insufficient balance"));
     }
     
+    @Test
+    @DisplayName("Should return 400 Bad Request when a limit would be exceeded")
+    void shouldReturn400_WhenLimitExceeded() throws Exception {
+        // Arrange
+        when(transferService.initiateTransfer(any()))
+            .thenThrow(new LimitExceededException("Daily limit exceeded"));
+        
+        // Act & Assert
+        mockMvc.perform(post("/v1/transfers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                        "sourceUPI": "alice@okaxis",
+                        "destinationUPI": "bob@paytm",
+                        "amount": 10000
+                    }
+                    """))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("Limit Exceeded"))
+            .andExpect(jsonPath("$.message").value("Daily limit exceeded"));
+    }
+    
     @Test
     @DisplayName("Should return 400 Bad Request when transfer is invalid")
     void shouldReturn400_WhenTransferInvalid() throws Exception {
@@ -335,6 +379,346 @@ class TransferControllerTest {
             .andExpect(jsonPath("$.status").value(500));
     }
     
+    // ========== Async Transfer Tests ==========
+    
+    @Test
+    @DisplayName("Should return 202 Accepted with Location when transfer is PENDING")
+    void shouldReturn202_WhenTransferPending() throws Exception {
+        // Arrange
+        TransferResponse response = TransferResponse.builder()
+            .transactionId("TXN-20241220-123457")
+            .status("PENDING")
+            .sourceUPI("alice@okaxis")
+            .destinationUPI("bob@paytm")
+            .amount(Money.of("500"))
+            .fee(Money.ZERO)
+            .totalDebited(Money.of("500"))
+            .build();
+        
+        when(transferService.initiateTransfer(any()))
+            .thenReturn(response);
+        
+        // Act & Assert
+        mockMvc.perform(post("/v1/transfers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                        "sourceUPI": "alice@okaxis",
+                        "destinationUPI": "bob@paytm",
+                        "amount": 500
+                    }
+                    """))
+            .andExpect(status().isAccepted())
+            .andExpect(header().string("Location", "/v1/transactions/TXN-20241220-123457"))
+            .andExpect(jsonPath("$.status").value("PENDING"))
+            .andExpect(jsonPath("$.errorCode").doesNotExist());
+    }
+    
+    @Test
+    @DisplayName("Should return a FAILED transaction with its error code")
+    void shouldReturnTransaction_WithErrorCode() throws Exception {
+        // Arrange
+        TransferResponse response = TransferResponse.builder()
+            .transactionId("TXN-20241220-123457")
+            .status("FAILED")
+            .amount(Money.of("500"))
+            .totalDebited(Money.ZERO)
+            .errorCode("INSUFFICIENT_BALANCE")
+            .build();
+        
+        when(transferService.getTransfer("TXN-20241220-123457"))
+            .thenReturn(response);
+        
+        // Act & Assert
+        mockMvc.perform(get("/v1/transactions/TXN-20241220-123457"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("FAILED"))
+            .andExpect(jsonPath("$.errorCode").value("INSUFFICIENT_BALANCE"));
+    }
+    
+    @Test
+    @DisplayName("Should let clients and proxies cache a terminal transaction")
+    void shouldSendETagAndMaxAge_WhenTransactionTerminal() throws Exception {
+        // Arrange
+        when(transferService.getTransfer("TXN-20241220-123456"))
+            .thenReturn(TransferResponse.builder().transactionId("TXN-20241220-123456").status("SUCCESS").build());
+        
+        // Act & Assert
+        mockMvc.perform(get("/v1/transactions/TXN-20241220-123456"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"TXN-20241220-123456-SUCCESS\""))
+            .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"));
+    }
+    
+    @Test
+    @DisplayName("Should return 304 Not Modified when the client already has the terminal transaction")
+    void shouldReturn304_WhenETagMatches() throws Exception {
+        // Arrange
+        when(transferService.getTransfer("TXN-20241220-123456"))
+            .thenReturn(TransferResponse.builder().transactionId("TXN-20241220-123456").status("SUCCESS").build());
+        
+        // Act & Assert
+        mockMvc.perform(get("/v1/transactions/TXN-20241220-123456")
+                .header("If-None-Match", "\"TXN-20241220-123456-SUCCESS\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+    
+    @Test
+    @DisplayName("Should forbid caching a PENDING transaction")
+    void shouldSendNoStore_WhenTransactionPending() throws Exception {
+        // Arrange
+        when(transferService.getTransfer("TXN-20241220-123457"))
+            .thenReturn(TransferResponse.builder().transactionId("TXN-20241220-123457").status("PENDING").build());
+        
+        // Act & Assert
+        mockMvc.perform(get("/v1/transactions/TXN-20241220-123457"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Cache-Control", "no-store"))
+            .andExpect(header().doesNotExist("ETag"));
+    }
+    
+    @Test
+    @DisplayName("Should return 404 Not Found when transaction not found")
+    void shouldReturn404_WhenTransactionNotFound() throws Exception {
+        // Arrange
+        when(transferService.getTransfer("TXN-UNKNOWN"))
+            .thenThrow(new TransactionNotFoundException("Transaction not found: TXN-UNKNOWN"));
+        
+        // Act & Assert
+        mockMvc.perform(get("/v1/transactions/TXN-UNKNOWN"))
+            .andExpect(status().isNotFound())
+            .andExpect(jsonPath("$.error").value("Transaction Not Found"));
+    }
+    
+    // ========== Idempotency Tests ==========
+    
+    @Test
+    @DisplayName("Should mark a response replayed for an Idempotency-Key")
+    void shouldMarkReplayedResponse_WhenIdempotencyKeyReplayed() throws Exception {
+        // Arrange
+        TransferResponse response = TransferResponse.builder()
+            .transactionId("TXN-20241220-123457")
+            .status("SUCCESS")
+            .amount(Money.of("500"))
+            .build();
+        
+        when(idempotencyService.execute(eq("retry-42"), any(), any()))
+            .thenReturn(new IdempotencyService.Outcome(response, true));
+        
+        // Act & Assert
+        mockMvc.perform(post("/v1/transfers")
+                .header("Idempotency-Key", "retry-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                        "sourceUPI": "alice@okaxis",
+                        "destinationUPI": "bob@paytm",
+                        "amount": 500
+                    }
+                    """))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Idempotent-Replayed", "true"))
+            .andExpect(jsonPath("$.transactionId").value("TXN-20241220-123457"));
+        
+        verifyNoInteractions(transferService);
+    }
+    
+    @Test
+    @DisplayName("Should not use idempotency without an Idempotency-Key")
+    void shouldExecuteDirectly_WithoutIdempotencyKey() throws Exception {
+        // Arrange
+        when(transferService.initiateTransfer(any()))
+            .thenReturn(TransferResponse.builder().transactionId("TXN-123").status("SUCCESS").build());
+        
+        // Act & Assert
+        mockMvc.perform(post("/v1/transfers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                        "sourceUPI": "alice@okaxis",
+                        "destinationUPI": "bob@paytm",
+                        "amount": 500
+                    }
+                    """))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("Idempotent-Replayed"));
+        
+        verifyNoInteractions(idempotencyService);
+    }
+    
+    @Test
+    @DisplayName("Should return 422 when an Idempotency-Key is reused for another transfer")
+    void shouldReturn422_WhenIdempotencyKeyReused() throws Exception {
+        // Arrange
+        when(idempotencyService.execute(eq("retry-42"), any(), any()))
+            .thenThrow(new IdempotencyKeyReusedException("Idempotency-Key retry-42 was already used"));
+        
+        // Act & Assert
+        mockMvc.perform(post("/v1/transfers")
+                .header("Idempotency-Key", "retry-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                        "sourceUPI": "alice@okaxis",
+                        "destinationUPI": "bob@paytm",
+                        "amount": 700
+                    }
+                    """))
+            .andExpect(status().isUnprocessableEntity())
+            .andExpect(jsonPath("$.error").value("Idempotency Key Reused"));
+    }
+    
+    // ========== Batch Transfer Tests ==========
+    
+    @Test
+    @DisplayName("Should return per-item results for a batch transfer")
+    void shouldReturnPerItemResults_ForBatchTransfer() throws Exception {
+        // Arrange
+        BatchTransferResponse response = BatchTransferResponse.builder()
+            .succeeded(1)
+            .failed(1)
+            .results(List.of(
+                BatchTransferResult.builder()
+                    .index(0)
+                    .transfer(TransferResponse.builder().transactionId("TXN-1").status("SUCCESS").build())
+                    .build(),
+                BatchTransferResult.builder()
+                    .index(1)
+                    .error(ErrorResponse.builder().status(400).error("Insufficient Balance").build())
+                    .build()))
+            .build();
+        
+        when(batchTransferService.transferBatch(anyList()))
+            .thenReturn(response);
+        
+        // Act & Assert
+        mockMvc.perform(post("/v1/transfers/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                        "transfers": [
+                            {"sourceUPI": "alice@okaxis", "destinationUPI": "bob@paytm", "amount": 500},
+                            {"sourceUPI": "poor@okaxis", "destinationUPI": "bob@paytm", "amount": 500}
+                        ]
+                    }
+                    """))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.succeeded").value(1))
+            .andExpect(jsonPath("$.results[0].transfer.transactionId").value("TXN-1"))
+            .andExpect(jsonPath("$.results[0].error").doesNotExist())
+            .andExpect(jsonPath("$.results[1].error.error").value("Insufficient Balance"));
+    }
+    
+    @Test
+    @DisplayName("Should pass an invalid batch item on, to be reported in its own result")
+    void shouldNotRejectBatch_WhenOneItemInvalid() throws Exception {
+        // Arrange
+        when(batchTransferService.transferBatch(anyList()))
+            .thenReturn(BatchTransferResponse.builder().succeeded(1).failed(1).results(List.of()).build());
+        
+        // Act & Assert
+        mockMvc.perform(post("/v1/transfers/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                        "transfers": [
+                            {"sourceUPI": "alice@okaxis", "destinationUPI": "bob@paytm", "amount": 500},
+                            {"sourceUPI": "alice@okaxis", "destinationUPI": "bob@paytm"}
+                        ]
+                    }
+                    """))
+            .andExpect(status().isOk());
+        
+        verify(batchTransferService).transferBatch(argThat(transfers -> transfers.size() == 2));
+    }
+    
+    @Test
+    @DisplayName("Should return 400 Validation Error for an empty batch")
+    void shouldReturn400_WhenBatchEmpty() throws Exception {
+        mockMvc.perform(post("/v1/transfers/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"transfers": []}
+                    """))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("Validation Error"))
+            .andExpect(jsonPath("$.validationErrors.transfers").exists());
+        
+        verifyNoInteractions(batchTransferService);
+    }
+    
+    // ========== Transaction History Tests ==========
+    
+    @Test
+    @DisplayName("Should return a history page with the cursor for the next one")
+    void shouldReturnHistoryPage() throws Exception {
+        // Arrange
+        TransferResponse transfer = TransferResponse.builder()
+            .transactionId("TXN-20241220-123456")
+            .status("SUCCESS")
+            .sourceUPI("alice@okaxis")
+            .destinationUPI("bob@paytm")
+            .amount(Money.of("500"))
+            .build();
+        when(transactionHistoryService.getHistory(any())).thenReturn(TransactionHistoryResponse.builder()
+            .content(List.of(transfer))
+            .size(1)
+            .nextCursor("MjAyNC0xMi0yMFQxMDozMDo0NS9UWE4tMQ")
+            .build());
+        
+        // Act & Assert
+        mockMvc.perform(get("/v1/transactions")
+                .param("upiId", "alice@okaxis")
+                .param("size", "1")
+                .param("status", "SUCCESS")
+                .param("fromDate", "2024-12-01T00:00:00Z"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].transactionId").value("TXN-20241220-123456"))
+            .andExpect(jsonPath("$.content[0].amount").value(500.00))
+            .andExpect(jsonPath("$.nextCursor").value("MjAyNC0xMi0yMFQxMDozMDo0NS9UWE4tMQ"));
+        
+        verify(transactionHistoryService).getHistory(argThat((TransactionHistoryRequest request) ->
+            request.getUpiId().equals("alice@okaxis")
+                && request.getSize() == 1
+                && !request.isAscending()
+                && request.getFromDate().equals(LocalDateTime.of(2024, 12, 1, 0, 0))));
+    }
+    
+    @ParameterizedTest
+    @CsvSource({
+        "size, 101",
+        "page, 2",
+        "sort, 'amount,desc'",
+        "status, DONE",
+        "fromDate, yesterday",
+        "upiId, ''"
+    })
+    @DisplayName("Should return 400 Validation Error for invalid history parameters")
+    void shouldReturn400_WhenHistoryParameterInvalid(String parameter, String value) throws Exception {
+        mockMvc.perform(get("/v1/transactions")
+                .param("upiId", "alice@okaxis")
+                .param(parameter, value))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("Validation Error"))
+            .andExpect(jsonPath("$.validationErrors." + parameter).exists());
+        
+        verifyNoInteractions(transactionHistoryService);
+    }
+    
+    @Test
+    @DisplayName("Should return 400 Invalid Cursor for a cursor the service did not issue")
+    void shouldReturn400_WhenCursorInvalid() throws Exception {
+        when(transactionHistoryService.getHistory(any()))
+            .thenThrow(new InvalidCursorException("Invalid cursor: abc"));
+        
+        mockMvc.perform(get("/v1/transactions")
+                .param("upiId", "alice@okaxis")
+                .param("cursor", "abc"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("Invalid Cursor"));
+    }
+    
     // ========== Health Endpoint Tests ==========
     
     @Test
@@ -366,7 +750,7 @@ class TransferControllerTest {
         TransferResponse response = TransferResponse.builder()
             .transactionId("TXN-123")
             .status("SUCCESS")
-            .amount(new BigDecimal("500"))
+            .amount(Money.of("500"))
             .build();
         
         when(transferService.initiateTransfer(any()))
@@ -392,7 +776,7 @@ class TransferControllerTest {
         TransferResponse response = TransferResponse.builder()
             .transactionId("TXN-123")
             .status("SUCCESS")
-            .amount(new BigDecimal("500"))
+            .amount(Money.of("500"))
             .remarks("Lunch payment")
             .build();
         
@@ -0,0 +1,200 @@
+package com.npci.transfer.fee;
+
+import com.npci.transfer.entity.FeeRule;
+import com.npci.transfer.money.Money;
+import com.npci.transfer.upi.UpiHandle;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Fee Schedule Tests
+ */
+@DisplayName("Fee Schedule Tests")
+class FeeScheduleTest {
+    
+    private static final int NOON = 12 * 60;
+    
+    private static FeeRule.FeeRuleBuilder rule(long id, String fixedFee) {
+        return FeeRule.builder().id(id).fixedFee(Money.of(fixedFee));
+    }
+    
+    @ParameterizedTest
+    @CsvSource({
+        "1, 0.00",
+        "1000, 0.00",
+        "1000.01, 5.00",
+        "100000, 5.00"
+    })
+    @DisplayName("Should charge the default ₹5 over ₹1,000")
+    void shouldKeepDefaultRule(String amount, String fee) {
+        assertThat(FeeSchedule.DEFAULT.fee(Money.of(amount), UpiHandle.of("bob@paytm"), null, NOON)).isEqualTo(Money.of(fee));
+    }
+    
+    @ParameterizedTest
+    @CsvSource({
+        "0.01, 0.00",
+        "499.99, 0.00",
+        "500, 1.00",
+        "2000, 1.00",
+        "2000.01, 4.00",
+        "25000, 4.00",
+        "25000.01, 0.00"
+    })
+    @DisplayName("Should find the slab an amount falls in, both ends inclusive")
+    void shouldFindSlab(String amount, String fee) {
+        // Arrange
+        FeeSchedule schedule = FeeSchedule.compile(List.of(
+            rule(1, "1.00").minAmount(Money.of("500")).maxAmount(Money.of("2000")).build(),
+            rule(2, "4.00").minAmount(Money.of("2000.01")).maxAmount(Money.of("25000")).build()));
+        
+        // Act
+        Money actual = schedule.fee(Money.of(amount), UpiHandle.of("bob@paytm"), null, NOON);
+        
+        // Assert
+        assertThat(actual).isEqualTo(Money.of(fee));
+    }
+    
+    @Test
+    @DisplayName("Should prefer higher priority, then more conditions, then lower id")
+    void shouldRankRules() {
+        // Arrange
+        FeeSchedule schedule = FeeSchedule.compile(List.of(
+            rule(1, "5.00").build(),
+            rule(2, "3.00").payeeHandle("paytm").build(),
+            rule(3, "2.00").payeeHandle("paytm").build(),
+            rule(4, "9.00").priority(1).minAmount(Money.of("10000")).build()));
+        
+        // Act & Assert
+        assertThat(schedule.fee(Money.of("500"), UpiHandle.of("bob@ybl"), null, NOON)).isEqualTo(Money.of("5.00"));
+        assertThat(schedule.fee(Money.of("500"), UpiHandle.of("bob@paytm"), null, NOON)).isEqualTo(Money.of("3.00"));
+        assertThat(schedule.fee(Money.of("10000"), UpiHandle.of("bob@paytm"), null, NOON)).isEqualTo(Money.of("9.00"));
+    }
+    
+    @Test
+    @DisplayName("Should match the payee handle ignoring case, and nothing without one")
+    void shouldMatchPayeeHandle() {
+        // Arrange
+        FeeSchedule schedule = FeeSchedule.compile(List.of(
+            rule(1, "0.50").payeeHandle("@OkAxis").build(),
+            rule(2, "1.50").payeeHandle("ybl").build()));
+        
+        // Act & Assert
+        assertThat(schedule.fee(Money.of("100"), UpiHandle.of("bob@okaxis"), null, NOON)).isEqualTo(Money.of("0.50"));
+        assertThat(schedule.fee(Money.of("100"), UpiHandle.of("bob@OKAXIS"), null, NOON)).isEqualTo(Money.of("0.50"));
+        assertThat(schedule.fee(Money.of("100"), UpiHandle.of("bob@ybl"), null, NOON)).isEqualTo(Money.of("1.50"));
+        assertThat(schedule.fee(Money.of("100"), UpiHandle.of("bob@okaxi"), null, NOON)).isEqualTo(Money.ZERO);
+        assertThat(schedule.fee(Money.of("100"), UpiHandle.of("okaxis"), null, NOON)).isEqualTo(Money.ZERO);
+        assertThat(schedule.fee(Money.of("100"), UpiHandle.OTHER, null, NOON)).isEqualTo(Money.ZERO);
+    }
+    
+    @Test
+    @DisplayName("Should tell each of many handles apart")
+    void shouldTellManyHandlesApart() {
+        // Arrange
+        List<FeeRule> rules = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            rules.add(rule(i, "0.00").payeeHandle("bank" + i).fixedFee(Money.ofPaise(i)).build());
+        }
+        FeeSchedule schedule = FeeSchedule.compile(rules);
+        
+        // Act & Assert
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(schedule.feePaise(100_00, UpiHandle.of("user@bank" + i), null, NOON)).isEqualTo(i);
+        }
+        assertThat(schedule.feePaise(100_00, UpiHandle.of("user@bank1000"), null, NOON)).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should match the payer's tier and report that tiers are used")
+    void shouldMatchTier() {
+        // Arrange
+        FeeSchedule schedule = FeeSchedule.compile(List.of(
+            rule(1, "0.00").tier("PREMIUM").build(),
+            rule(2, "5.00").build()));
+        
+        // Act & Assert
+        assertThat(schedule.usesTiers()).isTrue();
+        assertThat(FeeSchedule.DEFAULT.usesTiers()).isFalse();
+        assertThat(schedule.fee(Money.of("1500"), UpiHandle.of("bob@paytm"), "premium", NOON)).isEqualTo(Money.ZERO);
+        assertThat(schedule.fee(Money.of("1500"), UpiHandle.of("bob@paytm"), "GOLD", NOON)).isEqualTo(Money.of("5.00"));
+        assertThat(schedule.fee(Money.of("1500"), UpiHandle.of("bob@paytm"), null, NOON)).isEqualTo(Money.of("5.00"));
+    }
+    
+    @ParameterizedTest
+    @CsvSource({
+        "21:59, 0.00",
+        "22:00, 2.00",
+        "23:59, 2.00",
+        "00:00, 2.00",
+        "05:59, 2.00",
+        "06:00, 0.00"
+    })
+    @DisplayName("Should match time-of-day windows that wrap past midnight")
+    void shouldMatchNightWindow(String time, String fee) {
+        // Arrange
+        FeeSchedule schedule = FeeSchedule.compile(List.of(
+            rule(1, "2.00").startTime(LocalTime.of(22, 0)).endTime(LocalTime.of(6, 0)).build()));
+        LocalTime at = LocalTime.parse(time);
+        
+        // Act
+        Money actual = schedule.fee(Money.of("100"), UpiHandle.of("bob@paytm"), null, at.getHour() * 60 + at.getMinute());
+        
+        // Assert
+        assertThat(actual).isEqualTo(Money.of(fee));
+    }
+    
+    @ParameterizedTest
+    @CsvSource({
+        "100, 1.15",
+        "1000, 2.50",
+        "1234.56, 2.85",
+        "50000, 10.00"
+    })
+    @DisplayName("Should add the rate to the fixed fee, round half-up and cap")
+    void shouldApplyRate(String amount, String fee) {
+        // Arrange - ₹1 + 0.15%, at most ₹10
+        FeeSchedule schedule = FeeSchedule.compile(List.of(
+            rule(1, "1.00").rateBps(15).maxFee(Money.ofRupees(10)).build()));
+        
+        // Act
+        Money actual = schedule.fee(Money.of(amount), UpiHandle.of("bob@paytm"), null, NOON);
+        
+        // Assert
+        assertThat(actual).isEqualTo(Money.of(fee));
+    }
+    
+    @Test
+    @DisplayName("Should hand out the same Money for a flat fee every time")
+    void shouldNotAllocateFlatFees() {
+        Money first = FeeSchedule.DEFAULT.fee(Money.of("1500"), UpiHandle.of("bob@paytm"), null, NOON);
+        Money second = FeeSchedule.DEFAULT.fee(Money.of("2500"), UpiHandle.of("carol@ybl"), null, NOON);
+        
+        assertThat(first).isSameAs(second);
+    }
+    
+    @Test
+    @DisplayName("Should reject rules that cannot be applied")
+    void shouldRejectInvalidRules() {
+        assertThatThrownBy(() -> FeeSchedule.compile(List.of(FeeRule.builder().id(1L).build())))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Fee rule 1");
+        assertThatThrownBy(() -> FeeSchedule.compile(List.of(
+            rule(2, "1.00").minAmount(Money.of("500")).maxAmount(Money.of("499.99")).build())))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("min_amount");
+        assertThatThrownBy(() -> FeeSchedule.compile(List.of(
+            rule(3, "1.00").startTime(LocalTime.of(22, 0)).build())))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("end_time");
+        assertThatThrownBy(() -> FeeSchedule.compile(List.of(rule(4, "1.00").rateBps(-1).build())))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
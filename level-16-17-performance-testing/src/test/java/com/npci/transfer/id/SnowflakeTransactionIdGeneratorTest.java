@@ -0,0 +1,182 @@
+package com.npci.transfer.id;
+
+import com.npci.transfer.util.MutableClock;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Snowflake Transaction ID Generator Tests
+ */
+@DisplayName("Snowflake Transaction ID Generator Tests")
+class SnowflakeTransactionIdGeneratorTest {
+    
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 250_000;
+    
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-12-20T10:15:30Z"));
+    private final SnowflakeTransactionIdGenerator generator = new SnowflakeTransactionIdGenerator(5, clock);
+    
+    @Test
+    @DisplayName("Should generate 2M unique IDs from 8 threads at over 1M IDs per second")
+    void shouldGenerateUniqueIdsConcurrently() throws Exception {
+        // Arrange
+        SnowflakeTransactionIdGenerator systemGenerator =
+            new SnowflakeTransactionIdGenerator(5, Clock.systemDefaultZone());
+        long[][] ids = new long[THREADS][IDS_PER_THREAD];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long[] own = ids[t];
+            Thread thread = new Thread(() -> {
+                await(start);
+                for (int i = 0; i < own.length; i++) {
+                    own[i] = systemGenerator.nextValue();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        
+        // Act
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsedNanos = System.nanoTime() - begin;
+        
+        // Assert
+        long[] all = Arrays.stream(ids).flatMapToLong(Arrays::stream).sorted().toArray();
+        for (int i = 1; i < all.length; i++) {
+            assertThat(all[i]).as("ID %d", i).isGreaterThan(all[i - 1]);
+        }
+        for (long[] own : ids) {
+            for (int i = 1; i < own.length; i++) {
+                assertThat(own[i]).isGreaterThan(own[i - 1]);
+            }
+        }
+        double idsPerSecond = all.length * 1e9 / elapsedNanos;
+        assertThat(idsPerSecond).isGreaterThan(1_000_000);
+    }
+    
+    @Test
+    @DisplayName("Should keep IDs increasing when the clock moves backwards")
+    void shouldSurviveClockRegression() {
+        // Arrange
+        long before = generator.nextValue();
+        String beforeId = generator.nextId();
+        
+        // Act
+        clock.advance(Duration.ofSeconds(-5));
+        long after = generator.nextValue();
+        String afterId = generator.nextId();
+        
+        // Assert
+        assertThat(after).isGreaterThan(before);
+        assertThat(afterId).isGreaterThan(beforeId);
+    }
+    
+    @Test
+    @DisplayName("Should borrow the next millisecond when the sequence is exhausted")
+    void shouldOverflowIntoNextMillisecond() {
+        // Arrange
+        long first = generator.nextValue();
+        
+        // Act
+        long last = first;
+        for (int i = 0; i < 5_000; i++) {
+            long next = generator.nextValue();
+            assertThat(next).isGreaterThan(last);
+            last = next;
+        }
+        
+        // Assert
+        assertThat(millis(last)).isEqualTo(millis(first) + 1);
+    }
+    
+    @Test
+    @DisplayName("Should format TXN-yyyyMMdd-<13 base32 chars> in the clock's zone")
+    void shouldFormatId() {
+        assertThat(generator.nextId()).matches("TXN-20241220-[0-9A-HJKMNP-TV-Z]{13}");
+        
+        // 2024-12-20T23:30 in UTC is already the 21st in India
+        SnowflakeTransactionIdGenerator india = new SnowflakeTransactionIdGenerator(5,
+            Clock.fixed(Instant.parse("2024-12-20T23:30:00Z"), ZoneId.of("Asia/Kolkata")));
+        assertThat(india.nextId()).startsWith("TXN-20241221-");
+    }
+    
+    @Test
+    @DisplayName("Should sort IDs by creation time across days")
+    void shouldSortByTime() {
+        // Arrange
+        String first = generator.nextId();
+        clock.advance(Duration.ofDays(1));
+        
+        // Act
+        String second = generator.nextId();
+        
+        // Assert
+        assertThat(second).startsWith("TXN-20241221-").isGreaterThan(first);
+    }
+    
+    @Test
+    @DisplayName("Should keep different nodes apart within the same millisecond")
+    void shouldEncodeNodeId() {
+        SnowflakeTransactionIdGenerator other = new SnowflakeTransactionIdGenerator(6, clock);
+        
+        long mine = generator.nextValue();
+        long theirs = other.nextValue();
+        
+        assertThat(mine).isNotEqualTo(theirs);
+        assertThat(node(mine)).isEqualTo(5);
+        assertThat(node(theirs)).isEqualTo(6);
+        assertThat(millis(mine)).isEqualTo(millis(theirs));
+    }
+    
+    @Test
+    @DisplayName("Should reject a node ID that does not fit in 10 bits")
+    void shouldRejectInvalidNodeId() {
+        assertThatThrownBy(() -> new SnowflakeTransactionIdGenerator(1024, clock))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeTransactionIdGenerator(-1, clock))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    private static long millis(long id) {
+        return id >>> (SnowflakeTransactionIdGenerator.NODE_BITS + SnowflakeTransactionIdGenerator.SEQUENCE_BITS);
+    }
+    
+    @Test
+    @DisplayName("Should read the issue day back from an ID of either format")
+    void shouldReadDayOfId() {
+        assertThat(TransactionIdGenerator.dayOf(generator.nextId())).contains(LocalDate.of(2024, 12, 20));
+        assertThat(TransactionIdGenerator.dayOf("TXN-20241220153045-0042")).contains(LocalDate.of(2024, 12, 20));
+        assertThat(TransactionIdGenerator.dayOf("TXN-UNKNOWN")).isEmpty();
+        assertThat(TransactionIdGenerator.dayOf("TXN-2024")).isEmpty();
+        assertThat(TransactionIdGenerator.dayOf(null)).isEmpty();
+    }
+    
+    private static long node(long id) {
+        return (id >>> SnowflakeTransactionIdGenerator.SEQUENCE_BITS) & SnowflakeTransactionIdGenerator.MAX_NODE_ID;
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.npci.transfer.ledger;
+
+import com.npci.transfer.config.ExecutionMode;
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.entity.Account;
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.repository.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.npci.transfer.util.TestDataBuilders.AccountBuilder.anAccount;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Ledger Engine Tests
+ * 
+ * Runs the real partitions and journal in a temporary directory;
+ * only the PostgreSQL side (account lookup, projection) is mocked.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Ledger Engine Tests")
+class LedgerEngineTest {
+    
+    private static final int PARTITIONS = 2;
+    
+    @TempDir
+    Path journalDirectory;
+    
+    @Mock
+    private AccountRepository accountRepository;
+    
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private final Map<String, Account> database = new HashMap<>();
+    private TransferProperties transferProperties;
+    private LedgerEngine engine;
+    private int transactionCounter;
+    
+    // Accounts picked so that alice/bob share a partition and carol lives in the other one
+    private String alice;
+    private String bob;
+    private String carol;
+    
+    @BeforeEach
+    void setUp() {
+        transferProperties = new TransferProperties();
+        transferProperties.getExecution().setMode(ExecutionMode.LEDGER);
+        transferProperties.getLedger().setPartitions(PARTITIONS);
+        transferProperties.getLedger().setJournalDirectory(journalDirectory.toString());
+        transferProperties.getLedger().setFsync(false);
+        
+        for (int i = 0; alice == null || bob == null || carol == null; i++) {
+            String upiId = "user" + i + "@okaxis";
+            if (Math.floorMod(upiId.hashCode(), PARTITIONS) == 0) {
+                if (alice == null) {
+                    alice = upiId;
+                } else if (bob == null) {
+                    bob = upiId;
+                }
+            } else if (carol == null) {
+                carol = upiId;
+            }
+        }
+        for (String upiId : new String[] {alice, bob, carol}) {
+            database.put(upiId, anAccount().withUpiId(upiId).withBalance("1000.00").build());
+        }
+        lenient().when(accountRepository.findByUpiId(anyString()))
+            .thenAnswer(invocation -> Optional.ofNullable(database.get(invocation.<String>getArgument(0))));
+        
+        engine = startEngine();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        engine.stop();
+    }
+    
+    @Test
+    @DisplayName("Should move money between accounts of the same partition")
+    void shouldTransfer_WhenSamePartition() {
+        // Act
+        transfer(alice, bob, "100.00", "0.00");
+        
+        // Assert
+        assertThat(engine.balance(alice)).contains(new BigDecimal("900.00"));
+        assertThat(engine.balance(bob)).contains(new BigDecimal("1100.00"));
+    }
+    
+    @Test
+    @DisplayName("Should debit source and credit destination across partitions")
+    void shouldTransfer_WhenCrossPartition() {
+        // Act
+        transfer(alice, carol, "600.00", "5.00");
+        transfer(carol, bob, "100.00", "0.00");
+        
+        // Assert
+        assertThat(engine.balance(alice)).contains(new BigDecimal("395.00"));
+        assertThat(engine.balance(carol)).contains(new BigDecimal("1500.00"));
+        assertThat(engine.balance(bob)).contains(new BigDecimal("1100.00"));
+    }
+    
+    @Test
+    @DisplayName("Should reject debit above balance and report available balance")
+    void shouldReject_WhenInsufficientBalance() {
+        // Act & Assert
+        assertThatThrownBy(() -> transfer(alice, carol, "1000.00", "5.00"))
+            .isInstanceOf(LedgerRejectedException.class)
+            .extracting("reason", "availableBalance")
+            .containsExactly(LedgerRejectedException.Reason.INSUFFICIENT_BALANCE, new BigDecimal("1000.00"));
+        assertThat(engine.balance(alice)).contains(new BigDecimal("1000.00"));
+    }
+    
+    @Test
+    @DisplayName("Should reject transfer to unknown account")
+    void shouldReject_WhenDestinationUnknown() {
+        // Act & Assert
+        assertThatThrownBy(() -> transfer(alice, "nobody@okaxis", "10.00", "0.00"))
+            .isInstanceOf(LedgerRejectedException.class)
+            .extracting("reason")
+            .isEqualTo(LedgerRejectedException.Reason.DESTINATION_NOT_FOUND);
+        assertThat(engine.balance("nobody@okaxis")).isEmpty();
+    }
+    
+    @Test
+    @DisplayName("Should rebuild balances from the journal after a restart, applying each transfer once")
+    void shouldRecoverFromJournal_WhenRestarted() {
+        // Arrange
+        transfer(alice, bob, "100.00", "0.00");
+        transfer(alice, carol, "200.00", "5.00");
+        engine.stop();
+        
+        // Act: PostgreSQL still holds the original balances, the journal must win
+        engine = startEngine();
+        
+        // Assert
+        assertThat(engine.balance(alice)).contains(new BigDecimal("695.00"));
+        assertThat(engine.balance(bob)).contains(new BigDecimal("1100.00"));
+        assertThat(engine.balance(carol)).contains(new BigDecimal("1200.00"));
+    }
+    
+    @Test
+    @DisplayName("Should recover from snapshot plus journal tail")
+    void shouldRecoverFromSnapshot_WhenSnapshotTaken() {
+        // Arrange
+        engine.stop();
+        transferProperties.getLedger().setSnapshotInterval(2);
+        transferProperties.getLedger().setProjectionInterval(Duration.ofMillis(1));
+        engine = startEngine();
+        for (int i = 0; i < 10; i++) {
+            transfer(alice, i % 2 == 0 ? bob : carol, "10.00", "0.00");
+        }
+        engine.stop();
+        
+        // Act
+        engine = startEngine();
+        
+        // Assert
+        assertThat(journalDirectory.resolve("partition-0.snapshot")).exists();
+        assertThat(engine.balance(alice)).contains(new BigDecimal("900.00"));
+        assertThat(engine.balance(bob)).contains(new BigDecimal("1050.00"));
+        assertThat(engine.balance(carol)).contains(new BigDecimal("1050.00"));
+    }
+    
+    // ========== Helpers ==========
+    
+    private LedgerEngine startEngine() {
+        LedgerEngine started = new LedgerEngine(transferProperties, accountRepository, jdbcTemplate,
+            transactionManager, new TransferMetrics(new SimpleMeterRegistry()));
+        started.start();
+        return started;
+    }
+    
+    private void transfer(String source, String destination, String amount, String fee) {
+        engine.transfer("TXN-" + (++transactionCounter), source, destination,
+            new BigDecimal(amount), new BigDecimal(fee), null, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,140 @@
+package com.npci.transfer.money;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.npci.transfer.dto.TransferResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Money Tests
+ */
+@DisplayName("Money Tests")
+class MoneyTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    
+    @ParameterizedTest
+    @CsvSource({
+        "1, 100",
+        "1500, 150000",
+        "5.00, 500",
+        "999.99, 99999",
+        "0.01, 1",
+        "-12.5, -1250"
+    })
+    @DisplayName("Should convert rupees to paise exactly")
+    void shouldConvertToPaise(String rupees, long paise) {
+        assertThat(Money.of(rupees).paise()).isEqualTo(paise);
+    }
+    
+    @Test
+    @DisplayName("Should treat 500 and 500.00 as the same amount")
+    void shouldIgnoreScale() {
+        assertThat(Money.of("500")).isEqualTo(Money.of("500.00"));
+        assertThat(Money.of("500")).hasSameHashCodeAs(Money.of("500.00"));
+        assertThat(Money.of("500").toString()).isEqualTo("500.00");
+        assertThat(Money.of("500").toBigDecimal()).isEqualTo(new BigDecimal("500.00"));
+    }
+    
+    @Test
+    @DisplayName("Should add, subtract and compare")
+    void shouldDoArithmetic() {
+        // Arrange
+        Money amount = Money.ofRupees(1500);
+        Money fee = Money.of("5.00");
+        
+        // Act
+        Money total = amount.plus(fee);
+        
+        // Assert
+        assertThat(total).isEqualTo(Money.of("1505.00"));
+        assertThat(total.minus(fee)).isEqualTo(amount);
+        assertThat(total.negate()).isEqualTo(Money.of("-1505"));
+        assertThat(total.isGreaterThan(amount)).isTrue();
+        assertThat(amount.isLessThan(total)).isTrue();
+        assertThat(amount.minus(amount).isZero()).isTrue();
+        assertThat(amount.plus(Money.ZERO)).isSameAs(amount);
+    }
+    
+    @Test
+    @DisplayName("Should reject amounts with more than 2 decimal places")
+    void shouldRejectFractionsOfPaise() {
+        assertThatThrownBy(() -> Money.of("10.005"))
+            .isInstanceOf(ArithmeticException.class);
+    }
+    
+    @Test
+    @DisplayName("Should throw instead of overflowing")
+    void shouldThrowOnOverflow() {
+        Money max = Money.ofPaise(Long.MAX_VALUE);
+        
+        assertThatThrownBy(() -> max.plus(Money.ofPaise(1))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.ofPaise(Long.MIN_VALUE).minus(Money.ofPaise(1)))
+            .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.ofPaise(Long.MIN_VALUE).negate()).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.ofRupees(Long.MAX_VALUE / 10)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.of("100000000000000000000")).isInstanceOf(ArithmeticException.class);
+    }
+    
+    @Test
+    @DisplayName("Should convert to and from the NUMERIC(15, 2) columns")
+    void shouldConvertForJpa() {
+        MoneyConverter converter = new MoneyConverter();
+        
+        assertThat(converter.convertToDatabaseColumn(Money.of("1505"))).isEqualTo(new BigDecimal("1505.00"));
+        assertThat(converter.convertToEntityAttribute(new BigDecimal("1505.00"))).isEqualTo(Money.of("1505"));
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+    }
+    
+    @Test
+    @DisplayName("Should write amounts as the JSON numbers BigDecimal was written as")
+    void shouldWriteJsonNumbers() throws Exception {
+        // Arrange
+        TransferResponse paid = TransferResponse.builder()
+            .amount(Money.of("1500"))
+            .fee(Money.of("5.00"))
+            .totalDebited(Money.of("1500").plus(Money.of("5.00")))
+            .build();
+        TransferResponse free = TransferResponse.builder()
+            .amount(Money.of("500"))
+            .fee(Money.ZERO)
+            .totalDebited(Money.of("500").plus(Money.ZERO))
+            .build();
+        TransferResponse stored = TransferResponse.builder()
+            .amount(Money.of(new BigDecimal("500.00")))
+            .fee(Money.of(new BigDecimal("0.00")))
+            .build();
+        
+        // Act
+        String paidJson = objectMapper.writeValueAsString(paid);
+        String freeJson = objectMapper.writeValueAsString(free);
+        String storedJson = objectMapper.writeValueAsString(stored);
+        
+        // Assert
+        assertThat(paidJson).contains("\"amount\":1500,", "\"fee\":5.00,", "\"totalDebited\":1505.00,");
+        assertThat(freeJson).contains("\"amount\":500,", "\"fee\":0,", "\"totalDebited\":500,");
+        assertThat(storedJson).contains("\"amount\":500.00,", "\"fee\":0.00,", "\"totalDebited\":null");
+    }
+    
+    @Test
+    @DisplayName("Should read amounts from JSON numbers and numeric strings")
+    void shouldReadJson() throws Exception {
+        assertThat(objectMapper.readValue("1505", Money.class)).isEqualTo(Money.of("1505"));
+        assertThat(objectMapper.readValue("5.5", Money.class)).isEqualTo(Money.of("5.50"));
+        assertThat(objectMapper.readValue("\"1505.00\"", Money.class)).isEqualTo(Money.of("1505"));
+        assertThat(objectMapper.readValue("{\"amount\":1505.00}", TransferResponse.class).getAmount())
+            .isEqualTo(Money.of("1505"));
+        assertThatThrownBy(() -> objectMapper.readValue("1.005", Money.class))
+            .isInstanceOf(InvalidFormatException.class);
+        assertThatThrownBy(() -> objectMapper.readValue("\"abc\"", Money.class))
+            .isInstanceOf(InvalidFormatException.class);
+    }
+}
@@ -0,0 +1,117 @@
+package com.npci.transfer.performance.level16;
+
+import org.apache.http.entity.ContentType;
+import org.junit.jupiter.api.Test;
+import us.abstracta.jmeter.javadsl.core.TestPlanStats;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import static us.abstracta.jmeter.javadsl.JmeterDsl.*;
+
+/**
+ * Level 16: Batch Transfer Comparison
+ * 
+ * Purpose: Compare transfers/sec of single calls with POST /v1/transfers/batch
+ * 
+ * Scenario:
+ * - Application running on localhost:8080 (mvn spring-boot:run)
+ * - Single: 50 users, 60 seconds, one transfer per POST /v1/transfers
+ * - Batch: 50 users, 60 seconds, 1000 transfers per POST /v1/transfers/batch
+ * 
+ * Success Criteria:
+ * - Error rate < 1% in both runs
+ * - Batch transfers/sec >= 10x single transfers/sec
+ */
+public class BatchTransferComparisonTest {
+    
+    private static final String BASE_URL = "http://localhost:8080";
+    private static final String TRANSFER_ENDPOINT = "/v1/transfers";
+    private static final String BATCH_ENDPOINT = "/v1/transfers/batch";
+    
+    private static final int USERS = 50;
+    private static final int DURATION_SECONDS = 60;
+    private static final int BATCH_SIZE = 1000;
+    private static final double TARGET_SPEEDUP = 10.0;
+    
+    @Test
+    public void batchVersusSingleCalls50Users60Seconds() throws IOException {
+        System.out.println("=".repeat(60));
+        System.out.println("LEVEL 16: Batch Transfer Comparison");
+        System.out.println("=".repeat(60));
+        System.out.printf("Scenario: %d users, %d seconds, single calls vs batches of %d\n",
+            USERS, DURATION_SECONDS, BATCH_SIZE);
+        System.out.printf("Target: batch transfers/sec >= %.0fx single\n", TARGET_SPEEDUP);
+        System.out.println("=".repeat(60));
+        
+        System.out.println("\n🚀 Running single transfers...\n");
+        double singleTps = run(TRANSFER_ENDPOINT, transferJson(), 1,
+            "target/jmeter-reports/batch-comparison/single");
+        
+        System.out.println("\n🚀 Running batch transfers...\n");
+        double batchTps = run(BATCH_ENDPOINT, batchRequestBody(), BATCH_SIZE,
+            "target/jmeter-reports/batch-comparison/batch");
+        
+        // Print Results
+        double speedup = batchTps / singleTps;
+        System.out.println("\n" + "=".repeat(60));
+        System.out.println("RESULTS");
+        System.out.println("=".repeat(60));
+        System.out.printf("Single Throughput: %,.1f transfers/sec\n", singleTps);
+        System.out.printf("Batch Throughput:  %,.1f transfers/sec\n", batchTps);
+        System.out.printf("Speedup:           %.1fx\n", speedup);
+        System.out.println("\n💡 Batch metrics to check:");
+        System.out.println("   - transfer_batch_request_size (transfers per call)");
+        System.out.println("   - transfer_batch_chunk_seconds (apply + commit per chunk)");
+        System.out.println("=".repeat(60));
+        
+        if (speedup >= TARGET_SPEEDUP) {
+            System.out.printf("\n✅ Batches are %.1fx faster (target %.0fx)\n", speedup, TARGET_SPEEDUP);
+        } else {
+            System.out.printf("\n⚠️  Warning: Batches are only %.1fx faster (target %.0fx)\n", speedup, TARGET_SPEEDUP);
+        }
+    }
+    
+    /**
+     * Runs the plan and returns the transfers per second carried by successful calls.
+     */
+    private double run(String endpoint, String body, int transfersPerCall, String reportDirectory) throws IOException {
+        TestPlanStats stats = testPlan(
+            threadGroup(USERS, DURATION_SECONDS,
+                httpSampler(BASE_URL + endpoint)
+                    .post(body, ContentType.APPLICATION_JSON)
+                    .children(
+                        responseAssertion()
+                            .containsSubstrings("transactionId")
+                    )
+            ),
+            htmlReporter(reportDirectory)
+        ).run();
+        
+        long totalSamples = stats.overall().samplesCount();
+        long errors = stats.overall().errorsCount();
+        double errorRate = (errors / (double) totalSamples) * 100;
+        System.out.printf("Total Requests: %,d\n", totalSamples);
+        System.out.printf("Errors: %d (%.2f%%)\n", errors, errorRate);
+        System.out.printf("P95 Response Time: %d ms\n", stats.overall().sampleTime().perc95().toMillis());
+        if (errorRate >= 1.0) {
+            System.out.println("⚠️  Warning: Error rate is " + String.format("%.2f%%", errorRate));
+        }
+        
+        return (totalSamples - errors) * transfersPerCall / (double) DURATION_SECONDS;
+    }
+    
+    private String batchRequestBody() {
+        String transfer = transferJson();
+        return "{\"transfers\":[" + String.join(",", Collections.nCopies(BATCH_SIZE, transfer)) + "]}";
+    }
+    
+    private String transferJson() {
+        return "{"
+            + "\"sourceUPI\":\"alice@okaxis\","
+            + "\"destinationUPI\":\"bob@paytm\","
+            + "\"amount\":1.00,"
+            + "\"remarks\":\"Batch comparison\""
+            + "}";
+    }
+}
@@ -0,0 +1,110 @@
+package com.npci.transfer.performance.level16;
+
+import org.apache.http.entity.ContentType;
+import org.junit.jupiter.api.Test;
+import us.abstracta.jmeter.javadsl.core.TestPlanStats;
+
+import java.io.IOException;
+
+import static us.abstracta.jmeter.javadsl.JmeterDsl.*;
+
+/**
+ * Level 16: Ledger Throughput Comparison
+ * 
+ * Purpose: Compare transfer TPS of the JPA path with the in-memory ledger
+ * 
+ * Scenario:
+ * - Two instances of the application on the same database:
+ *     mvn spring-boot:run
+ *     mvn spring-boot:run -Dspring-boot.run.arguments="--server.port=8081 --transfer.execution.mode=ledger"
+ * - Same plan against each: 200 users, 60 seconds, POST /v1/transfers
+ * 
+ * Success Criteria:
+ * - Error rate < 1% on both instances
+ * - Ledger TPS >= 10x JPA TPS
+ */
+public class LedgerThroughputTest {
+    
+    private static final String JPA_BASE_URL = "http://localhost:8080";
+    private static final String LEDGER_BASE_URL = "http://localhost:8081";
+    private static final String TRANSFER_ENDPOINT = "/v1/transfers";
+    
+    private static final int USERS = 200;
+    private static final int DURATION_SECONDS = 60;
+    private static final double TARGET_SPEEDUP = 10.0;
+    
+    @Test
+    public void ledgerVersusJpa200Users60Seconds() throws IOException {
+        System.out.println("=".repeat(60));
+        System.out.println("LEVEL 16: Ledger Throughput Comparison");
+        System.out.println("=".repeat(60));
+        System.out.printf("Scenario: %d users, %d seconds, against each instance\n", USERS, DURATION_SECONDS);
+        System.out.printf("Target: ledger TPS >= %.0fx JPA TPS\n", TARGET_SPEEDUP);
+        System.out.println("=".repeat(60));
+        
+        System.out.println("\n🚀 Running against JPA instance (" + JPA_BASE_URL + ")...\n");
+        double jpaTps = run(JPA_BASE_URL, "target/jmeter-reports/ledger-comparison/jpa");
+        
+        System.out.println("\n🚀 Running against ledger instance (" + LEDGER_BASE_URL + ")...\n");
+        double ledgerTps = run(LEDGER_BASE_URL, "target/jmeter-reports/ledger-comparison/ledger");
+        
+        // Print Results
+        double speedup = ledgerTps / jpaTps;
+        System.out.println("\n" + "=".repeat(60));
+        System.out.println("RESULTS");
+        System.out.println("=".repeat(60));
+        System.out.printf("JPA Throughput:    %,.1f transfers/sec\n", jpaTps);
+        System.out.printf("Ledger Throughput: %,.1f transfers/sec\n", ledgerTps);
+        System.out.printf("Speedup:           %.1fx\n", speedup);
+        System.out.println("\n📊 Detailed metrics available in HTML reports:");
+        System.out.println("   target/jmeter-reports/ledger-comparison/jpa/index.html");
+        System.out.println("   target/jmeter-reports/ledger-comparison/ledger/index.html");
+        System.out.println("\n💡 Ledger instance metrics to check:");
+        System.out.println("   - transfer_ledger_batch_size (commands per journal fsync)");
+        System.out.println("   - transfer_ledger_projection_backlog (changes not yet in PostgreSQL)");
+        System.out.println("=".repeat(60));
+        
+        if (speedup >= TARGET_SPEEDUP) {
+            System.out.printf("\n✅ Ledger is %.1fx faster (target %.0fx)\n", speedup, TARGET_SPEEDUP);
+        } else {
+            System.out.printf("\n⚠️  Warning: Ledger is only %.1fx faster (target %.0fx)\n", speedup, TARGET_SPEEDUP);
+        }
+    }
+    
+    /**
+     * Runs the plan against one instance and returns its successful transfers per second.
+     */
+    private double run(String baseUrl, String reportDirectory) throws IOException {
+        TestPlanStats stats = testPlan(
+            threadGroup(USERS, DURATION_SECONDS,
+                httpSampler(baseUrl + TRANSFER_ENDPOINT)
+                    .post(getTransferRequestBody(), ContentType.APPLICATION_JSON)
+                    .children(
+                        responseAssertion()
+                            .containsSubstrings("transactionId")
+                    )
+            ),
+            htmlReporter(reportDirectory)
+        ).run();
+        
+        long totalSamples = stats.overall().samplesCount();
+        long errors = stats.overall().errorsCount();
+        double errorRate = (errors / (double) totalSamples) * 100;
+        System.out.printf("Total Requests: %,d\n", totalSamples);
+        System.out.printf("Errors: %d (%.2f%%)\n", errors, errorRate);
+        if (errorRate >= 1.0) {
+            System.out.println("⚠️  Warning: Error rate is " + String.format("%.2f%%", errorRate));
+        }
+        
+        return (totalSamples - errors) / (double) DURATION_SECONDS;
+    }
+    
+    private String getTransferRequestBody() {
+        return "{"
+            + "\"sourceUPI\":\"alice@okaxis\","
+            + "\"destinationUPI\":\"bob@paytm\","
+            + "\"amount\":1.00,"
+            + "\"remarks\":\"Ledger comparison\""
+            + "}";
+    }
+}
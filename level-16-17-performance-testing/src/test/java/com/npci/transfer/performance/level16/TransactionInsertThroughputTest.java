@@ -0,0 +1,133 @@
+package com.npci.transfer.performance.level16;
+
+import com.npci.transfer.config.PostgreSQLTestContainer;
+import com.npci.transfer.entity.Transaction;
+import com.npci.transfer.money.Money;
+import com.npci.transfer.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Level 16: Transaction Insert Throughput
+ * 
+ * Purpose: Measure what sequence ids and JDBC batching do for bulk inserts
+ * (seeding, batch transfers, ledger replays)
+ * 
+ * Scenario:
+ * - PostgreSQL in Testcontainers (Docker required), no HTTP
+ * - 1,000,000 transactions (-Dinsert.rows to change) saved through
+ *   TransactionRepository.saveAll, 1,000 per database transaction
+ * - Unbatched: JDBC batch size 1 for the session, one round trip per INSERT
+ *   as GenerationType.IDENTITY forced
+ * - Batched: application.yml settings (batch_size 50, ordered inserts,
+ *   pgjdbc reWriteBatchedInserts, 50 ids per nextval)
+ * 
+ * Success Criteria:
+ * - Batched rows/sec >= 5x unbatched rows/sec
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+public class TransactionInsertThroughputTest extends PostgreSQLTestContainer {
+    
+    private static final int ROWS = Integer.getInteger("insert.rows", 1_000_000);
+    private static final int ROWS_PER_TRANSACTION = 1_000;
+    private static final double TARGET_SPEEDUP = 5.0;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Test
+    public void batchedVersusUnbatchedInserts() {
+        System.out.println("=".repeat(60));
+        System.out.println("LEVEL 16: Transaction Insert Throughput");
+        System.out.println("=".repeat(60));
+        System.out.printf("Scenario: %,d transactions, %,d per database transaction\n", ROWS, ROWS_PER_TRANSACTION);
+        System.out.printf("Target: batched rows/sec >= %.0fx unbatched\n", TARGET_SPEEDUP);
+        System.out.println("=".repeat(60));
+        
+        System.out.println("\n🚀 Inserting one row per round trip...\n");
+        double unbatched = insertAll("unbatched", 1);
+        
+        System.out.println("\n🚀 Inserting in JDBC batches...\n");
+        double batched = insertAll("batched", null);
+        
+        // Print Results
+        double speedup = batched / unbatched;
+        System.out.println("\n" + "=".repeat(60));
+        System.out.println("RESULTS");
+        System.out.println("=".repeat(60));
+        System.out.printf("Unbatched: %,.0f rows/sec\n", unbatched);
+        System.out.printf("Batched:   %,.0f rows/sec\n", batched);
+        System.out.printf("Speedup:   %.1fx\n", speedup);
+        System.out.println("=".repeat(60));
+        
+        if (speedup >= TARGET_SPEEDUP) {
+            System.out.printf("\n✅ Batched inserts are %.1fx faster (target %.0fx)\n", speedup, TARGET_SPEEDUP);
+        } else {
+            System.out.printf("\n⚠️  Warning: Batched inserts are only %.1fx faster (target %.0fx)\n",
+                speedup, TARGET_SPEEDUP);
+        }
+    }
+    
+    /**
+     * Inserts ROWS transactions into an empty table and returns rows per second.
+     * 
+     * @param jdbcBatchSize Batch size for the session, null for the configured one
+     */
+    private double insertAll(String run, Integer jdbcBatchSize) {
+        transactionRepository.deleteAllInBatch();
+        
+        long start = System.nanoTime();
+        for (int from = 0; from < ROWS; from += ROWS_PER_TRANSACTION) {
+            int first = from;
+            int count = Math.min(ROWS_PER_TRANSACTION, ROWS - from);
+            transactionTemplate.executeWithoutResult(status -> {
+                if (jdbcBatchSize != null) {
+                    entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+                }
+                transactionRepository.saveAll(transactions(run, first, count));
+            });
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        
+        assertThat(transactionRepository.count()).isEqualTo(ROWS);
+        System.out.printf("Inserted %,d rows in %.1f s\n", ROWS, seconds);
+        return ROWS / seconds;
+    }
+    
+    private static List<Transaction> transactions(String run, int first, int count) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = first; i < first + count; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setTransactionId("TXN-" + run + "-" + i);
+            transaction.setSourceUPI("alice@okaxis");
+            transaction.setDestinationUPI("bob@paytm");
+            transaction.setAmount(Money.ofRupees(100));
+            transaction.setFee(Money.ZERO);
+            transaction.setTotalDebited(Money.ofRupees(100));
+            transaction.setStatus("SUCCESS");
+            transaction.setTimestamp(now);
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+}
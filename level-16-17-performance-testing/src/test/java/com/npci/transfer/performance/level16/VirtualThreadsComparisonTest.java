@@ -0,0 +1,141 @@
+package com.npci.transfer.performance.level16;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.entity.ContentType;
+import org.junit.jupiter.api.Test;
+import us.abstracta.jmeter.javadsl.core.TestPlanStats;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static us.abstracta.jmeter.javadsl.JmeterDsl.*;
+
+/**
+ * Level 16: Platform vs Virtual Threads
+ * 
+ * Purpose: Compare thread usage, memory and P99 latency of the same
+ * service with thread-per-request (Tomcat pool) and virtual threads
+ * 
+ * Scenario:
+ * - Two freshly started instances on the same database:
+ *     mvn spring-boot:run
+ *     mvn -Pjava21 spring-boot:run -Dspring-boot.run.arguments=--server.port=8081
+ * - Same plan against each: 1000 users, 60 seconds, POST /v1/transfers
+ * - After each run: live / peak JVM threads and heap used, from /actuator/metrics
+ * 
+ * Success Criteria:
+ * - Error rate < 1% on both instances
+ * - Virtual threads: far fewer platform threads at no worse P99
+ */
+public class VirtualThreadsComparisonTest {
+    
+    private static final String PLATFORM_BASE_URL = "http://localhost:8080";
+    private static final String VIRTUAL_BASE_URL = "http://localhost:8081";
+    private static final String TRANSFER_ENDPOINT = "/v1/transfers";
+    
+    private static final int USERS = 1000;
+    private static final int DURATION_SECONDS = 60;
+    
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private record RunResult(long samples, long errors, long p99Millis,
+                             double liveThreads, double peakThreads, double heapUsedMb) {
+    }
+    
+    @Test
+    public void platformVersusVirtualThreads1000Users60Seconds() throws Exception {
+        System.out.println("=".repeat(60));
+        System.out.println("LEVEL 16: Platform vs Virtual Threads");
+        System.out.println("=".repeat(60));
+        System.out.printf("Scenario: %d users, %d seconds, against each instance\n", USERS, DURATION_SECONDS);
+        System.out.println("Target: fewer JVM threads, P99 no worse with virtual threads");
+        System.out.println("=".repeat(60));
+        
+        System.out.println("\n🚀 Running against platform-thread instance (" + PLATFORM_BASE_URL + ")...\n");
+        RunResult platform = run(PLATFORM_BASE_URL, "target/jmeter-reports/virtual-threads/platform");
+        
+        System.out.println("\n🚀 Running against virtual-thread instance (" + VIRTUAL_BASE_URL + ")...\n");
+        RunResult virtual = run(VIRTUAL_BASE_URL, "target/jmeter-reports/virtual-threads/virtual");
+        
+        // Print Results
+        System.out.println("\n" + "=".repeat(60));
+        System.out.println("RESULTS");
+        System.out.println("=".repeat(60));
+        System.out.printf("%-22s %12s %12s\n", "", "Platform", "Virtual");
+        System.out.printf("%-22s %,12d %,12d\n", "Requests", platform.samples(), virtual.samples());
+        System.out.printf("%-22s %,12d %,12d\n", "Errors", platform.errors(), virtual.errors());
+        System.out.printf("%-22s %,12d %,12d\n", "P99 (ms)", platform.p99Millis(), virtual.p99Millis());
+        System.out.printf("%-22s %,12.0f %,12.0f\n", "JVM threads live", platform.liveThreads(), virtual.liveThreads());
+        System.out.printf("%-22s %,12.0f %,12.0f\n", "JVM threads peak", platform.peakThreads(), virtual.peakThreads());
+        System.out.printf("%-22s %,12.1f %,12.1f\n", "Heap used (MB)", platform.heapUsedMb(), virtual.heapUsedMb());
+        System.out.println("\n📊 Detailed metrics available in HTML reports:");
+        System.out.println("   target/jmeter-reports/virtual-threads/platform/index.html");
+        System.out.println("   target/jmeter-reports/virtual-threads/virtual/index.html");
+        System.out.println("\n💡 Virtual threads are not counted as JVM threads: the virtual");
+        System.out.println("   column shows carrier + background threads only.");
+        System.out.println("   Pinned threads are reported on the virtual instance's stdout.");
+        System.out.println("=".repeat(60));
+        
+        if (virtual.p99Millis() <= platform.p99Millis()) {
+            System.out.println("\n✅ Virtual-thread P99 is no worse than platform threads");
+        } else {
+            System.out.printf("\n⚠️  Warning: Virtual-thread P99 is %d ms higher\n",
+                virtual.p99Millis() - platform.p99Millis());
+        }
+    }
+    
+    /**
+     * Runs the plan against one instance, then reads its thread and heap metrics.
+     */
+    private RunResult run(String baseUrl, String reportDirectory) throws Exception {
+        TestPlanStats stats = testPlan(
+            threadGroup(USERS, DURATION_SECONDS,
+                httpSampler(baseUrl + TRANSFER_ENDPOINT)
+                    .post(getTransferRequestBody(), ContentType.APPLICATION_JSON)
+                    .children(
+                        responseAssertion()
+                            .containsSubstrings("transactionId")
+                    )
+            ),
+            htmlReporter(reportDirectory)
+        ).run();
+        
+        long totalSamples = stats.overall().samplesCount();
+        long errors = stats.overall().errorsCount();
+        double errorRate = (errors / (double) totalSamples) * 100;
+        System.out.printf("Total Requests: %,d\n", totalSamples);
+        System.out.printf("Errors: %d (%.2f%%)\n", errors, errorRate);
+        if (errorRate >= 1.0) {
+            System.out.println("⚠️  Warning: Error rate is " + String.format("%.2f%%", errorRate));
+        }
+        
+        return new RunResult(
+            totalSamples,
+            errors,
+            stats.overall().sampleTime().perc99().toMillis(),
+            metric(baseUrl, "jvm.threads.live"),
+            metric(baseUrl, "jvm.threads.peak"),
+            metric(baseUrl, "jvm.memory.used?tag=area:heap") / (1024 * 1024));
+    }
+    
+    private double metric(String baseUrl, String metric) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + metric)).build();
+        String body = httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        JsonNode measurements = objectMapper.readTree(body).path("measurements");
+        return measurements.isEmpty() ? Double.NaN : measurements.get(0).path("value").asDouble();
+    }
+    
+    private String getTransferRequestBody() {
+        return "{"
+            + "\"sourceUPI\":\"alice@okaxis\","
+            + "\"destinationUPI\":\"bob@paytm\","
+            + "\"amount\":1.00,"
+            + "\"remarks\":\"Virtual threads comparison\""
+            + "}";
+    }
+}
@@ -0,0 +1,108 @@
+package com.npci.transfer.repository;
+
+import com.npci.transfer.config.PostgreSQLTestContainer;
+import com.npci.transfer.repository.TransactionPartitionRepository.TransactionPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Transaction Partition Repository Tests - PostgreSQL DDL
+ * 
+ * Runs in a schema of its own, on a plain transactions table shaped like
+ * the one Hibernate creates, so the Spring contexts sharing the container
+ * keep their unpartitioned table.
+ */
+@DisplayName("Transaction Partition Repository Tests - PostgreSQL")
+class TransactionPartitionRepositoryTest extends PostgreSQLTestContainer {
+    
+    private static final String SCHEMA = "partition_test";
+    
+    private static final LocalDateTime FEBRUARY = LocalDateTime.of(2025, 2, 1, 0, 0);
+    private static final LocalDateTime MARCH = LocalDateTime.of(2025, 3, 1, 0, 0);
+    
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private TransactionPartitionRepository partitionRepository;
+    
+    @BeforeEach
+    void setUp() {
+        String url = postgres().getJdbcUrl();
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA,
+            postgres().getUsername(), postgres().getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        partitionRepository = new TransactionPartitionRepository(jdbcTemplate);
+        
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        jdbcTemplate.execute("""
+            CREATE TABLE transactions (
+                id BIGINT PRIMARY KEY,
+                transaction_id VARCHAR(255) NOT NULL,
+                source_upi VARCHAR(255) NOT NULL,
+                destination_upi VARCHAR(255) NOT NULL,
+                amount NUMERIC(15, 2) NOT NULL,
+                status VARCHAR(255) NOT NULL,
+                "timestamp" TIMESTAMP(6) NOT NULL
+            )""");
+        insert(1, "TXN-20250115-1", "SUCCESS", LocalDateTime.of(2025, 1, 15, 10, 0));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+    
+    @Test
+    @DisplayName("Should convert the plain table, keeping its rows as the legacy partition")
+    void shouldPartitionTable_KeepingExistingRows() {
+        // Act
+        transactionTemplate.executeWithoutResult(status -> partitionRepository.partitionTable(FEBRUARY));
+        
+        // Assert
+        assertThat(partitionRepository.isPartitioned()).isTrue();
+        assertThat(partitionRepository.findPartitions())
+            .containsExactly(new TransactionPartition("transactions_legacy", null, FEBRUARY));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions", Long.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList("SELECT indexdef FROM pg_indexes WHERE tablename = 'transactions'",
+            String.class)).anyMatch(index -> index.contains("(\"timestamp\", id) WHERE"));
+    }
+    
+    @Test
+    @DisplayName("Should route inserts to a created partition and keep a detached one as a table")
+    void shouldCreateAndDetachPartition() {
+        // Arrange
+        transactionTemplate.executeWithoutResult(status -> partitionRepository.partitionTable(FEBRUARY));
+        
+        // Act
+        partitionRepository.createPartition("transactions_p202502", FEBRUARY, MARCH);
+        insert(2, "TXN-20250210-1", "PENDING", LocalDateTime.of(2025, 2, 10, 10, 0));
+        partitionRepository.detachPartition("transactions_p202502");
+        
+        // Assert
+        assertThat(partitionRepository.findPartitions()).extracting(TransactionPartition::name)
+            .containsExactly("transactions_legacy");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions", Long.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT transaction_id FROM transactions_p202502", String.class))
+            .isEqualTo("TXN-20250210-1");
+        assertThatThrownBy(() -> insert(3, "TXN-20250211-1", "PENDING", LocalDateTime.of(2025, 2, 11, 10, 0)))
+            .hasMessageContaining("no partition");
+    }
+    
+    private void insert(long id, String transactionId, String status, LocalDateTime timestamp) {
+        jdbcTemplate.update("INSERT INTO transactions (id, transaction_id, source_upi, destination_upi, amount, "
+            + "status, \"timestamp\") VALUES (?, ?, 'alice@okaxis', 'bob@paytm', 500.00, ?, ?)",
+            id, transactionId, status, timestamp);
+    }
+}
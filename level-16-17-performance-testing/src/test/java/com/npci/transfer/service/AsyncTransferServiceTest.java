@@ -0,0 +1,179 @@
+package com.npci.transfer.service;
+
+import com.npci.transfer.cache.TransactionStatusCache;
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.entity.Transaction;
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.money.Money;
+import com.npci.transfer.repository.AccountRepository;
+import com.npci.transfer.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.npci.transfer.util.TestDataBuilders.AccountBuilder.anAccount;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Async Transfer Service Tests
+ * 
+ * Drives single worker iterations (executeBatch) against mocked repositories.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Async Transfer Service Tests")
+class AsyncTransferServiceTest {
+    
+    @Mock
+    private AccountRepository accountRepository;
+    
+    @Mock
+    private TransactionRepository transactionRepository;
+    
+    @Mock
+    private StripedBalanceService stripedBalanceService;
+    
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    
+    @Mock
+    private TransferLimitService transferLimitService;
+    
+    @Mock
+    private TransactionStatusCache transactionStatusCache;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AsyncTransferService asyncTransferService;
+    
+    @BeforeEach
+    void setUp() {
+        Map<String, String> balances = Map.of("alice@okaxis", "1000.00", "bob@paytm", "1000.00");
+        lenient().when(accountRepository.findAllByUpiIdInForUpdate(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> upiIds = invocation.getArgument(0);
+            return upiIds.stream()
+                .filter(balances::containsKey)
+                .map(upiId -> anAccount().withUpiId(upiId).withBalance(balances.get(upiId)).build())
+                .toList();
+        });
+        
+        TransferMetrics transferMetrics = new TransferMetrics(meterRegistry);
+        asyncTransferService = new AsyncTransferService(
+            new TransferBatchApplier(accountRepository, stripedBalanceService, transferMetrics),
+            transactionRepository, jdbcTemplate, new TransferProperties(), transferMetrics, transferLimitService,
+            transactionStatusCache, transactionManager);
+    }
+    
+    @Test
+    @DisplayName("Should execute claimed transfers in turn and record why rejected ones failed")
+    void shouldExecuteClaimedTransfers() {
+        // Arrange: alice can only cover one of her two 600 debits
+        List<Transaction> claimed = List.of(
+            pending(1L, "alice@okaxis", "bob@paytm", "600.00"),
+            pending(2L, "alice@okaxis", "bob@paytm", "600.00"),
+            pending(3L, "bob@paytm", "nobody@ybl", "100.00"),
+            pending(4L, "nobody@ybl", "bob@paytm", "100.00"));
+        when(transactionRepository.claimPending(32)).thenReturn(claimed);
+        when(transactionRepository.saveAll(anyIterable())).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // Act
+        int executed = asyncTransferService.executeBatch(32);
+        
+        // Assert
+        assertThat(executed).isEqualTo(4);
+        assertThat(claimed).extracting(Transaction::getStatus)
+            .containsExactly("SUCCESS", "FAILED", "FAILED", "FAILED");
+        assertThat(claimed).extracting(Transaction::getErrorCode)
+            .containsExactly(null, "INSUFFICIENT_BALANCE", "INVALID_DESTINATION_UPI", "INVALID_SOURCE_UPI");
+        assertThat(claimed.get(1).getTotalDebited()).isEqualTo(Money.ZERO);
+        assertThat(claimed.get(1).getErrorMessage()).contains("Available: ₹400.00");
+        verify(transactionManager).commit(any());
+        assertThat(meterRegistry.counter("transfer.async.executed", "outcome", "success").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("transfer.async.executed", "outcome", "failed").count()).isEqualTo(3);
+        assertThat(meterRegistry.timer("transfer.async.lag").count()).isEqualTo(4);
+        verify(transferLimitService, times(3)).release(anyString(), any(), any());
+    }
+    
+    @Test
+    @DisplayName("Should claim nothing when the queue is empty")
+    void shouldReturnZero_WhenNothingPending() {
+        // Arrange
+        when(transactionRepository.claimPending(32)).thenReturn(List.of());
+        
+        // Act & Assert
+        assertThat(asyncTransferService.executeBatch(32)).isZero();
+        verifyNoInteractions(accountRepository);
+    }
+    
+    @Test
+    @DisplayName("Should rethrow a failed batch so the worker retries it one transfer at a time")
+    void shouldRethrow_WhenBatchFails() {
+        // Arrange
+        when(transactionRepository.claimPending(32)).thenReturn(List.of(
+            pending(1L, "alice@okaxis", "bob@paytm", "100.00"),
+            pending(2L, "bob@paytm", "alice@okaxis", "100.00")));
+        when(transactionRepository.saveAll(anyIterable()))
+            .thenThrow(new DataIntegrityViolationException("constraint violated"));
+        
+        // Act & Assert
+        assertThatThrownBy(() -> asyncTransferService.executeBatch(32))
+            .isInstanceOf(DataIntegrityViolationException.class);
+        verify(transactionManager).rollback(any());
+        verifyNoInteractions(transferLimitService);
+        assertThat(meterRegistry.counter("transfer.async.batch.failures").count()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should mark a single transfer that cannot be executed as FAILED")
+    void shouldMarkFailed_WhenSingleTransferFails() {
+        // Arrange
+        Transaction poisoned = pending(7L, "alice@okaxis", "bob@paytm", "100.00");
+        when(transactionRepository.claimPending(1)).thenReturn(List.of(poisoned));
+        when(transactionRepository.saveAll(anyIterable()))
+            .thenThrow(new DataIntegrityViolationException("constraint violated"));
+        Transaction reloaded = pending(7L, "alice@okaxis", "bob@paytm", "100.00");
+        when(transactionRepository.findById(7L)).thenReturn(Optional.of(reloaded));
+        
+        // Act
+        int executed = asyncTransferService.executeBatch(1);
+        
+        // Assert
+        assertThat(executed).isEqualTo(1);
+        verify(transactionRepository).save(reloaded);
+        assertThat(reloaded.getStatus()).isEqualTo("FAILED");
+        assertThat(reloaded.getErrorCode()).isEqualTo("INTERNAL_SERVER_ERROR");
+        assertThat(reloaded.getTotalDebited()).isEqualTo(Money.ZERO);
+        verify(transferLimitService).release("alice@okaxis", new BigDecimal("100.00"), reloaded.getTimestamp().toLocalDate());
+    }
+    
+    private Transaction pending(Long id, String source, String destination, String amount) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setTransactionId("TXN-" + id);
+        transaction.setSourceUPI(source);
+        transaction.setDestinationUPI(destination);
+        transaction.setAmount(Money.of(amount));
+        transaction.setFee(Money.ZERO);
+        transaction.setTotalDebited(Money.of(amount));
+        transaction.setStatus("PENDING");
+        transaction.setTimestamp(LocalDateTime.now());
+        return transaction;
+    }
+}
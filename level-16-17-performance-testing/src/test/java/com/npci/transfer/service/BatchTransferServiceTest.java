@@ -0,0 +1,230 @@
+package com.npci.transfer.service;
+
+import com.npci.transfer.cache.AccountMetadataCache;
+import com.npci.transfer.cache.TransactionStatusCache;
+import com.npci.transfer.config.ExecutionMode;
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.dto.BatchTransferResponse;
+import com.npci.transfer.dto.BatchTransferResult;
+import com.npci.transfer.dto.TransferRequest;
+import com.npci.transfer.entity.Transaction;
+import com.npci.transfer.exception.InvalidTransferException;
+import com.npci.transfer.exception.LimitExceededException;
+import com.npci.transfer.id.SnowflakeTransactionIdGenerator;
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.repository.AccountRepository;
+import com.npci.transfer.repository.FeeRuleRepository;
+import com.npci.transfer.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static com.npci.transfer.util.TestDataBuilders.AccountBuilder.anAccount;
+import static com.npci.transfer.util.TestDataBuilders.TransferRequestBuilder.aTransferRequest;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Batch Transfer Service Tests
+ * 
+ * Real TransferBatchApplier and FeeCalculator against mocked repositories.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Batch Transfer Service Tests")
+class BatchTransferServiceTest {
+    
+    @Mock
+    private AccountRepository accountRepository;
+    
+    @Mock
+    private TransactionRepository transactionRepository;
+    
+    @Mock
+    private StripedBalanceService stripedBalanceService;
+    
+    @Mock
+    private TransferLimitService transferLimitService;
+    
+    @Mock
+    private TransactionStatusCache transactionStatusCache;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private final List<Transaction> savedTransactions = new ArrayList<>();
+    private TransferProperties transferProperties;
+    private BatchTransferService batchTransferService;
+    
+    @BeforeEach
+    void setUp() {
+        Map<String, String> balances = Map.of("alice@okaxis", "1000.00", "bob@paytm", "1000.00");
+        lenient().when(accountRepository.findAllByUpiIdInForUpdate(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> upiIds = invocation.getArgument(0);
+            return upiIds.stream()
+                .filter(balances::containsKey)
+                .map(upiId -> anAccount().withUpiId(upiId).withBalance(balances.get(upiId)).build())
+                .toList();
+        });
+        lenient().when(transactionRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            List<Transaction> transactions = new ArrayList<>();
+            invocation.<Iterable<Transaction>>getArgument(0).forEach(transactions::add);
+            if (transactions.stream().anyMatch(transaction -> "poison".equals(transaction.getRemarks()))) {
+                throw new DataIntegrityViolationException("constraint violated");
+            }
+            savedTransactions.addAll(transactions);
+            return transactions;
+        });
+        
+        transferProperties = new TransferProperties();
+        TransferMetrics transferMetrics = new TransferMetrics(new SimpleMeterRegistry());
+        FeeCalculator feeCalculator = new FeeCalculator(mock(FeeRuleRepository.class), mock(AccountMetadataCache.class),
+            transferProperties, transferMetrics);
+        batchTransferService = new BatchTransferService(
+            new TransferBatchApplier(accountRepository, stripedBalanceService, transferMetrics),
+            transactionRepository, feeCalculator, transferProperties, transferMetrics,
+            new SnowflakeTransactionIdGenerator(0, Clock.systemDefaultZone()), transferLimitService,
+            transactionStatusCache, transactionManager, Validation.buildDefaultValidatorFactory().getValidator());
+    }
+    
+    @Test
+    @DisplayName("Should report every item's outcome in request order")
+    void shouldReturnResultsInRequestOrder() {
+        // Act: alice can only cover one of her two 600 debits
+        BatchTransferResponse response = batchTransferService.transferBatch(List.of(
+            transfer("alice@okaxis", "bob@paytm", "600"),
+            transfer("alice@okaxis", "bob@paytm", "600"),
+            transfer("alice@okaxis", "alice@okaxis", "100"),
+            transfer("bob@paytm", "nobody@ybl", "100"),
+            transfer("bob@paytm", "alice@okaxis", "10.555")));
+        
+        // Assert
+        assertThat(response.getSucceeded()).isEqualTo(1);
+        assertThat(response.getFailed()).isEqualTo(4);
+        assertThat(response.getResults()).extracting(BatchTransferResult::getIndex)
+            .containsExactly(0, 1, 2, 3, 4);
+        assertThat(response.getResults().get(0).getTransfer().getStatus()).isEqualTo("SUCCESS");
+        assertThat(response.getResults().subList(1, 5)).extracting(result -> result.getError().getError())
+            .containsExactly("Insufficient Balance", "Invalid Transfer", "Account Not Found", "Invalid Amount");
+        assertThat(response.getResults().get(3).getError().getStatus()).isEqualTo(404);
+        assertThat(savedTransactions).hasSize(1);
+        verify(transactionManager, times(1)).commit(any());
+        // Reserved against the limits, then rejected: insufficient balance and unknown account
+        verify(transferLimitService, times(3)).reserve(anyString(), any());
+        verify(transferLimitService, times(2)).release(anyString(), any(), any());
+    }
+    
+    @Test
+    @DisplayName("Should report a bean validation failure in that item's result only")
+    void shouldRejectOnlyInvalidItem() {
+        // Act
+        BatchTransferResponse response = batchTransferService.transferBatch(List.of(
+            transfer("alice@okaxis", "bob@paytm", "10"),
+            aTransferRequest().from("alice@okaxis").to("bob@paytm").withAmount((BigDecimal) null).build(),
+            aTransferRequest().from("not a upi id").to("bob@paytm").withAmount("10").build()));
+        
+        // Assert
+        assertThat(response.getSucceeded()).isEqualTo(1);
+        assertThat(response.getResults().get(1).getError().getError()).isEqualTo("Validation Error");
+        assertThat(response.getResults().get(1).getError().getValidationErrors()).containsKey("amount");
+        assertThat(response.getResults().get(2).getError().getStatus()).isEqualTo(400);
+        assertThat(response.getResults().get(2).getError().getValidationErrors()).containsKey("sourceUPI");
+        assertThat(savedTransactions).hasSize(1);
+        verify(transferLimitService, times(1)).reserve(anyString(), any());
+    }
+    
+    @Test
+    @DisplayName("Should reject only the item over its account's limit")
+    void shouldRejectItemOverLimit() {
+        // Arrange
+        lenient().doThrow(new LimitExceededException("Daily limit exceeded"))
+            .when(transferLimitService).reserve(eq("bob@paytm"), any());
+        
+        // Act
+        BatchTransferResponse response = batchTransferService.transferBatch(List.of(
+            transfer("alice@okaxis", "bob@paytm", "10"),
+            transfer("bob@paytm", "alice@okaxis", "10")));
+        
+        // Assert
+        assertThat(response.getSucceeded()).isEqualTo(1);
+        assertThat(response.getResults().get(1).getError().getError()).isEqualTo("Limit Exceeded");
+        assertThat(savedTransactions).hasSize(1);
+    }
+    
+    @Test
+    @DisplayName("Should apply one transaction per chunk")
+    void shouldCommitOncePerChunk() {
+        // Arrange
+        transferProperties.getBatch().setChunkSize(2);
+        
+        // Act
+        BatchTransferResponse response = batchTransferService.transferBatch(
+            Collections.nCopies(5, transfer("alice@okaxis", "bob@paytm", "10")));
+        
+        // Assert
+        assertThat(response.getSucceeded()).isEqualTo(5);
+        verify(transactionManager, times(3)).commit(any());
+        verify(accountRepository, times(3)).findAllByUpiIdInForUpdate(anyCollection());
+    }
+    
+    @Test
+    @DisplayName("Should split a failed chunk so only the failing transfer is rejected")
+    void shouldSplitFailedChunk() {
+        // Act
+        BatchTransferResponse response = batchTransferService.transferBatch(List.of(
+            transfer("alice@okaxis", "bob@paytm", "10"),
+            aTransferRequest().from("bob@paytm").to("alice@okaxis").withAmount("10").withRemarks("poison").build(),
+            transfer("alice@okaxis", "bob@paytm", "10")));
+        
+        // Assert
+        assertThat(response.getSucceeded()).isEqualTo(2);
+        assertThat(response.getResults().get(1).getError().getError()).isEqualTo("Internal Server Error");
+        assertThat(savedTransactions).extracting(Transaction::getRemarks).doesNotContain("poison");
+        assertThat(savedTransactions).hasSize(2);
+    }
+    
+    @Test
+    @DisplayName("Should reject a batch larger than the configured maximum")
+    void shouldRejectOversizedBatch() {
+        // Arrange
+        transferProperties.getBatch().setMaxSize(2);
+        
+        // Act & Assert
+        assertThatThrownBy(() -> batchTransferService.transferBatch(
+                Collections.nCopies(3, transfer("alice@okaxis", "bob@paytm", "10"))))
+            .isInstanceOf(InvalidTransferException.class)
+            .hasMessage("A batch cannot contain more than 2 transfers");
+        verifyNoInteractions(accountRepository, transactionRepository);
+    }
+    
+    @Test
+    @DisplayName("Should reject batches in ledger execution mode")
+    void shouldRejectBatch_WhenLedgerMode() {
+        // Arrange
+        transferProperties.getExecution().setMode(ExecutionMode.LEDGER);
+        
+        // Act & Assert
+        assertThatThrownBy(() -> batchTransferService.transferBatch(
+                List.of(transfer("alice@okaxis", "bob@paytm", "10"))))
+            .isInstanceOf(InvalidTransferException.class);
+    }
+    
+    private TransferRequest transfer(String source, String destination, String amount) {
+        return aTransferRequest().from(source).to(destination).withAmount(amount).build();
+    }
+}
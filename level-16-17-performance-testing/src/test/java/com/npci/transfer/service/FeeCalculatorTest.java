@@ -1,15 +1,32 @@
 package com.npci.transfer.service;
 
+import com.npci.transfer.cache.AccountMetadata;
+import com.npci.transfer.cache.AccountMetadataCache;
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.entity.FeeRule;
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.money.Money;
+import com.npci.transfer.repository.FeeRuleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 /**
  * Fee Calculator Tests
@@ -19,15 +36,32 @@ import static org.assertj.core.api.Assertions.*;
  * - Edge case testing
  * - Boundary value testing
  * - Clear test names
+ * 
+ * With fee_rules empty (the repository mock returns nothing until a test
+ * says otherwise) the default ₹5-over-₹1,000 schedule applies.
  */
+@ExtendWith(MockitoExtension.class)
 @DisplayName("Fee Calculator Tests")
 class FeeCalculatorTest {
     
+    private static final String SOURCE_UPI = "alice@okaxis";
+    private static final String DESTINATION_UPI = "bob@paytm";
+    
+    @Mock
+    private FeeRuleRepository feeRuleRepository;
+    
+    @Mock
+    private AccountMetadataCache accountMetadataCache;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
     private FeeCalculator feeCalculator;
     
     @BeforeEach
     void setUp() {
-        feeCalculator = new FeeCalculator();
+        // 10:00 IST
+        Clock clock = Clock.fixed(Instant.parse("2024-12-20T04:30:00Z"), ZoneId.of("Asia/Kolkata"));
+        feeCalculator = new FeeCalculator(feeRuleRepository, accountMetadataCache, new TransferProperties(),
+            new TransferMetrics(meterRegistry), clock);
     }
     
     // ========== Happy Path Tests ==========
@@ -36,26 +70,26 @@ class FeeCalculatorTest {
     @DisplayName("Should return zero fee for amounts up to ₹1,000")
     void shouldReturnZeroFee_ForAmountsUpToThreshold() {
         // Arrange
-        BigDecimal amount = new BigDecimal("1000");
+        Money amount = Money.of("1000");
         
         // Act
-        BigDecimal fee = feeCalculator.calculateFee(amount);
+        Money fee = feeCalculator.calculateFee(amount, SOURCE_UPI, DESTINATION_UPI);
         
         // Assert
-        assertThat(fee).isEqualTo(BigDecimal.ZERO);
+        assertThat(fee).isEqualTo(Money.ZERO);
     }
     
     @Test
     @DisplayName("Should return ₹5 fee for amounts over ₹1,000")
     void shouldReturn5Fee_ForAmountsOverThreshold() {
         // Arrange
-        BigDecimal amount = new BigDecimal("1001");
+        Money amount = Money.of("1001");
         
         // Act
-        BigDecimal fee = feeCalculator.calculateFee(amount);
+        Money fee = feeCalculator.calculateFee(amount, SOURCE_UPI, DESTINATION_UPI);
         
         // Assert
-        assertThat(fee).isEqualTo(new BigDecimal("5.00"));
+        assertThat(fee).isEqualTo(Money.of("5.00"));
     }
     
     // ========== Parameterized Tests - No Fee Amounts ==========
@@ -65,13 +99,13 @@ class FeeCalculatorTest {
     @DisplayName("Should not charge fee for amounts ≤ ₹1,000")
     void shouldNotChargeFee_ForAmountsBelowOrEqualToThreshold(String amountStr) {
         // Arrange
-        BigDecimal amount = new BigDecimal(amountStr);
+        Money amount = Money.of(amountStr);
         
         // Act
-        BigDecimal fee = feeCalculator.calculateFee(amount);
+        Money fee = feeCalculator.calculateFee(amount, SOURCE_UPI, DESTINATION_UPI);
         
         // Assert
-        assertThat(fee).isEqualTo(BigDecimal.ZERO);
+        assertThat(fee).isEqualTo(Money.ZERO);
     }
     
     // ========== Parameterized Tests - With Fee Amounts ==========
@@ -81,13 +115,13 @@ class FeeCalculatorTest {
     @DisplayName("Should charge ₹5 fee for amounts > ₹1,000")
     void shouldCharge5Fee_ForAmountsAboveThreshold(String amountStr) {
         // Arrange
-        BigDecimal amount = new BigDecimal(amountStr);
+        Money amount = Money.of(amountStr);
         
         // Act
-        BigDecimal fee = feeCalculator.calculateFee(amount);
+        Money fee = feeCalculator.calculateFee(amount, SOURCE_UPI, DESTINATION_UPI);
         
         // Assert
-        assertThat(fee).isEqualTo(new BigDecimal("5.00"));
+        assertThat(fee).isEqualTo(Money.of("5.00"));
     }
     
     // ========== Comprehensive Test with CSV ==========
@@ -111,11 +145,11 @@ class FeeCalculatorTest {
     @DisplayName("Should calculate fee correctly for various amounts")
     void shouldCalculateFeeCorrectly(String amountStr, String expectedFeeStr) {
         // Arrange
-        BigDecimal amount = new BigDecimal(amountStr);
-        BigDecimal expectedFee = new BigDecimal(expectedFeeStr);
+        Money amount = Money.of(amountStr);
+        Money expectedFee = Money.of(expectedFeeStr);
         
         // Act
-        BigDecimal actualFee = feeCalculator.calculateFee(amount);
+        Money actualFee = feeCalculator.calculateFee(amount, SOURCE_UPI, DESTINATION_UPI);
         
         // Assert
         assertThat(actualFee)
@@ -129,39 +163,39 @@ class FeeCalculatorTest {
     @DisplayName("Should not charge fee at exact threshold (₹1,000)")
     void shouldNotChargeFee_AtExactThreshold() {
         // Arrange - Exactly ₹1,000
-        BigDecimal amount = new BigDecimal("1000.00");
+        Money amount = Money.of("1000.00");
         
         // Act
-        BigDecimal fee = feeCalculator.calculateFee(amount);
+        Money fee = feeCalculator.calculateFee(amount, SOURCE_UPI, DESTINATION_UPI);
         
         // Assert
-        assertThat(fee).isEqualTo(BigDecimal.ZERO);
+        assertThat(fee).isEqualTo(Money.ZERO);
     }
     
     @Test
     @DisplayName("Should charge fee just above threshold (₹1,000.01)")
     void shouldChargeFee_JustAboveThreshold() {
         // Arrange - Just above ₹1,000
-        BigDecimal amount = new BigDecimal("1000.01");
+        Money amount = Money.of("1000.01");
         
         // Act
-        BigDecimal fee = feeCalculator.calculateFee(amount);
+        Money fee = feeCalculator.calculateFee(amount, SOURCE_UPI, DESTINATION_UPI);
         
         // Assert
-        assertThat(fee).isEqualTo(new BigDecimal("5.00"));
+        assertThat(fee).isEqualTo(Money.of("5.00"));
     }
     
     @Test
     @DisplayName("Should not charge fee just below threshold (₹999.99)")
     void shouldNotChargeFee_JustBelowThreshold() {
         // Arrange - Just below ₹1,000
-        BigDecimal amount = new BigDecimal("999.99");
+        Money amount = Money.of("999.99");
         
         // Act
-        BigDecimal fee = feeCalculator.calculateFee(amount);
+        Money fee = feeCalculator.calculateFee(amount, SOURCE_UPI, DESTINATION_UPI);
         
         // Assert
-        assertThat(fee).isEqualTo(BigDecimal.ZERO);
+        assertThat(fee).isEqualTo(Money.ZERO);
     }
     
     // ========== Edge Case Tests ==========
@@ -170,36 +204,36 @@ class FeeCalculatorTest {
     @DisplayName("Should return zero fee for minimum amount (₹1)")
     void shouldReturnZeroFee_ForMinimumAmount() {
         // Arrange
-        BigDecimal amount = new BigDecimal("1");
+        Money amount = Money.of("1");
         
         // Act
-        BigDecimal fee = feeCalculator.calculateFee(amount);
+        Money fee = feeCalculator.calculateFee(amount, SOURCE_UPI, DESTINATION_UPI);
         
         // Assert
-        assertThat(fee).isEqualTo(BigDecimal.ZERO);
+        assertThat(fee).isEqualTo(Money.ZERO);
     }
     
     @Test
     @DisplayName("Should return ₹5 fee for maximum amount (₹1,00,000)")
     void shouldReturn5Fee_ForMaximumAmount() {
         // Arrange
-        BigDecimal amount = new BigDecimal("100000");
+        Money amount = Money.of("100000");
         
         // Act
-        BigDecimal fee = feeCalculator.calculateFee(amount);
+        Money fee = feeCalculator.calculateFee(amount, SOURCE_UPI, DESTINATION_UPI);
         
         // Assert
-        assertThat(fee).isEqualTo(new BigDecimal("5.00"));
+        assertThat(fee).isEqualTo(Money.of("5.00"));
     }
     
     @Test
     @DisplayName("Should handle null amount gracefully")
     void shouldHandleNullAmount() {
         // Act
-        BigDecimal fee = feeCalculator.calculateFee(null);
+        Money fee = feeCalculator.calculateFee(null, SOURCE_UPI, DESTINATION_UPI);
         
         // Assert
-        assertThat(fee).isEqualTo(BigDecimal.ZERO);
+        assertThat(fee).isEqualTo(Money.ZERO);
     }
     
     // ========== Decimal Precision Tests ==========
@@ -208,26 +242,26 @@ class FeeCalculatorTest {
     @DisplayName("Should handle amounts with decimal places")
     void shouldHandleAmountsWithDecimals() {
         // Arrange
-        BigDecimal amount = new BigDecimal("1234.56");
+        Money amount = Money.of("1234.56");
         
         // Act
-        BigDecimal fee = feeCalculator.calculateFee(amount);
+        Money fee = feeCalculator.calculateFee(amount, SOURCE_UPI, DESTINATION_UPI);
         
         // Assert
-        assertThat(fee).isEqualTo(new BigDecimal("5.00"));
+        assertThat(fee).isEqualTo(Money.of("5.00"));
     }
     
     @Test
     @DisplayName("Should return fee with correct decimal precision")
     void shouldReturnFeeWithCorrectPrecision() {
         // Arrange
-        BigDecimal amount = new BigDecimal("1500");
+        Money amount = Money.of("1500");
         
         // Act
-        BigDecimal fee = feeCalculator.calculateFee(amount);
+        Money fee = feeCalculator.calculateFee(amount, SOURCE_UPI, DESTINATION_UPI);
         
         // Assert
-        assertThat(fee.scale()).isEqualTo(2);  // Two decimal places
+        assertThat(fee.paise()).isEqualTo(500);  // Whole paise, two decimal places
         assertThat(fee.toString()).isEqualTo("5.00");
     }
     
@@ -237,12 +271,12 @@ class FeeCalculatorTest {
     @DisplayName("Should return same fee for same amount (idempotent)")
     void shouldReturnSameFee_ForSameAmount() {
         // Arrange
-        BigDecimal amount = new BigDecimal("1500");
+        Money amount = Money.of("1500");
         
         // Act
-        BigDecimal fee1 = feeCalculator.calculateFee(amount);
-        BigDecimal fee2 = feeCalculator.calculateFee(amount);
-        BigDecimal fee3 = feeCalculator.calculateFee(amount);
+        Money fee1 = feeCalculator.calculateFee(amount, SOURCE_UPI, DESTINATION_UPI);
+        Money fee2 = feeCalculator.calculateFee(amount, SOURCE_UPI, DESTINATION_UPI);
+        Money fee3 = feeCalculator.calculateFee(amount, SOURCE_UPI, DESTINATION_UPI);
         
         // Assert
         assertThat(fee1).isEqualTo(fee2);
@@ -253,31 +287,111 @@ class FeeCalculatorTest {
     @DisplayName("Should be stateless (no side effects)")
     void shouldBeStateless() {
         // Arrange
-        BigDecimal amount1 = new BigDecimal("500");
-        BigDecimal amount2 = new BigDecimal("1500");
+        Money amount1 = Money.of("500");
+        Money amount2 = Money.of("1500");
         
         // Act - Multiple calls in different order
-        BigDecimal fee1a = feeCalculator.calculateFee(amount1);
-        BigDecimal fee2a = feeCalculator.calculateFee(amount2);
-        BigDecimal fee1b = feeCalculator.calculateFee(amount1);
-        BigDecimal fee2b = feeCalculator.calculateFee(amount2);
+        Money fee1a = feeCalculator.calculateFee(amount1, SOURCE_UPI, DESTINATION_UPI);
+        Money fee2a = feeCalculator.calculateFee(amount2, SOURCE_UPI, DESTINATION_UPI);
+        Money fee1b = feeCalculator.calculateFee(amount1, SOURCE_UPI, DESTINATION_UPI);
+        Money fee2b = feeCalculator.calculateFee(amount2, SOURCE_UPI, DESTINATION_UPI);
         
         // Assert - Results should be consistent
         assertThat(fee1a).isEqualTo(fee1b);
         assertThat(fee2a).isEqualTo(fee2b);
     }
     
+    // ========== Rule Table Tests ==========
+    
+    @Test
+    @DisplayName("Should swap in the fee_rules table on reload and skip an unchanged one")
+    void shouldReloadRules() {
+        // Arrange
+        FeeRule flat = FeeRule.builder().id(1L).fixedFee(Money.of("2.50")).build();
+        when(feeRuleRepository.findAll()).thenReturn(List.of(flat));
+        
+        // Act
+        boolean reloaded = feeCalculator.reload();
+        boolean reloadedAgain = feeCalculator.reload();
+        
+        // Assert
+        assertThat(reloaded).isTrue();
+        assertThat(reloadedAgain).isFalse();
+        assertThat(feeCalculator.calculateFee(Money.of("500"), SOURCE_UPI, DESTINATION_UPI))
+            .isEqualTo(Money.of("2.50"));
+        assertThat(meterRegistry.get("transfer.fees.rules").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("transfer.fees.compile").timer().count()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should keep the current schedule when the table does not compile")
+    void shouldKeepScheduleOnBadTable() {
+        // Arrange
+        FeeRule inverted = FeeRule.builder().id(1L).minAmount(Money.of("500")).maxAmount(Money.of("100"))
+            .fixedFee(Money.ofRupees(1)).build();
+        when(feeRuleRepository.findAll()).thenReturn(List.of(inverted));
+        
+        // Act
+        boolean reloaded = feeCalculator.reload();
+        
+        // Assert
+        assertThat(reloaded).isFalse();
+        assertThat(feeCalculator.calculateFee(Money.of("1500"), SOURCE_UPI, DESTINATION_UPI))
+            .isEqualTo(Money.of("5.00"));
+        assertThat(meterRegistry.get("transfer.fees.reload.failures").counter().count()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should look up the payer's tier only when a rule uses tiers")
+    void shouldLookUpTierOnlyWhenNeeded() {
+        // Arrange
+        FeeRule premium = FeeRule.builder().id(1L).tier("PREMIUM").fixedFee(Money.ZERO).build();
+        FeeRule standard = FeeRule.builder().id(2L).fixedFee(Money.ofRupees(3)).build();
+        when(feeRuleRepository.findAll()).thenReturn(List.of(premium, standard));
+        when(accountMetadataCache.find(SOURCE_UPI)).thenReturn(Optional.of(
+            new AccountMetadata(1L, SOURCE_UPI, "ACTIVE", null, null, null, "PREMIUM")));
+        when(accountMetadataCache.find("carol@ybl")).thenReturn(Optional.of(
+            new AccountMetadata(3L, "carol@ybl", "ACTIVE", null, null, null, null)));
+        
+        // Act
+        Money beforeReload = feeCalculator.calculateFee(Money.of("1500"), SOURCE_UPI, DESTINATION_UPI);
+        feeCalculator.reload();
+        
+        // Assert
+        assertThat(beforeReload).isEqualTo(Money.of("5.00"));
+        assertThat(feeCalculator.calculateFee(Money.of("1500"), SOURCE_UPI, DESTINATION_UPI)).isEqualTo(Money.ZERO);
+        assertThat(feeCalculator.calculateFee(Money.of("1500"), "carol@ybl", DESTINATION_UPI))
+            .isEqualTo(Money.of("3.00"));
+        verify(accountMetadataCache, times(2)).find(anyString());
+    }
+    
+    @Test
+    @DisplayName("Should match time-of-day rules in the clock's zone")
+    void shouldUseLocalTimeOfDay() {
+        // Arrange - 09:00-18:00 IST, and it is 10:00 IST (04:30 UTC)
+        FeeRule businessHours = FeeRule.builder().id(1L).startTime(LocalTime.of(9, 0)).endTime(LocalTime.of(18, 0))
+            .fixedFee(Money.ofRupees(1)).build();
+        when(feeRuleRepository.findAll()).thenReturn(List.of(businessHours));
+        
+        // Act
+        feeCalculator.reload();
+        
+        // Assert
+        assertThat(feeCalculator.calculateFee(Money.of("500"), SOURCE_UPI, DESTINATION_UPI))
+            .isEqualTo(Money.of("1.00"));
+    }
+    
     // ========== Performance Tests ==========
     
     @Test
     @DisplayName("Should calculate fee quickly (<1ms)")
     void shouldCalculateFeeQuickly() {
         // Arrange
-        BigDecimal amount = new BigDecimal("1500");
+        Money amount = Money.of("1500");
         
         // Act & Assert
         long startTime = System.nanoTime();
-        BigDecimal fee = feeCalculator.calculateFee(amount);
+        Money fee = feeCalculator.calculateFee(amount, SOURCE_UPI, DESTINATION_UPI);
         long endTime = System.nanoTime();
         
         long durationMs = (endTime - startTime) / 1_000_000;
@@ -0,0 +1,226 @@
+package com.npci.transfer.service;
+
+import com.npci.transfer.config.ExecutionMode;
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.entity.Account;
+import com.npci.transfer.entity.Transaction;
+import com.npci.transfer.exception.InsufficientBalanceException;
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.money.Money;
+import com.npci.transfer.repository.AccountRepository;
+import com.npci.transfer.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.npci.transfer.util.TestDataBuilders.AccountBuilder.anAccount;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Group Commit Service Tests
+ * 
+ * Runs the real committer thread against mocked repositories. The mocks
+ * behave like a database: locked accounts are fresh copies, and saved
+ * balances only become visible when the transaction manager commits.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Group Commit Service Tests")
+class GroupCommitServiceTest {
+    
+    private static final int BATCH = 3;
+    
+    @Mock
+    private AccountRepository accountRepository;
+    
+    @Mock
+    private TransactionRepository transactionRepository;
+    
+    @Mock
+    private StripedBalanceService stripedBalanceService;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private final Map<String, BigDecimal> committedBalances = new HashMap<>();
+    private final List<Account> stagedAccounts = new ArrayList<>();
+    private final List<Transaction> committedTransactions = new ArrayList<>();
+    private final List<Transaction> stagedTransactions = new ArrayList<>();
+    
+    private final ExecutorService callers = Executors.newFixedThreadPool(BATCH);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TransferProperties transferProperties;
+    private GroupCommitService groupCommitService;
+    
+    @BeforeEach
+    void setUp() {
+        transferProperties = new TransferProperties();
+        transferProperties.getExecution().setMode(ExecutionMode.GROUP_COMMIT);
+        transferProperties.getGroupCommit().setCommitters(1);
+        transferProperties.getGroupCommit().setMaxBatchSize(BATCH);
+        transferProperties.getGroupCommit().setMaxDelay(Duration.ofSeconds(2));
+        
+        committedBalances.put("alice@okaxis", new BigDecimal("1000.00"));
+        committedBalances.put("bob@paytm", new BigDecimal("1000.00"));
+        committedBalances.put("carol@ybl", new BigDecimal("1000.00"));
+        
+        when(accountRepository.findAllByUpiIdInForUpdate(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> upiIds = invocation.getArgument(0);
+            return upiIds.stream()
+                .filter(committedBalances::containsKey)
+                .map(upiId -> anAccount().withUpiId(upiId)
+                    .withBalance(committedBalances.get(upiId).toPlainString()).build())
+                .toList();
+        });
+        when(accountRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            invocation.<Iterable<Account>>getArgument(0).forEach(stagedAccounts::add);
+            return List.of();
+        });
+        when(transactionRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            for (Transaction transaction : invocation.<Iterable<Transaction>>getArgument(0)) {
+                if (transaction.getTransactionId().startsWith("TXN-DUP")) {
+                    throw new DataIntegrityViolationException("duplicate key value violates unique constraint");
+                }
+                stagedTransactions.add(transaction);
+            }
+            return List.of();
+        });
+        lenient().doAnswer(invocation -> {
+            stagedAccounts.forEach(account -> committedBalances.put(account.getUpiId(), account.getBalance()));
+            committedTransactions.addAll(stagedTransactions);
+            stagedAccounts.clear();
+            stagedTransactions.clear();
+            return null;
+        }).when(transactionManager).commit(any());
+        lenient().doAnswer(invocation -> {
+            stagedAccounts.clear();
+            stagedTransactions.clear();
+            return null;
+        }).when(transactionManager).rollback(any());
+        
+        TransferMetrics transferMetrics = new TransferMetrics(meterRegistry);
+        groupCommitService = new GroupCommitService(
+            new TransferBatchApplier(accountRepository, stripedBalanceService, transferMetrics),
+            transactionRepository, transferProperties, transferMetrics, transactionManager);
+        groupCommitService.start();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        groupCommitService.stop();
+        callers.shutdownNow();
+    }
+    
+    @Test
+    @DisplayName("Should apply concurrent transfers in one transaction, validating each in turn")
+    void shouldCommitConcurrentTransfersOnce() {
+        // Act: alice can only cover one of her two 600 debits
+        List<CompletableFuture<Transaction>> results = commitTogether(
+            transfer("TXN-1", "alice@okaxis", "bob@paytm", "600.00"),
+            transfer("TXN-2", "alice@okaxis", "bob@paytm", "600.00"),
+            transfer("TXN-3", "carol@ybl", "bob@paytm", "100.00"));
+        
+        // Assert
+        assertThat(results.stream().filter(CompletableFuture::isCompletedExceptionally).count()).isEqualTo(1);
+        assertThatThrownBy(() -> results.stream().map(CompletableFuture::join).toList())
+            .hasCauseInstanceOf(InsufficientBalanceException.class)
+            .hasMessageContaining("Available: ₹400.00");
+        verify(transactionManager, times(1)).commit(any());
+        assertThat(committedTransactions).hasSize(2);
+        assertThat(committedBalances.get("alice@okaxis")).isEqualByComparingTo("400.00");
+        assertThat(committedBalances.get("bob@paytm")).isEqualByComparingTo("1700.00");
+        assertThat(committedBalances.get("carol@ybl")).isEqualByComparingTo("900.00");
+        assertThat(meterRegistry.summary("transfer.groupcommit.batch.size").max()).isEqualTo(BATCH);
+    }
+    
+    @Test
+    @DisplayName("Should split a failed batch so only the failing transfer is rejected")
+    void shouldSplitFailedBatch_WhenSplitOnFailureEnabled() {
+        // Act
+        List<CompletableFuture<Transaction>> results = commitTogether(
+            transfer("TXN-1", "alice@okaxis", "bob@paytm", "100.00"),
+            transfer("TXN-DUP", "bob@paytm", "carol@ybl", "100.00"),
+            transfer("TXN-3", "carol@ybl", "alice@okaxis", "100.00"));
+        
+        // Assert
+        assertThat(results.get(0).join().getTransactionId()).isEqualTo("TXN-1");
+        assertThat(results.get(2).join().getTransactionId()).isEqualTo("TXN-3");
+        assertThatThrownBy(results.get(1)::join).hasCauseInstanceOf(DataIntegrityViolationException.class);
+        assertThat(committedTransactions).extracting(Transaction::getTransactionId)
+            .containsExactlyInAnyOrder("TXN-1", "TXN-3");
+        assertThat(committedBalances.get("bob@paytm")).isEqualByComparingTo("1100.00");
+        assertThat(meterRegistry.counter("transfer.groupcommit.splits").count()).isPositive();
+    }
+    
+    @Test
+    @DisplayName("Should fail every transfer of a failed batch when splitting is disabled")
+    void shouldFailWholeBatch_WhenSplitOnFailureDisabled() {
+        // Arrange
+        transferProperties.getGroupCommit().setSplitOnFailure(false);
+        
+        // Act
+        List<CompletableFuture<Transaction>> results = commitTogether(
+            transfer("TXN-1", "alice@okaxis", "bob@paytm", "100.00"),
+            transfer("TXN-DUP", "bob@paytm", "carol@ybl", "100.00"),
+            transfer("TXN-3", "carol@ybl", "alice@okaxis", "100.00"));
+        
+        // Assert
+        for (CompletableFuture<Transaction> result : results) {
+            assertThatThrownBy(result::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(DataIntegrityViolationException.class);
+        }
+        assertThat(committedTransactions).isEmpty();
+        assertThat(committedBalances.get("alice@okaxis")).isEqualByComparingTo("1000.00");
+        assertThat(meterRegistry.counter("transfer.groupcommit.failures").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("transfer.groupcommit.splits").count()).isZero();
+    }
+    
+    // ========== Helpers ==========
+    
+    private Transaction transfer(String transactionId, String source, String destination, String amount) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(transactionId);
+        transaction.setSourceUPI(source);
+        transaction.setDestinationUPI(destination);
+        transaction.setAmount(Money.of(amount));
+        transaction.setFee(Money.ZERO);
+        transaction.setTotalDebited(Money.of(amount));
+        transaction.setStatus("SUCCESS");
+        transaction.setTimestamp(LocalDateTime.now());
+        return transaction;
+    }
+    
+    /**
+     * Commits the transfers from concurrent callers and waits for all of them.
+     */
+    private List<CompletableFuture<Transaction>> commitTogether(Transaction... transactions) {
+        List<CompletableFuture<Transaction>> results = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            results.add(CompletableFuture.supplyAsync(() -> groupCommitService.commit(transaction), callers));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).exceptionally(error -> null).join();
+        return results;
+    }
+}
@@ -0,0 +1,245 @@
+package com.npci.transfer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.npci.transfer.config.ExecutionMode;
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.dto.TransferRequest;
+import com.npci.transfer.dto.TransferResponse;
+import com.npci.transfer.entity.IdempotencyRecord;
+import com.npci.transfer.exception.IdempotencyKeyReusedException;
+import com.npci.transfer.exception.InsufficientBalanceException;
+import com.npci.transfer.exception.InvalidTransferException;
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.money.Money;
+import com.npci.transfer.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.npci.transfer.util.TestDataBuilders.TransferRequestBuilder.aTransferRequest;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Idempotency Service Tests
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Idempotency Service Tests")
+class IdempotencyServiceTest {
+    
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger executions = new AtomicInteger();
+    private IdempotencyService idempotencyService;
+    private TransferRequest request;
+    
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, objectMapper,
+            new TransferProperties(), new TransferMetrics(meterRegistry), transactionManager);
+        request = aTransferRequest()
+            .from("alice@okaxis")
+            .to("bob@paytm")
+            .withAmount("500")
+            .build();
+    }
+    
+    @Test
+    @DisplayName("Should execute once and replay the stored response from memory")
+    void shouldReplayFromCache() {
+        // Arrange
+        claimSucceeds();
+        
+        // Act
+        IdempotencyService.Outcome first = idempotencyService.execute("key-1", request, this::transfer);
+        IdempotencyService.Outcome second = idempotencyService.execute("key-1", request, this::transfer);
+        
+        // Assert
+        assertThat(executions).hasValue(1);
+        assertThat(first.replayed()).isFalse();
+        assertThat(second.replayed()).isTrue();
+        assertThat(second.response().getTransactionId()).isEqualTo(first.response().getTransactionId());
+        verify(idempotencyRecordRepository, times(1)).claim(eq("key-1"), anyString(), any());
+        verify(idempotencyRecordRepository).storeResponse(eq("key-1"), contains(first.response().getTransactionId()));
+        assertThat(meterRegistry.counter("transfer.idempotency.replays", "source", "cache").count()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should replay the response of a claim another transaction committed")
+    void shouldReplayFromDatabase() throws Exception {
+        // Arrange
+        TransferResponse stored = TransferResponse.builder()
+            .transactionId("TXN-20241220-000001")
+            .status("SUCCESS")
+            .amount(Money.of("500"))
+            .timestamp(LocalDateTime.now())
+            .build();
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.of(IdempotencyRecord.builder()
+            .idempotencyKey("key-1")
+            .requestHash(IdempotencyService.hash(request))
+            .responseBody(objectMapper.writeValueAsString(stored))
+            .createdAt(LocalDateTime.now().minusHours(1))
+            .build()));
+        
+        // Act
+        IdempotencyService.Outcome outcome = idempotencyService.execute("key-1", request, this::transfer);
+        
+        // Assert
+        assertThat(executions).hasValue(0);
+        assertThat(outcome.replayed()).isTrue();
+        assertThat(outcome.response().getTransactionId()).isEqualTo("TXN-20241220-000001");
+        verify(idempotencyRecordRepository, never()).storeResponse(anyString(), anyString());
+        assertThat(meterRegistry.counter("transfer.idempotency.replays", "source", "database").count())
+            .isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should claim a key again once its stored response has expired")
+    void shouldReclaimExpiredKey() {
+        // Arrange
+        when(idempotencyRecordRepository.claim(eq("key-1"), anyString(), any())).thenReturn(0, 1);
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.of(IdempotencyRecord.builder()
+            .idempotencyKey("key-1")
+            .requestHash(IdempotencyService.hash(request))
+            .responseBody("{}")
+            .createdAt(LocalDateTime.now().minusDays(2))
+            .build()));
+        
+        // Act
+        IdempotencyService.Outcome outcome = idempotencyService.execute("key-1", request, this::transfer);
+        
+        // Assert
+        assertThat(outcome.replayed()).isFalse();
+        assertThat(executions).hasValue(1);
+        verify(idempotencyRecordRepository).deleteExpired(eq("key-1"), any());
+    }
+    
+    @Test
+    @DisplayName("Should reject a key reused for a different transfer")
+    void shouldRejectKeyReusedForDifferentRequest() {
+        // Arrange
+        claimSucceeds();
+        idempotencyService.execute("key-1", request, this::transfer);
+        TransferRequest other = aTransferRequest()
+            .from("alice@okaxis")
+            .to("bob@paytm")
+            .withAmount("700")
+            .build();
+        
+        // Act & Assert
+        assertThatThrownBy(() -> idempotencyService.execute("key-1", other, this::transfer))
+            .isInstanceOf(IdempotencyKeyReusedException.class);
+        assertThat(executions).hasValue(1);
+    }
+    
+    @Test
+    @DisplayName("Should roll the claim of a rejected transfer back, so it can be retried")
+    void shouldNotStoreFailure() {
+        // Arrange
+        claimSucceeds();
+        
+        // Act
+        assertThatThrownBy(() -> idempotencyService.execute("key-1", request, () -> {
+            throw new InsufficientBalanceException("Insufficient balance");
+        })).isInstanceOf(InsufficientBalanceException.class);
+        IdempotencyService.Outcome retry = idempotencyService.execute("key-1", request, this::transfer);
+        
+        // Assert
+        assertThat(retry.replayed()).isFalse();
+        assertThat(executions).hasValue(1);
+        verify(transactionManager).rollback(any());
+        verify(idempotencyRecordRepository).storeResponse(eq("key-1"), contains(retry.response().getTransactionId()));
+    }
+    
+    @Test
+    @DisplayName("Should fail the request, not just log, when its response cannot be stored")
+    void shouldPropagateFailedStore() {
+        // Arrange
+        claimSucceeds();
+        when(idempotencyRecordRepository.storeResponse(eq("key-1"), anyString()))
+            .thenThrow(new DataAccessResourceFailureException("connection lost"))
+            .thenReturn(1);
+        
+        // Act
+        assertThatThrownBy(() -> idempotencyService.execute("key-1", request, this::transfer))
+            .isInstanceOf(DataAccessResourceFailureException.class);
+        IdempotencyService.Outcome retry = idempotencyService.execute("key-1", request, this::transfer);
+        
+        // Assert - the failed attempt was rolled back and not cached
+        verify(transactionManager).rollback(any());
+        assertThat(retry.replayed()).isFalse();
+        assertThat(executions).hasValue(2);
+    }
+    
+    @Test
+    @DisplayName("Should treat equal amounts with different scale as the same request")
+    void shouldHashEqualAmountsAlike() {
+        TransferRequest scaled = aTransferRequest()
+            .from("alice@okaxis")
+            .to("bob@paytm")
+            .withAmount("500.00")
+            .build();
+        
+        assertThat(IdempotencyService.hash(scaled)).isEqualTo(IdempotencyService.hash(request));
+    }
+    
+    @Test
+    @DisplayName("Should reject an over-long Idempotency-Key")
+    void shouldRejectOverLongKey() {
+        assertThatThrownBy(() -> idempotencyService.execute("k".repeat(256), request, this::transfer))
+            .isInstanceOf(InvalidTransferException.class);
+    }
+    
+    @ParameterizedTest
+    @EnumSource(value = ExecutionMode.class, names = {"LEDGER", "GROUP_COMMIT"})
+    @DisplayName("Should reject an Idempotency-Key when the transfer commits outside the claim")
+    void shouldRejectKey_WhenTransferCommitsElsewhere(ExecutionMode mode) {
+        // Arrange
+        TransferProperties transferProperties = new TransferProperties();
+        transferProperties.getExecution().setMode(mode);
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, objectMapper,
+            transferProperties, new TransferMetrics(meterRegistry), transactionManager);
+        
+        // Act & Assert
+        assertThatThrownBy(() -> idempotencyService.execute("key-1", request, this::transfer))
+            .isInstanceOf(InvalidTransferException.class)
+            .hasMessageContaining("not supported");
+        assertThat(executions).hasValue(0);
+        verifyNoInteractions(idempotencyRecordRepository, transactionManager);
+    }
+    
+    private void claimSucceeds() {
+        when(idempotencyRecordRepository.claim(eq("key-1"), anyString(), any())).thenReturn(1);
+    }
+    
+    private TransferResponse transfer() {
+        return TransferResponse.builder()
+            .transactionId("TXN-20241220-" + String.format("%06d", executions.incrementAndGet()))
+            .status("SUCCESS")
+            .amount(Money.of("500"))
+            .timestamp(LocalDateTime.now())
+            .build();
+    }
+}
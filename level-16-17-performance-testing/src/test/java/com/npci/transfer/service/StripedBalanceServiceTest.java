@@ -0,0 +1,173 @@
+package com.npci.transfer.service;
+
+import com.npci.transfer.entity.Account;
+import com.npci.transfer.entity.AccountBalanceStripe;
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.repository.AccountBalanceStripeRepository;
+import com.npci.transfer.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.npci.transfer.util.TestDataBuilders.AccountBuilder.anAccount;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Striped Balance Service Tests
+ * 
+ * Covers credit placement, debits drawing across stripes and consolidation.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Striped Balance Service Tests")
+class StripedBalanceServiceTest {
+    
+    @Mock
+    private AccountRepository accountRepository;
+    
+    @Mock
+    private AccountBalanceStripeRepository stripeRepository;
+    
+    @Mock
+    private TransferMetrics transferMetrics;
+    
+    @InjectMocks
+    private StripedBalanceService stripedBalanceService;
+    
+    private Account merchant;
+    
+    @BeforeEach
+    void setUp() {
+        merchant = anAccount()
+            .withId(7L)
+            .withUpiId("merchant@okaxis")
+            .withBalance("100.00")
+            .build();
+        merchant.setBalanceStripes(4);
+    }
+    
+    @Test
+    @DisplayName("Should credit an unlocked stripe without waiting")
+    void shouldCreditUnlockedStripe() {
+        // Arrange
+        when(stripeRepository.creditUnlockedStripe(eq(7L), anyInt(), any())).thenReturn(1);
+        
+        // Act
+        stripedBalanceService.credit(merchant, new BigDecimal("50.00"));
+        
+        // Assert
+        verify(stripeRepository, never()).creditStripe(anyLong(), anyInt(), any());
+        verifyNoInteractions(transferMetrics);
+        assertThat(merchant.getBalance()).isEqualTo(new BigDecimal("100.00"));
+    }
+    
+    @Test
+    @DisplayName("Should wait for a stripe when every stripe is locked")
+    void shouldWaitForStripe_WhenAllStripesLocked() {
+        // Arrange
+        when(stripeRepository.creditUnlockedStripe(eq(7L), anyInt(), any())).thenReturn(0);
+        when(stripeRepository.creditStripe(eq(7L), anyInt(), any())).thenReturn(1);
+        
+        // Act
+        stripedBalanceService.credit(merchant, new BigDecimal("50.00"));
+        
+        // Assert
+        verify(transferMetrics).recordStripeCreditWait();
+    }
+    
+    @Test
+    @DisplayName("Should debit base only when it covers the amount")
+    void shouldDebitBaseOnly_WhenBaseIsSufficient() {
+        // Act
+        boolean debited = stripedBalanceService.debit(merchant, new BigDecimal("60.00"));
+        
+        // Assert
+        assertThat(debited).isTrue();
+        assertThat(merchant.getBalance()).isEqualTo(new BigDecimal("40.00"));
+        verifyNoInteractions(stripeRepository);
+    }
+    
+    @Test
+    @DisplayName("Should draw the remainder from stripes in stripe order")
+    void shouldDrawFromStripes_WhenBaseIsInsufficient() {
+        // Arrange
+        AccountBalanceStripe first = stripe(0, "30.00");
+        AccountBalanceStripe second = stripe(1, "80.00");
+        when(stripeRepository.findAllByAccountIdForUpdate(7L)).thenReturn(List.of(first, second));
+        
+        // Act
+        boolean debited = stripedBalanceService.debit(merchant, new BigDecimal("150.00"));
+        
+        // Assert
+        assertThat(debited).isTrue();
+        assertThat(merchant.getBalance()).isEqualTo(BigDecimal.ZERO);
+        assertThat(first.getBalance()).isEqualTo(new BigDecimal("0.00"));
+        assertThat(second.getBalance()).isEqualTo(new BigDecimal("60.00"));
+    }
+    
+    @Test
+    @DisplayName("Should leave balances untouched when base plus stripes is insufficient")
+    void shouldRejectDebit_WhenBasePlusStripesInsufficient() {
+        // Arrange
+        AccountBalanceStripe only = stripe(0, "30.00");
+        when(stripeRepository.findAllByAccountIdForUpdate(7L)).thenReturn(List.of(only));
+        
+        // Act
+        boolean debited = stripedBalanceService.debit(merchant, new BigDecimal("150.00"));
+        
+        // Assert
+        assertThat(debited).isFalse();
+        assertThat(merchant.getBalance()).isEqualTo(new BigDecimal("100.00"));
+        assertThat(only.getBalance()).isEqualTo(new BigDecimal("30.00"));
+    }
+    
+    @Test
+    @DisplayName("Should fold drained stripes into the accounts row")
+    void shouldFoldDrainedStripesIntoBase() {
+        // Arrange
+        when(accountRepository.findAllByUpiIdInForUpdate(List.of("merchant@okaxis")))
+            .thenReturn(List.of(merchant));
+        when(stripeRepository.drainUnlockedStripes(7L))
+            .thenReturn(List.of(new BigDecimal("25.00"), new BigDecimal("5.00")));
+        
+        // Act
+        BigDecimal drained = stripedBalanceService.consolidate("merchant@okaxis");
+        
+        // Assert
+        assertThat(drained).isEqualTo(new BigDecimal("30.00"));
+        assertThat(merchant.getBalance()).isEqualTo(new BigDecimal("130.00"));
+        verify(transferMetrics).recordStripeConsolidation(anyLong());
+    }
+    
+    @Test
+    @DisplayName("Should create one zero stripe per slot when striping is enabled")
+    void shouldCreateStripes_WhenStripingEnabled() {
+        // Arrange
+        Account plain = anAccount().withId(9L).withUpiId("shop@paytm").build();
+        when(accountRepository.findAllByUpiIdInForUpdate(List.of("shop@paytm"))).thenReturn(List.of(plain));
+        
+        // Act
+        stripedBalanceService.enableStriping("shop@paytm", 4);
+        
+        // Assert
+        verify(stripeRepository).saveAll(argThat(rows -> ((List<?>) rows).size() == 4));
+        assertThat(plain.getBalanceStripes()).isEqualTo(4);
+        assertThat(stripedBalanceService.isHot("shop@paytm")).isTrue();
+    }
+    
+    private AccountBalanceStripe stripe(int stripeNo, String balance) {
+        return AccountBalanceStripe.builder()
+            .accountId(7L)
+            .stripeNo(stripeNo)
+            .balance(new BigDecimal(balance))
+            .build();
+    }
+}
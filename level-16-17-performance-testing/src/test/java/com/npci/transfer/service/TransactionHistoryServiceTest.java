@@ -0,0 +1,153 @@
+package com.npci.transfer.service;
+
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.dto.TransactionHistoryRequest;
+import com.npci.transfer.dto.TransactionHistoryResponse;
+import com.npci.transfer.dto.TransferResponse;
+import com.npci.transfer.exception.InvalidCursorException;
+import com.npci.transfer.repository.TransactionHistoryRepository;
+import com.npci.transfer.repository.TransactionHistoryRepository.HistoryQuery;
+import com.npci.transfer.repository.TransactionHistoryRepository.Position;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Transaction History Service Tests
+ * 
+ * The keyset SQL runs in TransactionHistoryComponentTest; these cover
+ * paging and the cursor.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Transaction History Service Tests")
+class TransactionHistoryServiceTest {
+    
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 12, 20, 10, 30, 45, 123_000_000);
+    
+    @Mock
+    private TransactionHistoryRepository historyRepository;
+    
+    @Spy
+    private TransferProperties transferProperties = new TransferProperties();
+    
+    @InjectMocks
+    private TransactionHistoryService historyService;
+    
+    @Test
+    @DisplayName("Should read one row more than the page and hand out a cursor to the last row shown")
+    void shouldReturnCursor_WhenMoreRowsFollow() {
+        // Arrange
+        when(historyRepository.findHistory(any())).thenReturn(rows(3));
+        
+        // Act
+        TransactionHistoryResponse page = historyService.getHistory(request(2));
+        
+        // Assert
+        ArgumentCaptor<HistoryQuery> query = ArgumentCaptor.forClass(HistoryQuery.class);
+        verify(historyRepository).findHistory(query.capture());
+        assertThat(query.getValue().limit()).isEqualTo(3);
+        assertThat(query.getValue().after()).isNull();
+        assertThat(page.getContent()).extracting(TransferResponse::getTransactionId)
+            .containsExactly("TXN-0", "TXN-1");
+        assertThat(TransactionHistoryService.decode(page.getNextCursor()))
+            .isEqualTo(new Position(NOW.minusMinutes(1), "TXN-1"));
+    }
+    
+    @Test
+    @DisplayName("Should end with a null cursor on the last page")
+    void shouldReturnNoCursor_OnLastPage() {
+        // Arrange
+        when(historyRepository.findHistory(any())).thenReturn(rows(2));
+        
+        // Act
+        TransactionHistoryResponse page = historyService.getHistory(request(2));
+        
+        // Assert
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.getNextCursor()).isNull();
+    }
+    
+    @Test
+    @DisplayName("Should pass filters, sort and the cursor position to the repository")
+    void shouldSeekAfterCursor() {
+        // Arrange
+        TransactionHistoryRequest request = request(20);
+        request.setSort("timestamp,asc");
+        request.setStatus("FAILED");
+        request.setFromDate(NOW.minusDays(7));
+        request.setCursor(TransactionHistoryService.encode(new Position(NOW, "TXN-20241220-0B2RZ5M0C4001")));
+        when(historyRepository.findHistory(any())).thenReturn(List.of());
+        
+        // Act
+        historyService.getHistory(request);
+        
+        // Assert
+        verify(historyRepository).findHistory(new HistoryQuery("alice@okaxis", "FAILED", NOW.minusDays(7), null,
+            true, new Position(NOW, "TXN-20241220-0B2RZ5M0C4001"), 21));
+    }
+    
+    @Test
+    @DisplayName("Should keep the cursor URL-safe")
+    void shouldEncodeCursorUrlSafe() {
+        String cursor = TransactionHistoryService.encode(new Position(NOW, "TXN-20241220-0B2RZ5M0C4001"));
+        
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"not base64!", "bm8tc2VwYXJhdG9y", "MjAyNC0xMi0yMFQxMDozMDo0NS8"})
+    @DisplayName("Should reject a cursor it did not issue")
+    void shouldRejectForeignCursor(String cursor) {
+        // Arrange
+        TransactionHistoryRequest request = request(20);
+        request.setCursor(cursor);
+        
+        // Act & Assert
+        assertThatThrownBy(() -> historyService.getHistory(request))
+            .isInstanceOf(InvalidCursorException.class)
+            .hasMessageStartingWith("Invalid cursor");
+        verifyNoInteractions(historyRepository);
+    }
+    
+    @Test
+    @DisplayName("Should reject a cursor with an unreadable timestamp")
+    void shouldRejectCursor_WithBadTimestamp() {
+        String cursor = Base64.getUrlEncoder().encodeToString("yesterday/TXN-1".getBytes(StandardCharsets.UTF_8));
+        
+        assertThatThrownBy(() -> TransactionHistoryService.decode(cursor))
+            .isInstanceOf(InvalidCursorException.class);
+    }
+    
+    private static TransactionHistoryRequest request(int size) {
+        return TransactionHistoryRequest.builder()
+            .upiId("alice@okaxis")
+            .size(size)
+            .build();
+    }
+    
+    private static List<TransferResponse> rows(int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> TransferResponse.builder()
+                .transactionId("TXN-" + i)
+                .status("SUCCESS")
+                .timestamp(NOW.minusMinutes(i))
+                .build())
+            .toList();
+    }
+}
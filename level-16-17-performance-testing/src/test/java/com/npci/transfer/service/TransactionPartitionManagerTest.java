@@ -0,0 +1,213 @@
+package com.npci.transfer.service;
+
+import com.npci.transfer.config.ExpiredPartitionAction;
+import com.npci.transfer.config.PartitionInterval;
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.repository.TransactionPartitionRepository;
+import com.npci.transfer.repository.TransactionPartitionRepository.TransactionPartition;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Transaction Partition Manager Tests
+ * 
+ * The partition DDL itself needs PostgreSQL; these cover which partitions
+ * get created and retired, against a mocked repository and a fixed clock.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Transaction Partition Manager Tests")
+class TransactionPartitionManagerTest {
+    
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2024-12-20T10:15:00Z"), ZoneOffset.UTC);
+    
+    @Mock
+    private TransactionPartitionRepository partitionRepository;
+    
+    private TransferProperties transferProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private TransactionPartitionManager manager;
+    
+    @BeforeEach
+    void setUp() {
+        transferProperties = new TransferProperties();
+        transferProperties.getPartitioning().setEnabled(true);
+        transferProperties.getPartitioning().setPremake(2);
+        meterRegistry = new SimpleMeterRegistry();
+        manager = new TransactionPartitionManager(partitionRepository, transferProperties,
+            new TransferMetrics(meterRegistry), new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            CLOCK);
+    }
+    
+    @Test
+    @DisplayName("Should leave the table alone when partitioning is disabled")
+    void shouldDoNothing_WhenDisabled() {
+        // Arrange
+        transferProperties.getPartitioning().setEnabled(false);
+        
+        // Act
+        manager.partitionTransactions();
+        
+        // Assert
+        verifyNoInteractions(partitionRepository);
+        assertThat(meterRegistry.find("transfer.partitions").gauge()).isNull();
+    }
+    
+    @Test
+    @DisplayName("Should keep existing rows in the legacy partition up to the end of the current month")
+    void shouldPartitionPlainTable_WithLegacyUpToNextMonth() {
+        // Arrange
+        when(partitionRepository.isPartitioned()).thenReturn(false);
+        when(partitionRepository.findMaxTimestamp()).thenReturn(Optional.of(LocalDateTime.of(2024, 12, 20, 9, 0)));
+        TransactionPartition legacy = new TransactionPartition("transactions_legacy", null, at(2025, 1, 1));
+        when(partitionRepository.findPartitions()).thenReturn(List.of(legacy));
+        
+        // Act
+        manager.partitionTransactions();
+        
+        // Assert
+        verify(partitionRepository).partitionTable(at(2025, 1, 1));
+        verify(partitionRepository).createPartition("transactions_p202501", at(2025, 1, 1), at(2025, 2, 1));
+        verify(partitionRepository).createPartition("transactions_p202502", at(2025, 2, 1), at(2025, 3, 1));
+        verify(partitionRepository, never()).createPartition(eq("transactions_p202412"), any(), any());
+        assertThat(meterRegistry.get("transfer.partitions").gauge().value()).isEqualTo(1.0);
+    }
+    
+    @Test
+    @DisplayName("Should extend the legacy partition past rows already written for a later month")
+    void shouldExtendLegacyBound_WhenRowsAreInTheFuture() {
+        // Arrange
+        when(partitionRepository.isPartitioned()).thenReturn(false);
+        when(partitionRepository.findMaxTimestamp()).thenReturn(Optional.of(LocalDateTime.of(2025, 2, 3, 0, 0)));
+        
+        // Act
+        manager.partitionTransactions();
+        
+        // Assert
+        verify(partitionRepository).partitionTable(at(2025, 3, 1));
+    }
+    
+    @Test
+    @DisplayName("Should not convert a table that is already partitioned")
+    void shouldSkipConversion_WhenAlreadyPartitioned() {
+        // Arrange
+        when(partitionRepository.isPartitioned()).thenReturn(true);
+        
+        // Act
+        manager.partitionTransactions();
+        
+        // Assert
+        verify(partitionRepository, never()).partitionTable(any());
+        verify(partitionRepository).createPartition("transactions_p202412", at(2024, 12, 1), at(2025, 1, 1));
+    }
+    
+    @Test
+    @DisplayName("Should create only the missing daily partitions")
+    void shouldCreateMissingDailyPartitions() {
+        // Arrange
+        transferProperties.getPartitioning().setInterval(PartitionInterval.DAILY);
+        when(partitionRepository.findPartitions()).thenReturn(List.of(
+            new TransactionPartition("transactions_p20241220", at(2024, 12, 20), at(2024, 12, 21))));
+        
+        // Act
+        boolean succeeded = manager.maintain();
+        
+        // Assert
+        assertThat(succeeded).isTrue();
+        verify(partitionRepository).createPartition("transactions_p20241221", at(2024, 12, 21), at(2024, 12, 22));
+        verify(partitionRepository).createPartition("transactions_p20241222", at(2024, 12, 22), at(2024, 12, 23));
+        verify(partitionRepository, times(2)).createPartition(any(), any(), any());
+    }
+    
+    @Test
+    @DisplayName("Should detach partitions past retention and keep the rest")
+    void shouldDetachExpiredPartitions() {
+        // Arrange
+        transferProperties.getPartitioning().setRetention(Period.ofMonths(1));
+        when(partitionRepository.findPartitions()).thenReturn(List.of(
+            new TransactionPartition("transactions_p202410", at(2024, 10, 1), at(2024, 11, 1)),
+            new TransactionPartition("transactions_p202411", at(2024, 11, 1), at(2024, 12, 1)),
+            new TransactionPartition("transactions_p202412", at(2024, 12, 1), at(2025, 1, 1))));
+        
+        // Act
+        manager.maintain();
+        
+        // Assert
+        verify(partitionRepository).detachPartition("transactions_p202410");
+        verify(partitionRepository, never()).detachPartition("transactions_p202411");
+        verify(partitionRepository, never()).dropPartition(any());
+        assertThat(meterRegistry.get("transfer.partitions.expired").tag("action", "detach").counter().count())
+            .isEqualTo(1.0);
+    }
+    
+    @Test
+    @DisplayName("Should drop expired partitions when configured to")
+    void shouldDropExpiredPartitions_WhenConfigured() {
+        // Arrange
+        transferProperties.getPartitioning().setRetention(Period.ofMonths(1));
+        transferProperties.getPartitioning().setExpired(ExpiredPartitionAction.DROP);
+        when(partitionRepository.findPartitions()).thenReturn(List.of(
+            new TransactionPartition("transactions_legacy", null, at(2024, 11, 1))));
+        
+        // Act
+        manager.maintain();
+        
+        // Assert
+        verify(partitionRepository).dropPartition("transactions_legacy");
+        verify(partitionRepository, never()).detachPartition(any());
+    }
+    
+    @Test
+    @DisplayName("Should count a failed run instead of throwing")
+    void shouldCountFailure_WhenMaintenanceFails() {
+        // Arrange
+        when(partitionRepository.findPartitions()).thenReturn(List.of());
+        doThrow(new IllegalStateException("lock timeout"))
+            .when(partitionRepository).createPartition(any(), any(), any());
+        
+        // Act
+        boolean succeeded = manager.maintain();
+        
+        // Assert
+        assertThat(succeeded).isFalse();
+        assertThat(meterRegistry.get("transfer.partitions.maintenance.failures").counter().count()).isEqualTo(1.0);
+    }
+    
+    @Test
+    @DisplayName("Should read range bounds as PostgreSQL prints them")
+    void shouldParsePartitionBounds() {
+        TransactionPartition monthly = TransactionPartition.fromBound("transactions_p202412",
+            "FOR VALUES FROM ('2024-12-01 00:00:00') TO ('2025-01-01 00:00:00')");
+        TransactionPartition legacy = TransactionPartition.fromBound("transactions_legacy",
+            "FOR VALUES FROM (MINVALUE) TO ('2025-01-01 00:00:00')");
+        
+        assertThat(monthly).isEqualTo(new TransactionPartition("transactions_p202412", at(2024, 12, 1), at(2025, 1, 1)));
+        assertThat(legacy.from()).isNull();
+        assertThat(legacy.overlaps(at(2024, 12, 1), at(2025, 1, 1))).isTrue();
+        assertThat(legacy.overlaps(at(2025, 1, 1), at(2025, 2, 1))).isFalse();
+        assertThat(TransactionPartition.fromBound("transactions_default", "DEFAULT")).isNull();
+    }
+    
+    private static LocalDateTime at(int year, int month, int day) {
+        return LocalDateTime.of(year, month, day, 0, 0);
+    }
+}
@@ -0,0 +1,459 @@
+package com.npci.transfer.service;
+
+import com.npci.transfer.cache.AccountMetadata;
+import com.npci.transfer.cache.AccountMetadataCache;
+import com.npci.transfer.cache.UpiIdFilter;
+import com.npci.transfer.config.LimitMode;
+import com.npci.transfer.config.TransferProperties;
+import com.npci.transfer.exception.LimitExceededException;
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.repository.AccountLimitRepository;
+import com.npci.transfer.repository.AccountLimitRepository.Usage;
+import com.npci.transfer.repository.AccountRepository;
+import com.npci.transfer.util.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Transfer Limit Service Tests
+ * 
+ * The accounts rows live in a map behind a mocked JdbcTemplate (queries and
+ * usage updates, as AccountLimitRepository issues them); the clock is moved by hand.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Transfer Limit Service Tests")
+class TransferLimitServiceTest {
+    
+    /**
+     * daily_limit, daily_used, monthly_limit, monthly_used, limits_date
+     */
+    private record Row(String dailyLimit, String dailyUsed, String monthlyLimit, String monthlyUsed,
+                       LocalDate limitsDate) {
+    }
+    
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    
+    @Mock
+    private AccountRepository accountRepository;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @Mock
+    private UpiIdFilter upiIdFilter;
+    
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-12-20T10:00:00Z"));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<String, Row> rows = new ConcurrentHashMap<>();
+    private TransferProperties properties;
+    private AccountMetadataCache accountMetadataCache;
+    private TransferLimitService transferLimitService;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        rows.put("alice@okaxis", new Row("1000.00", "0.00", "1500.00", "0.00", LocalDate.of(2024, 12, 20)));
+        lenient().when(jdbcTemplate.query(anyString(), any(RowMapper.class), anyString())).thenAnswer(invocation -> {
+            Row row = rows.get(invocation.<String>getArgument(2));
+            if (row == null) {
+                return List.of();
+            }
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getBigDecimal("daily_limit")).thenReturn(decimal(row.dailyLimit()));
+            when(rs.getBigDecimal("daily_used")).thenReturn(decimal(row.dailyUsed()));
+            when(rs.getBigDecimal("monthly_limit")).thenReturn(decimal(row.monthlyLimit()));
+            when(rs.getBigDecimal("monthly_used")).thenReturn(decimal(row.monthlyUsed()));
+            when(rs.getDate("limits_date")).thenReturn(row.limitsDate() != null ? Date.valueOf(row.limitsDate()) : null);
+            return List.of(invocation.<RowMapper<?>>getArgument(1).mapRow(rs, 0));
+        });
+        
+        // updateUsage(Usage) and returnUsage(...)
+        lenient().when(jdbcTemplate.update(anyString(), any(Object[].class))).thenAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            String sql = (String) args[0];
+            if (sql.contains("GREATEST")) {
+                String upiId = (String) args[6];
+                Row row = rows.get(upiId);
+                LocalDate day = ((Date) args[1]).toLocalDate();
+                BigDecimal amount = (BigDecimal) args[2];
+                boolean sameDay = day.equals(row.limitsDate());
+                boolean sameMonth = !row.limitsDate().isBefore(((Date) args[3]).toLocalDate())
+                    && row.limitsDate().isBefore(((Date) args[4]).toLocalDate());
+                rows.put(upiId, new Row(row.dailyLimit(),
+                    sameDay ? minus(row.dailyUsed(), amount) : row.dailyUsed(),
+                    row.monthlyLimit(),
+                    sameMonth ? minus(row.monthlyUsed(), amount) : row.monthlyUsed(),
+                    row.limitsDate()));
+            } else {
+                String upiId = (String) args[4];
+                Row row = rows.get(upiId);
+                rows.put(upiId, new Row(row.dailyLimit(), ((BigDecimal) args[1]).toPlainString(),
+                    row.monthlyLimit(), ((BigDecimal) args[2]).toPlainString(), ((Date) args[3]).toLocalDate()));
+            }
+            return 1;
+        });
+        
+        // Limits come from the metadata cache, loaded from the same rows
+        lenient().when(accountRepository.findMetadataByUpiId(anyString())).thenAnswer(invocation -> {
+            String upiId = invocation.getArgument(0);
+            Row row = rows.get(upiId);
+            return Optional.ofNullable(row).map(r -> new AccountMetadata(1L, upiId, "ACTIVE",
+                decimal(r.dailyLimit()), decimal(r.monthlyLimit()), null, null));
+        });
+        
+        properties = new TransferProperties();
+        accountMetadataCache = new AccountMetadataCache(accountRepository, upiIdFilter, properties,
+            new TransferMetrics(meterRegistry));
+        transferLimitService = newService();
+    }
+    
+    private TransferLimitService newService() {
+        return new TransferLimitService(new AccountLimitRepository(jdbcTemplate), accountMetadataCache, properties,
+            new TransferMetrics(meterRegistry), transactionManager, clock);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    
+    @Test
+    @DisplayName("Should reject a transfer that would exceed the daily limit, counting nothing")
+    void shouldRejectOverDailyLimit() {
+        // Arrange
+        transferLimitService.reserve("alice@okaxis", new BigDecimal("600.00"));
+        
+        // Act & Assert
+        assertThatThrownBy(() -> transferLimitService.reserve("alice@okaxis", new BigDecimal("500.00")))
+            .isInstanceOf(LimitExceededException.class)
+            .hasMessage("Daily limit exceeded. Limit: ₹1000.00, Used: ₹600.00, Requested: ₹500.00");
+        transferLimitService.reserve("alice@okaxis", new BigDecimal("400.00"));
+        assertThat(meterRegistry.counter("transfer.limits.rejected", "period", "daily").count()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should load each account's counter from the database only once")
+    void shouldLoadCounterOnce() {
+        // Act
+        for (int i = 0; i < 10; i++) {
+            transferLimitService.reserve("alice@okaxis", new BigDecimal("10.00"));
+        }
+        
+        // Assert
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), eq("alice@okaxis"));
+    }
+    
+    @Test
+    @DisplayName("Should start a new day lazily but keep counting the month")
+    void shouldResetDailyUsageOnNewDay() {
+        // Arrange
+        transferLimitService.reserve("alice@okaxis", new BigDecimal("900.00"));
+        
+        // Act: next day the daily limit is free again, the monthly one is not
+        clock.advance(Duration.ofDays(1));
+        transferLimitService.reserve("alice@okaxis", new BigDecimal("500.00"));
+        
+        // Assert
+        assertThatThrownBy(() -> transferLimitService.reserve("alice@okaxis", new BigDecimal("200.00")))
+            .isInstanceOf(LimitExceededException.class)
+            .hasMessageStartingWith("Monthly limit exceeded");
+        
+        // And a new month frees both
+        clock.set(Instant.parse("2025-01-01T00:00:00Z"));
+        transferLimitService.reserve("alice@okaxis", new BigDecimal("1000.00"));
+    }
+    
+    @Test
+    @DisplayName("Should not count usage stored for an earlier day")
+    void shouldIgnoreStaleStoredUsage() {
+        // Arrange
+        rows.put("alice@okaxis", new Row("1000.00", "1000.00", "1500.00", "1000.00", LocalDate.of(2024, 12, 19)));
+        
+        // Act & Assert: yesterday's 1000 no longer counts today, but does this month
+        transferLimitService.reserve("alice@okaxis", new BigDecimal("500.00"));
+        assertThatThrownBy(() -> transferLimitService.reserve("alice@okaxis", new BigDecimal("1.00")))
+            .hasMessageStartingWith("Monthly limit exceeded");
+    }
+    
+    @Test
+    @DisplayName("Should release a reservation, but not one from a day that is over")
+    void shouldReleaseReservation() {
+        // Arrange
+        transferLimitService.reserve("alice@okaxis", new BigDecimal("1000.00"));
+        
+        // Act
+        transferLimitService.release("alice@okaxis", new BigDecimal("400.00"), LocalDate.of(2024, 12, 20));
+        
+        // Assert
+        transferLimitService.reserve("alice@okaxis", new BigDecimal("400.00"));
+        clock.advance(Duration.ofDays(1));
+        transferLimitService.reserve("alice@okaxis", new BigDecimal("100.00"));
+        transferLimitService.release("alice@okaxis", new BigDecimal("1000.00"), LocalDate.of(2024, 12, 20));
+        assertThatThrownBy(() -> transferLimitService.reserve("alice@okaxis", new BigDecimal("950.00")))
+            .hasMessage("Daily limit exceeded. Limit: ₹1000.00, Used: ₹100.00, Requested: ₹950.00");
+    }
+    
+    @Test
+    @DisplayName("Should release the reservation when the surrounding transaction rolls back")
+    void shouldReleaseOnRollback() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        transferLimitService.reserve("alice@okaxis", new BigDecimal("1000.00"));
+        
+        // Act
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        
+        // Assert
+        transferLimitService.reserve("alice@okaxis", new BigDecimal("1000.00"));
+    }
+    
+    @Test
+    @DisplayName("Should not limit accounts without limits, nor fail for unknown accounts")
+    void shouldSkipUnlimitedAndUnknownAccounts() {
+        rows.put("merchant@ybl", new Row(null, null, null, null, null));
+        
+        assertThatNoException().isThrownBy(() -> {
+            transferLimitService.reserve("merchant@ybl", new BigDecimal("99999999.00"));
+            transferLimitService.reserve("nobody@ybl", new BigDecimal("100.00"));
+        });
+    }
+    
+    @Test
+    @DisplayName("Should apply a changed limit once the account's metadata is invalidated")
+    void shouldApplyChangedLimit() {
+        // Arrange
+        transferLimitService.reserve("alice@okaxis", new BigDecimal("600.00"));
+        rows.put("alice@okaxis", new Row("500.00", "600.00", "1500.00", "600.00", LocalDate.of(2024, 12, 20)));
+        
+        // Act
+        accountMetadataCache.invalidate("alice@okaxis");
+        
+        // Assert: the usage counted so far stays, the lower limit applies
+        assertThatThrownBy(() -> transferLimitService.reserve("alice@okaxis", new BigDecimal("1.00")))
+            .hasMessage("Daily limit exceeded. Limit: ₹500.00, Used: ₹600.00, Requested: ₹1.00");
+    }
+    
+    @Test
+    @DisplayName("Should write changed counters back in one batch, once")
+    void shouldFlushChangedCounters() {
+        // Arrange
+        rows.put("bob@paytm", new Row("1000.00", "0.00", "1500.00", "0.00", LocalDate.of(2024, 12, 20)));
+        transferLimitService.reserve("bob@paytm", new BigDecimal("10.00"));
+        transferLimitService.reserve("alice@okaxis", new BigDecimal("100.00"));
+        transferLimitService.reserve("alice@okaxis", new BigDecimal("50.00"));
+        
+        // Act
+        int first = transferLimitService.flush();
+        int second = transferLimitService.flush();
+        
+        // Assert
+        assertThat(first).isEqualTo(2);
+        assertThat(second).isZero();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Usage>> captor = ArgumentCaptor.forClass(Collection.class);
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).queryForList(endsWith("ORDER BY upi_id FOR UPDATE"), eq(String.class),
+            any(Object[].class));
+        inOrder.verify(jdbcTemplate, times(1)).batchUpdate(startsWith("UPDATE accounts"), captor.capture(), eq(2),
+            any(ParameterizedPreparedStatementSetter.class));
+        // In the order transfers lock the rows, whatever order the counters are kept in
+        assertThat(captor.getValue()).extracting(Usage::upiId).containsExactly("alice@okaxis", "bob@paytm");
+    }
+    
+    @Test
+    @DisplayName("Should never let concurrent transfers exceed the limit together")
+    void shouldEnforceLimitConcurrently() throws Exception {
+        // Arrange
+        AtomicInteger accepted = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    try {
+                        transferLimitService.reserve("alice@okaxis", new BigDecimal("1.00"));
+                        accepted.incrementAndGet();
+                    } catch (LimitExceededException e) {
+                        // expected once the limit is used up
+                    }
+                }
+            }));
+        }
+        
+        // Act
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        // Assert
+        assertThat(accepted).hasValue(1000);
+    }
+    
+    // ========== LEASE mode ==========
+    
+    @Test
+    @DisplayName("Should spend a leased slice without going back to the database")
+    void shouldSpendLeaseLocally() {
+        // Arrange
+        useLeases("300.00");
+        
+        // Act
+        for (int i = 0; i < 3; i++) {
+            transferLimitService.reserve("alice@okaxis", new BigDecimal("100.00"));
+        }
+        
+        // Assert: one lease of 300, taken off the row up front
+        verify(jdbcTemplate, times(1)).query(endsWith("FOR UPDATE"), any(RowMapper.class), eq("alice@okaxis"));
+        assertThat(rows.get("alice@okaxis").dailyUsed()).isEqualTo("300.00");
+        assertThat(meterRegistry.summary("transfer.limits.lease.granted").totalAmount()).isEqualTo(300);
+    }
+    
+    @Test
+    @DisplayName("Should keep the total of several instances within the limit")
+    void shouldShareLimitAcrossInstances() {
+        // Arrange: two instances on the same accounts row, ₹1000 a day
+        useLeases("300.00");
+        TransferLimitService other = newService();
+        
+        // Act: both spend ₹100 at a time until refused
+        int accepted = 0;
+        for (int i = 0; i < 10; i++) {
+            for (TransferLimitService instance : List.of(transferLimitService, other)) {
+                try {
+                    instance.reserve("alice@okaxis", new BigDecimal("100.00"));
+                    accepted++;
+                } catch (LimitExceededException e) {
+                    // expected once the allowance is leased out and spent
+                }
+            }
+        }
+        
+        // Assert
+        assertThat(accepted).isEqualTo(10);
+        assertThat(rows.get("alice@okaxis").dailyUsed()).isEqualTo("1000.00");
+    }
+    
+    @Test
+    @DisplayName("Should top a slice that runs low up in the background")
+    void shouldRefillLowLeaseInBackground() throws Exception {
+        // Arrange
+        useLeases("300.00");
+        transferLimitService.start();
+        
+        // Act: ₹200 of the first ₹300 leaves less than half a slice
+        transferLimitService.reserve("alice@okaxis", new BigDecimal("200.00"));
+        awaitDailyUsed("600.00");
+        transferLimitService.reserve("alice@okaxis", new BigDecimal("250.00"));
+        transferLimitService.stop();
+        
+        // Assert: the second transfer was covered by the top-up, not by a lease of its own
+        verify(jdbcTemplate, times(2)).query(endsWith("FOR UPDATE"), any(RowMapper.class), eq("alice@okaxis"));
+        assertThat(rows.get("alice@okaxis").dailyUsed()).isEqualTo("450.00");
+    }
+    
+    @Test
+    @DisplayName("Should give back unspent allowance once a lease expires")
+    void shouldReturnExpiredLease() {
+        // Arrange
+        useLeases("500.00");
+        transferLimitService.reserve("alice@okaxis", new BigDecimal("100.00"));
+        
+        // Act
+        int early = transferLimitService.returnExpiredLeases();
+        clock.advance(Duration.ofSeconds(31));
+        int expired = transferLimitService.returnExpiredLeases();
+        
+        // Assert: only the ₹100 spent still counts
+        assertThat(early).isZero();
+        assertThat(expired).isEqualTo(1);
+        assertThat(rows.get("alice@okaxis").dailyUsed()).isEqualTo("100.00");
+        assertThat(rows.get("alice@okaxis").monthlyUsed()).isEqualTo("100.00");
+    }
+    
+    @Test
+    @DisplayName("Should give back every lease on shutdown")
+    void shouldReturnLeasesOnStop() {
+        // Arrange
+        useLeases("500.00");
+        transferLimitService.start();
+        transferLimitService.reserve("alice@okaxis", new BigDecimal("200.00"));
+        
+        // Act
+        transferLimitService.stop();
+        
+        // Assert
+        assertThat(rows.get("alice@okaxis").dailyUsed()).isEqualTo("200.00");
+    }
+    
+    @Test
+    @DisplayName("Should refuse a transfer when less allowance is left than it needs")
+    void shouldRejectWhenAllowanceExhausted() {
+        // Arrange: another instance holds ₹700 of today's ₹1000
+        useLeases("500.00");
+        rows.put("alice@okaxis", new Row("1000.00", "700.00", "1500.00", "700.00", LocalDate.of(2024, 12, 20)));
+        
+        // Act & Assert
+        assertThatThrownBy(() -> transferLimitService.reserve("alice@okaxis", new BigDecimal("400.00")))
+            .isInstanceOf(LimitExceededException.class)
+            .hasMessage("Daily limit exceeded. Limit: ₹1000.00, Used: ₹700.00, Requested: ₹400.00");
+        transferLimitService.reserve("alice@okaxis", new BigDecimal("300.00"));
+        assertThat(rows.get("alice@okaxis").dailyUsed()).isEqualTo("1000.00");
+    }
+    
+    private void awaitDailyUsed(String expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!expected.equals(rows.get("alice@okaxis").dailyUsed())) {
+            assertThat(System.currentTimeMillis()).as("lease was not topped up").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+    
+    private void useLeases(String leaseSize) {
+        properties.getLimits().setMode(LimitMode.LEASE);
+        properties.getLimits().setLeaseSize(new BigDecimal(leaseSize));
+    }
+    
+    private static String minus(String value, BigDecimal amount) {
+        return new BigDecimal(value).subtract(amount).max(BigDecimal.ZERO).toPlainString();
+    }
+    
+    private static BigDecimal decimal(String value) {
+        return value != null ? new BigDecimal(value) : null;
+    }
+}
@@ -1,12 +1,27 @@
 package com.npci.transfer.service;
 
+import com.npci.transfer.cache.AccountMetadata;
+import com.npci.transfer.cache.AccountMetadataCache;
+import com.npci.transfer.cache.TransactionStatusCache;
+import com.npci.transfer.cache.UpiIdFilter;
+import com.npci.transfer.config.ExecutionMode;
+import com.npci.transfer.config.LockingMode;
+import com.npci.transfer.config.TransferProperties;
 import com.npci.transfer.dto.TransferRequest;
 import com.npci.transfer.dto.TransferResponse;
 import com.npci.transfer.entity.Account;
 import com.npci.transfer.entity.Transaction;
 import com.npci.transfer.exception.*;
+import com.npci.transfer.id.SnowflakeTransactionIdGenerator;
+import com.npci.transfer.ledger.LedgerEngine;
+import com.npci.transfer.ledger.LedgerRejectedException;
+import com.npci.transfer.metrics.TransferMetrics;
+import com.npci.transfer.money.Money;
 import com.npci.transfer.repository.AccountRepository;
 import com.npci.transfer.repository.TransactionRepository;
+import com.npci.transfer.repository.TransferFunctionRepository;
+import com.npci.transfer.repository.TransferFunctionRepository.TransferFunctionResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -14,15 +29,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static com.npci.transfer.util.TestDataBuilders.AccountBuilder.anAccount;
 import static com.npci.transfer.util.TestDataBuilders.TransferRequestBuilder.aTransferRequest;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -45,9 +65,44 @@ class TransferServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
     
+    @Mock
+    private TransferFunctionRepository transferFunctionRepository;
+    
     @Mock
     private FeeCalculator feeCalculator;
     
+    @Mock
+    private TransferMetrics transferMetrics;
+    
+    @Mock
+    private StripedBalanceService stripedBalanceService;
+    
+    @Mock
+    private LedgerEngine ledgerEngine;
+    
+    @Mock
+    private GroupCommitService groupCommitService;
+    
+    @Mock
+    private TransferLimitService transferLimitService;
+    
+    @Mock
+    private AccountMetadataCache accountMetadataCache;
+    
+    @Mock
+    private UpiIdFilter upiIdFilter;
+    
+    @Spy
+    private TransferProperties transferProperties = new TransferProperties();
+    
+    @Spy
+    private SnowflakeTransactionIdGenerator transactionIdGenerator =
+        new SnowflakeTransactionIdGenerator(0, Clock.systemDefaultZone());
+    
+    @Spy
+    private TransactionStatusCache transactionStatusCache =
+        new TransactionStatusCache(new TransferProperties(), new TransferMetrics(new SimpleMeterRegistry()));
+    
     @InjectMocks
     private TransferService transferService;
     
@@ -87,7 +142,7 @@ class TransferServiceTest {
             .thenReturn(Optional.of(sourceAccount));
         when(accountRepository.findByUpiId("bob@paytm"))
             .thenReturn(Optional.of(destinationAccount));
-        when(feeCalculator.calculateFee(any())).thenReturn(BigDecimal.ZERO);
+        when(feeCalculator.calculateFee(any(), any(), any())).thenReturn(Money.ZERO);
         when(accountRepository.save(any(Account.class))).thenAnswer(i -> i.getArguments()[0]);
         when(transactionRepository.save(any(Transaction.class))).thenAnswer(i -> i.getArguments()[0]);
         
@@ -97,13 +152,13 @@ class TransferServiceTest {
         // Assert
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo("SUCCESS");
-        assertThat(response.getAmount()).isEqualTo(new BigDecimal("500"));
+        assertThat(response.getAmount()).isEqualTo(Money.of("500"));
         assertThat(response.getSourceUPI()).isEqualTo("alice@okaxis");
         assertThat(response.getDestinationUPI()).isEqualTo("bob@paytm");
         
         // Verify account balances updated
-        assertThat(sourceAccount.getBalance()).isEqualTo(new BigDecimal("9500"));
-        assertThat(destinationAccount.getBalance()).isEqualTo(new BigDecimal("5500"));
+        assertThat(sourceAccount.getBalance()).isEqualByComparingTo(new BigDecimal("9500"));
+        assertThat(destinationAccount.getBalance()).isEqualByComparingTo(new BigDecimal("5500"));
         
         // Verify repository interactions
         verify(accountRepository, times(2)).save(any(Account.class));
@@ -114,11 +169,11 @@ class TransferServiceTest {
     @DisplayName("Should deduct source balance correctly including fee")
     void shouldDeductSourceBalanceIncludingFee() {
         // Arrange
-        BigDecimal fee = new BigDecimal("5.00");
+        Money fee = Money.of("5.00");
         when(accountRepository.findByUpiId(anyString()))
             .thenReturn(Optional.of(sourceAccount))
             .thenReturn(Optional.of(destinationAccount));
-        when(feeCalculator.calculateFee(any())).thenReturn(fee);
+        when(feeCalculator.calculateFee(any(), any(), any())).thenReturn(fee);
         when(accountRepository.save(any())).thenAnswer(i -> i.getArguments()[0]);
         when(transactionRepository.save(any())).thenAnswer(i -> i.getArguments()[0]);
         
@@ -133,11 +188,11 @@ class TransferServiceTest {
     @DisplayName("Should credit destination with amount only (not fee)")
     void shouldCreditDestinationWithAmountOnly() {
         // Arrange
-        BigDecimal fee = new BigDecimal("5.00");
+        Money fee = Money.of("5.00");
         when(accountRepository.findByUpiId(anyString()))
             .thenReturn(Optional.of(sourceAccount))
             .thenReturn(Optional.of(destinationAccount));
-        when(feeCalculator.calculateFee(any())).thenReturn(fee);
+        when(feeCalculator.calculateFee(any(), any(), any())).thenReturn(fee);
         when(accountRepository.save(any())).thenAnswer(i -> i.getArguments()[0]);
         when(transactionRepository.save(any())).thenAnswer(i -> i.getArguments()[0]);
         
@@ -145,18 +200,18 @@ class TransferServiceTest {
         transferService.initiateTransfer(request);
         
         // Assert - Destination credited amount only
-        assertThat(destinationAccount.getBalance()).isEqualTo(new BigDecimal("5500"));
+        assertThat(destinationAccount.getBalance()).isEqualByComparingTo(new BigDecimal("5500"));
     }
     
     @Test
     @DisplayName("Should include fee in total debited amount")
     void shouldIncludeFeeInTotalDebited() {
         // Arrange
-        BigDecimal fee = new BigDecimal("5.00");
+        Money fee = Money.of("5.00");
         when(accountRepository.findByUpiId(anyString()))
             .thenReturn(Optional.of(sourceAccount))
             .thenReturn(Optional.of(destinationAccount));
-        when(feeCalculator.calculateFee(any())).thenReturn(fee);
+        when(feeCalculator.calculateFee(any(), any(), any())).thenReturn(fee);
         when(accountRepository.save(any())).thenAnswer(i -> i.getArguments()[0]);
         when(transactionRepository.save(any())).thenAnswer(i -> i.getArguments()[0]);
         
@@ -165,7 +220,7 @@ class TransferServiceTest {
         
         // Assert
         assertThat(response.getFee()).isEqualTo(fee);
-        assertThat(response.getTotalDebited()).isEqualTo(new BigDecimal("505.00"));
+        assertThat(response.getTotalDebited()).isEqualTo(Money.of("505.00"));
     }
     
     // ========== Account Not Found Tests ==========
@@ -206,6 +261,21 @@ class TransferServiceTest {
         verify(accountRepository, never()).save(any());
     }
     
+    @Test
+    @DisplayName("Should reject a UPI ID the filter has never seen without querying")
+    void shouldRejectWithoutQuery_WhenFilterHasNeverSeenDestination() {
+        // Arrange
+        when(upiIdFilter.isDefinitelyAbsent(anyString())).thenAnswer(invocation -> "bob@paytm".equals(invocation.getArgument(0)));
+        
+        // Act & Assert
+        assertThatThrownBy(() -> transferService.initiateTransfer(request))
+            .isInstanceOf(AccountNotFoundException.class)
+            .hasMessageContaining("Destination account not found")
+            .hasMessageContaining("bob@paytm");
+        
+        verifyNoInteractions(accountRepository, transferLimitService);
+    }
+    
     // ========== Balance Validation Tests ==========
     
     @Test
@@ -217,7 +287,7 @@ class TransferServiceTest {
             .thenReturn(Optional.of(sourceAccount));
         when(accountRepository.findByUpiId("bob@paytm"))
             .thenReturn(Optional.of(destinationAccount));
-        when(feeCalculator.calculateFee(any())).thenReturn(BigDecimal.ZERO);
+        when(feeCalculator.calculateFee(any(), any(), any())).thenReturn(Money.ZERO);
         
         // Act & Assert
         assertThatThrownBy(() -> transferService.initiateTransfer(request))
@@ -234,12 +304,12 @@ class TransferServiceTest {
     void shouldThrowException_WhenBalanceInsufficientAfterFee() {
         // Arrange
         sourceAccount.setBalance(new BigDecimal("502"));
-        BigDecimal fee = new BigDecimal("5.00");
+        Money fee = Money.of("5.00");
         
         when(accountRepository.findByUpiId(anyString()))
             .thenReturn(Optional.of(sourceAccount))
             .thenReturn(Optional.of(destinationAccount));
-        when(feeCalculator.calculateFee(any())).thenReturn(fee);
+        when(feeCalculator.calculateFee(any(), any(), any())).thenReturn(fee);
         
         // Act & Assert
         assertThatThrownBy(() -> transferService.initiateTransfer(request))
@@ -247,6 +317,21 @@ class TransferServiceTest {
             .hasMessageContaining("Required: ₹505");
     }
     
+    // ========== Limit Tests ==========
+    
+    @Test
+    @DisplayName("Should reject a transfer over the source account's limit before touching the database")
+    void shouldThrowException_WhenLimitExceeded() {
+        // Arrange
+        doThrow(new LimitExceededException("Daily limit exceeded"))
+            .when(transferLimitService).reserve("alice@okaxis", new BigDecimal("500"));
+        
+        // Act & Assert
+        assertThatThrownBy(() -> transferService.initiateTransfer(request))
+            .isInstanceOf(LimitExceededException.class);
+        verifyNoInteractions(accountRepository, transactionRepository);
+    }
+    
     // ========== Validation Tests ==========
     
     @Test
@@ -303,7 +388,7 @@ class TransferServiceTest {
         when(accountRepository.findByUpiId(anyString()))
             .thenReturn(Optional.of(sourceAccount))
             .thenReturn(Optional.of(destinationAccount));
-        when(feeCalculator.calculateFee(any())).thenReturn(BigDecimal.ZERO);
+        when(feeCalculator.calculateFee(any(), any(), any())).thenReturn(Money.ZERO);
         when(accountRepository.save(any())).thenAnswer(i -> i.getArguments()[0]);
         
         ArgumentCaptor<Transaction> transactionCaptor = ArgumentCaptor.forClass(Transaction.class);
@@ -324,11 +409,11 @@ class TransferServiceTest {
     @DisplayName("Should save transaction with correct details")
     void shouldSaveTransactionWithCorrectDetails() {
         // Arrange
-        BigDecimal fee = new BigDecimal("5.00");
+        Money fee = Money.of("5.00");
         when(accountRepository.findByUpiId(anyString()))
             .thenReturn(Optional.of(sourceAccount))
             .thenReturn(Optional.of(destinationAccount));
-        when(feeCalculator.calculateFee(any())).thenReturn(fee);
+        when(feeCalculator.calculateFee(any(), any(), any())).thenReturn(fee);
         when(accountRepository.save(any())).thenAnswer(i -> i.getArguments()[0]);
         
         ArgumentCaptor<Transaction> transactionCaptor = ArgumentCaptor.forClass(Transaction.class);
@@ -342,9 +427,9 @@ class TransferServiceTest {
         Transaction savedTransaction = transactionCaptor.getValue();
         assertThat(savedTransaction.getSourceUPI()).isEqualTo("alice@okaxis");
         assertThat(savedTransaction.getDestinationUPI()).isEqualTo("bob@paytm");
-        assertThat(savedTransaction.getAmount()).isEqualTo(new BigDecimal("500"));
+        assertThat(savedTransaction.getAmount()).isEqualTo(Money.of("500"));
         assertThat(savedTransaction.getFee()).isEqualTo(fee);
-        assertThat(savedTransaction.getTotalDebited()).isEqualTo(new BigDecimal("505.00"));
+        assertThat(savedTransaction.getTotalDebited()).isEqualTo(Money.of("505.00"));
         assertThat(savedTransaction.getStatus()).isEqualTo("SUCCESS");
         assertThat(savedTransaction.getRemarks()).isEqualTo("Test transfer");
         assertThat(savedTransaction.getTimestamp()).isNotNull();
@@ -363,7 +448,7 @@ class TransferServiceTest {
         when(accountRepository.findByUpiId(anyString()))
             .thenReturn(Optional.of(sourceAccount))
             .thenReturn(Optional.of(destinationAccount));
-        when(feeCalculator.calculateFee(any())).thenReturn(BigDecimal.ZERO);
+        when(feeCalculator.calculateFee(any(), any(), any())).thenReturn(Money.ZERO);
         when(accountRepository.save(any())).thenAnswer(i -> i.getArguments()[0]);
         when(transactionRepository.save(any())).thenAnswer(i -> i.getArguments()[0]);
         
@@ -372,7 +457,7 @@ class TransferServiceTest {
         
         // Assert
         assertThat(response.getStatus()).isEqualTo("SUCCESS");
-        assertThat(response.getAmount()).isEqualTo(new BigDecimal("1"));
+        assertThat(response.getAmount()).isEqualTo(Money.of("1"));
     }
     
     @Test
@@ -387,7 +472,7 @@ class TransferServiceTest {
         when(accountRepository.findByUpiId(anyString()))
             .thenReturn(Optional.of(sourceAccount))
             .thenReturn(Optional.of(destinationAccount));
-        when(feeCalculator.calculateFee(any())).thenReturn(new BigDecimal("5.00"));
+        when(feeCalculator.calculateFee(any(), any(), any())).thenReturn(Money.of("5.00"));
         when(accountRepository.save(any())).thenAnswer(i -> i.getArguments()[0]);
         when(transactionRepository.save(any())).thenAnswer(i -> i.getArguments()[0]);
         
@@ -396,6 +481,311 @@ class TransferServiceTest {
         
         // Assert
         assertThat(response.getStatus()).isEqualTo("SUCCESS");
-        assertThat(response.getAmount()).isEqualTo(new BigDecimal("100000"));
+        assertThat(response.getAmount()).isEqualTo(Money.of("100000"));
+    }
+    
+    // ========== Pessimistic Locking Tests ==========
+    
+    @Test
+    @DisplayName("Should lock both accounts in one call when pessimistic locking is enabled")
+    void shouldLockBothAccountsInOneCall_WhenPessimisticLocking() {
+        // Arrange
+        transferProperties.getLocking().setMode(LockingMode.PESSIMISTIC);
+        when(accountRepository.findAllByUpiIdInForUpdate(any()))
+            .thenReturn(List.of(sourceAccount, destinationAccount));
+        when(feeCalculator.calculateFee(any(), any(), any())).thenReturn(Money.ZERO);
+        when(accountRepository.save(any())).thenAnswer(i -> i.getArguments()[0]);
+        when(transactionRepository.save(any())).thenAnswer(i -> i.getArguments()[0]);
+        
+        // Act
+        TransferResponse response = transferService.initiateTransfer(request);
+        
+        // Assert
+        assertThat(response.getStatus()).isEqualTo("SUCCESS");
+        assertThat(sourceAccount.getBalance()).isEqualByComparingTo(new BigDecimal("9500"));
+        assertThat(destinationAccount.getBalance()).isEqualByComparingTo(new BigDecimal("5500"));
+        verify(accountRepository).findAllByUpiIdInForUpdate(List.of("alice@okaxis", "bob@paytm"));
+        verify(accountRepository, never()).findByUpiId(any());
+        verify(transferMetrics).recordLockWait(anyLong());
+    }
+    
+    @Test
+    @DisplayName("Should throw exception when locked destination account is missing")
+    void shouldThrowException_WhenLockedDestinationMissing() {
+        // Arrange
+        transferProperties.getLocking().setMode(LockingMode.PESSIMISTIC);
+        when(accountRepository.findAllByUpiIdInForUpdate(any()))
+            .thenReturn(List.of(sourceAccount));
+        
+        // Act & Assert
+        assertThatThrownBy(() -> transferService.initiateTransfer(request))
+            .isInstanceOf(AccountNotFoundException.class)
+            .hasMessageContaining("Destination account not found")
+            .hasMessageContaining("bob@paytm");
+        
+        verify(accountRepository, never()).save(any());
+    }
+    
+    // ========== Stored Function Mode Tests ==========
+    
+    @Test
+    @DisplayName("Should execute transfer with a single stored function call")
+    void shouldTransferWithSingleCall_WhenStoredFunctionMode() {
+        // Arrange
+        transferProperties.getExecution().setMode(ExecutionMode.STORED_FUNCTION);
+        when(feeCalculator.calculateFee(any(), any(), any())).thenReturn(Money.ZERO);
+        when(transferFunctionRepository.transferFunds(anyString(), eq("alice@okaxis"), eq("bob@paytm"),
+                eq(new BigDecimal("500.00")), eq(new BigDecimal("0.00")), eq("Test transfer")))
+            .thenReturn(new TransferFunctionResult(TransferFunctionResult.SUCCESS, null, 42L, LocalDateTime.now()));
+        
+        // Act
+        TransferResponse response = transferService.initiateTransfer(request);
+        
+        // Assert
+        assertThat(response.getStatus()).isEqualTo("SUCCESS");
+        assertThat(response.getTransactionId()).startsWith("TXN-");
+        assertThat(response.getTotalDebited()).isEqualTo(Money.of("500"));
+        assertThat(response.getTimestamp()).isNotNull();
+        verifyNoInteractions(accountRepository, transactionRepository);
+    }
+    
+    @Test
+    @DisplayName("Should map stored function insufficient balance result to exception")
+    void shouldThrowInsufficientBalance_WhenStoredFunctionRejectsDebit() {
+        // Arrange
+        transferProperties.getExecution().setMode(ExecutionMode.STORED_FUNCTION);
+        when(feeCalculator.calculateFee(any(), any(), any())).thenReturn(Money.ZERO);
+        when(transferFunctionRepository.transferFunds(anyString(), anyString(), anyString(), any(), any(), any()))
+            .thenReturn(new TransferFunctionResult(TransferFunctionResult.INSUFFICIENT_BALANCE,
+                new BigDecimal("100.00"), null, null));
+        
+        // Act & Assert
+        assertThatThrownBy(() -> transferService.initiateTransfer(request))
+            .isInstanceOf(InsufficientBalanceException.class)
+            .hasMessageContaining("Available: ₹100.00")
+            .hasMessageContaining("Required: ₹500");
+    }
+    
+    @Test
+    @DisplayName("Should map stored function missing destination result to exception")
+    void shouldThrowAccountNotFound_WhenStoredFunctionMissesDestination() {
+        // Arrange
+        transferProperties.getExecution().setMode(ExecutionMode.STORED_FUNCTION);
+        when(feeCalculator.calculateFee(any(), any(), any())).thenReturn(Money.ZERO);
+        when(transferFunctionRepository.transferFunds(anyString(), anyString(), anyString(), any(), any(), any()))
+            .thenReturn(new TransferFunctionResult(TransferFunctionResult.DESTINATION_NOT_FOUND, null, null, null));
+        
+        // Act & Assert
+        assertThatThrownBy(() -> transferService.initiateTransfer(request))
+            .isInstanceOf(AccountNotFoundException.class)
+            .hasMessageContaining("Destination account not found")
+            .hasMessageContaining("bob@paytm");
+    }
+    
+    // ========== Striped Balance Tests ==========
+    
+    @Test
+    @DisplayName("Should credit hot account via stripe without locking or reading its row")
+    void shouldCreditStripeWithoutLockingDestination_WhenDestinationIsHot() {
+        // Arrange
+        transferProperties.getLocking().setMode(LockingMode.PESSIMISTIC);
+        AccountMetadata hotDestination = new AccountMetadata(2L, "bob@paytm", "ACTIVE", null, null, 8, null);
+        when(stripedBalanceService.isHot("bob@paytm")).thenReturn(true);
+        when(accountMetadataCache.find("bob@paytm")).thenReturn(Optional.of(hotDestination));
+        when(accountRepository.findAllByUpiIdInForUpdate(any())).thenReturn(List.of(sourceAccount));
+        when(feeCalculator.calculateFee(any(), any(), any())).thenReturn(Money.ZERO);
+        when(transactionRepository.save(any())).thenAnswer(i -> i.getArguments()[0]);
+        
+        // Act
+        TransferResponse response = transferService.initiateTransfer(request);
+        
+        // Assert
+        assertThat(response.getStatus()).isEqualTo("SUCCESS");
+        assertThat(sourceAccount.getBalance()).isEqualByComparingTo(new BigDecimal("9500"));
+        verify(accountRepository).findAllByUpiIdInForUpdate(List.of("alice@okaxis"));
+        verify(accountRepository, never()).findByUpiId(any());
+        verify(accountRepository).save(sourceAccount);
+        verify(accountRepository, times(1)).save(any());
+        verify(stripedBalanceService).credit(hotDestination, new BigDecimal("500.00"));
+    }
+    
+    @Test
+    @DisplayName("Should report base plus stripes when striped source cannot cover debit")
+    void shouldThrowInsufficientBalance_WhenStripedSourceCannotCoverDebit() {
+        // Arrange
+        sourceAccount.setBalanceStripes(8);
+        when(accountRepository.findByUpiId("alice@okaxis")).thenReturn(Optional.of(sourceAccount));
+        when(accountRepository.findByUpiId("bob@paytm")).thenReturn(Optional.of(destinationAccount));
+        when(feeCalculator.calculateFee(any(), any(), any())).thenReturn(Money.ZERO);
+        when(stripedBalanceService.debit(sourceAccount, new BigDecimal("500.00"))).thenReturn(false);
+        when(stripedBalanceService.totalBalance(sourceAccount)).thenReturn(new BigDecimal("300.00"));
+        
+        // Act & Assert
+        assertThatThrownBy(() -> transferService.initiateTransfer(request))
+            .isInstanceOf(InsufficientBalanceException.class)
+            .hasMessageContaining("Available: ₹300.00");
+        verify(transactionRepository, never()).save(any());
+    }
+    
+    @Test
+    @DisplayName("Should sum stripes into balance of striped account")
+    void shouldSumStripes_WhenCheckingStripedBalance() {
+        // Arrange
+        destinationAccount.setBalanceStripes(8);
+        when(accountRepository.findByUpiId("bob@paytm")).thenReturn(Optional.of(destinationAccount));
+        when(stripedBalanceService.totalBalance(destinationAccount)).thenReturn(new BigDecimal("7250.00"));
+        
+        // Act & Assert
+        assertThat(transferService.checkBalance("bob@paytm")).isEqualTo(new BigDecimal("7250.00"));
+    }
+    
+    // ========== Ledger Mode Tests ==========
+    
+    @Test
+    @DisplayName("Should execute transfer through the ledger without touching the database")
+    void shouldTransferThroughLedger_WhenLedgerMode() {
+        // Arrange
+        transferProperties.getExecution().setMode(ExecutionMode.LEDGER);
+        when(feeCalculator.calculateFee(any(), any(), any())).thenReturn(Money.ZERO);
+        
+        // Act
+        TransferResponse response = transferService.initiateTransfer(request);
+        
+        // Assert
+        assertThat(response.getStatus()).isEqualTo("SUCCESS");
+        assertThat(response.getTransactionId()).startsWith("TXN-");
+        verify(ledgerEngine).transfer(eq(response.getTransactionId()), eq("alice@okaxis"), eq("bob@paytm"),
+            eq(new BigDecimal("500.00")), eq(new BigDecimal("0.00")), eq("Test transfer"), eq(response.getTimestamp()));
+        verifyNoInteractions(accountRepository, transactionRepository);
+    }
+    
+    @Test
+    @DisplayName("Should map ledger insufficient balance rejection to exception")
+    void shouldThrowInsufficientBalance_WhenLedgerRejectsDebit() {
+        // Arrange
+        transferProperties.getExecution().setMode(ExecutionMode.LEDGER);
+        when(feeCalculator.calculateFee(any(), any(), any())).thenReturn(Money.ZERO);
+        doThrow(new LedgerRejectedException(LedgerRejectedException.Reason.INSUFFICIENT_BALANCE,
+                new BigDecimal("100.00")))
+            .when(ledgerEngine).transfer(anyString(), anyString(), anyString(), any(), any(), any(), any());
+        
+        // Act & Assert
+        assertThatThrownBy(() -> transferService.initiateTransfer(request))
+            .isInstanceOf(InsufficientBalanceException.class)
+            .hasMessageContaining("Available: ₹100.00")
+            .hasMessageContaining("Required: ₹500");
+    }
+    
+    // ========== Group Commit Mode Tests ==========
+    
+    @Test
+    @DisplayName("Should hand the transfer to group commit and answer with the saved transaction")
+    void shouldTransferThroughGroupCommit_WhenGroupCommitMode() {
+        // Arrange
+        transferProperties.getExecution().setMode(ExecutionMode.GROUP_COMMIT);
+        when(feeCalculator.calculateFee(any(), any(), any())).thenReturn(Money.of("5"));
+        when(groupCommitService.commit(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // Act
+        TransferResponse response = transferService.initiateTransfer(request);
+        
+        // Assert
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+        verify(groupCommitService).commit(captor.capture());
+        assertThat(captor.getValue().getTotalDebited()).isEqualTo(Money.of("505"));
+        assertThat(response.getTransactionId()).isEqualTo(captor.getValue().getTransactionId());
+        assertThat(response.getStatus()).isEqualTo("SUCCESS");
+        verifyNoInteractions(accountRepository, transactionRepository);
+    }
+    
+    // ========== Async Mode Tests ==========
+    
+    @Test
+    @DisplayName("Should only record the transfer as PENDING when async mode is on")
+    void shouldSavePendingTransaction_WhenAsyncMode() {
+        // Arrange
+        transferProperties.getExecution().setMode(ExecutionMode.ASYNC);
+        when(feeCalculator.calculateFee(any(), any(), any())).thenReturn(Money.of("5"));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // Act
+        TransferResponse response = transferService.initiateTransfer(request);
+        
+        // Assert
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+        verify(transactionRepository).save(captor.capture());
+        assertThat(captor.getValue().getStatus()).isEqualTo("PENDING");
+        assertThat(captor.getValue().getTotalDebited()).isEqualTo(Money.of("505"));
+        assertThat(response.getStatus()).isEqualTo("PENDING");
+        assertThat(response.getTransactionId()).isEqualTo(captor.getValue().getTransactionId());
+        verifyNoInteractions(accountRepository);
+    }
+    
+    @Test
+    @DisplayName("Should throw TransactionNotFoundException when transaction does not exist")
+    void shouldThrowTransactionNotFound_WhenTransactionMissing() {
+        // Arrange
+        when(transactionRepository.findByTransactionId("TXN-UNKNOWN")).thenReturn(Optional.empty());
+        
+        // Act & Assert
+        assertThatThrownBy(() -> transferService.getTransfer("TXN-UNKNOWN"))
+            .isInstanceOf(TransactionNotFoundException.class)
+            .hasMessage("Transaction not found: TXN-UNKNOWN");
+    }
+    
+    @Test
+    @DisplayName("Should read a terminal transaction from the database only once")
+    void shouldCacheTerminalTransaction() {
+        // Arrange
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId("TXN-UNPARTITIONED-1");
+        transaction.setStatus("SUCCESS");
+        when(transactionRepository.findByTransactionId("TXN-UNPARTITIONED-1")).thenReturn(Optional.of(transaction));
+        
+        // Act
+        transferService.getTransfer("TXN-UNPARTITIONED-1");
+        TransferResponse polledAgain = transferService.getTransfer("TXN-UNPARTITIONED-1");
+        
+        // Assert
+        assertThat(polledAgain.getStatus()).isEqualTo("SUCCESS");
+        verify(transactionRepository, times(1)).findByTransactionId("TXN-UNPARTITIONED-1");
+    }
+    
+    @Test
+    @DisplayName("Should look a transaction up around the day in its ID when transactions is partitioned")
+    void shouldLimitStatusLookupToIdDay_WhenPartitioned() {
+        // Arrange
+        transferProperties.getPartitioning().setEnabled(true);
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId("TXN-20241220-0B2RZ5M0C4001");
+        when(transactionRepository.findByTransactionIdAndTimestampBetween("TXN-20241220-0B2RZ5M0C4001",
+                LocalDateTime.of(2024, 12, 19, 0, 0), LocalDateTime.of(2024, 12, 22, 0, 0)))
+            .thenReturn(Optional.of(transaction));
+        
+        // Act
+        Transaction found = transferService.getTransactionStatus("TXN-20241220-0B2RZ5M0C4001");
+        
+        // Assert
+        assertThat(found).isSameAs(transaction);
+        verify(transactionRepository, never()).findByTransactionId(any());
+    }
+    
+    @Test
+    @DisplayName("Should ask the primary for a transaction the replica has not replicated yet")
+    void shouldRetryStatusLookupOnPrimary_WhenMissingOnReplica() {
+        // Arrange
+        transferProperties.getReplicas().setEnabled(true);
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId("TXN-JUST-ACCEPTED");
+        when(transactionRepository.findByTransactionId("TXN-JUST-ACCEPTED"))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(transaction));
+        
+        // Act
+        Transaction found = transferService.getTransactionStatus("TXN-JUST-ACCEPTED");
+        
+        // Assert
+        assertThat(found).isSameAs(transaction);
+        verify(transactionRepository, times(2)).findByTransactionId("TXN-JUST-ACCEPTED");
     }
 }
@@ -0,0 +1,125 @@
+package com.npci.transfer.upi;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.SplittableRandom;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * UPI ID Tests
+ */
+@DisplayName("UPI ID Tests")
+class UpiIdTest {
+    
+    /**
+     * The @Pattern regex TransferRequest used before @ValidUpiId.
+     */
+    private static final Pattern REGEX = Pattern.compile("^[a-zA-Z0-9.\\-_]+@[a-zA-Z]+$");
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"alice@okaxis", "a@b", "Bob.Smith-99_x@PayTM", "9876543210@ybl", "...@ybl"})
+    @DisplayName("Should accept what the regex accepts")
+    void shouldAcceptValid(String value) {
+        assertThat(REGEX.matcher(value).matches()).isTrue();
+        assertThat(UpiId.isValid(value)).isTrue();
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"", "alice", "alice okaxis", "alice@", "@okaxis", "alice@@okaxis", "a@b@c",
+        "alice@ok1", "alice@ok.axis", "al ice@okaxis", "alice@okaxis ", "alice@okaxis\n", "àlice@okaxis",
+        "alice@ökaxis", "alice+1@okaxis"})
+    @DisplayName("Should reject what the regex rejects")
+    void shouldRejectInvalid(String value) {
+        assertThat(REGEX.matcher(value).matches()).isFalse();
+        assertThat(UpiId.isValid(value)).isFalse();
+        assertThatThrownBy(() -> UpiId.parse(value))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Invalid UPI ID format");
+    }
+    
+    @Test
+    @DisplayName("Should agree with the regex on random strings")
+    void shouldAgreeWithRegex() {
+        // Arrange - mostly characters either side may hold, some that neither may
+        String alphabet = "aZ09.-_@@ #é";
+        SplittableRandom random = new SplittableRandom(7);
+        
+        for (int n = 0; n < 100_000; n++) {
+            char[] chars = new char[random.nextInt(0, 8)];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+            }
+            String value = new String(chars);
+            
+            // Act & Assert
+            assertThat(UpiId.isValid(value)).as(value).isEqualTo(REGEX.matcher(value).matches());
+        }
+    }
+    
+    @Test
+    @DisplayName("Should split into local part and interned handle")
+    void shouldSplit() {
+        // Act
+        UpiId upiId = UpiId.parse("alice.99@OkAxis");
+        
+        // Assert
+        assertThat(upiId.localPart()).isEqualTo("alice.99");
+        assertThat(upiId.handle().name()).isEqualTo("okaxis");
+        assertThat(upiId.handle()).isSameAs(UpiHandle.of("bob@okaxis"));
+        assertThat(upiId).isEqualTo(UpiId.parse("alice.99@OkAxis")).hasToString("alice.99@OkAxis");
+    }
+    
+    @Test
+    @DisplayName("Should intern handles once, ignoring case and a leading '@'")
+    void shouldInternHandles() {
+        UpiHandle ybl = UpiHandle.of("carol@ybl");
+        
+        assertThat(ybl.id()).isPositive();
+        assertThat(UpiHandle.of("dave@YBL")).isSameAs(ybl);
+        assertThat(UpiHandle.intern("@ybl")).isSameAs(ybl);
+        assertThat(UpiHandle.intern("Ybl")).isSameAs(ybl);
+        assertThat(UpiHandle.maxId()).isGreaterThanOrEqualTo(ybl.id());
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"", "carol", "carol@", "carol@ybl1", "@ybl"})
+    @DisplayName("Should give OTHER for a UPI ID that is not valid")
+    void shouldNotInternInvalid(String value) {
+        assertThat(UpiHandle.of(value)).isSameAs(UpiHandle.OTHER);
+        assertThat(UpiHandle.of(null)).isSameAs(UpiHandle.OTHER);
+        assertThat(UpiHandle.OTHER.id()).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should read and write JSON as a plain string")
+    void shouldRoundTripJson() throws Exception {
+        // Act
+        UpiId upiId = objectMapper.readValue("\"alice@okaxis\"", UpiId.class);
+        
+        // Assert
+        assertThat(upiId).isEqualTo(UpiId.parse("alice@okaxis"));
+        assertThat(objectMapper.writeValueAsString(upiId)).isEqualTo("\"alice@okaxis\"");
+        assertThatThrownBy(() -> objectMapper.readValue("\"alice@\"", UpiId.class))
+            .isInstanceOf(InvalidFormatException.class);
+    }
+    
+    @Test
+    @DisplayName("Should validate @ValidUpiId, leaving null to @NotBlank")
+    void shouldValidateConstraint() {
+        UpiIdValidator validator = new UpiIdValidator();
+        
+        assertThat(validator.isValid("alice@okaxis", null)).isTrue();
+        assertThat(validator.isValid(null, null)).isTrue();
+        assertThat(validator.isValid("", null)).isFalse();
+        assertThat(validator.isValid("alice okaxis", null)).isFalse();
+    }
+}